@@ -277,6 +277,7 @@ const detailedStatNames = {
   conditionalBranches: 'Conditional Branches',
   takenBranches: 'Taken Branches',
   maxAllocatedRegisters: 'Max Allocated Registers',
+  fastForwardedInstructions: 'Fast-Forwarded Instructions',
   arithmeticIntensity: 'Arithmetic Intensity',
   flops: 'FLOPS',
   ipc: 'IPC',
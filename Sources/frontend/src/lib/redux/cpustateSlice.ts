@@ -344,13 +344,22 @@ export const selectMemory = (state: RootState) =>
   state.cpu.state?.simulatedMemory;
 
 /**
- * Parse the base64 string from the API into a Uint8Array.
+ * Assemble the base64 encoded pages from the API into a Uint8Array.
+ * Pages that are not present are zero.
  */
 export const selectMemoryBytes = createSelector([selectMemory], (memory) => {
   if (!memory) {
     return null;
   }
-  const arr = Base64.toUint8Array(memory.memoryBase64 ?? '');
+  const arr = new Uint8Array(memory.size);
+  for (const [index, page] of Object.entries(memory.pages ?? {})) {
+    const offset = Number(index) * memory.pageSize;
+    if (offset >= arr.length) {
+      continue;
+    }
+    const bytes = Base64.toUint8Array(page);
+    arr.set(bytes.subarray(0, arr.length - offset), offset);
+  }
   return arr;
 });
 
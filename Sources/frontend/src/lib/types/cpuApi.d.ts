@@ -94,6 +94,7 @@ export type SimulationStatistics = {
   mainMemoryLoadedBytes: number;
   mainMemoryStoredBytes: number;
   maxAllocatedRegisters: number;
+  fastForwardedInstructions: number;
   arithmeticIntensity: number;
   predictionAccuracy: number;
   flops: number;
@@ -176,7 +177,8 @@ export interface CacheLineModel {
 export type ReplacementPolicyModel = object;
 
 export interface SimulatedMemory {
-  memoryBase64: string; // base64 encoded
+  pages: Record<string, string>; // page index -> base64 encoded page
+  pageSize: number;
   size: number;
   storeLatency: number;
   loadLatency: number;
@@ -214,12 +214,35 @@ export interface SimulateEndpoint {
 export interface SimulateRequest {
   tick: number | null;
   config: SimulationConfig;
+  /**
+   * The client applies delta responses. The server keeps the sent state as the base for the next request.
+   */
+  delta?: boolean;
+  /**
+   * Tick of the state the client holds for the same configuration. Used only with delta.
+   */
+  baseTick?: number | null;
 }
 
+/**
+ * One operation of a JSON Patch (RFC 6902)
+ */
+export interface JsonPatchOperation {
+  op: 'add' | 'remove' | 'replace';
+  path: string;
+  value?: unknown;
+}
+
+/**
+ * In a delta response (baseTick present), state is null and stateDelta holds the changes against the base state.
+ */
 export interface SimulateResponse {
   executedSteps: number;
-  state: CpuState;
+  state: CpuState | null;
   stopReason: StopReason;
+  configHash?: string;
+  baseTick?: number;
+  stateDelta?: JsonPatchOperation[];
 }
 
 //
@@ -0,0 +1,105 @@
+/**
+ * @file StateSerializationBenchmark.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Benchmark for serializing the CPU state, reflective and hand-written serializers
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.serialization.Serialization;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+public class StateSerializationBenchmark
+{
+  private Cpu cpu;
+  
+  private ObjectWriter reflectiveWriter;
+  
+  private ObjectWriter streamingWriter;
+  
+  public static void main(String[] args) throws Exception
+  {
+    org.openjdk.jmh.Main.main(args);
+  }
+  
+  @Setup
+  public void setup()
+  {
+    // State in the middle of a load/store loop with the cache on, all the hot types are present
+    String code = """
+            addi x8, sp, -64
+            addi x3, x0, 16
+            loop:
+              beq x3, x0, end
+              subi x3, x3, 1
+              slli x4, x3, 2
+              add x5, x8, x4
+              sw x3, 0(x5)
+              lw x6, 0(x5)
+              fcvt.s.w f2, x6
+              fadd.s f1, f1, f2
+              jal x0, loop
+            end:
+            """;
+    
+    SimulationConfig config = SimulationConfig.getDefaultConfiguration();
+    config.code               = code;
+    config.cpuConfig.useCache = true;
+    cpu                       = new Cpu(config);
+    cpu.simulateState(40);
+    reflectiveWriter = Serialization.createReflectiveMapper().writer()
+            .without(SerializationFeature.INDENT_OUTPUT);
+    streamingWriter  = Serialization.getSerializer().writer().without(SerializationFeature.INDENT_OUTPUT);
+  }
+  
+  @Fork(value = 1)
+  @Warmup(iterations = 3, time = 1)
+  @Measurement(iterations = 5, time = 1)
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public byte[] reflective() throws Exception
+  {
+    return reflectiveWriter.writeValueAsBytes(cpu.cpuState);
+  }
+  
+  @Fork(value = 1)
+  @Warmup(iterations = 3, time = 1)
+  @Measurement(iterations = 5, time = 1)
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public byte[] streaming() throws Exception
+  {
+    return streamingWriter.writeValueAsBytes(cpu.cpuState);
+  }
+}
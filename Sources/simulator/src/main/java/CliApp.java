@@ -28,22 +28,27 @@
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.cpu.Cpu;
 import com.gradle.superscalarsim.cpu.CpuConfig;
 import com.gradle.superscalarsim.cpu.MemoryLocation;
 import com.gradle.superscalarsim.cpu.SimulationConfig;
 import com.gradle.superscalarsim.serialization.Serialization;
 import com.gradle.superscalarsim.server.ServerException;
+import com.gradle.superscalarsim.server.compileAndSimulate.CompileAndSimulateHandler;
+import com.gradle.superscalarsim.server.compileAndSimulate.CompileAndSimulateRequest;
+import com.gradle.superscalarsim.server.compileAndSimulate.CompileAndSimulateResponse;
 import com.gradle.superscalarsim.server.simulate.SimulateHandler;
 import com.gradle.superscalarsim.server.simulate.SimulateRequest;
 import com.gradle.superscalarsim.server.simulate.SimulateResponse;
 import picocli.CommandLine.*;
 import picocli.CommandLine.Model.CommandSpec;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
@@ -62,10 +67,18 @@ class CliApp implements Callable<Integer>
    * Exposed for testing purposes.
    */
   public SimulateResponse response;
+  /**
+   * Response of a C program run. Exposed for testing purposes.
+   */
+  public CompileAndSimulateResponse compileResponse;
   @Spec
   CommandSpec spec; // injected by picocli
   @Option(names = "--entry", paramLabel = "LABEL|ADDRESS", description = "Entry point for the program. Any label or address in the program can be used. (default: 0)")
   String entryPoint = "0";
+  @Option(names = "--fast-forward", paramLabel = "LABEL|ADDRESS", description = "Execute the program functionally until this label or address, then switch to the detailed simulation. Warms up the cache and the branch predictors.")
+  String fastForwardTo;
+  @Option(names = "--fast-forward-instructions", paramLabel = "N", description = "Execute at most N instructions functionally before switching to the detailed simulation. (default: 10000000 with --fast-forward, no fast-forward otherwise)")
+  long fastForwardInstructions = 0;
   @Option(names = "--pretty", description = "Pretty print the JSON output.")
   boolean prettyPrint = false;
   @Option(names = "--full-state", description = "Output the full state of the CPU. By default, only the statistics, debug prints and register values are output.")
@@ -74,8 +87,18 @@ class CliApp implements Callable<Integer>
   Path cpuConfigPath;
   @Option(names = "--program", required = true, paramLabel = "FILE", description = "RISC-V assembly program for the CPU to execute.")
   Path programPath;
+  @Option(names = "--c", description = "The program is C code. It is compiled, parsed and simulated in one go, and the output includes the time of each stage.")
+  boolean cProgram = false;
+  @Option(names = "--optimize", paramLabel = "FLAG", split = ",", description = "Optimization flags for the C compilation, e.g. O2. Only with --c.")
+  List<String> optimizeFlags = new ArrayList<>();
   @Option(names = "--memory", paramLabel = "FILE", description = "Memory configuration file. 1 or more global arrays to load into memory. Optional (default: empty memory)")
   Path memoryConfigPath;
+  @Option(names = "--tick", paramLabel = "N", description = "Stop the simulation at this cycle instead of running the program to the end.")
+  Integer tick;
+  @Option(names = "--save-state", paramLabel = "FILE", description = "Save the state at the end of the run to a binary snapshot, to be resumed with --load-state.")
+  Path saveStatePath;
+  @Option(names = "--load-state", paramLabel = "FILE", description = "Resume the simulation from a snapshot saved with --save-state. The CPU configuration, program, memory and entry options must be the ones the snapshot was saved with.")
+  Path loadStatePath;
   @ParentCommand
   private App parent;
   
@@ -100,24 +123,35 @@ class CliApp implements Callable<Integer>
       throw new RuntimeException(e);
     }
     
-    // Parse entry point
-    Object entryPointObject = entryPoint;
-    try
+    if (cProgram)
     {
-      entryPointObject = Integer.parseInt(entryPoint);
+      return runCProgram(program, cpuConfig, memoryConfig);
     }
-    catch (NumberFormatException ignored)
+    
+    // Reuse the same logic as in the server, to avoid code duplication
+    SimulationConfig simulationConfig = new SimulationConfig(program, memoryConfig, cpuConfig,
+                                                             SimulationConfig.parseCodeAddress(entryPoint));
+    if (fastForwardTo != null)
     {
-      // Not an integer, use as a label
+      simulationConfig.fastForwardTo = fastForwardTo;
     }
+    simulationConfig.fastForwardInstructions = fastForwardInstructions;
     
-    // Reuse the same logic as in the server, to avoid code duplication
-    SimulationConfig simulationConfig = new SimulationConfig(program, memoryConfig, cpuConfig, entryPointObject);
-    SimulateRequest  request          = new SimulateRequest(simulationConfig, Optional.empty());
-    SimulateHandler  handler          = new SimulateHandler();
+    SimulateRequest request = new SimulateRequest(simulationConfig, Optional.ofNullable(tick));
+    SimulateHandler handler = new SimulateHandler();
+    Cpu             cpu     = null;
     try
     {
-      response = handler.resolve(request);
+      if (loadStatePath != null)
+      {
+        cpu      = loadState(simulationConfig);
+        response = SimulateHandler.runSimulation(cpu, Optional.ofNullable(tick));
+      }
+      else
+      {
+        response = handler.resolve(request);
+        cpu      = response.getCpu();
+      }
     }
     catch (ServerException e)
     {
@@ -126,6 +160,11 @@ class CliApp implements Callable<Integer>
       logger.severe("Error: " + e.getError().message());
     }
     
+    if (saveStatePath != null && cpu != null)
+    {
+      saveState(cpu);
+    }
+    
     Object resultObject = response;
     if (!fullState)
     {
@@ -157,6 +196,58 @@ class CliApp implements Callable<Integer>
     return 0;
   }
   
+  /**
+   * The state is output in full only with --full-state. A failed compilation or parsing outputs the errors.
+   *
+   * @param program      C code
+   * @param cpuConfig    CPU configuration
+   * @param memoryConfig Memory locations
+   *
+   * @return Exit code, 1 if the program could not be simulated
+   * @brief Compile, parse and simulate a C program
+   */
+  private int runCProgram(String program, CpuConfig cpuConfig, List<MemoryLocation> memoryConfig)
+  {
+    CompileAndSimulateRequest request = new CompileAndSimulateRequest(program, optimizeFlags, cpuConfig,
+                                                                      memoryConfig,
+                                                                      SimulationConfig.parseCodeAddress(entryPoint),
+                                                                      Optional.ofNullable(tick));
+    try
+    {
+      compileResponse = new CompileAndSimulateHandler().resolve(request);
+    }
+    catch (ServerException e)
+    {
+      logger.severe("Error: " + e.getError().message());
+      return 1;
+    }
+    
+    if (saveStatePath != null && compileResponse.success())
+    {
+      saveState(compileResponse.getCpu());
+    }
+    
+    ObjectMapper serializer   = prettyPrint ? Serialization.enablePrettySerializer() : Serialization.getSerializer();
+    Object       resultObject = compileResponse;
+    if (!fullState && compileResponse.success())
+    {
+      ObjectNode shortResult = serializer.valueToTree(compileResponse.toShortResponse());
+      shortResult.put("status", compileResponse.status);
+      shortResult.set("timings", serializer.valueToTree(compileResponse.timings));
+      resultObject = shortResult;
+    }
+    try
+    {
+      spec.commandLine().getOut().println(serializer.writeValueAsString(resultObject));
+    }
+    catch (JsonProcessingException e)
+    {
+      logger.severe("Error: " + e.getMessage());
+      throw new RuntimeException(e);
+    }
+    return compileResponse.success() ? 0 : 1;
+  }
+  
   /**
    * Throwing a ParameterException causes the message to be printed to the console, and
    * the program to exit with a non-zero exit code.
@@ -173,6 +264,72 @@ class CliApp implements Callable<Integer>
     {
       isValidPath(memoryConfigPath);
     }
+    
+    if (loadStatePath != null)
+    {
+      isValidPath(loadStatePath);
+    }
+    
+    if (tick != null && tick < 0)
+    {
+      throw new ParameterException(spec.commandLine(), "Tick must be a non-negative number");
+    }
+    
+    if (cProgram && loadStatePath != null)
+    {
+      throw new ParameterException(spec.commandLine(), "A C program cannot be resumed from a state, use the assembly");
+    }
+    
+    if (!cProgram && !optimizeFlags.isEmpty())
+    {
+      throw new ParameterException(spec.commandLine(), "Optimization flags can only be used with --c");
+    }
+  }
+  
+  /**
+   * The snapshot contains the configuration it was saved with. It must match the one from the command line,
+   * otherwise the simulation would continue with a different program or CPU than the output claims.
+   *
+   * @param simulationConfig Configuration from the command line
+   *
+   * @brief Load the simulation from the snapshot file.
+   */
+  private Cpu loadState(SimulationConfig simulationConfig)
+  {
+    Cpu cpu;
+    try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(loadStatePath)))
+    {
+      cpu = Cpu.loadState(inputStream);
+    }
+    catch (IOException e)
+    {
+      throw new ParameterException(spec.commandLine(),
+                                   "Cannot load state from " + loadStatePath + ": " + e.getMessage());
+    }
+    if (!cpu.configuration.hash().equals(simulationConfig.hash()))
+    {
+      throw new ParameterException(spec.commandLine(), "The state in " + loadStatePath +
+              " was saved with a different configuration or program");
+    }
+    return cpu;
+  }
+  
+  /**
+   * @param cpu Simulation to save
+   *
+   * @brief Save the simulation to the snapshot file.
+   */
+  private void saveState(Cpu cpu)
+  {
+    try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(saveStatePath)))
+    {
+      cpu.saveState(outputStream);
+    }
+    catch (IOException e)
+    {
+      logger.severe("Error: " + e.getMessage());
+      throw new RuntimeException(e);
+    }
   }
   
   /**
@@ -25,6 +25,7 @@
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import com.gradle.superscalarsim.compiler.CompileCache;
 import com.gradle.superscalarsim.compiler.GccCaller;
 import com.gradle.superscalarsim.loader.ConfigLoader;
 import com.gradle.superscalarsim.server.Server;
@@ -33,6 +34,7 @@ import picocli.CommandLine.Option;
 import picocli.CommandLine.ParentCommand;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.concurrent.Callable;
 
 @Command(name = "server", description = "Launch HTTP simulation server")
@@ -46,6 +48,14 @@ class ServerApp implements Callable<Integer>
   int timeout_ms;
   @Option(names = "--gcc-path", paramLabel = "PATH", description = "Path to the GCC compiler")
   String gccPath;
+  @Option(names = "--compile-workers", paramLabel = "NUMBER", description = "Maximum number of GCC processes running at the same time (default: half of the cores)")
+  Integer compileWorkers;
+  @Option(names = "--compile-timeout-ms", paramLabel = "NUMBER", defaultValue = "10000", description = "GCC is killed after this many milliseconds (default: ${DEFAULT-VALUE})")
+  long compileTimeoutMs;
+  @Option(names = "--compile-cache-size", paramLabel = "NUMBER", defaultValue = "256", description = "Number of compiled programs kept in memory, 0 to disable (default: ${DEFAULT-VALUE})")
+  int compileCacheSize;
+  @Option(names = "--compile-cache-dir", paramLabel = "DIR", description = "Directory to keep the compiled programs in across restarts (default: memory only)")
+  Path compileCacheDir;
   @ParentCommand
   private App parent;
   
@@ -57,6 +67,12 @@ class ServerApp implements Callable<Integer>
     {
       GccCaller.setCompilerPath(gccPath);
     }
+    if (compileWorkers != null)
+    {
+      GccCaller.setWorkerCount(compileWorkers);
+    }
+    GccCaller.setTimeoutMs(compileTimeoutMs);
+    GccCaller.setCache(new CompileCache(compileCacheSize, compileCacheDir));
     
     // Handle the server timeout parameter
     Integer timeout_ms = ConfigLoader.serverTimeoutMs;
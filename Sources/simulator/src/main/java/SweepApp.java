@@ -0,0 +1,292 @@
+/**
+ * @file SweepApp.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief CLI for design-space sweeps
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2024 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.cpu.MemoryLocation;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.sweep.DesignSpaceSweep;
+import com.gradle.superscalarsim.sweep.SweepResult;
+import picocli.CommandLine.*;
+import picocli.CommandLine.Model.CommandSpec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Command(name = "sweep", description = "Run a program against many variants of a CPU configuration in parallel")
+class SweepApp implements Callable<Integer>
+{
+  /**
+   * Logger for this class.
+   */
+  Logger logger = MyLogger.initializeLogger("Sweep", Level.INFO);
+  
+  @Spec
+  CommandSpec spec; // injected by picocli
+  @Option(names = "--entry", paramLabel = "LABEL|ADDRESS", description = "Entry point for the program. Any label or address in the program can be used. (default: 0)")
+  String entryPoint = "0";
+  @Option(names = "--cpu", required = true, paramLabel = "FILE", description = "Base CPU configuration file. The variants override its fields.")
+  Path cpuConfigPath;
+  @Option(names = "--program", required = true, paramLabel = "FILE", description = "RISC-V assembly program for the CPU to execute.")
+  Path programPath;
+  @Option(names = "--memory", paramLabel = "FILE", description = "Memory configuration file. 1 or more global arrays to load into memory. Optional (default: empty memory)")
+  Path memoryConfigPath;
+  @Option(names = "--grid", required = true, paramLabel = "FILE", description = "JSON file with the variants. Either an object mapping CPU configuration fields to lists of values (all combinations are run), or an array of objects with the fields to override.")
+  Path gridPath;
+  @Option(names = "--format", paramLabel = "jsonl|csv", description = "Output format, one line per finished run. (default: jsonl)")
+  String format = "jsonl";
+  @Option(names = "--threads", paramLabel = "N", description = "Maximum number of concurrent runs. (default: number of cores)")
+  int threads = 0;
+  
+  @Override
+  public Integer call()
+  {
+    if (!format.equals("jsonl") && !format.equals("csv"))
+    {
+      throw new ParameterException(spec.commandLine(), "Unknown format: " + format);
+    }
+    for (Path path : new Path[]{cpuConfigPath, programPath, gridPath, memoryConfigPath})
+    {
+      if (path != null && !Files.isRegularFile(path))
+      {
+        throw new ParameterException(spec.commandLine(), "File does not exist: " + path);
+      }
+    }
+    
+    SimulationConfig          baseConfig;
+    List<Map<String, Object>> variants;
+    try
+    {
+      baseConfig = new SimulationConfig(Files.readString(programPath), loadMemoryConfig(), loadCpuConfig(),
+                                        parseCodeAddress(entryPoint));
+      variants   = loadVariants();
+    }
+    catch (IOException e)
+    {
+      logger.severe("Error: " + e.getMessage());
+      throw new RuntimeException(e);
+    }
+    
+    DesignSpaceSweep sweep;
+    try
+    {
+      sweep = new DesignSpaceSweep(baseConfig, variants, threads);
+    }
+    catch (IllegalArgumentException e)
+    {
+      throw new ParameterException(spec.commandLine(), e.getMessage());
+    }
+    
+    // Parameter columns for CSV, in the order of first appearance
+    List<String> parameterNames = new ArrayList<>(
+            variants.stream().flatMap(v -> v.keySet().stream()).collect(LinkedHashSet::new, Set::add, Set::addAll));
+    PrintWriter  out            = spec.commandLine().getOut();
+    ObjectWriter writer         = Serialization.getSerializer().writer().without(SerializationFeature.INDENT_OUTPUT);
+    if (format.equals("csv"))
+    {
+      List<Object> header = new ArrayList<>();
+      header.add("index");
+      header.addAll(parameterNames);
+      header.addAll(SweepResult.METRIC_NAMES);
+      out.println(toCsvLine(header, writer));
+      out.flush();
+    }
+    
+    try
+    {
+      sweep.run(result -> {
+        if (format.equals("csv"))
+        {
+          List<Object> row = new ArrayList<>();
+          row.add(result.index());
+          parameterNames.forEach(name -> row.add(result.parameters().get(name)));
+          row.addAll(result.metrics());
+          out.println(toCsvLine(row, writer));
+        }
+        else
+        {
+          out.println(toJson(result, writer));
+        }
+        out.flush();
+      });
+    }
+    catch (IllegalArgumentException e)
+    {
+      logger.severe("Error: " + e.getMessage());
+      return 1;
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      return 1;
+    }
+    return 0;
+  }
+  
+  /**
+   * @param value Label or address from the command line
+   *
+   * @return Integer if the value is a number, the label string otherwise
+   */
+  private static Object parseCodeAddress(String value)
+  {
+    try
+    {
+      return Integer.parseInt(value);
+    }
+    catch (NumberFormatException ignored)
+    {
+      // Not an integer, use as a label
+      return value;
+    }
+  }
+  
+  /**
+   * @param value  Value to write
+   * @param writer JSON writer for structured values
+   *
+   * @return The value as JSON
+   */
+  private static String toJson(Object value, ObjectWriter writer)
+  {
+    try
+    {
+      return writer.writeValueAsString(value);
+    }
+    catch (JsonProcessingException e)
+    {
+      throw new RuntimeException(e);
+    }
+  }
+  
+  /**
+   * Null values are empty cells, structured values are written as JSON. Cells with separators or quotes are quoted.
+   *
+   * @param values Cells of the line
+   * @param writer JSON writer for structured values
+   *
+   * @return One CSV line
+   */
+  private static String toCsvLine(List<Object> values, ObjectWriter writer)
+  {
+    StringJoiner line = new StringJoiner(",");
+    for (Object value : values)
+    {
+      String cell;
+      if (value == null)
+      {
+        cell = "";
+      }
+      else if (value instanceof Collection<?> || value instanceof Map<?, ?>)
+      {
+        cell = toJson(value, writer);
+      }
+      else
+      {
+        cell = value.toString();
+      }
+      if (cell.contains(",") || cell.contains("\"") || cell.contains("\n"))
+      {
+        cell = "\"" + cell.replace("\"", "\"\"") + "\"";
+      }
+      line.add(cell);
+    }
+    return line.toString();
+  }
+  
+  /**
+   * @brief Load the base CPU configuration from a file.
+   */
+  private CpuConfig loadCpuConfig() throws IOException
+  {
+    try (InputStream inputStream = Files.newInputStream(cpuConfigPath))
+    {
+      return Serialization.getDeserializer().readValue(inputStream, CpuConfig.class);
+    }
+  }
+  
+  /**
+   * If no path is provided, the memory is empty.
+   *
+   * @brief Load the memory configuration from a file.
+   */
+  private List<MemoryLocation> loadMemoryConfig() throws IOException
+  {
+    if (memoryConfigPath == null)
+    {
+      return List.of();
+    }
+    try (InputStream inputStream = Files.newInputStream(memoryConfigPath))
+    {
+      return Serialization.getDeserializer().readValue(inputStream, new TypeReference<>()
+      {
+      });
+    }
+  }
+  
+  /**
+   * @brief Load the variants from the grid file. An object is expanded to all combinations, an array is used as is.
+   */
+  private List<Map<String, Object>> loadVariants() throws IOException
+  {
+    ObjectMapper deserializer = Serialization.getDeserializer();
+    JsonNode     root         = deserializer.readTree(gridPath.toFile());
+    if (root.isArray())
+    {
+      return deserializer.convertValue(root, new TypeReference<>()
+      {
+      });
+    }
+    if (!root.isObject())
+    {
+      throw new ParameterException(spec.commandLine(), "Grid must be a JSON object or array: " + gridPath);
+    }
+    Map<String, List<Object>> grid = new LinkedHashMap<>();
+    root.fields().forEachRemaining(field -> {
+      JsonNode values = field.getValue().isArray() ? field.getValue() : deserializer.createArrayNode()
+              .add(field.getValue());
+      grid.put(field.getKey(), deserializer.convertValue(values, new TypeReference<>()
+      {
+      }));
+    });
+    return DesignSpaceSweep.expandGrid(grid);
+  }
+}
@@ -44,4 +44,18 @@ public interface AbstractBlock extends Serializable
    * @brief Simulates in right direction from InstructionFetch to ROB
    */
   void simulate(int cycle);
+  
+  /**
+   * Used to skip cycles in which the whole pipeline only waits. The default is conservative - the block may change
+   * its state in every cycle. Blocks override it when they can tell that they only wait for other blocks.
+   *
+   * @param cycle Current cycle
+   *
+   * @return The first cycle (at least {@code cycle}) in which {@link #simulate(int)} may change the state of the block,
+   * or {@link Integer#MAX_VALUE} if the block only waits for other blocks
+   */
+  default int nextEventTick(int cycle)
+  {
+    return cycle;
+  }
 }
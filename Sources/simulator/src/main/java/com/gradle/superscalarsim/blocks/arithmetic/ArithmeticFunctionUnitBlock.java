@@ -47,12 +47,17 @@ import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.register.RegisterModel;
 import com.gradle.superscalarsim.models.util.Result;
 
+import java.io.Serial;
+
 /**
  * @class ArithmeticFunctionUnitBlock
  * @brief Specific function unit class for executing arithmetic instructions
  */
 public class ArithmeticFunctionUnitBlock extends AbstractFunctionUnitBlock
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Interpreter for interpreting executing instructions
    */
@@ -107,7 +112,7 @@ public class ArithmeticFunctionUnitBlock extends AbstractFunctionUnitBlock
   {
     // Instruction computed
     // Write result to the destination register
-    InputCodeArgument destinationArgument = simCodeModel.getArgumentByName("rd");
+    InputCodeArgument destinationArgument = simCodeModel.getDestinationArgument();
     assert destinationArgument != null;
     Result<Expression.Variable> result = arithmeticInterpreter.interpretInstruction(this.simCodeModel);
     
@@ -167,18 +172,6 @@ public class ArithmeticFunctionUnitBlock extends AbstractFunctionUnitBlock
       return false;
     }
     
-    FunctionalUnitDescription.CapabilityName capabilityName = FunctionalUnitDescription.classifyExpression(
-            model.interpretableAs());
-    
-    // Compare capability
-    for (FunctionalUnitDescription.Capability cap : getDescription().operations)
-    {
-      if (cap.name == capabilityName)
-      {
-        return true;
-      }
-    }
-    // Not found
-    return false;
+    return getDescription().canExecute(model.compiled().getCapabilityName());
   }
 }
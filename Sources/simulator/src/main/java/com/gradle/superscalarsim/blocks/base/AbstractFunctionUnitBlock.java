@@ -38,7 +38,12 @@ import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.cpu.SimulationStatistics;
 import com.gradle.superscalarsim.models.FunctionalUnitDescription;
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.Serial;
 
 /**
  * @class AbstractFunctionUnitBlock
@@ -47,8 +52,11 @@ import com.gradle.superscalarsim.models.instruction.SimCodeModel;
  * The flow of execution is defined here, the specifics are implemented in the derived classes.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public abstract class AbstractFunctionUnitBlock implements AbstractBlock
+public abstract class AbstractFunctionUnitBlock implements AbstractBlock, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Counter value when the execution starts
    */
@@ -193,6 +201,44 @@ public abstract class AbstractFunctionUnitBlock implements AbstractBlock
     this.counter = this.counter + 1;
   }// end of tickCounter
   
+  /**
+   * @brief The FU changes when its instruction finishes or fails. An empty FU waits for the issue window.
+   */
+  @Override
+  public int nextEventTick(int cycle)
+  {
+    if (simCodeModel == null)
+    {
+      return Integer.MAX_VALUE;
+    }
+    if (simCodeModel.hasFailed())
+    {
+      return cycle;
+    }
+    // emptyIfDone ticks the counter before the check, so the instruction finishes one cycle earlier
+    return Math.max(cycle, cycle + this.delay + counterStart - this.counter - 1);
+  }// end of nextEventTick
+  //----------------------------------------------------------------------
+  
+  /**
+   * Must only be called for cycles before {@link #nextEventTick(int)}.
+   *
+   * @param cycles Number of skipped cycles
+   *
+   * @brief Advances the FU by a number of cycles in which it only waits, as if it was simulated in each of them
+   */
+  public void skipCycles(int cycles)
+  {
+    if (isFunctionUnitEmpty())
+    {
+      this.functionUnitId += cycles * this.functionUnitCount;
+      return;
+    }
+    this.counter = this.counter + cycles;
+    this.statistics.incrementBusyCycles(this.description.name, cycles);
+  }// end of skipCycles
+  //----------------------------------------------------------------------
+  
   /**
    * @return True if timer has started this cycle, false otherwise
    */
@@ -337,16 +383,13 @@ public abstract class AbstractFunctionUnitBlock implements AbstractBlock
    */
   private int getDelayBasedOnCapability()
   {
-    String expr = this.simCodeModel.instructionFunctionModel().interpretableAs();
-    FunctionalUnitDescription.CapabilityName capabilityName = FunctionalUnitDescription.classifyExpression(expr);
-    for (FunctionalUnitDescription.Capability capability : this.description.operations)
+    InstructionFunctionModel instruction = this.simCodeModel.instructionFunctionModel();
+    int                      latency     = this.description.getLatency(instruction.compiled().getCapabilityName());
+    if (latency == -1)
     {
-      if (capability.name == capabilityName)
-      {
-        return capability.latency;
-      }
+      throw new RuntimeException("Unknown operation: " + instruction.interpretableAs());
     }
-    throw new RuntimeException("Unknown operation: " + expr);
+    return latency;
   }
   
   protected FunctionalUnitDescription getDescription()
@@ -368,4 +411,14 @@ public abstract class AbstractFunctionUnitBlock implements AbstractBlock
    * @return True if the function unit can execute the instruction, false otherwise.
    */
   public abstract boolean canExecuteInstruction(SimCodeModel simCodeModel);
+  
+  /**
+   * @brief Feeds the executed instruction and the progress of the execution
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(functionUnitId).add(functionUnitCount).add(delay).add(counter).addReference(simCodeModel);
+  }// end of hashState
+  //----------------------------------------------------------------------
 }
@@ -40,13 +40,16 @@ import com.gradle.superscalarsim.blocks.branch.BranchTargetBuffer;
 import com.gradle.superscalarsim.code.CodeBranchInterpreter;
 import com.gradle.superscalarsim.cpu.SimulationStatistics;
 import com.gradle.superscalarsim.enums.InstructionTypeEnum;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
 import com.gradle.superscalarsim.models.instruction.InstructionArgument;
 import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.register.RegisterModel;
 import com.gradle.superscalarsim.models.util.Result;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.OptionalInt;
@@ -56,8 +59,11 @@ import java.util.OptionalInt;
  * @brief Class, which simulates instruction decode and renames registers
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class DecodeAndDispatchBlock implements AbstractBlock
+public class DecodeAndDispatchBlock implements AbstractBlock, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * List holding code with renamed registers ready for dispatch
    */
@@ -159,6 +165,28 @@ public class DecodeAndDispatchBlock implements AbstractBlock
     this.stallFlag = false;
   }
   
+  /**
+   * Decode only waits when it keeps stalling the fetch: either the ROB cannot pull the decoded instructions
+   * (the ROB reports when it can), or there are not enough free registers (they are freed by a commit).
+   *
+   * @brief Gets the first cycle in which decode may change
+   */
+  @Override
+  public int nextEventTick(int cycle)
+  {
+    if (stallFlag)
+    {
+      return cycle;
+    }
+    if (!codeBuffer.isEmpty())
+    {
+      return Integer.MAX_VALUE;
+    }
+    boolean enoughRegisters = renameMapTableBlock.getFreeRegistersCount() >= instructionFetchBlock.getPullCount();
+    return enoughRegisters ? cycle : Integer.MAX_VALUE;
+  }// end of nextEventTick
+  //----------------------------------------------------------------------
+  
   /**
    * @brief Simulates decoding and renaming of instructions before dispatching.
    * In normal operation, the buffer should be empty at the beginning of the cycle.
@@ -194,9 +222,19 @@ public class DecodeAndDispatchBlock implements AbstractBlock
         continue;
       }
       this.codeBuffer.add(simCodeModel);
+      if (simCodeModel.isLoad())
+      {
+        // A store may find the load executed too early and flush from it
+        renameMapTableBlock.checkpoint(simCodeModel.getIntegerId());
+      }
       renameSourceRegisters(simCodeModel);
       boolean renameSuccessful = renameDestinationRegister(simCodeModel);
       assert renameSuccessful;
+      if (simCodeModel.getInstructionTypeEnum() == InstructionTypeEnum.kJumpbranch)
+      {
+        // A mispredicted branch flushes the instructions after it
+        renameMapTableBlock.checkpoint(simCodeModel.getIntegerId() + 1);
+      }
       
       statistics.reportDecodedInstruction(simCodeModel);
       
@@ -232,13 +270,14 @@ public class DecodeAndDispatchBlock implements AbstractBlock
    */
   private void renameSourceRegisters(SimCodeModel simCodeModel)
   {
-    InstructionFunctionModel functionModel = simCodeModel.instructionFunctionModel();
-    for (InstructionArgument argDesc : functionModel.arguments())
+    List<InstructionArgument> argumentDescriptions = simCodeModel.instructionFunctionModel().arguments();
+    for (int i = 0; i < argumentDescriptions.size(); i++)
     {
-      boolean shouldRename = !argDesc.writeBack() && argDesc.isRegister();
+      InstructionArgument argDesc      = argumentDescriptions.get(i);
+      boolean             shouldRename = !argDesc.writeBack() && argDesc.isRegister();
       if (shouldRename)
       {
-        InputCodeArgument argument = simCodeModel.getArgumentByName(argDesc.name());
+        InputCodeArgument argument = simCodeModel.getArgument(i);
         RegisterModel     rename   = argument.getRegisterValue().getNewestMapping();
         argument.setRegisterValue(rename);
         if (rename.isSpeculative())
@@ -261,23 +300,20 @@ public class DecodeAndDispatchBlock implements AbstractBlock
   private boolean renameDestinationRegister(SimCodeModel simCodeModel)
   {
     // Rename all arguments that will be written back
-    for (InstructionArgument argument : simCodeModel.instructionFunctionModel().arguments())
+    for (int index : simCodeModel.instructionFunctionModel().compiled().getWriteBackIndices())
     {
-      if (argument.writeBack())
+      InputCodeArgument destinationArgument = simCodeModel.getArgument(index);
+      
+      if (!renameMapTableBlock.hasFreeRegisters())
       {
-        InputCodeArgument destinationArgument = simCodeModel.getArgumentByName(argument.name());
-        
-        if (!renameMapTableBlock.hasFreeRegisters())
-        {
-          return false;
-        }
-        
-        RegisterModel mappedReg = renameMapTableBlock.mapRegister(destinationArgument.getRegisterValue());
-        assert mappedReg != null;
-        // Set reference
-        destinationArgument.setRegisterValue(mappedReg);
-        destinationArgument.setStringValue(mappedReg.getName());
+        return false;
       }
+      
+      RegisterModel mappedReg = renameMapTableBlock.mapRegister(destinationArgument.getRegisterValue());
+      assert mappedReg != null;
+      // Set reference
+      destinationArgument.setRegisterValue(mappedReg);
+      destinationArgument.setStringValue(mappedReg.getName());
     }
     
     return true;
@@ -381,4 +417,14 @@ public class DecodeAndDispatchBlock implements AbstractBlock
   }// end of removePulledInstructions
   
   //----------------------------------------------------------------------
+  
+  /**
+   * @brief Feeds the decoded instructions
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(stallFlag).add(decodeBufferSize).addReferences(codeBuffer);
+  }// end of hashState
+  //----------------------------------------------------------------------
 }
@@ -40,8 +40,11 @@ import com.gradle.superscalarsim.blocks.branch.BranchTargetBuffer;
 import com.gradle.superscalarsim.blocks.branch.GShareUnit;
 import com.gradle.superscalarsim.enums.InstructionTypeEnum;
 import com.gradle.superscalarsim.factories.SimCodeModelFactory;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -50,8 +53,11 @@ import java.util.List;
  * @brief Class that fetches code from CodeParser
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class InstructionFetchBlock implements AbstractBlock
+public class InstructionFetchBlock implements AbstractBlock, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Allocator for SimCodeModels
    */
@@ -168,6 +174,16 @@ public class InstructionFetchBlock implements AbstractBlock
   }// end of simulate
   //----------------------------------------------------------------------
   
+  /**
+   * @brief Fetch waits only while decode stalls it. Decode reports the cycle in which it stops stalling.
+   */
+  @Override
+  public int nextEventTick(int cycle)
+  {
+    return stallFlag ? cycle : Integer.MAX_VALUE;
+  }// end of nextEventTick
+  //----------------------------------------------------------------------
+  
   //----------------------------------------------------------------------
   
   /**
@@ -209,10 +225,10 @@ public class InstructionFetchBlock implements AbstractBlock
         }
         
         int predictorIndex = gShareUnit.getPredictorIndex(pc);
-        int predictorState = gShareUnit.getPredictor(pc).getState();
+        int predictorState = gShareUnit.getPredictorState(predictorIndex);
         
         boolean unconditional = this.branchTargetBuffer.isEntryUnconditional(pc);
-        boolean prediction    = this.gShareUnit.getPredictor(pc).getCurrentPrediction();
+        boolean prediction    = this.gShareUnit.getPrediction(predictorIndex);
         boolean shouldJump    = prediction || unconditional;
         int     newPc         = this.branchTargetBuffer.getEntryTarget(pc);
         boolean areWeJumping  = shouldJump && newPc >= 0;
@@ -278,6 +294,14 @@ public class InstructionFetchBlock implements AbstractBlock
     return fetchedCode;
   }// end of getFetchedCode
   
+  /**
+   * @return Factory the fetched instructions are allocated by
+   */
+  public SimCodeModelFactory getSimCodeModelFactory()
+  {
+    return simCodeModelFactory;
+  }// end of getSimCodeModelFactory
+  
   /**
    * Gets current PC counter value
    *
@@ -300,4 +324,14 @@ public class InstructionFetchBlock implements AbstractBlock
     assert pc >= 0;
     this.pc = pc;
   }// end of setPcCounter
+  
+  /**
+   * @brief Feeds the PC and the fetched instructions
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(pc).add(stallFlag).add(numberOfWays).add(branchFollowLimit).addReferences(fetchedCode);
+  }// end of hashState
+  //----------------------------------------------------------------------
 }
@@ -36,8 +36,12 @@ import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.code.Symbol;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 
@@ -46,8 +50,11 @@ import java.util.Map;
  * @brief Holds instructions for simulation
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class InstructionMemoryBlock
+public class InstructionMemoryBlock implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Nop instruction is instantiated once and reused, to have all SimCodeModel objects point to the same object.
    *
@@ -150,4 +157,15 @@ public class InstructionMemoryBlock
   {
     return nop;
   }
+  
+  /**
+   * @brief Feeds the lines of the program. The lines themselves are hashed by the manager.
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(code.size());
+    code.forEach(hasher::addReference);
+  }// end of hashState
+  //-------------------------------------------------------------------------------------------
 }
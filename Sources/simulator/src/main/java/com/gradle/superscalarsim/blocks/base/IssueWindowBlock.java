@@ -37,19 +37,31 @@ import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.enums.InstructionTypeEnum;
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.Serial;
+import java.util.*;
 
 /**
  * @class IssueWindowBlock
  * @brief Shared logic for all Issuing windows. Instructions get here from {@link IssueWindowSuperBlock}.
- * @details TODO: Where should the conversion instructions execute (float to int, eg.)?
+ * @details The window does not scan the waiting instructions every cycle. An instruction waiting for an operand
+ * subscribes to the register it waits for and is woken up when the producer makes the value available.
+ * Ready instructions are kept in a queue ordered by age, and the function units are picked from bitmaps
+ * of the free units and of the units able to execute the instruction.
+ * The wakeup structures are derived from the list of instructions and are rebuilt after deserialization.
+ * TODO: Where should the conversion instructions execute (float to int, eg.)?
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class IssueWindowBlock implements AbstractBlock
+public class IssueWindowBlock implements AbstractBlock, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * List of all instructions dispatched to this window.
    */
@@ -65,6 +77,27 @@ public class IssueWindowBlock implements AbstractBlock
    */
   private final InstructionTypeEnum instructionType;
   
+  /**
+   * Instructions of the window, for filtering stale wakeups. Not part of the state.
+   */
+  private transient Set<SimCodeModel> members;
+  /**
+   * Instructions with all operands ready, the oldest first. Not part of the state.
+   */
+  private transient TreeSet<SimCodeModel> readyQueue;
+  /**
+   * Instructions whose awaited operand became available since they were last checked. Not part of the state.
+   */
+  private transient List<SimCodeModel> wokenUp;
+  /**
+   * For each instruction definition, the bitmap of the function units able to execute it. Not part of the state.
+   */
+  private transient Map<InstructionFunctionModel, BitSet> capableUnits;
+  /**
+   * Bitmap of the function units not busy in the current cycle. Not part of the state.
+   */
+  private transient BitSet freeUnits;
+  
   /**
    * @param instructionType       Type of the instructions this window can hold
    * @param functionUnitBlockList List of all function units associated with this window
@@ -95,56 +128,207 @@ public class IssueWindowBlock implements AbstractBlock
   @Override
   public void simulate(int cycle)
   {
+    initWakeup();
+    processWakeups();
     removeFailedInstructions();
+    if (readyQueue.isEmpty())
+    {
+      return;
+    }
     
-    // If there are any issues with skipping, this is the place to fix it - simCodes are removed form iterated list
-    outer:
-    for (int i = 0; i < this.issuedInstructions.size(); i++)
+    updateFreeUnits();
+    boolean                anyIssued = false;
+    Iterator<SimCodeModel> it        = readyQueue.iterator();
+    while (it.hasNext())
     {
-      SimCodeModel currentModel = this.issuedInstructions.get(i);
-      if (!currentModel.isReadyToExecute())
+      SimCodeModel currentModel = it.next();
+      int          unit         = findFreeUnit(currentModel);
+      if (unit == -1)
       {
+        // All eligible FUs are taken
         continue;
       }
       
-      // Iterate the function units
-      boolean eligibleFound = false;
-      for (AbstractFunctionUnitBlock functionUnitBlock : functionUnitBlockList)
+      // Instruction is ready for execution and there is a free FU -> issue the instruction
+      AbstractFunctionUnitBlock functionUnitBlock = functionUnitBlockList.get(unit);
+      functionUnitBlock.startExecuting(currentModel);
+      functionUnitBlock.setDelayBasedOnInstruction();
+      // This FU is taken
+      freeUnits.clear(unit);
+      it.remove();
+      members.remove(currentModel);
+      anyIssued = true;
+    }
+    
+    if (anyIssued)
+    {
+      // Remove the issued instructions from the list in one pass
+      this.issuedInstructions.removeIf(codeModel -> !members.contains(codeModel));
+    }
+  }
+  
+  /**
+   * @brief The window changes when an instruction fails or a ready instruction finds a free FU
+   */
+  @Override
+  public int nextEventTick(int cycle)
+  {
+    for (SimCodeModel codeModel : this.issuedInstructions)
+    {
+      if (codeModel.hasFailed())
       {
-        
-        boolean isMatch = functionUnitBlock.canExecuteInstruction(currentModel);
-        // Can instruction be issued?
-        if (!isMatch)
-        {
-          continue;
-        }
-        eligibleFound = true;
-        
-        if (functionUnitBlock.isBusy())
+        return cycle;
+      }
+    }
+    initWakeup();
+    processWakeups();
+    if (readyQueue.isEmpty())
+    {
+      // Busy FUs report when they finish
+      return Integer.MAX_VALUE;
+    }
+    updateFreeUnits();
+    for (SimCodeModel codeModel : readyQueue)
+    {
+      // A missing eligible FU is reported by the simulation
+      if (capableUnitsOf(codeModel).isEmpty() || findFreeUnit(codeModel) != -1)
+      {
+        return cycle;
+      }
+    }
+    // Busy FUs report when they finish
+    return Integer.MAX_VALUE;
+  }// end of nextEventTick
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param codeModel Ready instruction
+   *
+   * @return Index of the first free FU able to execute the instruction, -1 if all of them are busy
+   * @throws IllegalStateException if no FU of the window can execute the instruction (wrong configuration)
+   */
+  private int findFreeUnit(SimCodeModel codeModel)
+  {
+    BitSet capable = capableUnitsOf(codeModel);
+    if (capable.isEmpty())
+    {
+      // A wrong configuration for the given code
+      throw new IllegalStateException(
+              "No eligible FU found for instruction: " + codeModel.instructionFunctionModel().name());
+    }
+    for (int unit = capable.nextSetBit(0); unit >= 0; unit = capable.nextSetBit(unit + 1))
+    {
+      if (freeUnits.get(unit))
+      {
+        return unit;
+      }
+    }
+    return -1;
+  }// end of findFreeUnit
+  //----------------------------------------------------------------------
+  
+  /**
+   * The function units decide by the instruction definition only, so the answer is cached per definition.
+   *
+   * @return Bitmap of the FUs (indices to the FU list) able to execute the instruction
+   */
+  private BitSet capableUnitsOf(SimCodeModel codeModel)
+  {
+    return capableUnits.computeIfAbsent(codeModel.instructionFunctionModel(), model -> {
+      BitSet capable = new BitSet(functionUnitBlockList.size());
+      for (int i = 0; i < functionUnitBlockList.size(); i++)
+      {
+        if (functionUnitBlockList.get(i).canExecuteInstruction(codeModel))
         {
-          // FU is taken
-          continue;
+          capable.set(i);
         }
-        
-        // Instruction is ready for execution and there is a free FU -> issue the instruction
-        functionUnitBlock.startExecuting(currentModel);
-        functionUnitBlock.setDelayBasedOnInstruction();
-        // Remove the instruction from the list
-        this.issuedInstructions.remove(i);
-        i--;
-        // This FU is taken
-        continue outer;
       }
-      
-      // If the instruction got here, it is ready to execute, but there is no free FU
-      // A wrong configuration for the given code
-      if (!eligibleFound)
+      return capable;
+    });
+  }// end of capableUnitsOf
+  //----------------------------------------------------------------------
+  
+  /**
+   * @brief Marks the FUs not busy in this cycle
+   */
+  private void updateFreeUnits()
+  {
+    freeUnits.clear();
+    for (int i = 0; i < functionUnitBlockList.size(); i++)
+    {
+      if (!functionUnitBlockList.get(i).isBusy())
       {
-        throw new IllegalStateException(
-                "No eligible FU found for instruction: " + currentModel.instructionFunctionModel().name());
+        freeUnits.set(i);
       }
     }
-  }
+  }// end of updateFreeUnits
+  //----------------------------------------------------------------------
+  
+  /**
+   * @brief Builds the wakeup structures from the instructions of the window, if they do not exist yet.
+   * They do not exist after construction and after deserialization.
+   */
+  private void initWakeup()
+  {
+    if (members != null)
+    {
+      return;
+    }
+    members      = Collections.newSetFromMap(new IdentityHashMap<>());
+    readyQueue   = new TreeSet<>();
+    wokenUp      = new ArrayList<>();
+    capableUnits = new IdentityHashMap<>();
+    freeUnits    = new BitSet(functionUnitBlockList.size());
+    for (SimCodeModel codeModel : issuedInstructions)
+    {
+      members.add(codeModel);
+      track(codeModel);
+    }
+  }// end of initWakeup
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param codeModel Instruction of the window
+   *
+   * @brief Puts the instruction to the ready queue, or subscribes it to the first operand it still waits for
+   */
+  private void track(SimCodeModel codeModel)
+  {
+    RegisterModel operand = codeModel.getFirstUnreadyOperand();
+    if (operand == null)
+    {
+      readyQueue.add(codeModel);
+    }
+    else
+    {
+      operand.addReadyListener(() -> wokenUp.add(codeModel));
+    }
+  }// end of track
+  //----------------------------------------------------------------------
+  
+  /**
+   * A woken up instruction may still wait for another operand, then it subscribes to that one.
+   * Wakeups of instructions that already left the window are ignored.
+   *
+   * @brief Checks the instructions whose awaited operand became available
+   */
+  private void processWakeups()
+  {
+    if (wokenUp.isEmpty())
+    {
+      return;
+    }
+    List<SimCodeModel> woken = new ArrayList<>(wokenUp);
+    wokenUp.clear();
+    for (SimCodeModel codeModel : woken)
+    {
+      if (members.contains(codeModel))
+      {
+        track(codeModel);
+      }
+    }
+  }// end of processWakeups
+  //----------------------------------------------------------------------
   
   /**
    * @brief Checks for instructions that were removed because of bad prediction and removes them from the window
@@ -158,6 +342,8 @@ public class IssueWindowBlock implements AbstractBlock
       if (codeModel.hasFailed())
       {
         this.issuedInstructions.remove(i);
+        members.remove(codeModel);
+        readyQueue.remove(codeModel);
       }
     }
   }// end of checkForFailedInstructions
@@ -172,8 +358,21 @@ public class IssueWindowBlock implements AbstractBlock
    */
   public void dispatchInstruction(SimCodeModel codeModel, int cycle)
   {
+    initWakeup();
     this.issuedInstructions.add(codeModel);
     codeModel.setIssueWindowId(cycle);
+    members.add(codeModel);
+    track(codeModel);
   }// end of dispatchInstruction
   //----------------------------------------------------------------------
+  
+  /**
+   * @brief Feeds the instructions waiting in the window
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(instructionType).addReferences(issuedInstructions);
+  }// end of hashState
+  //----------------------------------------------------------------------
 }
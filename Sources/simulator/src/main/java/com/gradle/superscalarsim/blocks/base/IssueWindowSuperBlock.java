@@ -38,6 +38,8 @@ import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 
+import java.io.Serial;
+
 /**
  * @class IssueWindowSuperBlock
  * @brief Class containing logic for dispatching instructions from decode stage (ROB) to Issue windows
@@ -45,6 +47,9 @@ import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
 public class IssueWindowSuperBlock implements AbstractBlock
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * The Fixed point issue window.
    */
@@ -98,13 +103,24 @@ public class IssueWindowSuperBlock implements AbstractBlock
   public void simulate(int cycle)
   {
     // Issue instruction without a IssueWindowId
-    this.reorderBufferBlock    // formatter trick
-            .getReorderQueue() // ROB
-            .filter(codeModel -> codeModel.issueWindowId == -1) // Only instructions not in an issue window
-            .forEach(simCodeModel -> selectCorrectIssueWindow(simCodeModel, cycle));
+    for (SimCodeModel simCodeModel : this.reorderBufferBlock.getNotDispatchedInstructions())
+    {
+      selectCorrectIssueWindow(simCodeModel, cycle);
+    }
   }// end of simulate
   //----------------------------------------------------------------------
   
+  /**
+   * @brief The block changes only when the ROB holds an instruction that is not in an issue window yet
+   */
+  @Override
+  public int nextEventTick(int cycle)
+  {
+    boolean notDispatched = !this.reorderBufferBlock.getNotDispatchedInstructions().isEmpty();
+    return notDispatched ? cycle : Integer.MAX_VALUE;
+  }// end of nextEventTick
+  //----------------------------------------------------------------------
+  
   /**
    * @param codeModel Instruction to be dispatched
    * @param cycle     Current cycle
@@ -34,25 +34,79 @@ package com.gradle.superscalarsim.blocks.base;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.enums.RegisterReadinessEnum;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.register.SpeculativeRegisterFile;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
-import java.util.Stack;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * @class RenameMapTableBlock
  * @brief Keeps track of free speculative registers and gives API to map and free them
+ * @details The free list is a bitmap. Every branch and every load in flight has a checkpoint of the renaming:
+ * the registers allocated after it and the position in the log of source references taken after it.
+ * A flush frees the registers of the squashed instructions and drops them from the mapping at once,
+ * the references they held on the older registers are released through the log.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class RenameMapTableBlock
+@JsonPropertyOrder({"freeTags", "registerFileBlock"})
+public class RenameMapTableBlock implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * Bitmap of free speculative registers, bit (tag % 64) of word (tag / 64) is set when the register is free.
+   * The free register with the lowest tag is allocated first.
+   */
+  @JsonIgnore
+  private long[] freeTags;
+  /**
+   * Number of free speculative registers, the number of set bits in freeTags
+   */
+  @JsonIgnore
+  private int freeTagCount;
+  /**
+   * Code ids of the checkpoints, oldest first. A checkpoint is the state before any instruction with this
+   * or a higher id was renamed.
+   */
+  @JsonIgnore
+  private int[] checkpointIds;
+  /**
+   * Bitmaps of the registers allocated after each checkpoint, until the next checkpoint
+   */
+  @JsonIgnore
+  private long[][] checkpointAllocations;
+  /**
+   * Position in {@link #referenceLog} where each checkpoint starts
+   */
+  @JsonIgnore
+  private int[] checkpointReferences;
+  /**
+   * Number of valid checkpoints
+   */
+  @JsonIgnore
+  private int checkpointCount;
   /**
-   * Set of free speculative registers. Starts out with the lowest number on top (tg0).
-   * When a register is freed, it is added to the top of the stack.
+   * Tags of the speculative registers referenced by source operands since the oldest checkpoint, in renaming order
    */
-  private final Stack<String> freeTags;
+  @JsonIgnore
+  private int[] referenceLog;
+  /**
+   * Number of valid entries in the referenceLog
+   */
+  @JsonIgnore
+  private int referenceLogLength;
   /**
    * Class containing all registers, that simulator uses
    */
@@ -64,8 +118,10 @@ public class RenameMapTableBlock
    */
   public RenameMapTableBlock()
   {
-    this.freeTags          = new Stack<>();
+    this.freeTags          = new long[0];
+    this.freeTagCount      = 0;
     this.registerFileBlock = null;
+    initiateCheckpoints();
   }
   
   /**
@@ -75,10 +131,10 @@ public class RenameMapTableBlock
    */
   public RenameMapTableBlock(UnifiedRegisterFileBlock registerFileBlock)
   {
-    this.freeTags          = new Stack<>();
     this.registerFileBlock = registerFileBlock;
     
     initiateFreeList(registerFileBlock.getSpeculativeRegisterFile().getRegisterCount());
+    initiateCheckpoints();
   }// end of Constructor
   //----------------------------------------------------------------------
   
@@ -89,13 +145,29 @@ public class RenameMapTableBlock
    */
   private void initiateFreeList(int specRegistersCount)
   {
-    for (int i = specRegistersCount - 1; i >= 0; i--)
+    this.freeTags     = new long[(specRegistersCount + 63) / 64];
+    this.freeTagCount = specRegistersCount;
+    for (int i = 0; i < specRegistersCount; i++)
     {
-      this.freeTags.add("tg" + i);
+      this.freeTags[i / 64] |= 1L << (i % 64);
     }
   }// end of createSpeculativeRegisters
   //----------------------------------------------------------------------
   
+  /**
+   * @brief Creates empty storage for the checkpoints and the log of references
+   */
+  private void initiateCheckpoints()
+  {
+    this.checkpointIds         = new int[16];
+    this.checkpointAllocations = new long[16][];
+    this.checkpointReferences  = new int[16];
+    this.checkpointCount       = 0;
+    this.referenceLog          = new int[64];
+    this.referenceLogLength    = 0;
+  }// end of initiateCheckpoints
+  //----------------------------------------------------------------------
+  
   /**
    * @param registerName Name of the architectural register
    * @param order        Id specifying order between mappings to same register
@@ -106,12 +178,26 @@ public class RenameMapTableBlock
   public RegisterModel mapRegister(RegisterModel archRegister)
   {
     // TODO: what if there is no free tag or free register in the field? Currently it throws exception
-    if (this.freeTags.isEmpty())
+    if (this.freeTagCount == 0)
     {
       throw new RuntimeException("No free registers available");
     }
-    String        speculativeRegister = this.freeTags.pop();
-    RegisterModel register            = registerFileBlock.getRegister(speculativeRegister);
+    int word = 0;
+    while (this.freeTags[word] == 0)
+    {
+      word++;
+    }
+    long bit = Long.lowestOneBit(this.freeTags[word]);
+    this.freeTags[word] &= ~bit;
+    this.freeTagCount--;
+    if (checkpointCount > 0)
+    {
+      // Only the youngest checkpoint records it, a restore joins the younger checkpoints
+      checkpointAllocations[checkpointCount - 1][word] |= bit;
+    }
+    
+    int           speculativeRegister = word * 64 + Long.numberOfTrailingZeros(bit);
+    RegisterModel register            = speculativeRegisterFile().getRegister(speculativeRegister);
     archRegister.addRename(register);
     
     register.setReadiness(RegisterReadinessEnum.kAllocated);
@@ -128,10 +214,12 @@ public class RenameMapTableBlock
    */
   public boolean hasFreeRegisters()
   {
-    return !this.freeTags.isEmpty();
+    return this.freeTagCount > 0;
   }
   
   /**
+   * The reference is logged while there is a checkpoint, so a flush can release it.
+   *
    * @param speculativeRegister Speculative register to be referenced
    *
    * @brief Increases number of references on certain speculative register
@@ -139,6 +227,15 @@ public class RenameMapTableBlock
   public void increaseReference(RegisterModel speculativeRegister)
   {
     speculativeRegister.increaseReference();
+    if (checkpointCount == 0)
+    {
+      return;
+    }
+    if (referenceLogLength == referenceLog.length)
+    {
+      referenceLog = Arrays.copyOf(referenceLog, referenceLogLength * 2);
+    }
+    referenceLog[referenceLogLength++] = speculativeRegister.getSpeculativeTag();
   }// end of increaseReference
   //----------------------------------------------------------------------
   
@@ -170,21 +267,135 @@ public class RenameMapTableBlock
     }
     
     speculativeRegister.setReadiness(RegisterReadinessEnum.kFree);
-    String regName = speculativeRegister.getName();
-    this.freeTags.add(regName);
+    int tag = speculativeRegister.getSpeculativeTag();
+    this.freeTags[tag / 64] |= 1L << (tag % 64);
+    this.freeTagCount++;
     
     RegisterModel archRegister = speculativeRegister.getArchitecturalMapping();
     archRegister.removeRename(speculativeRegister);
   }// end of freeMapping
   //----------------------------------------------------------------------
   
+  /**
+   * @param codeId Id of the first instruction the checkpoint protects. The renamed instructions have lower ids.
+   *
+   * @brief Takes a checkpoint of the renaming. Called before renaming an instruction a flush can start from.
+   */
+  public void checkpoint(int codeId)
+  {
+    if (checkpointCount == checkpointIds.length)
+    {
+      checkpointIds         = Arrays.copyOf(checkpointIds, checkpointCount * 2);
+      checkpointAllocations = Arrays.copyOf(checkpointAllocations, checkpointCount * 2);
+      checkpointReferences  = Arrays.copyOf(checkpointReferences, checkpointCount * 2);
+    }
+    checkpointIds[checkpointCount]         = codeId;
+    checkpointAllocations[checkpointCount] = new long[freeTags.length];
+    checkpointReferences[checkpointCount]  = referenceLogLength;
+    checkpointCount++;
+  }// end of checkpoint
+  //----------------------------------------------------------------------
+  
+  /**
+   * The registers allocated after the checkpoint are freed word by word and dropped from the mapping of their
+   * architectural registers. The references the squashed instructions took on older registers are released,
+   * which frees the registers nobody else references.
+   *
+   * @param firstSquashedId Id of the first squashed instruction. All renamed instructions with this or a higher id are squashed.
+   *
+   * @brief Restores the renaming from the youngest checkpoint taken before the squashed instructions
+   */
+  public void restore(int firstSquashedId)
+  {
+    int index = checkpointCount - 1;
+    while (index >= 0 && checkpointIds[index] > firstSquashedId)
+    {
+      index--;
+    }
+    if (index < 0)
+    {
+      throw new IllegalStateException("No rename checkpoint before instruction " + firstSquashedId);
+    }
+    
+    for (int i = index; i < checkpointCount; i++)
+    {
+      long[] allocations = checkpointAllocations[i];
+      for (int word = 0; word < allocations.length; word++)
+      {
+        long squashed = allocations[word];
+        this.freeTags[word] |= squashed;
+        this.freeTagCount += Long.bitCount(squashed);
+        for (; squashed != 0; squashed &= squashed - 1)
+        {
+          int           tag      = word * 64 + Long.numberOfTrailingZeros(squashed);
+          RegisterModel register = speculativeRegisterFile().getRegister(tag);
+          register.clearReferences();
+          register.setReadiness(RegisterReadinessEnum.kFree);
+          register.getArchitecturalMapping().removeRename(register);
+        }
+      }
+    }
+    
+    for (int i = checkpointReferences[index]; i < referenceLogLength; i++)
+    {
+      int tag = referenceLog[i];
+      // Registers of the squashed instructions are free already
+      if ((this.freeTags[tag / 64] & (1L << (tag % 64))) == 0)
+      {
+        reduceReference(speculativeRegisterFile().getRegister(tag));
+      }
+    }
+    referenceLogLength = checkpointReferences[index];
+    
+    // The checkpoint stays, nothing is renamed after it now
+    checkpointAllocations[index] = new long[freeTags.length];
+    Arrays.fill(checkpointAllocations, index + 1, checkpointCount, null);
+    checkpointCount = index + 1;
+  }// end of restore
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param codeId Id of the committed instruction
+   *
+   * @brief Drops the checkpoints the committed instruction has passed, a flush cannot reach them anymore
+   */
+  public void commit(int codeId)
+  {
+    int dropped = 0;
+    while (dropped < checkpointCount && checkpointIds[dropped] <= codeId)
+    {
+      dropped++;
+    }
+    if (dropped == 0)
+    {
+      return;
+    }
+    
+    int remaining = checkpointCount - dropped;
+    int logStart  = remaining > 0 ? checkpointReferences[dropped] : referenceLogLength;
+    System.arraycopy(checkpointIds, dropped, checkpointIds, 0, remaining);
+    System.arraycopy(checkpointAllocations, dropped, checkpointAllocations, 0, remaining);
+    System.arraycopy(checkpointReferences, dropped, checkpointReferences, 0, remaining);
+    Arrays.fill(checkpointAllocations, remaining, checkpointCount, null);
+    checkpointCount = remaining;
+    
+    // References older than the oldest checkpoint are only released by commits
+    System.arraycopy(referenceLog, logStart, referenceLog, 0, referenceLogLength - logStart);
+    referenceLogLength -= logStart;
+    for (int i = 0; i < checkpointCount; i++)
+    {
+      checkpointReferences[i] -= logStart;
+    }
+  }// end of commit
+  //----------------------------------------------------------------------
+  
   /**
    * @return Number of allocated speculative registers
    */
   @JsonProperty
   public int getAllocatedSpeculativeRegistersCount()
   {
-    return this.registerFileBlock.getSpeculativeRegisterFile().getRegisterCount() - this.freeTags.size();
+    return this.registerFileBlock.getSpeculativeRegisterFile().getRegisterCount() - this.freeTagCount;
   }
   
   /**
@@ -192,6 +403,67 @@ public class RenameMapTableBlock
    */
   public int getFreeRegistersCount()
   {
-    return this.freeTags.size();
+    return this.freeTagCount;
+  }
+  
+  /**
+   * @return Names of the free speculative registers, lowest tag first
+   */
+  @JsonProperty("freeTags")
+  public List<String> getFreeTags()
+  {
+    List<String> names = new ArrayList<>(freeTagCount);
+    for (int word = 0; word < freeTags.length; word++)
+    {
+      for (long free = freeTags[word]; free != 0; free &= free - 1)
+      {
+        names.add("tg" + (word * 64 + Long.numberOfTrailingZeros(free)));
+      }
+    }
+    return names;
   }
+  
+  /**
+   * @return Number of checkpoints of the instructions in flight
+   */
+  public int getCheckpointCount()
+  {
+    return this.checkpointCount;
+  }
+  
+  /**
+   * @return The speculative register file the tags point to
+   */
+  private SpeculativeRegisterFile speculativeRegisterFile()
+  {
+    return registerFileBlock.getSpeculativeRegisterFile();
+  }
+  
+  /**
+   * @brief Feeds the free speculative registers, the checkpoints and the logged references
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(freeTagCount);
+    for (long word : freeTags)
+    {
+      hasher.add(word);
+    }
+    hasher.add(checkpointCount);
+    for (int i = 0; i < checkpointCount; i++)
+    {
+      hasher.add(checkpointIds[i]).add(checkpointReferences[i]);
+      for (long word : checkpointAllocations[i])
+      {
+        hasher.add(word);
+      }
+    }
+    hasher.add(referenceLogLength);
+    for (int i = 0; i < referenceLogLength; i++)
+    {
+      hasher.add(referenceLog[i]);
+    }
+  }// end of hashState
+  //----------------------------------------------------------------------
 }
@@ -44,16 +44,19 @@ import com.gradle.superscalarsim.cpu.DebugLog;
 import com.gradle.superscalarsim.cpu.SimulationStatistics;
 import com.gradle.superscalarsim.cpu.StopReason;
 import com.gradle.superscalarsim.enums.InstructionTypeEnum;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.instruction.DebugInfo;
 import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
-import com.gradle.superscalarsim.models.instruction.InstructionArgument;
+import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.memory.LoadBufferItem;
 import com.gradle.superscalarsim.models.memory.StoreBufferItem;
 import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.RingBuffer;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
-import java.util.ArrayDeque;
-import java.util.Iterator;
+import java.io.Serial;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -61,16 +64,21 @@ import java.util.stream.Stream;
  * @class ReorderBufferBlock
  * @brief Class contains simulated implementation of Reorder buffer.
  * @details The BTB entry is updated, regardless of the prediction result.
+ * The instructions are held in a ring buffer of the ROB size, addressed by position from the head.
+ * The instruction IDs grow in program order, so an instruction is found by binary search, and validation and flush
+ * touch only the range of instructions they change.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class ReorderBufferBlock implements AbstractBlock
+public class ReorderBufferBlock implements AbstractBlock, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
   
   /**
-   * Queue of scheduled instruction in backend
+   * Queue of scheduled instruction in backend, oldest first
    */
   @JsonIdentityReference(alwaysAsId = true)
-  public ArrayDeque<SimCodeModel> reorderQueue;
+  public RingBuffer<SimCodeModel> reorderQueue;
   
   /**
    * Numerical limit, how many instruction can be committed in a single tick
@@ -179,7 +187,7 @@ public class ReorderBufferBlock implements AbstractBlock
     
     this.simulationStatistics = statisticsCounter;
     
-    this.reorderQueue = new ArrayDeque<>();
+    this.reorderQueue = new RingBuffer<>(bufferSize);
     
     this.commitLimit = commitLimit;
     this.bufferSize  = bufferSize;
@@ -228,7 +236,7 @@ public class ReorderBufferBlock implements AbstractBlock
       }
       
       // Remove item from the front of the queue
-      this.reorderQueue.remove();
+      this.reorderQueue.removeFirst();
     }
     
     // Check all instructions if after commit some can be removed, remove them in other units
@@ -239,6 +247,34 @@ public class ReorderBufferBlock implements AbstractBlock
   }// end of simulate
   //----------------------------------------------------------------------
   
+  /**
+   * The ROB changes when it can commit, flush or pull. A full ROB with an uncommittable head only waits.
+   *
+   * @brief Gets the first cycle in which the ROB may change
+   */
+  @Override
+  public int nextEventTick(int cycle)
+  {
+    if (this.stopReason != StopReason.kNotStopped)
+    {
+      return cycle;
+    }
+    SimCodeModel head = this.reorderQueue.peek();
+    SimCodeModel tail = this.reorderQueue.peekLast();
+    if ((head != null && head.isReadyToBeCommitted()) || (tail != null && tail.shouldBeRemoved()))
+    {
+      return cycle;
+    }
+    boolean robFull            = this.bufferSize < (this.reorderQueue.size() + 1);
+    boolean instructionHasRoom = !robFull && loadBufferBlock.hasSpace() && storeBufferBlock.hasSpace();
+    if (instructionHasRoom && !this.decodeAndDispatchBlock.getCodeBuffer().isEmpty())
+    {
+      return cycle;
+    }
+    return Integer.MAX_VALUE;
+  }// end of nextEventTick
+  //----------------------------------------------------------------------
+  
   /**
    * Writes into architectural register, updates statistics
    *
@@ -258,7 +294,7 @@ public class ReorderBufferBlock implements AbstractBlock
       
       // Feedback to predictor
       // TODO look into gshareunit
-      this.gShareUnit.getPredictor(pc).sendFeedback(branchActuallyTaken);
+      this.gShareUnit.sendFeedback(pc, branchActuallyTaken);
       this.branchTargetBuffer.setEntry(pc, codeModel, codeModel.getBranchTarget());
       
       // Update GHT
@@ -292,7 +328,7 @@ public class ReorderBufferBlock implements AbstractBlock
       else
       {
         // The next instruction is wrong. Flush the queue.
-        SimCodeModel robItem = this.reorderQueue.stream().skip(1).findFirst().orElse(null);
+        SimCodeModel robItem = this.reorderQueue.size() > 1 ? this.reorderQueue.get(1) : null;
         flush(robItem); // OK to call with null
         
         // Feedback to predictor
@@ -314,6 +350,7 @@ public class ReorderBufferBlock implements AbstractBlock
         // Store checks later loads that are already executed
         StoreBufferItem storeBufferItem = storeBufferBlock.getStoreBufferItem(codeModel.getIntegerId());
         LoadBufferItem badLoad = loadBufferBlock.findConflictingLoad(storeBufferItem.getAddress(),
+                                                                     storeBufferItem.getAccessSize(),
                                                                      codeModel.getIntegerId());
         if (badLoad != null)
         {
@@ -338,18 +375,15 @@ public class ReorderBufferBlock implements AbstractBlock
     }
     
     // Store registers to arch. register file
-    List<InstructionArgument> arguments = codeModel.instructionFunctionModel().arguments();
-    for (InstructionArgument argument : arguments)
+    InstructionFunctionModel instruction = codeModel.instructionFunctionModel();
+    for (int index : instruction.compiled().getWriteBackIndices())
     {
-      if (!argument.writeBack())
-      {
-        continue;
-      }
-      assert argument.isRegister();
-      InputCodeArgument codeArgument = codeModel.getArgumentByName(argument.name());
+      assert instruction.arguments().get(index).isRegister();
+      InputCodeArgument codeArgument = codeModel.getArgument(index);
       if (codeArgument == null)
       {
-        throw new IllegalArgumentException("Argument " + argument.name() + " not found in code model");
+        throw new IllegalArgumentException(
+                "Argument " + instruction.arguments().get(index).name() + " not found in code model");
       }
       RegisterModel reg = codeArgument.getRegisterValue();
       if (reg.isSpeculative())
@@ -369,10 +403,12 @@ public class ReorderBufferBlock implements AbstractBlock
   /**
    * Sets finished flag, reduces references to speculative registers
    *
-   * @brief Handles removal of instruction from the system
+   * @brief Handles removal of committed instruction from the system
    */
   private void removeInstruction(SimCodeModel simCodeModel)
   {
+    renameMapTableBlock.commit(simCodeModel.getIntegerId());
+    
     // Reduce references to speculative registers
     for (InputCodeArgument argument : simCodeModel.arguments())
     {
@@ -402,10 +438,9 @@ public class ReorderBufferBlock implements AbstractBlock
   public void flushInvalidInstructions(int cycle)
   {
     // Iterate the queue from the end, remove until first valid instruction
-    Iterator<SimCodeModel> it = this.reorderQueue.descendingIterator();
-    while (it.hasNext())
+    while (!this.reorderQueue.isEmpty())
     {
-      SimCodeModel robItem = it.next();
+      SimCodeModel robItem = this.reorderQueue.peekLast();
       if (!robItem.shouldBeRemoved())
       {
         break;
@@ -414,7 +449,8 @@ public class ReorderBufferBlock implements AbstractBlock
       // Notify all that instruction is invalid
       simulationStatistics.incrementFailedInstructions();
       robItem.setCommitId(cycle); // todo: is this correct?
-      removeInstruction(robItem);
+      // The flush has restored the renaming, the registers are released already
+      robItem.setFinished(true);
       this.reorderQueue.removeLast();
     }
   }// end of flushInvalidInstructions
@@ -466,15 +502,10 @@ public class ReorderBufferBlock implements AbstractBlock
    */
   private void validateInstructions()
   {
-    boolean skipFirst = true;
-    for (SimCodeModel item : this.reorderQueue)
+    // Skip the first instruction, it is the branch that caused the speculation
+    for (int i = 1; i < this.reorderQueue.size(); i++)
     {
-      if (skipFirst)
-      {
-        // Skip because the first instruction is the branch that caused the speculation
-        skipFirst = false;
-        continue;
-      }
+      SimCodeModel item = this.reorderQueue.get(i);
       item.setSpeculative(false);
       
       if (item.getInstructionTypeEnum() == InstructionTypeEnum.kJumpbranch)
@@ -494,13 +525,13 @@ public class ReorderBufferBlock implements AbstractBlock
    */
   public void flush(SimCodeModel firstInvalidInstruction)
   {
-    boolean flush           = false;
-    int     lowestFlushedId = Integer.MAX_VALUE;
-    for (SimCodeModel robItem : this.reorderQueue)
+    int lowestFlushedId = Integer.MAX_VALUE;
+    int firstIndex      = firstInvalidInstruction == null ? -1 : indexOf(firstInvalidInstruction.getIntegerId());
+    if (firstIndex != -1 && this.reorderQueue.get(firstIndex) == firstInvalidInstruction)
     {
-      flush = flush || robItem == firstInvalidInstruction;
-      if (flush)
+      for (int i = firstIndex; i < this.reorderQueue.size(); i++)
       {
+        SimCodeModel robItem = this.reorderQueue.get(i);
         robItem.setSpeculative(false);
         robItem.setValid(false);
         robItem.setHasFailed(true);
@@ -508,17 +539,18 @@ public class ReorderBufferBlock implements AbstractBlock
       }
     }
     
-    this.decodeAndDispatchBlock.getCodeBuffer().forEach(
-            simCodeModel -> simCodeModel.arguments().stream().filter(InputCodeArgument::isRegister).forEach(argument ->
-                                                                                                            {
-                                                                                                              RegisterModel register = argument.getRegisterValue();
-                                                                                                              if (!register.isSpeculative())
-                                                                                                              {
-                                                                                                                return;
-                                                                                                              }
-                                                                                                              renameMapTableBlock.reduceReference(
-                                                                                                                      argument.getRegisterValue());
-                                                                                                            }));
+    // The decoded instructions are younger than the whole ROB
+    List<SimCodeModel> decoded       = this.decodeAndDispatchBlock.getCodeBuffer();
+    int                firstSquashed = lowestFlushedId;
+    if (firstSquashed == Integer.MAX_VALUE && !decoded.isEmpty())
+    {
+      firstSquashed = decoded.get(0).getIntegerId();
+    }
+    if (firstSquashed != Integer.MAX_VALUE)
+    {
+      // Release the registers of all squashed instructions at once
+      renameMapTableBlock.restore(firstSquashed);
+    }
     // clear what you can
     this.decodeAndDispatchBlock.flush();
     this.instructionFetchBlock.flush();
@@ -535,10 +567,65 @@ public class ReorderBufferBlock implements AbstractBlock
   
   public SimCodeModel getRobItem(int simCodeId)
   {
-    return this.reorderQueue.stream().filter(robItem -> robItem.getIntegerId() == simCodeId).findFirst().orElse(null);
+    int index = indexOf(simCodeId);
+    return index == -1 ? null : this.reorderQueue.get(index);
   }// end of getFlagsMap
   //----------------------------------------------------------------------
   
+  /**
+   * The IDs of the instructions grow in program order, so the queue is sorted by ID.
+   *
+   * @param simCodeId ID of the instruction
+   *
+   * @return Position of the instruction in the queue, -1 if it is not in the ROB
+   */
+  private int indexOf(int simCodeId)
+  {
+    int low  = 0;
+    int high = this.reorderQueue.size() - 1;
+    while (low <= high)
+    {
+      int mid = (low + high) >>> 1;
+      int id  = this.reorderQueue.get(mid).getIntegerId();
+      if (id < simCodeId)
+      {
+        low = mid + 1;
+      }
+      else if (id > simCodeId)
+      {
+        high = mid - 1;
+      }
+      else
+      {
+        return mid;
+      }
+    }
+    return -1;
+  }// end of indexOf
+  //----------------------------------------------------------------------
+  
+  /**
+   * All the instructions without an issue window are dispatched in the same cycle, and the ROB is filled in order,
+   * so the instructions not dispatched yet are always the youngest ones.
+   *
+   * @return Instructions not dispatched to an issue window yet, oldest first
+   */
+  public List<SimCodeModel> getNotDispatchedInstructions()
+  {
+    int first = this.reorderQueue.size();
+    while (first > 0 && this.reorderQueue.get(first - 1).issueWindowId == -1)
+    {
+      first--;
+    }
+    List<SimCodeModel> notDispatched = new ArrayList<>(this.reorderQueue.size() - first);
+    for (int i = first; i < this.reorderQueue.size(); i++)
+    {
+      notDispatched.add(this.reorderQueue.get(i));
+    }
+    return notDispatched;
+  }// end of getNotDispatchedInstructions
+  //----------------------------------------------------------------------
+  
   /**
    * @return Current reorder queue
    * @brief Get current Reorder queue
@@ -557,4 +644,23 @@ public class ReorderBufferBlock implements AbstractBlock
   {
     return this.reorderQueue.stream();
   }// end of getReorderQueue
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return The jump target address triggering the halt
+   */
+  public long getHaltTarget()
+  {
+    return this.haltTarget;
+  }// end of getHaltTarget
+  
+  /**
+   * @brief Feeds the instructions in the buffer and the stop reason
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(bufferSize).add(commitLimit).add(haltTarget).add(stopReason).addReferences(reorderQueue);
+  }// end of hashState
+  //----------------------------------------------------------------------
 }
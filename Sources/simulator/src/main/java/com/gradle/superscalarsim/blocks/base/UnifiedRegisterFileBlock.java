@@ -37,11 +37,15 @@ import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.enums.RegisterReadinessEnum;
 import com.gradle.superscalarsim.factories.RegisterModelFactory;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.register.IRegisterFile;
 import com.gradle.superscalarsim.models.register.RegisterFileModel;
 import com.gradle.superscalarsim.models.register.RegisterModel;
 import com.gradle.superscalarsim.models.register.SpeculativeRegisterFile;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -51,8 +55,10 @@ import java.util.Map;
  * @brief Class contains interface to interact with all register files and its registers
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class UnifiedRegisterFileBlock
+public class UnifiedRegisterFileBlock implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
   
   /**
    * Mapping of names to register objects.
@@ -132,7 +138,7 @@ public class UnifiedRegisterFileBlock
   }
   //----------------------------------------------------------------------
   
-  public IRegisterFile getSpeculativeRegisterFile()
+  public SpeculativeRegisterFile getSpeculativeRegisterFile()
   {
     return speculativeRegisterFile;
   }
@@ -179,4 +185,14 @@ public class UnifiedRegisterFileBlock
     }
     return registerValues;
   }
+  
+  /**
+   * @brief Feeds the number of registers. The registers are hashed by the manager.
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(registerMap.size()).add(speculativeRegisterFile.getRegisterCount());
+  }// end of hashState
+  //----------------------------------------------------------------------
 }
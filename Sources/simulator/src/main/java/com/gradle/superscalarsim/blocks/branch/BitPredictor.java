@@ -31,13 +31,22 @@
  */
 package com.gradle.superscalarsim.blocks.branch;
 
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * @class BitPredictor
  * @brief Bit predictor with a state of n bits.
  * @details Basically a saturating counter.
  */
-public class BitPredictor
+public class BitPredictor implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   public static final int TAKEN = 1;
   public static final int NOT_TAKEN = 0;
   public static final int STRONGLY_TAKEN = 3;
@@ -65,6 +74,18 @@ public class BitPredictor
     this.state    = bitPredictor.state;
   }
   
+  /**
+   * @param bitWidth Size of the state in bits
+   * @param state    State of the counter
+   *
+   * @brief Constructor of a counter in a given state
+   */
+  BitPredictor(int bitWidth, int state)
+  {
+    this.bitWidth = bitWidth;
+    this.state    = state;
+  }
+  
   /**
    * @param config The configuration
    *
@@ -82,6 +103,18 @@ public class BitPredictor
    * @brief Get prediction based on the current state
    */
   public boolean getCurrentPrediction()
+  {
+    return getPrediction(state, bitWidth);
+  }
+  
+  /**
+   * @param state    State of the counter
+   * @param bitWidth Size of the state in bits
+   *
+   * @return True if branch should be taken, false otherwise
+   * @brief Get prediction of a counter in the given state. Used by the tables that store the states in arrays.
+   */
+  static boolean getPrediction(int state, int bitWidth)
   {
     // The decision is the highest order bit
     int decisionBit = bitWidth == 0 ? 0 : bitWidth - 1;
@@ -94,41 +127,28 @@ public class BitPredictor
    */
   public void sendFeedback(boolean outcome)
   {
-    if (outcome)
-    {
-      upTheProbability();
-    }
-    else
-    {
-      downTheProbability();
-    }
+    state = nextState(state, bitWidth, outcome);
   }
   
   /**
-   * @brief Ups the probability that branch instruction should be taken
+   * @param state    State of the counter
+   * @param bitWidth Size of the state in bits
+   * @param outcome  True if the branch was taken
+   *
+   * @return New state of the counter, moved towards the outcome and saturated
    */
-  void upTheProbability()
+  static int nextState(int state, int bitWidth, boolean outcome)
   {
-    int maxState = (1 << bitWidth) - 1;
-    if (state < maxState)
+    if (outcome)
     {
-      state++;
+      int maxState = (1 << bitWidth) - 1;
+      return state < maxState ? state + 1 : state;
     }
-  }
-  
-  /**
-   * @brief Downs the probability that branch instruction should be taken
-   */
-  void downTheProbability()
-  {
     if (bitWidth == 0)
     {
-      return;
-    }
-    if (state > 0)
-    {
-      state--;
+      return state;
     }
+    return state > 0 ? state - 1 : state;
   }
   
   /**
@@ -139,6 +159,14 @@ public class BitPredictor
     return state;
   }
   
+  /**
+   * @return Size of the state in bits
+   */
+  public int getBitWidth()
+  {
+    return bitWidth;
+  }
+  
   /**
    * Enum for predictor types with values
    * Gets serialized as
@@ -173,4 +201,13 @@ public class BitPredictor
       };
     }
   }
+  
+  /**
+   * @brief Feeds the state and the width of the counter
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(state).add(bitWidth);
+  }
 }
@@ -47,9 +47,14 @@ import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.register.RegisterModel;
 import com.gradle.superscalarsim.models.util.Result;
 
+import java.io.Serial;
+
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
 public class BranchFunctionUnitBlock extends AbstractFunctionUnitBlock
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Interpreter for interpreting executing instructions
    */
@@ -91,7 +96,7 @@ public class BranchFunctionUnitBlock extends AbstractFunctionUnitBlock
     this.simCodeModel.setBranchLogicResult(jumpTaken);
     // Used to fix BTB and PC in misprediction
     this.simCodeModel.setBranchTarget(jumpTarget);
-    InputCodeArgument destinationArgument = simCodeModel.getArgumentByName("rd");
+    InputCodeArgument destinationArgument = simCodeModel.getDestinationArgument();
     if (destinationArgument != null)
     {
       // Write the result to the register
@@ -162,6 +167,20 @@ public class BranchFunctionUnitBlock extends AbstractFunctionUnitBlock
     }
   }// end of simulate
   
+  /**
+   * @brief Advances the FU by a number of cycles in which it only waits. Busy cycles are not counted for branches.
+   */
+  @Override
+  public void skipCycles(int cycles)
+  {
+    if (isFunctionUnitEmpty())
+    {
+      super.skipCycles(cycles);
+      return;
+    }
+    this.counter = this.counter + cycles;
+  }// end of skipCycles
+  
   /**
    * @brief Processes instruction
    */
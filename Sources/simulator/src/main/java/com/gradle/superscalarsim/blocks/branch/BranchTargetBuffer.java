@@ -33,10 +33,18 @@
 package com.gradle.superscalarsim.blocks.branch;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.models.BranchTargetEntryModel;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -45,14 +53,33 @@ import java.util.TreeMap;
  * @brief Table where each entry holds the target of a branch instruction.
  * The target can be unknown (-1). The table is indexed by the PC of the branch instruction
  * and the tag is compared to determine if the entry is valid or shared.
+ * @details Direct-mapped, the entries are stored in parallel arrays. The map of entries shown in the GUI
+ * is derived from the arrays when serialized.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class BranchTargetBuffer
+@JsonPropertyOrder({"buffer", "size"})
+public class BranchTargetBuffer implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * PC tags of the entries, -1 for empty entries
+   */
+  @JsonIgnore
+  private final int[] pcTags;
+  
+  /**
+   * True if the entry belongs to a conditional branch
+   */
+  @JsonIgnore
+  private final boolean[] conditional;
+  
   /**
-   * Buffer for branch instruction targets
+   * Targets of the entries. Not an offset.
    */
-  private final Map<Integer, BranchTargetEntryModel> buffer;
+  @JsonIgnore
+  private final int[] targets;
   
   /**
    * Size of the buffer
@@ -66,10 +93,11 @@ public class BranchTargetBuffer
    */
   public BranchTargetBuffer(int size)
   {
-    // TreeMap is used to have sorted keys - display in GUI
-    // TODO: change, measure if SparseArray is faster
-    this.buffer = new TreeMap<>();
-    this.size   = size;
+    this.pcTags      = new int[size];
+    this.conditional = new boolean[size];
+    this.targets     = new int[size];
+    this.size        = size;
+    Arrays.fill(this.pcTags, -1);
   }// end of Constructor
   //----------------------------------------------------------------------
   
@@ -83,19 +111,13 @@ public class BranchTargetBuffer
   public void setEntry(int programCounter, SimCodeModel codeModel, int target)
   {
     assert codeModel != null;
-    BranchTargetEntryModel entryModel = new BranchTargetEntryModel(programCounter, codeModel.isConditionalBranch(),
-                                                                   target);
-    
-    this.buffer.put(programCounter % this.size, entryModel);
+    int index = programCounter % this.size;
+    this.pcTags[index]      = programCounter;
+    this.conditional[index] = codeModel.isConditionalBranch();
+    this.targets[index]     = target;
   }// end of setEntry
   //----------------------------------------------------------------------
   
-  BranchTargetEntryModel getBranchEntry(int programCounter)
-  {
-    return this.buffer.getOrDefault(programCounter % this.size, new BranchTargetEntryModel(-1, false, -1));
-  }
-  //----------------------------------------------------------------------
-  
   /**
    * @param programCounter Position of the instruction in program
    *
@@ -104,8 +126,8 @@ public class BranchTargetBuffer
    */
   public int getEntryTarget(int programCounter)
   {
-    BranchTargetEntryModel entryModel = getBranchEntry(programCounter);
-    return entryModel.getPcTag() == programCounter ? entryModel.getTarget() : -1;
+    int index = programCounter % this.size;
+    return pcTags[index] == programCounter ? targets[index] : -1;
   }// end of getEntryTarget
   //----------------------------------------------------------------------
   
@@ -117,8 +139,36 @@ public class BranchTargetBuffer
    */
   public boolean isEntryUnconditional(int programCounter)
   {
-    BranchTargetEntryModel entryModel = getBranchEntry(programCounter);
-    return entryModel.getPcTag() == programCounter && !entryModel.isConditional();
+    int index = programCounter % this.size;
+    return pcTags[index] == programCounter && !conditional[index];
   }// end of isEntryUnconditional
   //----------------------------------------------------------------------
+  
+  /**
+   * @return Filled entries by their index, in order. A copy, for displaying in GUI.
+   */
+  @JsonProperty("buffer")
+  public Map<Integer, BranchTargetEntryModel> getBuffer()
+  {
+    Map<Integer, BranchTargetEntryModel> buffer = new TreeMap<>();
+    for (int i = 0; i < size; i++)
+    {
+      if (pcTags[i] != -1)
+      {
+        buffer.put(i, new BranchTargetEntryModel(pcTags[i], conditional[i], targets[i]));
+      }
+    }
+    return buffer;
+  }// end of getBuffer
+  //----------------------------------------------------------------------
+  
+  /**
+   * @brief Feeds the entries of the buffer
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(size).addUnordered(getBuffer());
+  }// end of hashState
+  //----------------------------------------------------------------------
 }
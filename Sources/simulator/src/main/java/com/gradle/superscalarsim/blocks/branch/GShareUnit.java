@@ -35,6 +35,11 @@ package com.gradle.superscalarsim.blocks.branch;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.Serial;
+import java.io.Serializable;
 
 /**
  * @brief The interaction point between prediction and the rest of the CPU.
@@ -42,8 +47,11 @@ import com.fasterxml.jackson.annotation.ObjectIdGenerators;
  * <a href="https://courses.cs.washington.edu/courses/csep548/06au/lectures/branchPred.pdf">Useful link about Correlated Predictor.</a>
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class GShareUnit
+public class GShareUnit implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Table with all bit predictors
    */
@@ -87,17 +95,40 @@ public class GShareUnit
   }// end of Constructor
   //----------------------------------------------------------------------
   
+  /**
+   * @param predictorIndex Index of the predictor, see {@link #getPredictorIndex(int)}
+   *
+   * @return State of the predictor
+   * @brief Get state of a predictor from PHT
+   */
+  public int getPredictorState(int predictorIndex)
+  {
+    return this.patternHistoryTable.getState(predictorIndex);
+  }// end of getPredictorState
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param predictorIndex Index of the predictor, see {@link #getPredictorIndex(int)}
+   *
+   * @return True if the branch is predicted as taken
+   * @brief Get prediction of a predictor from PHT
+   */
+  public boolean getPrediction(int predictorIndex)
+  {
+    return this.patternHistoryTable.getPrediction(predictorIndex);
+  }// end of getPrediction
+  //----------------------------------------------------------------------
+  
   /**
    * @param programCounter Position of the branch instruction
+   * @param outcome        True if the branch was taken
    *
-   * @return Predictor on the specified index
-   * @brief Get predictor from PHT
+   * @brief Sends the outcome of the branch to its predictor, selected with the current history
    */
-  public BitPredictor getPredictor(int programCounter)
+  public void sendFeedback(int programCounter, boolean outcome)
   {
-    int index = getPredictorIndex(programCounter);
-    return this.patternHistoryTable.getPredictor(index);
-  }// end of getPredictor
+    this.patternHistoryTable.sendFeedback(getPredictorIndex(programCounter), outcome);
+  }// end of sendFeedback
   //----------------------------------------------------------------------
   
   /**
@@ -127,4 +158,14 @@ public class GShareUnit
   }// end of getGlobalHistoryRegister
   
   //----------------------------------------------------------------------
+  
+  /**
+   * @brief Feeds the configuration of the unit. The tables are hashed by their owners.
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(size).add(useGlobalHistory);
+  }// end of hashState
+  //----------------------------------------------------------------------
 }
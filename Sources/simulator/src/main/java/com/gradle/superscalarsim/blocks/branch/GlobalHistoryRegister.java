@@ -33,9 +33,17 @@
 package com.gradle.superscalarsim.blocks.branch;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -45,10 +53,16 @@ import java.util.List;
  * The value of the register is used to index the table of predictors.
  * The history is updated only by conditional branches in the _fetch_ stage.
  * The GHR is updated speculatively, therefore it must be restore-able to a previous state.
+ * Every conditional branch in flight keeps a checkpoint of the register after its shift, in two parallel arrays,
+ * so a flush restores the history by dropping the checkpoints of the flushed branches.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class GlobalHistoryRegister
+@JsonPropertyOrder({"size", "shiftRegisters"})
+public class GlobalHistoryRegister implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Size of the GHR in bits
    */
@@ -57,7 +71,18 @@ public class GlobalHistoryRegister
    * @brief History of the shift register. The first element is the architectural state of the register.
    * The rest of the elements are the changes of the register. The changes are used for restoration after a flush.
    */
-  private List<Register> shiftRegisters;
+  @JsonIgnore
+  private int[] values;
+  /**
+   * Code ids of the conditional branches that caused the changes in {@link #values}. -1 for the architectural state.
+   */
+  @JsonIgnore
+  private int[] codeIds;
+  /**
+   * Number of valid elements in the history, at least one
+   */
+  @JsonIgnore
+  private int count;
   
   /**
    * @param size Size of the bit vector. Values 1-8 are allowed.
@@ -70,8 +95,10 @@ public class GlobalHistoryRegister
     this.size = size;
     
     // The initial state of the shift register is all zeros
-    this.shiftRegisters = new ArrayList<>();
-    this.shiftRegisters.add(new Register(0, -1));
+    this.values  = new int[16];
+    this.codeIds = new int[16];
+    this.count   = 1;
+    this.codeIds[0] = -1;
   }// end of Constructor
   //----------------------------------------------------------------------
   
@@ -80,8 +107,8 @@ public class GlobalHistoryRegister
    */
   public int getArchitecturalState()
   {
-    assert !this.shiftRegisters.isEmpty();
-    return this.shiftRegisters.get(0).shiftRegister;
+    assert count > 0;
+    return this.values[0];
   }
   
   /**
@@ -95,7 +122,29 @@ public class GlobalHistoryRegister
     int newRegisterValue  = (lastRegisterValue << 1) | (isJump ? 1 : 0);
     int mask              = (1 << size) - 1;
     newRegisterValue &= mask;
-    shiftRegisters.add(new Register(newRegisterValue, codeId));
+    if (count == values.length)
+    {
+      values  = Arrays.copyOf(values, count * 2);
+      codeIds = Arrays.copyOf(codeIds, count * 2);
+    }
+    values[count]  = newRegisterValue;
+    codeIds[count] = codeId;
+    count++;
+  }
+  
+  /**
+   * @param isJump Was the branch taken or not?
+   *
+   * @brief Shifts a committed bit directly into the architectural state.
+   * Only valid without speculative history, i.e. during the functional fast-forward.
+   */
+  public void shiftArchitecturalValue(boolean isJump)
+  {
+    assert this.count == 1;
+    int newRegisterValue = (getArchitecturalState() << 1) | (isJump ? 1 : 0);
+    int mask             = (1 << size) - 1;
+    this.values[0]  = newRegisterValue & mask;
+    this.codeIds[0] = -1;
   }
   
   /**
@@ -104,7 +153,7 @@ public class GlobalHistoryRegister
    */
   public int getRegisterValue()
   {
-    return shiftRegisters.get(shiftRegisters.size() - 1).shiftRegister;
+    return values[count - 1];
   }// end of getRegisterValueAsInt
   //----------------------------------------------------------------------
   
@@ -113,14 +162,11 @@ public class GlobalHistoryRegister
    */
   public void flush(int lastValidCodeId)
   {
-    // They are sorted, so find the point where to cut and remove the rest
-    int i = shiftRegisters.size() - 1;
-    while (i > 0 && shiftRegisters.get(i).codeId > lastValidCodeId)
+    // They are sorted, so drop the checkpoints from the end
+    while (count > 1 && codeIds[count - 1] > lastValidCodeId)
     {
-      i--;
+      count--;
     }
-    shiftRegisters = shiftRegisters.subList(0, i + 1);
-    assert !shiftRegisters.isEmpty();
   }
   
   /**
@@ -129,14 +175,11 @@ public class GlobalHistoryRegister
    */
   public void fixPrediction(boolean isJump, int codeId)
   {
-    Register register = shiftRegisters.get(shiftRegisters.size() - 1);
-    assert register.codeId == codeId;
+    assert codeIds[count - 1] == codeId;
     
-    int lastRegisterValue = register.shiftRegister;
+    int lastRegisterValue = values[count - 1];
     // set or clear the last bit
-    int newRegisterValue = isJump ? lastRegisterValue | 1 : lastRegisterValue & ~1;
-    shiftRegisters.remove(shiftRegisters.size() - 1);
-    shiftRegisters.add(new Register(newRegisterValue, codeId));
+    values[count - 1] = isJump ? lastRegisterValue | 1 : lastRegisterValue & ~1;
   }
   
   /**
@@ -146,14 +189,33 @@ public class GlobalHistoryRegister
   public void commit(int codeId)
   {
     // Set new base, new architectural state
-    // So find an index, take the sublist
+    // So find an index and drop everything before it
     int i = 0;
-    while (i < shiftRegisters.size() - 1 && shiftRegisters.get(i).codeId < codeId)
+    while (i < count - 1 && codeIds[i] < codeId)
     {
       i++;
     }
-    shiftRegisters = shiftRegisters.subList(i, shiftRegisters.size());
-    assert !shiftRegisters.isEmpty();
+    if (i > 0)
+    {
+      System.arraycopy(values, i, values, 0, count - i);
+      System.arraycopy(codeIds, i, codeIds, 0, count - i);
+      count -= i;
+    }
+    assert count > 0;
+  }
+  
+  /**
+   * @return The architectural state and the speculative changes of the register, oldest first. A copy, for the GUI.
+   */
+  @JsonProperty("shiftRegisters")
+  List<Register> getShiftRegisters()
+  {
+    List<Register> shiftRegisters = new ArrayList<>(count);
+    for (int i = 0; i < count; i++)
+    {
+      shiftRegisters.add(new Register(values[i], codeIds[i]));
+    }
+    return shiftRegisters;
   }
   
   /**
@@ -165,6 +227,20 @@ public class GlobalHistoryRegister
     return Integer.toBinaryString(getRegisterValue());
   }// end of toString
   
+  /**
+   * @brief Feeds the architectural and all speculative values of the register
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(size).add(count);
+    for (int i = 0; i < count; i++)
+    {
+      hasher.add(values[i]).add(codeIds[i]);
+    }
+  }// end of hashState
+  //----------------------------------------------------------------------
+  
   /**
    * @param shiftRegister The value of the shift register. A bit array.
    * @param codeId        The code id of the conditional branch instruction that caused the shift. Used for restoration/confirmation.
@@ -172,7 +248,9 @@ public class GlobalHistoryRegister
    * @brief An entry for state of the shift register
    * @details Index 0 is the newest bit. New value is written for every committed conditional branch. The initial state is all zeros.
    */
-  record Register(int shiftRegister, int codeId)
+  record Register(int shiftRegister, int codeId) implements Serializable
   {
+    @Serial
+    private static final long serialVersionUID = 1L;
   }
 }
@@ -34,23 +34,44 @@ package com.gradle.superscalarsim.blocks.branch;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Map;
 import java.util.TreeMap;
 
 /**
  * @class PatternHistoryTable
  * @brief Class contains Pattern history table, which holds separate bit predictors
+ * @details The states of the counters are kept in a dense array indexed by the predictor index.
+ * The GUI shows only the predictors that have been used, so the used entries are tracked as well
+ * and the map of predictors is derived from the arrays when serialized.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class PatternHistoryTable
+@JsonPropertyOrder({"predictorMap", "size", "defaultPredictor"})
+public class PatternHistoryTable implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * States of the counters, indexed by the predictor index
+   */
+  @JsonIgnore
+  private final int[] states;
+  
   /**
-   * Collection of predictors
-   * This collection is sparse, new predictors are added only when needed
+   * Entries that have been used (read or updated). Unused entries are in the default state.
    */
-  private final Map<Integer, BitPredictor> predictorMap;
+  @JsonIgnore
+  private final BitSet used;
   
   /**
    * Size of the PHT
@@ -63,40 +84,90 @@ public class PatternHistoryTable
   BitPredictor defaultPredictor;
   
   /**
-   * @param size                  Size of the PHT
-   * @param defaultState          Default state of the predictors, used for creating new predictors
-   * @param defaultPredictorClass Default type of the predictor, used for creating new predictors
+   * @param size             Size of the PHT
+   * @param defaultPredictor Type and initial state of the predictors
    *
    * @brief Constructor
    */
   public PatternHistoryTable(int size, BitPredictor defaultPredictor)
   {
-    // Use tree map to keep the order of the predictors for displaying in GUI
-    // todo: type?
-    this.predictorMap     = new TreeMap<>();
+    this.states           = new int[size];
+    this.used             = new BitSet(size);
     this.size             = size;
     this.defaultPredictor = defaultPredictor;
+    Arrays.fill(this.states, defaultPredictor.getState());
   }// end of Constructor
   
   /**
    * @param index Index of the predictor
    *
-   * @return Bit predictor
-   * @brief Get predictor on specified index
+   * @return Position of the predictor in the table. Marks the entry as used.
    */
-  @JsonIgnore
-  public BitPredictor getPredictor(int index)
+  private int entry(int index)
+  {
+    int entry = index % size;
+    used.set(entry);
+    return entry;
+  }// end of entry
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param index Index of the predictor
+   *
+   * @return State of the predictor on specified index
+   */
+  public int getState(int index)
+  {
+    return states[entry(index)];
+  }// end of getState
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param index Index of the predictor
+   *
+   * @return True if the predictor on specified index predicts the branch as taken
+   */
+  public boolean getPrediction(int index)
+  {
+    return BitPredictor.getPrediction(states[entry(index)], defaultPredictor.getBitWidth());
+  }// end of getPrediction
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param index   Index of the predictor
+   * @param outcome True if the branch was taken
+   *
+   * @brief Adjusts the predictor on specified index based on the actual outcome
+   */
+  public void sendFeedback(int index, boolean outcome)
   {
-    BitPredictor predictor    = this.predictorMap.get(index % size);
-    boolean      hasPredictor = predictor != null;
-    if (!hasPredictor)
+    int entry = entry(index);
+    states[entry] = BitPredictor.nextState(states[entry], defaultPredictor.getBitWidth(), outcome);
+  }// end of sendFeedback
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return Used predictors by their index, in order. A copy, for displaying in GUI.
+   */
+  @JsonProperty("predictorMap")
+  public Map<Integer, BitPredictor> getPredictorMap()
+  {
+    Map<Integer, BitPredictor> predictorMap = new TreeMap<>();
+    for (int i = used.nextSetBit(0); i >= 0; i = used.nextSetBit(i + 1))
     {
-      // Insert default predictor
-      predictor = new BitPredictor(this.defaultPredictor);
-      this.predictorMap.put(index % size, predictor);
+      predictorMap.put(i, new BitPredictor(defaultPredictor.getBitWidth(), states[i]));
     }
-    return predictor;
-  }// end of getPredictor
+    return predictorMap;
+  }// end of getPredictorMap
+  //----------------------------------------------------------------------
+  
+  /**
+   * @brief Feeds the state of all used predictors
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(size).add(defaultPredictor).addUnordered(getPredictorMap());
+  }// end of hashState
   //----------------------------------------------------------------------
 }
-
@@ -38,12 +38,16 @@ import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.cpu.SimulationStatistics;
 import com.gradle.superscalarsim.enums.cache.ReplacementPoliciesEnum;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.cache.CacheLineModel;
 import com.gradle.superscalarsim.models.cache.ReplacementPolicyModel;
 import com.gradle.superscalarsim.models.memory.MemoryTransaction;
+import com.gradle.superscalarsim.models.util.StateHasher;
 import com.gradle.superscalarsim.models.util.Triplet;
 
+import java.io.Serial;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -67,8 +71,11 @@ import java.util.List;
  *   Issues: If the number of cache requests in a single cycle is greater than the associativity, the cache will fail
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class Cache implements AbstractBlock, MemoryBlock
+public class Cache implements AbstractBlock, MemoryBlock, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Constant cache ID
    */
@@ -271,6 +278,105 @@ public class Cache implements AbstractBlock, MemoryBlock
     return returnVal;
   }
   
+  /**
+   * Used by the functional fast-forward to warm up the cache. No delay, no transactions, no statistics.
+   *
+   * @param address starting byte of the access (can be misaligned)
+   * @param size    Size of the access in bytes
+   *
+   * @return The loaded data
+   * @brief Loads data immediately, bringing the lines into the cache
+   */
+  public byte[] loadFunctional(long address, int size)
+  {
+    byte[] data = new byte[size];
+    int    done = 0;
+    while (done < size)
+    {
+      long           current = address + done;
+      int            offset  = (int) (current & (lineSize - 1));
+      int            chunk   = Math.min(size - done, lineSize - offset);
+      CacheLineModel line    = getLineFunctional(current);
+      System.arraycopy(line.getDataBytes(offset, chunk), 0, data, done, chunk);
+      done += chunk;
+    }
+    return data;
+  }
+  
+  /**
+   * Used by the functional fast-forward to warm up the cache. No delay, no transactions, no statistics.
+   *
+   * @param address starting byte of the access (can be misaligned)
+   * @param data    Data to store
+   *
+   * @brief Stores data immediately, bringing the lines into the cache
+   */
+  public void storeFunctional(long address, byte[] data)
+  {
+    int done = 0;
+    while (done < data.length)
+    {
+      long           current = address + done;
+      int            offset  = (int) (current & (lineSize - 1));
+      int            chunk   = Math.min(data.length - done, lineSize - offset);
+      CacheLineModel line    = getLineFunctional(current);
+      line.setData(offset, Arrays.copyOfRange(data, done, done + chunk));
+      if (writeBack)
+      {
+        line.setDirty(true);
+      }
+      done += chunk;
+    }
+    if (!writeBack)
+    {
+      memory.insertIntoMemory(address, data);
+    }
+  }
+  
+  /**
+   * @param address starting byte of the access (can be misaligned)
+   *
+   * @return The line holding the address. On a miss, a line is picked like in {@link #pickLineToUse(long, int, int)}
+   * and filled from the memory immediately. A dirty victim is written back immediately.
+   */
+  private CacheLineModel getLineFunctional(long address)
+  {
+    CacheLineModel line = findLane(address, true);
+    if (line != null)
+    {
+      return line;
+    }
+    
+    Triplet<Long, Integer, Integer> addressSplit = splitAddress(address);
+    int                             index        = addressSplit.getSecond();
+    int                             way          = -1;
+    for (int i = 0; i < associativity && way == -1; i++)
+    {
+      if (!cache[index][i].isValid())
+      {
+        way = i;
+      }
+    }
+    if (way == -1)
+    {
+      way = replacementPolicy.getLineToReplace(index);
+    }
+    
+    line = cache[index][way];
+    if (line.isValid() && line.isDirty())
+    {
+      memory.insertIntoMemory(line.getBaseAddress(), line.getLineData());
+    }
+    long baseAddress = address & -(1L << getOffsetBits());
+    line.setLineData(memory.getFromMemory(baseAddress, lineSize));
+    line.setValid(true);
+    line.setDirty(false);
+    line.setTag(addressSplit.getFirst());
+    line.setBaseAddress(baseAddress);
+    replacementPolicy.updatePolicy(index, way);
+    return line;
+  }
+  
   /**
    * @param address      starting byte of the access (can be misaligned)
    * @param updatePolicy Should the replacement policy be updated?
@@ -403,6 +509,16 @@ public class Cache implements AbstractBlock, MemoryBlock
     }
   }
   
+  /**
+   * @brief The cache changes only when one of its own or main memory transactions finishes
+   */
+  @Override
+  public int nextEventTick(int cycle)
+  {
+    return Math.min(MemoryBlock.nextEventTick(memoryTransactions, cycle),
+                    MemoryBlock.nextEventTick(cacheTransactions, cycle));
+  }
+  
   /**
    * @param transaction The transaction to execute
    *
@@ -722,4 +838,22 @@ public class Cache implements AbstractBlock, MemoryBlock
     memoryTransactions.add(lineTransaction);
     return memory.scheduleTransaction(lineTransaction);
   }
+  
+  /**
+   * @brief Feeds the lines, the replacement state and the pending transactions
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(numberOfLines).add(associativity).add(lineSize).add(writeBack).add(replacementPolicyType);
+    hasher.add(storeDelay).add(loadDelay).add(cacheAccessId).add(replacementPolicy);
+    for (CacheLineModel[] set : cache)
+    {
+      for (CacheLineModel line : set)
+      {
+        hasher.add(line);
+      }
+    }
+    hasher.addAll(cacheTransactions).addAll(memoryTransactions);
+  }
 }
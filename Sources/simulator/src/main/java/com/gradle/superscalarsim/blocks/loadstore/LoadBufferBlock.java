@@ -37,12 +37,16 @@ import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.enums.RegisterReadinessEnum;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.memory.LoadBufferItem;
 import com.gradle.superscalarsim.models.memory.StoreBufferItem;
 import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.Serial;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * @class LoadBufferBlock
@@ -53,8 +57,11 @@ import java.util.*;
  * The correctness of a loads is checked at retirement of every _store_ instruction.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class LoadBufferBlock implements AbstractBlock
+public class LoadBufferBlock implements AbstractBlock, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Queue with all uncommitted load instructions
    */
@@ -78,6 +85,11 @@ public class LoadBufferBlock implements AbstractBlock
    */
   private int bufferSize;
   
+  /**
+   * Loads with a computed address by the word they read. Derived from the queue, not part of the state.
+   */
+  private transient MemoryAddressIndex<LoadBufferItem> addressIndex;
+  
   public LoadBufferBlock()
   {
     loadQueue = new ArrayDeque<>();
@@ -137,6 +149,39 @@ public class LoadBufferBlock implements AbstractBlock
   
   //-------------------------------------------------------------------------------------------
   
+  /**
+   * Mirrors {@link #selectLoadForDataAccess(int)} without changing anything.
+   *
+   * @brief The buffer changes when a load fails, can be forwarded, or finds a free MAU
+   */
+  @Override
+  public int nextEventTick(int cycle)
+  {
+    for (LoadBufferItem item : this.loadQueue)
+    {
+      if (item.getSimCodeModel().hasFailed())
+      {
+        return cycle;
+      }
+    }
+    for (LoadBufferItem item : this.loadQueue)
+    {
+      boolean ready = item.getAddress() != -1 && !item.isAccessingMemory() && !item.isDestinationReady();
+      if (!ready || item.hasBypassed())
+      {
+        continue;
+      }
+      if (storeBufferBlock.findMatchingStore(item) != null)
+      {
+        return cycle;
+      }
+      boolean freeUnit = this.memoryAccessUnitList.stream().anyMatch(MemoryAccessUnit::isFunctionUnitEmpty);
+      return freeUnit ? cycle : Integer.MAX_VALUE;
+    }
+    return Integer.MAX_VALUE;
+  }// end of nextEventTick
+  //-------------------------------------------------------------------------------------------
+  
   /**
    * @brief Removes all invalid load instructions from buffer. Instructions become invalid when they are flushed from ROB.
    */
@@ -159,6 +204,7 @@ public class LoadBufferBlock implements AbstractBlock
           this.memoryAccessUnitList.forEach(ma -> ma.tryRemoveCodeModel(codeModel));
         }
         it.remove();
+        addressIndex().remove(loadItem);
       }
     }
   }// end of removeInvalidInstructions
@@ -241,6 +287,7 @@ public class LoadBufferBlock implements AbstractBlock
     destinationReg.setReadiness(RegisterReadinessEnum.kAssigned);
     loadItem.setDestinationReady(true);
     loadItem.setHasBypassed(true);
+    loadItem.setBypassStoreId(storeItem.getSimCodeModel().getIntegerId());
     loadItem.setMemoryAccessId(cycle);
     // The load is done, ready for commit
     loadItem.getSimCodeModel().setBusy(false);
@@ -249,31 +296,45 @@ public class LoadBufferBlock implements AbstractBlock
   
   /**
    * @param address Address of store instruction being committed.
+   * @param size    Number of bytes written by the store.
    * @param cycle   The cycle of store instruction being committed.
    *
    * @brief Checks if there is a badly speculated load instruction in the load buffer.
-   * If there are multiple, the oldest one is chosen.
+   * If there are multiple, the oldest one is chosen. Only the loads from the words of the store are searched,
+   * a load is in conflict if it reads one of the bytes of the store.
    */
-  public LoadBufferItem findConflictingLoad(long address, int cycle)
+  public LoadBufferItem findConflictingLoad(long address, int size, int cycle)
   {
-    // The queue is ordered, so we search from the oldest to the newest
-    for (LoadBufferItem bufferItem : this.loadQueue)
+    LoadBufferItem oldest = null;
+    for (long word = MemoryAddressIndex.wordOf(address); word < address + size; word += 4)
     {
-      boolean addressesMatch = bufferItem.getAddress() == address;
-      boolean isAfterStore   = bufferItem.getSimCodeModel().getIntegerId() > cycle;
-      if (bufferItem.hasBypassed())
-      {
-        // Bypassed means there is a address match and the value was forwarded.
-        // TODO: hasBypassed is not enough, we need to check if the store is actually the one that bypassed the load
-        continue;
-      }
-      // TODO: what if the load is not yet in MA/executed?
-      if (addressesMatch && isAfterStore)
+      // The index is ordered, so we search from the oldest to the newest
+      for (LoadBufferItem bufferItem : addressIndex().itemsInWord(word))
       {
-        return bufferItem;
+        int loadId = bufferItem.getSimCodeModel().getIntegerId();
+        if (oldest != null && loadId >= oldest.getSimCodeModel().getIntegerId())
+        {
+          // Not older than the one found in the previous word
+          break;
+        }
+        boolean addressesMatch = MemoryAddressIndex.overlaps(address, size, bufferItem.getAddress(),
+                                                             bufferItem.getAccessSize());
+        boolean isAfterStore   = loadId > cycle;
+        if (bufferItem.hasBypassed() && bufferItem.getBypassStoreId() >= cycle)
+        {
+          // The value was forwarded from this store or a younger one, which overwrites it.
+          // A load forwarded from an older store missed this one (its address was not known yet).
+          continue;
+        }
+        // TODO: what if the load is not yet in MA/executed?
+        if (addressesMatch && isAfterStore)
+        {
+          oldest = bufferItem;
+          break;
+        }
       }
     }
-    return null;
+    return oldest;
   }// end of checkIfProcessedHasConflict
   //-------------------------------------------------------------------------------------------
   
@@ -315,7 +376,10 @@ public class LoadBufferBlock implements AbstractBlock
    */
   public void setAddress(int codeModelId, long address)
   {
-    Objects.requireNonNull(getLoadBufferItem(codeModelId)).setAddress(address);
+    LoadBufferItem item = Objects.requireNonNull(getLoadBufferItem(codeModelId));
+    addressIndex().remove(item);
+    item.setAddress(address);
+    addressIndex().add(item);
   }// end of setAddress
   //-------------------------------------------------------------------------------------------
   
@@ -379,7 +443,7 @@ public class LoadBufferBlock implements AbstractBlock
   public void releaseLoadFirst()
   {
     assert !loadQueue.isEmpty();
-    loadQueue.poll();
+    addressIndex().remove(loadQueue.poll());
   }// end of releaseLoadFirst
   //-------------------------------------------------------------------------------------------
   
@@ -392,4 +456,39 @@ public class LoadBufferBlock implements AbstractBlock
     return this.loadQueue.size();
   }// end of getQueueSize
   //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Instructions in the load queue, oldest first
+   * @brief Get current load queue
+   */
+  public Stream<SimCodeModel> getLoadQueue()
+  {
+    return this.loadQueue.stream().map(LoadBufferItem::getSimCodeModel);
+  }// end of getLoadQueue
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Index of the loads by address, built from the queue if it does not exist yet (after deserialization)
+   */
+  private MemoryAddressIndex<LoadBufferItem> addressIndex()
+  {
+    if (addressIndex == null)
+    {
+      addressIndex = new MemoryAddressIndex<>(LoadBufferItem::getAddress, LoadBufferItem::getAccessSize,
+                                              item -> item.getSimCodeModel().getIntegerId());
+      this.loadQueue.stream().filter(item -> item.getAddress() != -1).forEach(addressIndex::add);
+    }
+    return addressIndex;
+  }// end of addressIndex
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @brief Feeds the loads in the buffer
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(bufferSize).addAll(loadQueue);
+  }// end of hashState
+  //-------------------------------------------------------------------------------------------
 }
@@ -42,6 +42,8 @@ import com.gradle.superscalarsim.models.FunctionalUnitDescription;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.util.Result;
 
+import java.io.Serial;
+
 /**
  * @class LoadStoreFunctionUnit
  * @brief Function unit class for executing load/store instructions (computing address).
@@ -51,6 +53,8 @@ import com.gradle.superscalarsim.models.util.Result;
  */
 public class LoadStoreFunctionUnit extends AbstractFunctionUnitBlock
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
   
   /**
    * Load buffer with all load instruction entries
@@ -71,7 +75,7 @@ public class LoadStoreFunctionUnit extends AbstractFunctionUnitBlock
   
   public LoadStoreFunctionUnit()
   {
-  
+    
   }
   
   /**
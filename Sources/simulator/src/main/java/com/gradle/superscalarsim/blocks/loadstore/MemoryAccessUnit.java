@@ -48,7 +48,9 @@ import com.gradle.superscalarsim.models.memory.MemoryAccess;
 import com.gradle.superscalarsim.models.memory.MemoryTransaction;
 import com.gradle.superscalarsim.models.register.RegisterModel;
 import com.gradle.superscalarsim.models.util.Result;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.Serial;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
@@ -58,6 +60,9 @@ import java.nio.ByteOrder;
  */
 public class MemoryAccessUnit extends AbstractFunctionUnitBlock
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Memory. Used for load/store operations
    */
@@ -188,7 +193,7 @@ public class MemoryAccessUnit extends AbstractFunctionUnitBlock
     memoryModel.finishTransaction(transaction.id());
     if (this.simCodeModel.isLoad())
     {
-      InputCodeArgument destinationArgument = simCodeModel.getArgumentByName("rd");
+      InputCodeArgument destinationArgument = simCodeModel.getDestinationArgument();
       RegisterModel     destRegister        = destinationArgument.getRegisterValue();
       long              savedResult         = transaction.dataAsLong();
       destRegister.setValue(savedResult, simCodeModel.instructionFunctionModel().getOutputType());
@@ -327,4 +332,15 @@ public class MemoryAccessUnit extends AbstractFunctionUnitBlock
     }
     return transaction.handledBy();
   }
+  
+  /**
+   * @brief Feeds the state of the unit and its memory transaction
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    super.hashState(hasher);
+    hasher.add(baseDelay).add(memoryDelay).add(transaction);
+  }// end of hashState
+  //----------------------------------------------------------------------
 }
@@ -0,0 +1,175 @@
+/**
+ * @file MemoryAddressIndex.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Index of in-flight memory instructions by the word they access
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.blocks.loadstore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * @class MemoryAddressIndex
+ * @brief Index of load or store buffer items by the aligned words they access
+ * @details An item is in the bucket of every word its bytes {@code [address, address + size)} fall into, so an
+ * access wider than a word (ld, sd, fld, fsd) or one crossing a word boundary is found from any of its words.
+ * In a bucket, the items are kept in program order (ascending instruction ID). Sharing a bucket only means
+ * the items touch the same word, the callers check the bytes with {@link #overlaps(long, int, long, int)}.
+ * The load and store buffers use it to find forwarding candidates and ordering violations without scanning
+ * the whole queue.
+ * Only items with a computed address are indexed. The index is derived from the queues and is not part of the state.
+ */
+class MemoryAddressIndex<T>
+{
+  /**
+   * Items grouped by the aligned words they access, oldest first
+   */
+  private final Map<Long, List<T>> buckets;
+  
+  /**
+   * Address of an item
+   */
+  private final ToLongFunction<T> addressOf;
+  
+  /**
+   * Number of bytes accessed by an item
+   */
+  private final ToIntFunction<T> sizeOf;
+  
+  /**
+   * Program order (instruction ID) of an item
+   */
+  private final ToIntFunction<T> ageOf;
+  
+  /**
+   * @param addressOf Address of an item
+   * @param sizeOf    Number of bytes accessed by an item
+   * @param ageOf     Program order (instruction ID) of an item
+   *
+   * @brief Constructor
+   */
+  MemoryAddressIndex(ToLongFunction<T> addressOf, ToIntFunction<T> sizeOf, ToIntFunction<T> ageOf)
+  {
+    this.buckets   = new HashMap<>();
+    this.addressOf = addressOf;
+    this.sizeOf    = sizeOf;
+    this.ageOf     = ageOf;
+  }// end of Constructor
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param address Byte address
+   *
+   * @return Key of the word containing the address
+   */
+  static long wordOf(long address)
+  {
+    return address & ~3L;
+  }// end of wordOf
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param address   Start of the first access
+   * @param size      Number of bytes of the first access
+   * @param other     Start of the second access
+   * @param otherSize Number of bytes of the second access
+   *
+   * @return True if the two accesses have a byte in common
+   */
+  static boolean overlaps(long address, int size, long other, int otherSize)
+  {
+    return address < other + otherSize && other < address + size;
+  }// end of overlaps
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * Addresses are computed out of order, so the item is inserted at its place in program order.
+   * It is usually the youngest one, so the search starts from the end.
+   *
+   * @param item Item with a computed address
+   *
+   * @brief Adds the item to the buckets of all words it accesses
+   */
+  void add(T item)
+  {
+    long address = addressOf.applyAsLong(item);
+    int  age     = ageOf.applyAsInt(item);
+    for (long word = wordOf(address); word < address + sizeOf.applyAsInt(item); word += 4)
+    {
+      List<T> bucket = buckets.computeIfAbsent(word, key -> new ArrayList<>(2));
+      int     index  = bucket.size();
+      while (index > 0 && ageOf.applyAsInt(bucket.get(index - 1)) > age)
+      {
+        index--;
+      }
+      bucket.add(index, item);
+    }
+  }// end of add
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param item Item to remove. Items without an address are ignored.
+   *
+   * @brief Removes the item from the index
+   */
+  void remove(T item)
+  {
+    long address = addressOf.applyAsLong(item);
+    if (address == -1)
+    {
+      return;
+    }
+    for (long word = wordOf(address); word < address + sizeOf.applyAsInt(item); word += 4)
+    {
+      List<T> bucket = buckets.get(word);
+      if (bucket == null)
+      {
+        continue;
+      }
+      // Identity, the items do not override equals
+      bucket.remove(item);
+      if (bucket.isEmpty())
+      {
+        buckets.remove(word);
+      }
+    }
+  }// end of remove
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param address Byte address
+   *
+   * @return Items accessing a byte of the word of the address, oldest first. Do not modify.
+   */
+  List<T> itemsInWord(long address)
+  {
+    return buckets.getOrDefault(wordOf(address), List.of());
+  }// end of itemsInWord
+  //-------------------------------------------------------------------------------------------
+}
@@ -29,6 +29,8 @@ package com.gradle.superscalarsim.blocks.loadstore;
 
 import com.gradle.superscalarsim.models.memory.MemoryTransaction;
 
+import java.util.List;
+
 /**
  * @brief Interface for memory blocks. Supports {@link MemoryTransaction}s.
  */
@@ -59,4 +61,27 @@ public interface MemoryBlock
    * @brief Cancel the transaction. It must be present and not finished.
    */
   void cancelTransaction(int id);
+  
+  /**
+   * Cancelled and finished transactions are removed in the next cycle, so they count as an event in the current one.
+   *
+   * @param transactions Transactions in progress
+   * @param cycle        Current cycle
+   *
+   * @return The first cycle (at least {@code cycle}) in which one of the transactions changes,
+   * or {@link Integer#MAX_VALUE} if there are none
+   */
+  static int nextEventTick(List<MemoryTransaction> transactions, int cycle)
+  {
+    int next = Integer.MAX_VALUE;
+    for (MemoryTransaction transaction : transactions)
+    {
+      if (transaction.isCancelled() || transaction.isFinished())
+      {
+        return cycle;
+      }
+      next = Math.min(next, Math.max(cycle, transaction.timestamp() + transaction.latency()));
+    }
+    return next;
+  }
 }
@@ -33,34 +33,81 @@
 package com.gradle.superscalarsim.blocks.loadstore;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.cpu.SimulationStatistics;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.memory.MemoryTransaction;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
-
-import static java.util.Arrays.copyOf;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
- * Memory representation: continuous array of bytes
- * TODO Custom serialization to avoid transmitting the whole memory.
+ * Memory representation: fixed-size pages, allocated when they are first written to.
+ * Untouched pages read as zeros. Only the touched pages are serialized.
  * TODO: some protection against resource exhaustion.
  *
  * @class SimulatedMemory
  * @brief Class simulating memory with read/write capabilities
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class SimulatedMemory implements AbstractBlock, MemoryBlock
+public class SimulatedMemory implements AbstractBlock, MemoryBlock, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * Number of address bits addressing a byte within a page
+   */
+  public static final int PAGE_BITS = 12;
+  
+  /**
+   * Size of a page in bytes
+   */
+  public static final int PAGE_SIZE = 1 << PAGE_BITS;
+  
+  /**
+   * Number of blocks a page is split to in snapshots, one bit of a long each
+   */
+  private static final int SNAPSHOT_BLOCKS = 64;
+  
+  /**
+   * Size of a block of a page in snapshots
+   */
+  private static final int SNAPSHOT_BLOCK_SIZE = PAGE_SIZE / SNAPSHOT_BLOCKS;
+  
+  /**
+   * Main memory. Pages indexed by address / PAGE_SIZE.
+   * Gets serialized as a map of base64 strings. Snapshots write the pages as raw bytes, see {@link #writeObject}.
+   */
+  @JsonProperty("pages")
+  private transient TreeMap<Integer, byte[]> pages;
+  
+  /**
+   * Highest accessed address + 1
+   */
+  private int size;
+  
   /**
-   * Main memory. Grows as needed.
-   * Gets serialized to a base64 string.
+   * Index of the most recently used page
    */
-  @JsonProperty("memoryBase64")
-  private byte[] memory;
+  @JsonIgnore
+  private transient int lastPageIndex;
+  
+  /**
+   * Most recently used page, null if none. Saves the map lookup for consecutive accesses.
+   */
+  @JsonIgnore
+  private transient byte[] lastPage;
   
   /**
    * Delay of store access to main memory in clocks.
@@ -95,7 +142,8 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
   {
     this.storeLatency  = storeLatency;
     this.loadLatency   = loadLatency;
-    this.memory        = new byte[0];
+    this.pages         = new TreeMap<>();
+    this.size          = 0;
     this.operations    = new ArrayList<>();
     this.transactionId = 77;
     this.statistics    = statistics;
@@ -103,38 +151,60 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
   //-------------------------------------------------------------------------------------------
   
   /**
-   * @param address Hashmap key, pointing into specific place in memory
+   * @param address  Address within the page
+   * @param allocate True to allocate the page if it does not exist yet
    *
-   * @return Value from hashmap pointed by key
-   * @brief Get value from memory
+   * @return The page containing the address, null if it does not exist and allocate is false
    */
-  public byte getFromMemory(long address)
+  private byte[] getPage(long address, boolean allocate)
   {
-    if (!this.isInMemory(address))
+    int index = (int) (address >>> PAGE_BITS);
+    if (lastPage != null && lastPageIndex == index)
     {
-      resizeArray((int) address + 1);
+      return lastPage;
     }
-    return this.memory[(int) address];
-  }// end of getFromMemory
+    byte[] page = pages.get(index);
+    if (page == null)
+    {
+      if (!allocate)
+      {
+        return null;
+      }
+      page = new byte[PAGE_SIZE];
+      pages.put(index, page);
+    }
+    lastPageIndex = index;
+    lastPage      = page;
+    return page;
+  }// end of getPage
+  //-------------------------------------------------------------------------------------------
   
   /**
-   * @param address Hashmap key, pointing into specific place in memory
+   * @param end Address after the last accessed byte
    *
-   * @return True if key has been set in the past, false otherwise
-   * @brief Check if some memory space is filled with data
+   * @brief Extends the size of the memory to include the access
    */
-  private boolean isInMemory(long address)
+  private void touch(long end)
   {
-    return address < this.memory.length;
-  }// end of isInMemory
+    if (end > size)
+    {
+      size = (int) end;
+    }
+  }// end of touch
+  //-------------------------------------------------------------------------------------------
   
   /**
-   * @brief Resize array to be at least of specified size
+   * @param address Pointer into memory
+   *
+   * @return Value of the byte at the address
+   * @brief Get value from memory
    */
-  private void resizeArray(int size)
+  public byte getFromMemory(long address)
   {
-    this.memory = copyOf(this.memory, size);
-  }
+    touch(address + 1);
+    byte[] page = getPage(address, false);
+    return page == null ? 0 : page[(int) (address & (PAGE_SIZE - 1))];
+  }// end of getFromMemory
   //-------------------------------------------------------------------------------------------
   
   /**
@@ -145,14 +215,66 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
    */
   public byte[] getFromMemory(long address, int size)
   {
-    if (!this.isInMemory(address + size))
+    touch(address + size);
+    byte[] returnVal = new byte[size];
+    int    copied    = 0;
+    while (copied < size)
     {
-      resizeArray((int) address + size);
+      long   current = address + copied;
+      int    offset  = (int) (current & (PAGE_SIZE - 1));
+      int    chunk   = Math.min(size - copied, PAGE_SIZE - offset);
+      byte[] page    = getPage(current, false);
+      if (page != null)
+      {
+        System.arraycopy(page, offset, returnVal, copied, chunk);
+      }
+      copied += chunk;
     }
-    byte[] returnVal = new byte[size];
-    System.arraycopy(this.memory, (int) address, returnVal, 0, size);
     return returnVal;
   }// end of getFromMemory
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param address Address of the lowest byte
+   * @param size    Number of bytes to read, at most 8
+   *
+   * @return The bytes interpreted as a little-endian value, zero-extended
+   */
+  public long readLittleEndian(long address, int size)
+  {
+    touch(address + size);
+    long value = 0;
+    for (int i = 0; i < size; i++)
+    {
+      long   current = address + i;
+      byte[] page    = getPage(current, false);
+      if (page != null)
+      {
+        value |= (page[(int) (current & (PAGE_SIZE - 1))] & 0xFFL) << (8 * i);
+      }
+    }
+    return value;
+  }// end of readLittleEndian
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param address Address of the lowest byte
+   * @param value   Value to write, the lowest bytes are used
+   * @param size    Number of bytes to write, at most 8
+   *
+   * @brief Writes the value in little-endian order
+   */
+  public void writeLittleEndian(long address, long value, int size)
+  {
+    touch(address + size);
+    for (int i = 0; i < size; i++)
+    {
+      long   current = address + i;
+      byte[] page    = getPage(current, true);
+      page[(int) (current & (PAGE_SIZE - 1))] = (byte) (value >>> (8 * i));
+    }
+  }// end of writeLittleEndian
+  //-------------------------------------------------------------------------------------------
   
   /**
    * Schedule a memory access. It will be finished after the specified number of cycles.
@@ -212,6 +334,16 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
   }
   //-------------------------------------------------------------------------------------------
   
+  /**
+   * @brief The memory changes only when a transaction finishes
+   */
+  @Override
+  public int nextEventTick(int cycle)
+  {
+    return MemoryBlock.nextEventTick(this.operations, cycle);
+  }
+  //-------------------------------------------------------------------------------------------
+  
   /**
    * @param address Address to write to
    * @param value   Value to write
@@ -220,11 +352,16 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
    */
   public void insertIntoMemory(long address, byte[] data)
   {
-    if (this.memory.length < address + data.length)
+    touch(address + data.length);
+    int copied = 0;
+    while (copied < data.length)
     {
-      resizeArray((int) (address + data.length));
+      long current = address + copied;
+      int  offset  = (int) (current & (PAGE_SIZE - 1));
+      int  chunk   = Math.min(data.length - copied, PAGE_SIZE - offset);
+      System.arraycopy(data, copied, getPage(current, true), offset, chunk);
+      copied += chunk;
     }
-    System.arraycopy(data, 0, this.memory, (int) address, data.length);
   }// end of insertIntoMemory
   
   /**
@@ -285,11 +422,118 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
   //-------------------------------------------------------------------------------------------
   
   /**
-   * @return Size of the memory in bytes
+   * @return Size of the memory in bytes (highest accessed address + 1)
    */
   @JsonProperty
   public int getSize()
   {
-    return this.memory.length;
+    return this.size;
+  }
+  
+  /**
+   * @return Size of a page in bytes
+   */
+  @JsonProperty
+  public int getPageSize()
+  {
+    return PAGE_SIZE;
+  }
+  
+  /**
+   * @return Number of allocated pages
+   */
+  public int getPageCount()
+  {
+    return this.pages.size();
+  }
+  
+  /**
+   * @param out Stream to write to
+   *
+   * @brief Writes each page as its index, a mask of the non-zero blocks and the raw bytes of those blocks.
+   * Most of a page is usually zeros (a few globals, the top of the stack), those blocks take no space.
+   */
+  private void writeObject(ObjectOutputStream out) throws IOException
+  {
+    out.defaultWriteObject();
+    out.writeInt(pages.size());
+    for (Map.Entry<Integer, byte[]> entry : pages.entrySet())
+    {
+      byte[] page = entry.getValue();
+      long   mask = 0;
+      for (int block = 0; block < SNAPSHOT_BLOCKS; block++)
+      {
+        if (!isZero(page, block * SNAPSHOT_BLOCK_SIZE))
+        {
+          mask |= 1L << block;
+        }
+      }
+      out.writeInt(entry.getKey());
+      out.writeLong(mask);
+      for (int block = 0; block < SNAPSHOT_BLOCKS; block++)
+      {
+        if ((mask & (1L << block)) != 0)
+        {
+          out.write(page, block * SNAPSHOT_BLOCK_SIZE, SNAPSHOT_BLOCK_SIZE);
+        }
+      }
+    }
+  }
+  
+  /**
+   * @param in Stream written by {@link #writeObject}
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+  {
+    in.defaultReadObject();
+    int pageCount = in.readInt();
+    this.pages = new TreeMap<>();
+    for (int i = 0; i < pageCount; i++)
+    {
+      int    index = in.readInt();
+      long   mask  = in.readLong();
+      byte[] page  = new byte[PAGE_SIZE];
+      for (int block = 0; block < SNAPSHOT_BLOCKS; block++)
+      {
+        if ((mask & (1L << block)) != 0)
+        {
+          in.readFully(page, block * SNAPSHOT_BLOCK_SIZE, SNAPSHOT_BLOCK_SIZE);
+        }
+      }
+      pages.put(index, page);
+    }
   }
+  
+  /**
+   * @param page  Page to check
+   * @param start Offset of the block
+   *
+   * @return True if all bytes of the block are zero
+   */
+  private static boolean isZero(byte[] page, int start)
+  {
+    for (int i = start; i < start + SNAPSHOT_BLOCK_SIZE; i++)
+    {
+      if (page[i] != 0)
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+  
+  /**
+   * @brief Feeds the allocated pages and the pending transactions
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(size).add(storeLatency).add(loadLatency).add(transactionId).addAll(operations);
+    hasher.add(pages.size());
+    for (Map.Entry<Integer, byte[]> page : pages.entrySet())
+    {
+      hasher.add(page.getKey()).add(page.getValue());
+    }
+  }// end of hashState
+  //-------------------------------------------------------------------------------------------
 }
@@ -37,22 +37,29 @@ import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.enums.RegisterReadinessEnum;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.memory.LoadBufferItem;
 import com.gradle.superscalarsim.models.memory.StoreBufferItem;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.Serial;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @class StoreBufferBlock
  * @brief Class that holds all in-flight store instructions
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class StoreBufferBlock implements AbstractBlock
+public class StoreBufferBlock implements AbstractBlock, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Queue with all uncommitted store instructions and additional information.
    * The stores are in order.
@@ -71,6 +78,11 @@ public class StoreBufferBlock implements AbstractBlock
    */
   private int bufferSize;
   
+  /**
+   * Stores with a computed address by the word they write. Derived from the queue, not part of the state.
+   */
+  private transient MemoryAddressIndex<StoreBufferItem> addressIndex;
+  
   /**
    * @param bufferSize Interpreter for processing load store instructions
    *
@@ -124,6 +136,42 @@ public class StoreBufferBlock implements AbstractBlock
   
   //-------------------------------------------------------------------------------------------
   
+  /**
+   * Mirrors {@link #simulate(int)} without changing anything.
+   *
+   * @brief The buffer changes when a store fails, its source becomes ready, or it finds a free MAU
+   */
+  @Override
+  public int nextEventTick(int cycle)
+  {
+    for (StoreBufferItem item : this.storeQueue)
+    {
+      RegisterReadinessEnum state       = item.getSourceRegister().getReadiness();
+      boolean               sourceReady = state == RegisterReadinessEnum.kExecuted || state == RegisterReadinessEnum.kAssigned;
+      if (item.getSimCodeModel().hasFailed() || item.isSourceReady() != sourceReady)
+      {
+        return cycle;
+      }
+    }
+    boolean freeUnit = this.memoryAccessUnitList.stream().anyMatch(MemoryAccessUnit::isFunctionUnitEmpty);
+    for (StoreBufferItem item : this.storeQueue)
+    {
+      if (item.getAddress() == -1)
+      {
+        break;
+      }
+      SimCodeModel simCodeModel = item.getSimCodeModel();
+      boolean isAvailableForMA = !simCodeModel.isSpeculative() && !item.isAccessingMemory() && item.getAccessingMemoryId() == -1 && item.isSourceReady();
+      if (isAvailableForMA && freeUnit)
+      {
+        // Conservative - the store may still wait for an older store to the same word
+        return cycle;
+      }
+    }
+    return Integer.MAX_VALUE;
+  }// end of nextEventTick
+  //-------------------------------------------------------------------------------------------
+  
   /**
    * @brief Removes all invalid store instructions from buffer
    */
@@ -141,6 +189,7 @@ public class StoreBufferBlock implements AbstractBlock
           this.memoryAccessUnitList.forEach(ma -> ma.tryRemoveCodeModel(simCodeModel));
         }
         it.remove();
+        addressIndex().remove(storeItem);
       }
     }
   }// end of removeInvalidInstructions
@@ -187,23 +236,9 @@ public class StoreBufferBlock implements AbstractBlock
         continue;
       }
       
-      boolean hazardFound = false;
-      for (StoreBufferItem previousStore : this.storeQueue)
-      {
-        // Check if we haven't reached current statement
-        if (simCodeModel.getIntegerId() == previousStore.getSimCodeModel().getIntegerId())
-        {
-          break;
-        }
-        
-        // I suppose that stores can be at most 4 bytes, TODO check
-        if ((previousStore.getAddress() & ~3L) == (item.getAddress() & ~3L))
-        {
-          // If there is WaW hazard - stop
-          hazardFound = true;
-          break;
-        }
-      }
+      // If there is an older store to one of the bytes, there is a WaW hazard.
+      // All the older stores have an address (see the break above), so they are all in the index.
+      boolean hazardFound = hasOlderOverlappingStore(item);
       if (!hazardFound)
       {
         storeItem = item;
@@ -230,6 +265,34 @@ public class StoreBufferBlock implements AbstractBlock
   }// end of selectLoadForDataAccess
   //-------------------------------------------------------------------------------------------
   
+  /**
+   * @param item Store with a computed address
+   *
+   * @return True if an older store writes to one of the bytes of the store
+   */
+  private boolean hasOlderOverlappingStore(StoreBufferItem item)
+  {
+    long address = item.getAddress();
+    int  size    = item.getAccessSize();
+    for (long word = MemoryAddressIndex.wordOf(address); word < address + size; word += 4)
+    {
+      // Oldest first, the stores before the item are the older ones
+      for (StoreBufferItem olderStore : addressIndex().itemsInWord(word))
+      {
+        if (olderStore == item)
+        {
+          break;
+        }
+        if (MemoryAddressIndex.overlaps(address, size, olderStore.getAddress(), olderStore.getAccessSize()))
+        {
+          return true;
+        }
+      }
+    }
+    return false;
+  }// end of hasOlderOverlappingStore
+  //-------------------------------------------------------------------------------------------
+  
   /**
    * @return True if buffer has space for a single item, false otherwise
    */
@@ -247,7 +310,10 @@ public class StoreBufferBlock implements AbstractBlock
    */
   public void setAddress(int codeModelId, long address)
   {
-    getStoreBufferItem(codeModelId).setAddress(address);
+    StoreBufferItem item = getStoreBufferItem(codeModelId);
+    addressIndex().remove(item);
+    item.setAddress(address);
+    addressIndex().add(item);
   }// end of setAddress
   //-------------------------------------------------------------------------------------------
   
@@ -265,6 +331,11 @@ public class StoreBufferBlock implements AbstractBlock
   //-------------------------------------------------------------------------------------------
   
   /**
+   * Only the stores to the words of the load are searched, from the youngest one.
+   * The youngest older store that writes to a byte of the load provides the value. It is forwarded only if the store
+   * writes exactly the bytes of the load and has the value computed. Otherwise, the load reads the memory and is
+   * flushed if the store commits after that.
+   *
    * @brief Finds a matching store instruction in store buffer for given load instruction.
    * The store must be preceding the load instruction in program order.
    * It also has to be the most recent one if multiple stores to the same address exist.
@@ -272,24 +343,33 @@ public class StoreBufferBlock implements AbstractBlock
    */
   public StoreBufferItem findMatchingStore(LoadBufferItem loadItem)
   {
-    // TODO: can be more optimal - the stores are sorted by program order
     assert loadItem != null;
-    long            loadAddress     = loadItem.getAddress();
-    SimCodeModel    simCodeModel    = loadItem.getSimCodeModel();
-    StoreBufferItem bestCandidate   = null;
-    int             bestCandidateId = -1;
-    for (StoreBufferItem storeItem : this.storeQueue)
+    long            loadAddress = loadItem.getAddress();
+    int             loadSize    = loadItem.getAccessSize();
+    int             loadId      = loadItem.getSimCodeModel().getIntegerId();
+    StoreBufferItem youngest    = null;
+    for (long word = MemoryAddressIndex.wordOf(loadAddress); word < loadAddress + loadSize; word += 4)
     {
-      int     candidateId             = storeItem.getSourceResultId();
-      boolean moreRecentButStillOlder = bestCandidateId < candidateId && simCodeModel.getIntegerId() > candidateId;
-      boolean isSourceReady           = storeItem.isSourceReady();
-      if (loadAddress == storeItem.getAddress() && moreRecentButStillOlder && isSourceReady)
+      List<StoreBufferItem> candidates = addressIndex().itemsInWord(word);
+      for (int i = candidates.size() - 1; i >= 0; i--)
       {
-        bestCandidateId = candidateId;
-        bestCandidate   = storeItem;
+        StoreBufferItem storeItem = candidates.get(i);
+        if (youngest != null && storeItem.getSourceResultId() <= youngest.getSourceResultId())
+        {
+          // Not younger than the one found in the previous word
+          break;
+        }
+        boolean isOlder = storeItem.getSourceResultId() < loadId;
+        if (isOlder && MemoryAddressIndex.overlaps(loadAddress, loadSize, storeItem.getAddress(),
+                                                   storeItem.getAccessSize()))
+        {
+          youngest = storeItem;
+          break;
+        }
       }
     }
-    return bestCandidate;
+    boolean sameBytes = youngest != null && youngest.getAddress() == loadAddress && youngest.getAccessSize() == loadSize;
+    return sameBytes && youngest.isSourceReady() ? youngest : null;
   }// end of findMatchingStore
   //-------------------------------------------------------------------------------------------
   
@@ -323,7 +403,7 @@ public class StoreBufferBlock implements AbstractBlock
     {
       throw new RuntimeException("Release store when store queue is empty");
     }
-    storeQueue.poll();
+    addressIndex().remove(storeQueue.poll());
   }// end of releaseStoreFirst
   //-------------------------------------------------------------------------------------------
   
@@ -336,6 +416,15 @@ public class StoreBufferBlock implements AbstractBlock
     return this.storeQueue.size();
   }// end of getQueueSize
   
+  /**
+   * @return Instructions in the store queue, oldest first
+   * @brief Get current store queue
+   */
+  public Stream<SimCodeModel> getStoreQueue()
+  {
+    return this.storeQueue.stream().map(StoreBufferItem::getSimCodeModel);
+  }// end of getStoreQueue
+  
   /**
    * @param codeModel The store instruction to be added to the buffer
    *
@@ -346,4 +435,29 @@ public class StoreBufferBlock implements AbstractBlock
     this.storeQueue.add(new StoreBufferItem(codeModel, codeModel.getIntegerId()));
   }// end of addStoreToBuffer
   //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Index of the stores by address, built from the queue if it does not exist yet (after deserialization)
+   */
+  private MemoryAddressIndex<StoreBufferItem> addressIndex()
+  {
+    if (addressIndex == null)
+    {
+      addressIndex = new MemoryAddressIndex<>(StoreBufferItem::getAddress, StoreBufferItem::getAccessSize,
+                                              item -> item.getSimCodeModel().getIntegerId());
+      this.storeQueue.stream().filter(item -> item.getAddress() != -1).forEach(addressIndex::add);
+    }
+    return addressIndex;
+  }// end of addressIndex
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @brief Feeds the stores in the buffer
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(bufferSize).addAll(storeQueue);
+  }// end of hashState
+  //-------------------------------------------------------------------------------------------
 }
@@ -32,12 +32,15 @@
  */
 package com.gradle.superscalarsim.code;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.models.instruction.InstructionException;
 import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.util.Result;
 
-import java.util.List;
+import java.io.Serial;
+import java.io.Serializable;
 
 /**
  * For the list of operations, see {@link Expression}
@@ -45,8 +48,17 @@ import java.util.List;
  * @class CodeInterpreter
  * @brief Interprets instruction provided in InputCodeModel class
  */
-public class CodeArithmeticInterpreter
+public class CodeArithmeticInterpreter implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * Operand stack reused by all evaluations of this interpreter
+   */
+  @JsonIgnore
+  private final EvaluationStack stack;
+  
   /**
    * @param registerFileBlock Preceding table for operation priorities
    * @param labelMap          Map of labels and their addresses
@@ -55,6 +67,7 @@ public class CodeArithmeticInterpreter
    */
   public CodeArithmeticInterpreter()
   {
+    this.stack = new EvaluationStack();
   }// end of Constructor
   
   /**
@@ -72,17 +85,17 @@ public class CodeArithmeticInterpreter
     }
     
     // Evaluate expression
-    String                      expression = instruction.interpretableAs();
-    List<Expression.Variable>   variables  = simCodeModel.getVariables();
-    Result<Expression.Variable> result     = Expression.interpret(expression, variables);
+    CompiledInstruction   compiled  = instruction.compiled();
+    Expression.Variable[] variables = simCodeModel.getVariableSlots();
+    InstructionException  exception = compiled.getExpression().evaluate(stack, variables);
     
-    if (result.isException())
+    if (exception != null)
     {
-      return result.convertException();
+      return new Result<>(exception);
     }
     
     // return "rd"
-    Expression.Variable rd = variables.stream().filter(variable -> variable.tag.equals("rd")).findFirst().orElse(null);
+    Expression.Variable rd = compiled.getRdSlot() == -1 ? null : variables[compiled.getRdSlot()];
     
     if (rd != null)
     {
@@ -32,19 +32,29 @@
  */
 package com.gradle.superscalarsim.code;
 
-import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.gradle.superscalarsim.models.instruction.InstructionException;
 import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.util.Result;
 
-import java.util.List;
+import java.io.Serial;
+import java.io.Serializable;
 
 /**
  * @class CodeBranchInterpreter
  * @brief Interprets branch and jump instructions
  */
-public class CodeBranchInterpreter
+public class CodeBranchInterpreter implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * Operand stack reused by all evaluations of this interpreter
+   */
+  @JsonIgnore
+  private final EvaluationStack stack;
   
   /**
    * @param instructionMemoryBlock Instructions. Needed for label resolving.
@@ -53,6 +63,7 @@ public class CodeBranchInterpreter
    */
   public CodeBranchInterpreter()
   {
+    this.stack = new EvaluationStack();
   }// end of Constructor
   //-------------------------------------------------------------------------------------------
   
@@ -74,29 +85,29 @@ public class CodeBranchInterpreter
     final InstructionFunctionModel instruction = codeModel.instructionFunctionModel();
     assert instruction != null;
     
-    String[] splitInterpretableAs = instruction.interpretableAs().split(":");
-    assert splitInterpretableAs.length == 2;
-    String                    targetExpr    = splitInterpretableAs[0];
-    String                    conditionExpr = splitInterpretableAs[1];
-    List<Expression.Variable> variables     = codeModel.getVariables();
+    CompiledInstruction   compiled  = instruction.compiled();
+    Expression.Variable[] variables = codeModel.getVariableSlots();
+    assert compiled.getBranchCondition() != null;
     
     // Check if condition is met
-    Result<Expression.Variable> exprResult = Expression.interpret(conditionExpr, variables);
+    InstructionException exception = compiled.getBranchCondition().evaluate(stack, variables);
     
-    if (exprResult.isException())
+    if (exception != null)
     {
-      return new Result<>(exprResult.exception());
+      return new Result<>(exception);
     }
     
-    Expression.Variable variable = exprResult.value();
-    assert variable != null;
-    boolean jumpCondition = (boolean) variable.value.getValue(DataTypeEnum.kBool);
+    assert !stack.isEmpty();
+    boolean jumpCondition = stack.getBoolean();
     
     // We know that we have to jump, calculate jump target
-    Result<Expression.Variable> targetVar = Expression.interpret(targetExpr, variables);
-    Expression.Variable         var       = targetVar.value();
-    assert var != null;
-    int target = (int) var.value.getValue(DataTypeEnum.kInt);
+    exception = compiled.getBranchTarget().evaluate(stack, variables);
+    if (exception != null)
+    {
+      return new Result<>(exception);
+    }
+    assert !stack.isEmpty();
+    int target = stack.getInt();
     
     // Return relative position of the instruction to jump to
     return new Result<>(new BranchResult(jumpCondition, target));
@@ -33,8 +33,8 @@
 package com.gradle.superscalarsim.code;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
-import com.gradle.superscalarsim.enums.DataTypeEnum;
 import com.gradle.superscalarsim.models.instruction.InstructionException;
 import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
@@ -42,7 +42,8 @@ import com.gradle.superscalarsim.models.memory.MemoryAccess;
 import com.gradle.superscalarsim.models.register.RegisterModel;
 import com.gradle.superscalarsim.models.util.Result;
 
-import java.util.List;
+import java.io.Serial;
+import java.io.Serializable;
 
 /**
  * Example of an interpretation of a load/store instruction:
@@ -53,13 +54,23 @@ import java.util.List;
  * @brief Interprets load/store instruction provided in InputCodeModel class. Does _not_ perform the actual load/store.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class CodeLoadStoreInterpreter
+public class CodeLoadStoreInterpreter implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * Operand stack reused by all evaluations of this interpreter
+   */
+  @JsonIgnore
+  private final EvaluationStack stack;
+  
   /**
    * @brief Constructor
    */
   public CodeLoadStoreInterpreter()
   {
+    this.stack = new EvaluationStack();
   }// end of Constructor
   //-------------------------------------------------------------------------------------------
   
@@ -78,19 +89,14 @@ public class CodeLoadStoreInterpreter
       throw new IllegalStateException("Instruction is null");
     }
     
-    String[] interpretableAsParams = instruction.interpretableAs().split(":");
-    
-    if (interpretableAsParams.length != 3 && interpretableAsParams.length != 4)
+    CompiledInstruction compiled = instruction.compiled();
+    if (compiled.getAddress() == null)
     {
-      throw new IllegalStateException("Unexpected number of parameters: " + interpretableAsParams.length);
+      throw new IllegalStateException("Unexpected number of parameters: " + compiled.getParameterCount());
     }
     
-    String  loadStore = interpretableAsParams[0];
-    boolean isStore   = loadStore.equals("store");
-    
-    String sizeBitsStr = interpretableAsParams[1];
-    int    sizeBits    = Integer.parseInt(sizeBitsStr);
-    int    sizeBytes   = sizeBits / 8;
+    boolean isStore   = compiled.isStore();
+    int     sizeBytes = compiled.getSizeBits() / 8;
     
     Result<Long> address = interpretAddress(codeModel);
     
@@ -102,13 +108,13 @@ public class CodeLoadStoreInterpreter
     MemoryAccess res;
     if (isStore)
     {
-      String        storeRegisterName = interpretableAsParams[3];
-      RegisterModel reg               = codeModel.getArgumentByName(storeRegisterName).getRegisterValue();
+      String        storeRegisterName = compiled.getStoreRegisterName();
+      RegisterModel reg               = codeModel.getArgument(compiled.getStoreRegisterSlot() - 1).getRegisterValue();
       if (reg == null)
       {
         throw new IllegalStateException("Register " + storeRegisterName + " not found");
       }
-      long valueBits = (long) reg.getValue(DataTypeEnum.kLong);
+      long valueBits = reg.getLong();
       res = MemoryAccess.store(address.value(), sizeBytes, valueBits, false);
     }
     else
@@ -133,26 +139,24 @@ public class CodeLoadStoreInterpreter
       throw new IllegalStateException("Instruction is null");
     }
     
-    String[] interpretableAsParams = instruction.interpretableAs().split(":");
-    if (interpretableAsParams.length < 3)
+    CompiledExpression addressExpr = instruction.compiled().getAddress();
+    if (addressExpr == null)
     {
-      throw new IllegalStateException("Unexpected number of parameters: " + interpretableAsParams.length);
+      throw new IllegalStateException("Unexpected number of parameters: " + instruction.compiled().getParameterCount());
     }
-    String                    addressExpr = interpretableAsParams[2];
-    List<Expression.Variable> variables   = codeModel.getVariables();
     
-    Result<Expression.Variable> addressResult = Expression.interpret(addressExpr, variables);
-    if (addressResult.isException())
+    InstructionException exception = addressExpr.evaluate(stack, codeModel.getVariableSlots());
+    if (exception != null)
     {
-      return addressResult.convertException();
+      return new Result<>(exception);
     }
     
-    if (addressResult.value() == null)
+    if (stack.isEmpty())
     {
       throw new IllegalStateException("Address result is null");
     }
     
-    int address = (int) addressResult.value().value.getValue(DataTypeEnum.kInt);
+    int address = stack.getInt();
     
     if (address < 0)
     {
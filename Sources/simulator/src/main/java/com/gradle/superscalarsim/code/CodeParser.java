@@ -265,7 +265,8 @@ public class CodeParser
       argloop:
       for (InputCodeArgument argument : instruction.arguments())
       {
-        InstructionArgument argModel = instruction.instructionFunctionModel().getArgumentByName(argument.getName());
+        InstructionArgument argModel = instruction.instructionFunctionModel().arguments()
+                .get(argument.getArgumentIndex());
         if (!argModel.isImmediate() || argument.getConstantValue() != null)
         {
           // Not constant or already filled
@@ -387,7 +388,7 @@ public class CodeParser
     // Consume label token
     nextToken();
   }
-
+  
   /**
    * @brief Names of all double instructions
    * Used for detecting double instructions
@@ -443,9 +444,10 @@ public class CodeParser
     int collectedArgsIndex = 0;
     boolean useDefaultArgs = numArguments < instructionModel.getAsmArguments()
             .size() && instructionModel.hasDefaultArguments();
-    for (InstructionArgument argument : instructionModel.arguments())
+    for (int argumentIndex = 0; argumentIndex < instructionModel.arguments().size(); argumentIndex++)
     {
-      boolean   hasDefault = argument.defaultValue() != null;
+      InstructionArgument argument   = instructionModel.arguments().get(argumentIndex);
+      boolean             hasDefault = argument.defaultValue() != null;
       CodeToken argumentToken;
       if ((argument.silent() || useDefaultArgs) && hasDefault)
       {
@@ -470,6 +472,7 @@ public class CodeParser
       String            argumentName      = argument.name();
       boolean           isValid           = true;
       InputCodeArgument inputCodeArgument = new InputCodeArgument(argumentName, argumentToken);
+      inputCodeArgument.setArgumentIndex(argumentIndex);
       if (argument.isRegister())
       {
         // Try to find the register. Its existence ic checked in the next step
@@ -27,11 +27,13 @@
 
 package com.gradle.superscalarsim.code;
 
+import java.io.Serializable;
+
 /**
  * @brief Represents a token from the code
  * Contains information for parsing the code and reporting errors
  */
-public record CodeToken(int line, int columnStart, String text, Type type)
+public record CodeToken(int line, int columnStart, String text, Type type) implements Serializable
 {
   /**
    * Copy constructor
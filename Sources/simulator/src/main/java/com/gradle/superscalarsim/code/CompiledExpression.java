@@ -0,0 +1,750 @@
+/**
+ * @file CompiledExpression.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Pre-tokenized form of an expression
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.code;
+
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.models.instruction.InstructionException;
+import com.gradle.superscalarsim.models.register.RegisterDataContainer;
+import com.gradle.superscalarsim.models.util.Result;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.EmptyStackException;
+
+/**
+ * The expression is split into tokens once. Operators are resolved to {@link Expression.Operator},
+ * constants are parsed to their bit representation and variables are bound to slot indices.
+ * Evaluation then walks the token arrays on a primitive {@link EvaluationStack} without any string handling,
+ * boxing or temporary objects.
+ * <p>
+ * Invalid tokens do not fail the compilation. They are reported with the same exception as
+ * {@link Expression#interpret} would throw, at the moment the evaluation reaches them.
+ *
+ * @class CompiledExpression
+ * @brief Pre-tokenized expression in reverse polish notation, see {@link Expression}
+ */
+public class CompiledExpression implements Serializable
+{
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * Source of the expression
+   */
+  private final String expression;
+  
+  /**
+   * Tokens of the expression, used for error messages
+   */
+  private final String[] tokens;
+  
+  /**
+   * Operator of each token, null if the token is an operand
+   */
+  private final Expression.Operator[] operators;
+  
+  /**
+   * Bit representation of each constant token
+   */
+  private final long[] constantBits;
+  
+  /**
+   * Type of each constant token, null if the token is not a constant
+   */
+  private final DataTypeEnum[] constantTypes;
+  
+  /**
+   * Slot index of each variable token, -1 if the token is not a variable
+   */
+  private final int[] slots;
+  
+  /**
+   * Index of the first invalid token. Equal to the number of tokens if the expression is valid.
+   */
+  private final int errorIndex;
+  
+  /**
+   * Message of the IllegalArgumentException for the invalid token. Null means stack underflow.
+   */
+  private final String errorMessage;
+  
+  /**
+   * Maximal depth of the stack during evaluation
+   */
+  private final int maxDepth;
+  
+  /**
+   * @brief Constructor
+   */
+  private CompiledExpression(String expression,
+                             String[] tokens,
+                             Expression.Operator[] operators,
+                             long[] constantBits,
+                             DataTypeEnum[] constantTypes,
+                             int[] slots,
+                             int errorIndex,
+                             String errorMessage,
+                             int maxDepth)
+  {
+    this.expression    = expression;
+    this.tokens        = tokens;
+    this.operators     = operators;
+    this.constantBits  = constantBits;
+    this.constantTypes = constantTypes;
+    this.slots         = slots;
+    this.errorIndex    = errorIndex;
+    this.errorMessage  = errorMessage;
+    this.maxDepth      = maxDepth;
+  }// end of Constructor
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param expression Expression in reverse polish notation
+   * @param slotNames  Names of the variables (without the '\' prefix), index in the array is the slot index
+   *
+   * @return Compiled expression
+   */
+  public static CompiledExpression compile(String expression, String[] slotNames)
+  {
+    String[]              tokens        = expression.split(" ");
+    Expression.Operator[] operators     = new Expression.Operator[tokens.length];
+    long[]                constantBits  = new long[tokens.length];
+    DataTypeEnum[]        constantTypes = new DataTypeEnum[tokens.length];
+    int[]                 slots         = new int[tokens.length];
+    int                   errorIndex    = tokens.length;
+    String                errorMessage  = null;
+    int                   depth         = 0;
+    int                   maxDepth      = 0;
+    for (int i = 0; i < tokens.length; i++)
+    {
+      String token = tokens[i];
+      slots[i] = -1;
+      
+      Expression.Operator operator = Expression.Operator.fromSymbol(token);
+      if (operator != null)
+      {
+        if (depth < operator.arity)
+        {
+          errorIndex = i;
+          break;
+        }
+        operators[i] = operator;
+        boolean isAssign = operator == Expression.Operator.kAssign || operator == Expression.Operator.kCastAssign;
+        depth = depth - operator.arity + (isAssign ? 0 : 1);
+        continue;
+      }
+      
+      if (Expression.isVariable(token))
+      {
+        slots[i] = indexOf(slotNames, token.substring(1));
+        if (slots[i] == -1)
+        {
+          errorIndex   = i;
+          errorMessage = "Unknown variable: " + token;
+          break;
+        }
+      }
+      else
+      {
+        Expression.Variable constant = Expression.parseConstant(token);
+        if (constant == null)
+        {
+          errorIndex   = i;
+          errorMessage = "Unknown value: " + token;
+          break;
+        }
+        constantBits[i]  = constant.value.getBits();
+        constantTypes[i] = constant.type;
+      }
+      depth++;
+      maxDepth = Math.max(maxDepth, depth);
+    }
+    return new CompiledExpression(expression, tokens, operators, constantBits, constantTypes, slots, errorIndex,
+                                  errorMessage, maxDepth);
+  }// end of compile
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Index of the name in the array, -1 if not found
+   */
+  private static int indexOf(String[] names, String name)
+  {
+    for (int i = 0; i < names.length; i++)
+    {
+      if (name.equals(names[i]))
+      {
+        return i;
+      }
+    }
+    return -1;
+  }// end of indexOf
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * Convenience variant allocating its own stack and result. See {@link #evaluate(EvaluationStack, Expression.Variable[])}.
+   *
+   * @param variables Variables indexed by the slots given at compilation. Can contain nulls for unused slots.
+   *
+   * @return The top of the stack after evaluation. Null if the stack is empty.
+   */
+  public Result<Expression.Variable> evaluate(Expression.Variable[] variables)
+  {
+    EvaluationStack     stack     = new EvaluationStack();
+    InstructionException exception = evaluate(stack, variables);
+    if (exception != null)
+    {
+      return new Result<>(exception);
+    }
+    if (stack.isEmpty())
+    {
+      // Positive result but no value
+      return new Result<>(null);
+    }
+    return new Result<>(stack.toVariable(variables));
+  }// end of evaluate
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * Same semantics as {@link Expression#interpret}: the variables can be mutated by the assignment operators.
+   * The result is the top of the stack, read it with the getters of the stack.
+   *
+   * @param stack     Stack to evaluate on, its previous content is dropped
+   * @param variables Variables indexed by the slots given at compilation. Can contain nulls for unused slots.
+   *
+   * @return Null on success, the exception raised by the expression (division by zero) otherwise
+   */
+  public InstructionException evaluate(EvaluationStack stack, Expression.Variable[] variables)
+  {
+    stack.reset(maxDepth);
+    for (int i = 0; i < tokens.length; i++)
+    {
+      if (i == errorIndex)
+      {
+        if (errorMessage == null)
+        {
+          throw new EmptyStackException();
+        }
+        throw new IllegalArgumentException(errorMessage);
+      }
+      
+      Expression.Operator operator = operators[i];
+      if (operator == null)
+      {
+        // Operand
+        if (constantTypes[i] != null)
+        {
+          stack.push(constantBits[i], constantTypes[i], constantTypes[i]);
+        }
+        else
+        {
+          if (slots[i] >= variables.length || variables[slots[i]] == null)
+          {
+            throw new IllegalArgumentException("Unknown variable: " + tokens[i]);
+          }
+          stack.pushSlot(slots[i]);
+        }
+        continue;
+      }
+      
+      switch (operator.arity)
+      {
+        case 1 ->
+        {
+          stack.resolve(stack.size - 1, variables);
+          applyUnaryOperator(operator, stack, stack.size - 1);
+        }
+        case 2 ->
+        {
+          int to   = stack.size - 1;
+          int from = stack.size - 2;
+          stack.resolve(from, variables);
+          if (operator == Expression.Operator.kAssign)
+          {
+            assignVariable(stack, to, from, variables);
+            stack.size -= 2;
+          }
+          else if (operator == Expression.Operator.kCastAssign)
+          {
+            stack.resolve(to, variables);
+            castAssignVariable(stack, to, from, variables);
+            stack.size -= 2;
+          }
+          else
+          {
+            stack.resolve(to, variables);
+            if (applyBinaryOperator(operator, stack, from, to))
+            {
+              return new InstructionException(InstructionException.Kind.kArithmetic, "Division by zero", 0);
+            }
+            stack.size--;
+          }
+        }
+        default ->
+        {
+          // 'pick' selects the left or the middle operand based on the right one
+          stack.resolve(stack.size - 1, variables);
+          boolean condition = stack.bits[stack.size - 1] != 0;
+          int     picked    = condition ? stack.size - 2 : stack.size - 3;
+          copyEntry(stack, picked, stack.size - 3);
+          stack.size -= 2;
+        }
+      }
+    }
+    
+    if (!stack.isEmpty())
+    {
+      stack.resolve(stack.size - 1, variables);
+    }
+    return null;
+  }// end of evaluate
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @brief Copies the stack entry from one index to another
+   */
+  private static void copyEntry(EvaluationStack stack, int from, int to)
+  {
+    stack.bits[to]           = stack.bits[from];
+    stack.types[to]          = stack.types[from];
+    stack.containerTypes[to] = stack.containerTypes[from];
+    stack.slots[to]          = stack.slots[from];
+  }// end of copyEntry
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @brief Stores the value at the index, replacing the entry
+   */
+  private static void set(EvaluationStack stack, int index, long bits, DataTypeEnum type, DataTypeEnum containerType)
+  {
+    stack.bits[index]           = bits;
+    stack.types[index]          = type;
+    stack.containerTypes[index] = containerType;
+    stack.slots[index]          = -1;
+  }// end of set
+  //-------------------------------------------------------------------------------------------
+  
+  private static void setInt(EvaluationStack stack, int index, int value)
+  {
+    set(stack, index, Integer.toUnsignedLong(value), DataTypeEnum.kInt, DataTypeEnum.kInt);
+  }
+  
+  private static void setLong(EvaluationStack stack, int index, long value)
+  {
+    set(stack, index, value, DataTypeEnum.kLong, DataTypeEnum.kLong);
+  }
+  
+  private static void setFloat(EvaluationStack stack, int index, float value)
+  {
+    set(stack, index, Integer.toUnsignedLong(Float.floatToIntBits(value)), DataTypeEnum.kFloat, DataTypeEnum.kFloat);
+  }
+  
+  private static void setDouble(EvaluationStack stack, int index, double value)
+  {
+    set(stack, index, Double.doubleToLongBits(value), DataTypeEnum.kDouble, DataTypeEnum.kDouble);
+  }
+  
+  private static void setBool(EvaluationStack stack, int index, boolean value)
+  {
+    set(stack, index, value ? 1 : 0, DataTypeEnum.kBool, DataTypeEnum.kBool);
+  }
+  
+  /**
+   * @param operator operator to apply
+   * @param stack    stack with the operand
+   * @param index    index of the operand, replaced by the result
+   */
+  private static void applyUnaryOperator(Expression.Operator operator, EvaluationStack stack, int index)
+  {
+    long         bits = stack.bits[index];
+    DataTypeEnum type = stack.types[index];
+    switch (type)
+    {
+      case kInt, kUInt ->
+      {
+        int value = (int) bits;
+        switch (operator)
+        {
+          case kNot -> setInt(stack, index, ~value);
+          // Reinterpret the bits
+          case kFloat -> set(stack, index, Integer.toUnsignedLong(value), DataTypeEnum.kFloat, DataTypeEnum.kInt);
+          default -> throw unknownOperator(operator, DataTypeEnum.kInt);
+        }
+      }
+      case kLong, kULong ->
+      {
+        switch (operator)
+        {
+          case kNot -> set(stack, index, ~bits, DataTypeEnum.kInt, DataTypeEnum.kLong);
+          // Reinterpret the bits
+          case kFloat -> set(stack, index, bits, DataTypeEnum.kDouble, DataTypeEnum.kLong);
+          default -> throw unknownOperator(operator, DataTypeEnum.kLong);
+        }
+      }
+      case kFloat ->
+      {
+        float value = Float.intBitsToFloat((int) bits);
+        switch (operator)
+        {
+          case kSqrt -> setFloat(stack, index, (float) Math.sqrt(value));
+          case kBits -> setInt(stack, index, Float.floatToIntBits(value));
+          case kFloat -> setFloat(stack, index, value);
+          case kFclass -> setInt(stack, index, Fclass.classify(value));
+          default -> throw unknownOperator(operator, DataTypeEnum.kFloat);
+        }
+      }
+      case kDouble ->
+      {
+        double value = Double.longBitsToDouble(bits);
+        switch (operator)
+        {
+          case kSqrt -> setDouble(stack, index, Math.sqrt(value));
+          case kBits -> setLong(stack, index, Double.doubleToLongBits(value));
+          default -> throw unknownOperator(operator, DataTypeEnum.kDouble);
+        }
+      }
+      case kBool ->
+      {
+        if (operator != Expression.Operator.kNot)
+        {
+          throw unknownOperator(operator, DataTypeEnum.kBool);
+        }
+        setBool(stack, index, bits == 0);
+      }
+      default -> throw new IllegalArgumentException("Unknown type: " + type);
+    }
+  }// end of applyUnaryOperator
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param operator operator to apply
+   * @param stack    stack with the operands
+   * @param left     index of the left operand, replaced by the result
+   * @param right    index of the right operand
+   *
+   * @return True if the operation is a division by zero. The stack is left unchanged in that case.
+   */
+  private static boolean applyBinaryOperator(Expression.Operator operator, EvaluationStack stack, int left, int right)
+  {
+    DataTypeEnum type  = stack.types[left];
+    long         lBits = stack.bits[left];
+    long         rBits = stack.bits[right];
+    
+    // Special handling for cases with different types of operands
+    if (type != stack.types[right])
+    {
+      // Special case: MULHSU (multiply high signed unsigned)
+      boolean isMul = operator == Expression.Operator.kMul || operator == Expression.Operator.kMulWide;
+      if (isMul && type == DataTypeEnum.kInt && stack.types[right] == DataTypeEnum.kUInt)
+      {
+        setLong(stack, left, (long) (int) lBits * Integer.toUnsignedLong((int) rBits));
+        return false;
+      }
+      throw new IllegalArgumentException(
+              "Incompatible types: " + type + " and " + stack.types[right] + " for operator: " + operator);
+    }
+    
+    boolean isDivision = operator == Expression.Operator.kDiv || operator == Expression.Operator.kRem;
+    switch (type)
+    {
+      case kInt, kUInt ->
+      {
+        int     value    = (int) lBits;
+        int     value2   = (int) rBits;
+        boolean unsigned = type == DataTypeEnum.kUInt;
+        if (isDivision && value2 == 0)
+        {
+          return true;
+        }
+        switch (operator)
+        {
+          case kAdd -> setInt(stack, left, value + value2);
+          case kSub -> setInt(stack, left, value - value2);
+          case kMul -> setInt(stack, left, value * value2);
+          case kMulWide -> setLong(stack, left, unsigned
+                                                ? Integer.toUnsignedLong(value) * Integer.toUnsignedLong(value2)
+                                                : (long) value * (long) value2);
+          case kDiv -> setInt(stack, left, unsigned ? Integer.divideUnsigned(value, value2) : value / value2);
+          case kRem -> setInt(stack, left, unsigned ? Integer.remainderUnsigned(value, value2) : value % value2);
+          case kAnd -> setInt(stack, left, value & value2);
+          case kOr -> setInt(stack, left, value | value2);
+          case kXor -> setInt(stack, left, value ^ value2);
+          case kShiftLeft -> setInt(stack, left, value << value2);
+          case kShiftRight -> setInt(stack, left, value >> value2);
+          case kShiftRightUnsigned -> setInt(stack, left, value >>> value2);
+          default ->
+          {
+            int compare = unsigned ? Integer.compareUnsigned(value, value2) : Integer.compare(value, value2);
+            setBool(stack, left, compare(operator, compare, type));
+          }
+        }
+      }
+      case kLong, kULong ->
+      {
+        boolean unsigned = type == DataTypeEnum.kULong;
+        if (isDivision && rBits == 0)
+        {
+          return true;
+        }
+        switch (operator)
+        {
+          case kAdd -> setLong(stack, left, lBits + rBits);
+          case kSub -> setLong(stack, left, lBits - rBits);
+          case kMul -> setLong(stack, left, lBits * rBits);
+          case kDiv -> setLong(stack, left, unsigned ? Long.divideUnsigned(lBits, rBits) : lBits / rBits);
+          case kRem -> setLong(stack, left, unsigned ? Long.remainderUnsigned(lBits, rBits) : lBits % rBits);
+          case kAnd -> setLong(stack, left, lBits & rBits);
+          case kOr -> setLong(stack, left, lBits | rBits);
+          case kXor -> setLong(stack, left, lBits ^ rBits);
+          case kShiftLeft -> setLong(stack, left, lBits << rBits);
+          case kShiftRight -> setLong(stack, left, lBits >> rBits);
+          case kShiftRightUnsigned -> setLong(stack, left, lBits >>> rBits);
+          default ->
+          {
+            int compare = unsigned ? Long.compareUnsigned(lBits, rBits) : Long.compare(lBits, rBits);
+            setBool(stack, left, compare(operator, compare, type));
+          }
+        }
+      }
+      case kFloat ->
+      {
+        float value  = Float.intBitsToFloat((int) lBits);
+        float value2 = Float.intBitsToFloat((int) rBits);
+        switch (operator)
+        {
+          case kAdd -> setFloat(stack, left, value + value2);
+          case kSub -> setFloat(stack, left, value - value2);
+          case kMul -> setFloat(stack, left, value * value2);
+          case kDiv -> setFloat(stack, left, value / value2);
+          case kRem -> setFloat(stack, left, value % value2);
+          case kGreater -> setBool(stack, left, value > value2);
+          case kGreaterEqual -> setBool(stack, left, value >= value2);
+          case kLess -> setBool(stack, left, value < value2);
+          case kLessEqual -> setBool(stack, left, value <= value2);
+          case kEqual -> setBool(stack, left, value == value2);
+          case kNotEqual -> setBool(stack, left, value != value2);
+          default -> throw unknownOperator(operator, type);
+        }
+      }
+      case kDouble ->
+      {
+        double value  = Double.longBitsToDouble(lBits);
+        double value2 = Double.longBitsToDouble(rBits);
+        switch (operator)
+        {
+          case kAdd -> setDouble(stack, left, value + value2);
+          case kSub -> setDouble(stack, left, value - value2);
+          case kMul -> setDouble(stack, left, value * value2);
+          case kDiv -> setDouble(stack, left, value / value2);
+          case kRem -> setDouble(stack, left, value % value2);
+          case kGreater -> setBool(stack, left, value > value2);
+          case kGreaterEqual -> setBool(stack, left, value >= value2);
+          case kLess -> setBool(stack, left, value < value2);
+          case kLessEqual -> setBool(stack, left, value <= value2);
+          case kEqual -> setBool(stack, left, value == value2);
+          case kNotEqual -> setBool(stack, left, value != value2);
+          default -> throw unknownOperator(operator, type);
+        }
+      }
+      case kBool ->
+      {
+        switch (operator)
+        {
+          case kEqual -> setBool(stack, left, (lBits != 0) == (rBits != 0));
+          case kNotEqual -> setBool(stack, left, (lBits != 0) != (rBits != 0));
+          default -> throw unknownOperator(operator, type);
+        }
+      }
+      default -> throw new IllegalArgumentException("Unknown type: " + type);
+    }
+    return false;
+  }// end of applyBinaryOperator
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param operator Comparison operator
+   * @param compare  Result of the comparison of the operands (negative, zero, positive)
+   * @param type     Type of the operands, for the error message
+   *
+   * @return Result of the comparison
+   */
+  private static boolean compare(Expression.Operator operator, int compare, DataTypeEnum type)
+  {
+    return switch (operator)
+    {
+      case kGreater -> compare > 0;
+      case kGreaterEqual -> compare >= 0;
+      case kLess -> compare < 0;
+      case kLessEqual -> compare <= 0;
+      case kEqual -> compare == 0;
+      case kNotEqual -> compare != 0;
+      default -> throw unknownOperator(operator, type);
+    };
+  }// end of compare
+  //-------------------------------------------------------------------------------------------
+  
+  private static IllegalArgumentException unknownOperator(Expression.Operator operator, DataTypeEnum type)
+  {
+    return new IllegalArgumentException("Unknown operator: " + operator + " for type: " + type);
+  }
+  
+  /**
+   * @param stack     stack with the operands
+   * @param to        index of the variable to assign to
+   * @param from      index of the value to assign
+   * @param variables variables of the evaluation
+   *
+   * @brief Assign value to a variable, if possible
+   */
+  private static void assignVariable(EvaluationStack stack, int to, int from, Expression.Variable[] variables)
+  {
+    int slot = stack.slots[to];
+    if (slot < 0 || !variables[slot].isVariable())
+    {
+      throw new IllegalArgumentException("Right side of '=' operator must be a variable");
+    }
+    Expression.Variable variable = variables[slot];
+    if (!canBeAssigned(variable.type, stack.types[from]))
+    {
+      throw new IllegalArgumentException("Left side of '=' operator must be of the same type as right side");
+    }
+    
+    if (variable.isConstant)
+    {
+      // Assigning to a constant does not change the value
+      return;
+    }
+    variable.value.setValue(stack.bits[from]);
+    variable.value.setCurrentType(stack.containerTypes[from]);
+  }// end of assignVariable
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * The variable gets a new container with the converted value, the original container is not changed.
+   *
+   * @param stack     stack with the operands
+   * @param to        index of the variable to assign to
+   * @param from      index of the value to convert
+   * @param variables variables of the evaluation
+   */
+  private static void castAssignVariable(EvaluationStack stack, int to, int from, Expression.Variable[] variables)
+  {
+    DataTypeEnum toType    = stack.types[to];
+    DataTypeEnum fromType  = stack.types[from];
+    long         bits      = stack.bits[from];
+    boolean      toBool    = toType == DataTypeEnum.kBool;
+    boolean      fromBool  = fromType == DataTypeEnum.kBool;
+    boolean      toInt     = toType == DataTypeEnum.kInt || toType == DataTypeEnum.kUInt;
+    boolean      fromInt   = fromType == DataTypeEnum.kInt || fromType == DataTypeEnum.kUInt;
+    boolean      toLong    = toType == DataTypeEnum.kLong || toType == DataTypeEnum.kULong;
+    boolean      fromLong  = fromType == DataTypeEnum.kLong || fromType == DataTypeEnum.kULong;
+    boolean      toFloat   = toType == DataTypeEnum.kFloat || toType == DataTypeEnum.kDouble;
+    boolean      fromFloat = fromType == DataTypeEnum.kFloat || fromType == DataTypeEnum.kDouble;
+    
+    RegisterDataContainer result = new RegisterDataContainer();
+    if (fromBool && !toBool)
+    {
+      boolean value = bits != 0;
+      switch (toType)
+      {
+        case kInt, kUInt -> result.setValue(value ? 1 : 0);
+        case kLong, kULong -> result.setValue(value ? 1L : 0L);
+        case kFloat -> result.setValue(value ? 1.0f : 0.0f);
+        case kDouble -> result.setValue(value ? 1.0 : 0.0);
+        default -> throw new IllegalArgumentException("Unknown type: " + toType);
+      }
+    }
+    else if ((toInt || toLong) && fromFloat)
+    {
+      // float/double to int/long - truncate
+      double value = fromType == DataTypeEnum.kFloat ? Float.intBitsToFloat((int) bits) : Double.longBitsToDouble(
+              bits);
+      if (toInt)
+      {
+        result.setValue((int) value);
+      }
+      else
+      {
+        result.setValue((long) value);
+      }
+    }
+    else if (toInt && fromLong)
+    {
+      // long to int - truncate
+      result.setValue((int) bits);
+    }
+    else if (toFloat && fromInt)
+    {
+      // int to float
+      result.setValue((float) (int) bits);
+    }
+    else if (toFloat && fromLong)
+    {
+      // long to float
+      result.setValue((float) bits);
+    }
+    else
+    {
+      throw new IllegalArgumentException("Invalid cast from " + fromType + " to " + toType);
+    }
+    
+    int slot = stack.slots[to];
+    if (slot >= 0)
+    {
+      variables[slot].value = result;
+    }
+  }// end of castAssignVariable
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * Unsigned and signed values can be assigned to each other.
+   *
+   * @return True if assignFrom can be assigned to assignTo
+   */
+  private static boolean canBeAssigned(DataTypeEnum assignTo, DataTypeEnum assignFrom)
+  {
+    return switch (assignTo)
+    {
+      case kInt, kUInt -> assignFrom == DataTypeEnum.kInt || assignFrom == DataTypeEnum.kUInt || assignFrom == DataTypeEnum.kBool || assignFrom == DataTypeEnum.kLong || assignFrom == DataTypeEnum.kULong;
+      case kLong, kULong -> assignFrom == DataTypeEnum.kLong || assignFrom == DataTypeEnum.kULong || assignFrom == DataTypeEnum.kBool;
+      case kFloat -> assignFrom == DataTypeEnum.kFloat || assignFrom == DataTypeEnum.kBool;
+      case kDouble -> assignFrom == DataTypeEnum.kDouble || assignFrom == DataTypeEnum.kBool;
+      case kBool -> assignFrom == DataTypeEnum.kBool;
+      default -> throw new IllegalArgumentException("Unknown type: " + assignTo);
+    };
+  }// end of canBeAssigned
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Source of the expression
+   */
+  public String getExpression()
+  {
+    return expression;
+  }// end of getExpression
+  //-------------------------------------------------------------------------------------------
+}
@@ -0,0 +1,391 @@
+/**
+ * @file CompiledInstruction.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Compiled interpretation of an instruction
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.code;
+
+import com.gradle.superscalarsim.models.FunctionalUnitDescription;
+import com.gradle.superscalarsim.models.instruction.InstructionArgument;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * The variable slots are shared by all expressions of the instruction:
+ * slot 0 is the PC, slot i + 1 is the i-th argument of the instruction.
+ * <p>
+ * The interpretation is compiled in every form an interpreter can read it in:
+ * <ul>
+ *   <li>arithmetic - the whole interpretation is one expression</li>
+ *   <li>branch - "target:condition"</li>
+ *   <li>load/store - "load|store:bits:address[:register]"</li>
+ * </ul>
+ * Forms the interpretation does not follow are null.
+ * <p>
+ * Besides the expressions, the static facts the pipeline needs for every dynamic instance are predecoded here:
+ * the capability class used to pick a functional unit and its latency, and the arguments that are written back.
+ *
+ * @class CompiledInstruction
+ * @brief Interpretation of an instruction, compiled once when the instruction set is loaded
+ */
+public class CompiledInstruction implements Serializable
+{
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * Name of the variable holding the PC of the instruction
+   */
+  public static final String PC_SLOT_NAME = "pc";
+  
+  /**
+   * Source of the interpretation
+   */
+  private final String interpretableAs;
+  
+  /**
+   * Variable names indexed by slot
+   */
+  private final String[] slotNames;
+  
+  /**
+   * Slot of the "rd" argument, -1 if the instruction has none
+   */
+  private final int rdSlot;
+  
+  /**
+   * Indexes of the arguments written back by the instruction (destinations), in order
+   */
+  private final int[] writeBackIndices;
+  
+  /**
+   * Indexes of the source register arguments (rs1, rs2, ...), in order
+   */
+  private final int[] sourceIndices;
+  
+  /**
+   * Class of the operation for the arithmetic functional units, null if the instruction has no interpretation
+   */
+  private final FunctionalUnitDescription.CapabilityName capabilityName;
+  
+  /**
+   * Whole interpretation as an arithmetic expression
+   */
+  private final CompiledExpression expression;
+  
+  /**
+   * Number of ':' separated parts of the interpretation
+   */
+  private final int parameterCount;
+  
+  /**
+   * Branch target expression
+   */
+  private final CompiledExpression branchTarget;
+  
+  /**
+   * Branch condition expression
+   */
+  private final CompiledExpression branchCondition;
+  
+  /**
+   * Load/store address expression
+   */
+  private final CompiledExpression address;
+  
+  /**
+   * True if the memory access is a load
+   */
+  private final boolean isLoad;
+  
+  /**
+   * True if the memory access is a store
+   */
+  private final boolean isStore;
+  
+  /**
+   * Size of the memory access in bits
+   */
+  private final int sizeBits;
+  
+  /**
+   * Name of the stored register, null for loads
+   */
+  private final String storeRegisterName;
+  
+  /**
+   * Slot of the stored register, -1 for loads
+   */
+  private final int storeRegisterSlot;
+  
+  /**
+   * @param interpretableAs Interpretation of the instruction, can be null
+   * @param arguments       Arguments of the instruction, can be null
+   *
+   * @brief Constructor, compiles the interpretation
+   */
+  public CompiledInstruction(String interpretableAs, List<InstructionArgument> arguments)
+  {
+    int argumentCount = arguments == null ? 0 : arguments.size();
+    this.interpretableAs = interpretableAs;
+    this.slotNames       = new String[argumentCount + 1];
+    this.slotNames[0]    = PC_SLOT_NAME;
+    for (int i = 0; i < argumentCount; i++)
+    {
+      this.slotNames[i + 1] = arguments.get(i).name();
+    }
+    this.rdSlot           = getSlot("rd");
+    this.writeBackIndices = IntStream.range(0, argumentCount).filter(i -> arguments.get(i).writeBack()).toArray();
+    this.sourceIndices    = IntStream.range(0, argumentCount).filter(i -> arguments.get(i).name().startsWith("rs"))
+            .toArray();
+    this.capabilityName   = interpretableAs == null ? null
+                                                    : FunctionalUnitDescription.classifyExpression(interpretableAs);
+    
+    if (interpretableAs == null)
+    {
+      this.expression        = null;
+      this.parameterCount    = 0;
+      this.branchTarget      = null;
+      this.branchCondition   = null;
+      this.address           = null;
+      this.isLoad            = false;
+      this.isStore           = false;
+      this.sizeBits          = 0;
+      this.storeRegisterName = null;
+      this.storeRegisterSlot = -1;
+      return;
+    }
+    
+    String[] parts = interpretableAs.split(":");
+    this.expression     = CompiledExpression.compile(interpretableAs, slotNames);
+    this.parameterCount = parts.length;
+    
+    boolean isBranch = parts.length == 2;
+    this.branchTarget    = isBranch ? CompiledExpression.compile(parts[0], slotNames) : null;
+    this.branchCondition = isBranch ? CompiledExpression.compile(parts[1], slotNames) : null;
+    
+    boolean isLoadStore = (parts.length == 3 || parts.length == 4) && isNumber(parts[1]);
+    this.address           = isLoadStore ? CompiledExpression.compile(parts[2], slotNames) : null;
+    this.isLoad            = isLoadStore && parts[0].equals("load");
+    this.isStore           = isLoadStore && parts[0].equals("store");
+    this.sizeBits          = isLoadStore ? Integer.parseInt(parts[1]) : 0;
+    this.storeRegisterName = isLoadStore && parts.length == 4 ? parts[3] : null;
+    this.storeRegisterSlot = storeRegisterName == null ? -1 : getSlot(storeRegisterName);
+  }// end of Constructor
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return True if the string is a decimal integer
+   */
+  private static boolean isNumber(String str)
+  {
+    return !str.isEmpty() && str.chars().allMatch(Character::isDigit);
+  }// end of isNumber
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param name Name of the variable (example: "rs1")
+   *
+   * @return Slot of the variable, -1 if the instruction has no such variable
+   */
+  public int getSlot(String name)
+  {
+    for (int i = 0; i < slotNames.length; i++)
+    {
+      if (slotNames[i].equals(name))
+      {
+        return i;
+      }
+    }
+    return -1;
+  }// end of getSlot
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Number of variable slots
+   */
+  public int getSlotCount()
+  {
+    return slotNames.length;
+  }// end of getSlotCount
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Slot of the "rd" argument, -1 if the instruction has none
+   */
+  public int getRdSlot()
+  {
+    return rdSlot;
+  }// end of getRdSlot
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Indexes of the arguments written back by the instruction, in order. Do not modify.
+   */
+  public int[] getWriteBackIndices()
+  {
+    return writeBackIndices;
+  }// end of getWriteBackIndices
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Indexes of the source register arguments (rs1, rs2, ...), in order. Do not modify.
+   */
+  public int[] getSourceIndices()
+  {
+    return sourceIndices;
+  }// end of getSourceIndices
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Class of the operation for the arithmetic functional units, null if the instruction has no interpretation
+   */
+  public FunctionalUnitDescription.CapabilityName getCapabilityName()
+  {
+    return capabilityName;
+  }// end of getCapabilityName
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Whole interpretation as an expression, null if the instruction has no interpretation
+   */
+  public CompiledExpression getExpression()
+  {
+    return expression;
+  }// end of getExpression
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Number of ':' separated parts of the interpretation
+   */
+  public int getParameterCount()
+  {
+    return parameterCount;
+  }// end of getParameterCount
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Branch target expression, null if the interpretation is not in the branch form
+   */
+  public CompiledExpression getBranchTarget()
+  {
+    return branchTarget;
+  }// end of getBranchTarget
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Branch condition expression, null if the interpretation is not in the branch form
+   */
+  public CompiledExpression getBranchCondition()
+  {
+    return branchCondition;
+  }// end of getBranchCondition
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Address expression, null if the interpretation is not in the load/store form
+   */
+  public CompiledExpression getAddress()
+  {
+    return address;
+  }// end of getAddress
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return True if the instruction is a load
+   */
+  public boolean isLoad()
+  {
+    return isLoad;
+  }// end of isLoad
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return True if the instruction is a store
+   */
+  public boolean isStore()
+  {
+    return isStore;
+  }// end of isStore
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Size of the memory access in bits
+   */
+  public int getSizeBits()
+  {
+    return sizeBits;
+  }// end of getSizeBits
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Name of the stored register, null for loads
+   */
+  public String getStoreRegisterName()
+  {
+    return storeRegisterName;
+  }// end of getStoreRegisterName
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Slot of the stored register, -1 for loads
+   */
+  public int getStoreRegisterSlot()
+  {
+    return storeRegisterSlot;
+  }// end of getStoreRegisterSlot
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * The compiled form is derived from the source, so two instances are equal if their sources are.
+   */
+  @Override
+  public boolean equals(Object o)
+  {
+    if (this == o)
+    {
+      return true;
+    }
+    if (!(o instanceof CompiledInstruction that))
+    {
+      return false;
+    }
+    return Objects.equals(interpretableAs, that.interpretableAs) && Arrays.equals(slotNames, that.slotNames) &&
+            Arrays.equals(writeBackIndices, that.writeBackIndices);
+  }// end of equals
+  //-------------------------------------------------------------------------------------------
+  
+  @Override
+  public int hashCode()
+  {
+    return 31 * Objects.hashCode(interpretableAs) + Arrays.hashCode(slotNames);
+  }// end of hashCode
+  //-------------------------------------------------------------------------------------------
+}
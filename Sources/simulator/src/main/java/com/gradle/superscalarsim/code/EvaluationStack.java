@@ -0,0 +1,241 @@
+/**
+ * @file EvaluationStack.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Primitive operand stack for expression evaluation
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.code;
+
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.models.register.RegisterDataContainer;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Each entry is the bit representation of a value with two type tags: the type the expression sees
+ * and the type of the container the value would be stored in (they differ for the reinterpreting operators).
+ * An entry can also be a reference to a variable slot, which is read when the entry is consumed.
+ * This keeps the semantics of the assignment operators, which write through the variables.
+ * <p>
+ * The stack is reused between evaluations, so an evaluation does not allocate.
+ * It must not be shared between threads.
+ *
+ * @class EvaluationStack
+ * @brief Operand stack of {@link CompiledExpression}
+ */
+public class EvaluationStack implements Serializable
+{
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * Bit representation of the values
+   */
+  long[] bits;
+  
+  /**
+   * Types of the values as seen by the expression
+   */
+  DataTypeEnum[] types;
+  
+  /**
+   * Types of the containers holding the values
+   */
+  DataTypeEnum[] containerTypes;
+  
+  /**
+   * Slot of the referenced variable, -1 for values
+   */
+  int[] slots;
+  
+  /**
+   * Number of entries on the stack
+   */
+  int size;
+  
+  /**
+   * @brief Constructor
+   */
+  public EvaluationStack()
+  {
+    this.bits           = new long[8];
+    this.types          = new DataTypeEnum[8];
+    this.containerTypes = new DataTypeEnum[8];
+    this.slots          = new int[8];
+    this.size           = 0;
+  }// end of Constructor
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param capacity Required number of entries
+   *
+   * @brief Empties the stack and makes sure it can hold the given number of entries
+   */
+  void reset(int capacity)
+  {
+    if (bits.length < capacity)
+    {
+      bits           = new long[capacity];
+      types          = new DataTypeEnum[capacity];
+      containerTypes = new DataTypeEnum[capacity];
+      slots          = new int[capacity];
+    }
+    size = 0;
+  }// end of reset
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @brief Pushes a value
+   */
+  void push(long value, DataTypeEnum type, DataTypeEnum containerType)
+  {
+    bits[size]           = value;
+    types[size]          = type;
+    containerTypes[size] = containerType;
+    slots[size]          = -1;
+    size++;
+  }// end of push
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @brief Pushes a reference to a variable slot
+   */
+  void pushSlot(int slot)
+  {
+    slots[size] = slot;
+    size++;
+  }// end of pushSlot
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param index     Index of the entry
+   * @param variables Variables of the evaluation
+   *
+   * @brief Reads the current value of the variable, if the entry is a reference
+   */
+  void resolve(int index, Expression.Variable[] variables)
+  {
+    int slot = slots[index];
+    if (slot >= 0)
+    {
+      Expression.Variable variable = variables[slot];
+      bits[index]           = variable.value.getBits();
+      types[index]          = variable.type;
+      containerTypes[index] = variable.value.getCurrentType();
+    }
+  }// end of resolve
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return True if the evaluation left no value on the stack
+   */
+  public boolean isEmpty()
+  {
+    return size == 0;
+  }// end of isEmpty
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Type of the result
+   */
+  public DataTypeEnum getType()
+  {
+    return types[size - 1];
+  }// end of getType
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return Bit representation of the result
+   */
+  public long getBits()
+  {
+    return bits[size - 1];
+  }// end of getBits
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return The result as a 32-bit integer
+   */
+  public int getInt()
+  {
+    return (int) bits[size - 1];
+  }// end of getInt
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return The result as a 64-bit integer
+   */
+  public long getLong()
+  {
+    return bits[size - 1];
+  }// end of getLong
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return The result as a 32-bit float
+   */
+  public float getFloat()
+  {
+    return Float.intBitsToFloat((int) bits[size - 1]);
+  }// end of getFloat
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return The result as a 64-bit float
+   */
+  public double getDouble()
+  {
+    return Double.longBitsToDouble(bits[size - 1]);
+  }// end of getDouble
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return The result as a boolean
+   */
+  public boolean getBoolean()
+  {
+    return bits[size - 1] != 0;
+  }// end of getBoolean
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param variables Variables of the evaluation
+   *
+   * @return The result as a variable. A reference to a variable returns the variable itself.
+   */
+  public Expression.Variable toVariable(Expression.Variable[] variables)
+  {
+    int slot = slots[size - 1];
+    if (slot >= 0)
+    {
+      return variables[slot];
+    }
+    RegisterDataContainer container = new RegisterDataContainer();
+    container.setValue(bits[size - 1]);
+    container.setCurrentType(containerTypes[size - 1]);
+    return new Expression.Variable("", types[size - 1], container, true);
+  }// end of toVariable
+  //-------------------------------------------------------------------------------------------
+}
@@ -27,13 +27,15 @@
 package com.gradle.superscalarsim.code;
 
 import com.gradle.superscalarsim.enums.DataTypeEnum;
-import com.gradle.superscalarsim.models.instruction.InstructionException;
 import com.gradle.superscalarsim.models.register.RegisterDataContainer;
 import com.gradle.superscalarsim.models.util.Result;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Stack;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 /**
@@ -148,6 +150,9 @@ public class Expression
    * <p>
    * Throws IllegalArgumentException if the expression is not valid or variables are not
    * valid.
+   * <p>
+   * The expression is compiled on every call. Code evaluating the same expression repeatedly
+   * should keep a {@link CompiledExpression} instead.
    *
    * @param expression expression to interpret
    * @param variables  variables and their values to use in the expression
@@ -156,299 +161,18 @@ public class Expression
    */
   public static Result<Variable> interpret(String expression, List<Variable> variables)
   {
-    Stack<Variable> valueStack      = new Stack<>();
-    String[]        expressionArray = expression.split(" ");
-    for (String token : expressionArray)
+    if (variables == null)
     {
-      if (isUnaryOperator(token))
-      {
-        // Pull one from stack, do operation, push back
-        Variable variable = valueStack.pop();
-        Variable result   = applyUnaryOperator(token, variable);
-        valueStack.push(result);
-      }
-      else if (isBinaryOperator(token))
-      {
-        // Pull two from stack, do operation, push back
-        Variable rVariable = valueStack.pop();
-        Variable lVariable = valueStack.pop();
-        if (token.equals("="))
-        {
-          // Special handling for '=' operator (assign to the right/top variable)
-          assignVariable(rVariable, lVariable);
-        }
-        else if (token.equals("c="))
-        {
-          castAssignVariable(rVariable, lVariable);
-        }
-        else
-        {
-          // Apply operator and Push back
-          Result<Variable> result = applyBinaryOperator(token, lVariable, rVariable);
-          if (result.exception() != null)
-          {
-            return result;
-          }
-          valueStack.push(result.value());
-        }
-      }
-      else if (isTernaryOperator(token))
-      {
-        // Pull three from stack, do operation, push back
-        Variable rVariable = valueStack.pop();
-        Variable mVariable = valueStack.pop();
-        Variable lVariable = valueStack.pop();
-        // Special handling for 'pick' operator
-        Variable result = applyTernaryOperator(token, lVariable, mVariable, rVariable);
-        valueStack.push(result);
-      }
-      else if (isVariable(token))
-      {
-        // Find variable type and value
-        String   strippedName = token.substring(1);
-        Variable variable     = getVariable(strippedName, variables);
-        if (variable == null)
-        {
-          throw new IllegalArgumentException("Unknown variable: " + token);
-        }
-        // Push back
-        valueStack.push(variable);
-      }
-      else
-      {
-        // Try to parse as a constant
-        Variable variable = parseConstant(token);
-        if (variable == null)
-        {
-          throw new IllegalArgumentException("Unknown value: " + token);
-        }
-        // Push back
-        valueStack.push(variable);
-      }
+      variables = List.of();
     }
-    
-    // The Variables from the input list have been mutated while interpreting the expression
-    // One can also use the top of the stack as the result
-    if (valueStack.isEmpty())
+    String[]   names = new String[variables.size()];
+    Variable[] slots = new Variable[variables.size()];
+    for (int i = 0; i < variables.size(); i++)
     {
-      // Positive result but no value
-      return new Result<>(null);
-    }
-    
-    return new Result<>(valueStack.pop());
-  }
-  
-  private static boolean isUnaryOperator(String operator)
-  {
-    return Arrays.asList(unaryOperators).contains(operator);
-  }
-  
-  /**
-   * Assumes the operator is a valid unary operator
-   *
-   * @param operator operator to apply
-   * @param variable variable to apply the operator on
-   *
-   * @return result of the operation
-   */
-  private static Variable applyUnaryOperator(String operator, Variable variable)
-  {
-    // Dispatch to correct type processor
-    Object value = variable.value.getValue(variable.type);
-    return switch (variable.type)
-    {
-      case kInt, kUInt -> applyUnaryOperatorInt(operator, (int) value);
-      case kLong, kULong -> applyUnaryOperatorLong(operator, (long) value);
-      case kFloat -> applyUnaryOperatorFloat(operator, (float) value);
-      case kDouble -> applyUnaryOperatorDouble(operator, (double) value);
-      case kBool -> applyUnaryOperatorBool(operator, (boolean) value);
-      default -> throw new IllegalArgumentException("Unknown type: " + variable.type);
-    };
-  }
-  
-  private static boolean isBinaryOperator(String operator)
-  {
-    return Arrays.asList(binaryOperators).contains(operator);
-  }
-  
-  /**
-   * @param to   variable to assign to
-   * @param from variable to assign from
-   *
-   * @brief Assign value from one variable to another, if possible
-   */
-  private static void assignVariable(Variable to, Variable from)
-  {
-    if (!to.isVariable())
-    {
-      throw new IllegalArgumentException("Right side of '=' operator must be a variable");
-    }
-    if (!canBeAssigned(to.type, from.type))
-    {
-      throw new IllegalArgumentException("Left side of '=' operator must be of the same type as right side");
-    }
-    
-    if (to.isConstant)
-    {
-      // Assigning to a constant does not change the value
-      return;
-    }
-    to.value.copyFrom(from.value);
-  }
-  
-  private static void castAssignVariable(Variable to, Variable from)
-  {
-    boolean toBool    = to.type == DataTypeEnum.kBool;
-    boolean fromBool  = from.type == DataTypeEnum.kBool;
-    boolean toInt     = to.type == DataTypeEnum.kInt || to.type == DataTypeEnum.kUInt;
-    boolean fromInt   = from.type == DataTypeEnum.kInt || from.type == DataTypeEnum.kUInt;
-    boolean toLong    = to.type == DataTypeEnum.kLong || to.type == DataTypeEnum.kULong;
-    boolean fromLong  = from.type == DataTypeEnum.kLong || from.type == DataTypeEnum.kULong;
-    boolean toFloat   = to.type == DataTypeEnum.kFloat || to.type == DataTypeEnum.kDouble;
-    boolean fromFloat = from.type == DataTypeEnum.kFloat || from.type == DataTypeEnum.kDouble;
-    
-    if (fromBool && !toBool)
-    {
-      boolean value = (boolean) from.value.getValue(DataTypeEnum.kBool);
-      switch (to.type)
-      {
-        case kInt, kUInt -> to.value = RegisterDataContainer.fromValue(value ? 1 : 0);
-        case kLong, kULong -> to.value = RegisterDataContainer.fromValue(value ? 1L : 0L);
-        case kFloat -> to.value = RegisterDataContainer.fromValue(value ? 1.0f : 0.0f);
-        case kDouble -> to.value = RegisterDataContainer.fromValue(value ? 1.0 : 0.0);
-        default -> throw new IllegalArgumentException("Unknown type: " + to.type);
-      }
-    }
-    else if (toInt && fromLong)
-    {
-      // long to int - truncate
-      long value    = (long) from.value.getValue(from.type);
-      int  intValue = (int) value;
-      to.value = RegisterDataContainer.fromValue(intValue);
-    }
-    else if (toInt && fromFloat)
-    {
-      // float/double to int - truncate
-      double value;
-      if (from.type == DataTypeEnum.kFloat)
-      {
-        value = (float) from.value.getValue(from.type);
-      }
-      else
-      {
-        value = (double) from.value.getValue(from.type);
-      }
-      int intValue = (int) value;
-      to.value = RegisterDataContainer.fromValue(intValue);
-    }
-    else if (toLong && fromFloat)
-    {
-      // float/double to long - truncate
-      double value;
-      if (from.type == DataTypeEnum.kFloat)
-      {
-        value = (float) from.value.getValue(from.type);
-      }
-      else
-      {
-        value = (double) from.value.getValue(from.type);
-      }
-      long longValue = (long) value;
-      to.value = RegisterDataContainer.fromValue(longValue);
-    }
-    else if (toFloat && fromInt)
-    {
-      // int to float
-      int   value      = (int) from.value.getValue(from.type);
-      float floatValue = (float) value;
-      to.value = RegisterDataContainer.fromValue(floatValue);
-    }
-    else if (toFloat && fromLong)
-    {
-      // long to float
-      long  value      = (long) from.value.getValue(from.type);
-      float floatValue = (float) value;
-      to.value = RegisterDataContainer.fromValue(floatValue);
-      
-    }
-    else
-    {
-      throw new IllegalArgumentException("Invalid cast from " + from.type + " to " + to.type);
-    }
-    
-  }
-  
-  /**
-   * @param operator  operator to apply
-   * @param lVariable left variable
-   * @param rVariable right variable
-   *
-   * @return result of the operation.
-   */
-  private static Result<Variable> applyBinaryOperator(String operator, Variable lVariable, Variable rVariable)
-  {
-    // Special handling for cases with different types of operands
-    if (lVariable.type != rVariable.type)
-    {
-      // Special case: MULHSU (multiply high signed unsigned)
-      if ((operator.equals("*") || operator.equals(
-              "*w")) && lVariable.type == DataTypeEnum.kInt && rVariable.type == DataTypeEnum.kUInt)
-      {
-        int  lValueInt = (int) lVariable.value.getValue(DataTypeEnum.kInt);
-        long lValue    = (long) lValueInt;
-        int  rValueInt = (int) rVariable.value.getValue(DataTypeEnum.kUInt);
-        long rValue    = unsignedIntToLong(rValueInt);
-        return new Result<>(Variable.fromValue(lValue * rValue));
-      }
-      throw new IllegalArgumentException(
-              "Incompatible types: " + lVariable.type + " and " + rVariable.type + " for operator: " + operator);
-    }
-    
-    // Dispatch to correct type processor
-    DataTypeEnum type   = lVariable.type;
-    Object       value  = lVariable.value.getValue(type);
-    Object       value2 = rVariable.value.getValue(type);
-    
-    // Exception handling
-    if (value2.equals(0) && (operator.equals("/") || operator.equals("%")))
-    {
-      return new Result<>(new InstructionException(InstructionException.Kind.kArithmetic, "Division by zero", 0));
-    }
-    
-    Variable x = switch (type)
-    {
-      case kInt -> applyBinaryOperatorInt(operator, (int) value, (int) value2);
-      case kUInt -> applyBinaryOperatorUnsignedInt(operator, (int) value, (int) value2);
-      case kLong -> applyBinaryOperatorLong(operator, (long) value, (long) value2);
-      case kULong -> applyBinaryOperatorUnsignedLong(operator, (long) value, (long) value2);
-      case kFloat -> applyBinaryOperatorFloat(operator, (float) value, (float) value2);
-      case kDouble -> applyBinaryOperatorDouble(operator, (double) value, (double) value2);
-      case kBool -> applyBinaryOperatorBool(operator, (boolean) value, (boolean) value2);
-      default -> throw new IllegalArgumentException("Unknown type: " + type);
-    };
-    return new Result<>(x);
-  }
-  
-  private static boolean isTernaryOperator(String operator)
-  {
-    return Arrays.asList(ternaryOperators).contains(operator);
-  }
-  
-  private static Variable applyTernaryOperator(String operator,
-                                               Variable lVariable,
-                                               Variable mVariable,
-                                               Variable rVariable)
-  {
-    if (operator.equals("pick"))
-    {
-      // The pick operator is used to select one of the two variables based on the value of the third variable
-      boolean condition = (boolean) rVariable.value.getValue(DataTypeEnum.kBool);
-      return condition ? mVariable : lVariable;
-    }
-    else
-    {
-      throw new IllegalArgumentException("Unknown operator: " + operator);
+      names[i] = variables.get(i).tag;
+      slots[i] = variables.get(i);
     }
+    return CompiledExpression.compile(expression, names).evaluate(slots);
   }
   
   /**
@@ -458,29 +182,11 @@ public class Expression
    *
    * @return True if the expression part is a variable
    */
-  private static boolean isVariable(String expressionPart)
+  static boolean isVariable(String expressionPart)
   {
     return expressionPart.startsWith("\\");
   }
   
-  /**
-   * @param tag       Tag of the variable to search for (example: "rd", not "\rd")
-   * @param variables List of variables to search in
-   *
-   * @return Found variable or null if not found
-   */
-  private static Variable getVariable(String tag, List<Variable> variables)
-  {
-    for (Variable variable : variables)
-    {
-      if (variable.tag.equals(tag))
-      {
-        return variable;
-      }
-    }
-    return null;
-  }
-  
   /**
    * @param constant constant to parse (e.g. 10.1f)
    *
@@ -538,265 +244,93 @@ public class Expression
     return variable;
   }
   
-  private static Variable applyUnaryOperatorInt(String operator, int value)
-  {
-    return switch (operator)
-    {
-      case "!" -> new Variable("", DataTypeEnum.kInt, RegisterDataContainer.fromValue(~value), true);
-      case "float" -> new Variable("", DataTypeEnum.kFloat, RegisterDataContainer.fromValue(value), true);
-      default ->
-              throw new IllegalArgumentException("Unknown operator: " + operator + " for type: " + DataTypeEnum.kInt);
-    };
-  }
-  
-  private static Variable applyUnaryOperatorLong(String operator, long value)
-  {
-    return switch (operator)
-    {
-      case "!" -> new Variable("", DataTypeEnum.kInt, RegisterDataContainer.fromValue(~value), true);
-      case "float" -> new Variable("", DataTypeEnum.kDouble, RegisterDataContainer.fromValue(value), true);
-      default ->
-              throw new IllegalArgumentException("Unknown operator: " + operator + " for type: " + DataTypeEnum.kLong);
-    };
-  }
-  
-  private static Variable applyUnaryOperatorFloat(String operator, float value)
-  {
-    return switch (operator)
-    {
-      case "sqrt" -> new Variable("", DataTypeEnum.kFloat, RegisterDataContainer.fromValue((float) Math.sqrt(value)),
-                                  true);
-      case "bits" -> new Variable("", DataTypeEnum.kInt, RegisterDataContainer.fromValue(Float.floatToIntBits(value)),
-                                  true);
-      case "float" -> new Variable("", DataTypeEnum.kFloat, RegisterDataContainer.fromValue(value), true);
-      case "fclass" -> new Variable("", DataTypeEnum.kInt, RegisterDataContainer.fromValue(Fclass.classify(value)),
-                                    true);
-      default ->
-              throw new IllegalArgumentException("Unknown operator: " + operator + " for type: " + DataTypeEnum.kFloat);
-    };
-  }
-  
-  private static Variable applyUnaryOperatorDouble(String operator, double value)
-  {
-    return switch (operator)
-    {
-      case "sqrt" -> new Variable("", DataTypeEnum.kDouble, RegisterDataContainer.fromValue(Math.sqrt(value)), true);
-      case "bits" -> new Variable("", DataTypeEnum.kLong,
-                                  RegisterDataContainer.fromValue(Double.doubleToLongBits(value)), true);
-      default -> throw new IllegalArgumentException(
-              "Unknown operator: " + operator + " for type: " + DataTypeEnum.kDouble);
-    };
-  }
-  
-  private static Variable applyUnaryOperatorBool(String operator, boolean value)
-  {
-    return switch (operator)
-    {
-      case "!" -> new Variable("", DataTypeEnum.kBool, RegisterDataContainer.fromValue(!value), true);
-      default ->
-              throw new IllegalArgumentException("Unknown operator: " + operator + " for type: " + DataTypeEnum.kBool);
-    };
-  }
-  
   /**
-   * Unsigned and signed values can be assigned to each other.
+   * @param expression expression to parse
    *
-   * @return True if assignFrom can be assigned to assignTo
+   * @return list of variable names in the expression without duplicates and without the leading '\' character
    */
-  private static boolean canBeAssigned(DataTypeEnum assignTo, DataTypeEnum assignFrom)
-  {
-    return switch (assignTo)
-    {
-      case kInt, kUInt -> assignFrom == DataTypeEnum.kInt || assignFrom == DataTypeEnum.kUInt || assignFrom == DataTypeEnum.kBool || assignFrom == DataTypeEnum.kLong || assignFrom == DataTypeEnum.kULong;
-      case kLong, kULong -> assignFrom == DataTypeEnum.kLong || assignFrom == DataTypeEnum.kULong || assignFrom == DataTypeEnum.kBool;
-      case kFloat -> assignFrom == DataTypeEnum.kFloat || assignFrom == DataTypeEnum.kBool;
-      case kDouble -> assignFrom == DataTypeEnum.kDouble || assignFrom == DataTypeEnum.kBool;
-      case kBool -> assignFrom == DataTypeEnum.kBool;
-      default -> throw new IllegalArgumentException("Unknown type: " + assignTo);
-    };
-  }
-  
-  private static long unsignedIntToLong(int i)
-  {
-    return i & 0x0000_0000_ffff_ffffL;
-  }
-  
-  private static Variable applyBinaryOperatorInt(String operator, int value, int value2)
+  public static List<String> getVariableNames(String expression)
   {
-    return switch (operator)
-    {
-      case "+" -> Variable.fromValue(value + value2);
-      case "-" -> Variable.fromValue(value - value2);
-      case "*" -> Variable.fromValue(value * value2);
-      case "*w" -> Variable.fromValue((long) value * (long) value2);
-      case "/" -> Variable.fromValue(value / value2);
-      case "%" -> Variable.fromValue(value % value2);
-      case "&" -> Variable.fromValue(value & value2);
-      case "|" -> Variable.fromValue(value | value2);
-      case "^" -> Variable.fromValue(value ^ value2);
-      case "<<" -> Variable.fromValue(value << value2);
-      case ">>" -> Variable.fromValue(value >> value2);
-      case ">>>" -> Variable.fromValue(value >>> value2);
-      case ">" -> Variable.fromValue(value > value2);
-      case ">=" -> Variable.fromValue(value >= value2);
-      case "<" -> Variable.fromValue(value < value2);
-      case "<=" -> Variable.fromValue(value <= value2);
-      case "==" -> Variable.fromValue(value == value2);
-      case "!=" -> Variable.fromValue(value != value2);
-      case "=" -> null;
-      default ->
-              throw new IllegalArgumentException("Unknown operator: " + operator + " for type: " + DataTypeEnum.kInt);
-    };
+    String[] expressionArray = expression.split(" ");
+    return Arrays.stream(expressionArray).filter(Expression::isVariable).distinct().map(s -> s.substring(1)).toList();
   }
   
-  private static Variable applyBinaryOperatorUnsignedInt(String operator, int value, int value2)
+  /**
+   * @brief Operators supported by the expressions, with their symbol and number of operands
+   */
+  public enum Operator
   {
-    return switch (operator)
+    kAdd("+", 2),
+    kSub("-", 2),
+    kMul("*", 2),
+    kMulWide("*w", 2),
+    kDiv("/", 2),
+    kRem("%", 2),
+    kAnd("&", 2),
+    kOr("|", 2),
+    kXor("^", 2),
+    kShiftLeft("<<", 2),
+    kShiftRight(">>", 2),
+    kShiftRightUnsigned(">>>", 2),
+    kGreater(">", 2),
+    kGreaterEqual(">=", 2),
+    kLess("<", 2),
+    kLessEqual("<=", 2),
+    kEqual("==", 2),
+    kNotEqual("!=", 2),
+    kAssign("=", 2),
+    kCastAssign("c=", 2),
+    kSqrt("sqrt", 1),
+    kNot("!", 1),
+    kBits("bits", 1),
+    kFloat("float", 1),
+    kFclass("fclass", 1),
+    kPick("pick", 3);
+    
+    /**
+     * Operators indexed by their symbol
+     */
+    private static final Map<String, Operator> bySymbol = new HashMap<>();
+    
+    static
     {
-      case "+" -> Variable.fromValue(value + value2);
-      case "-" -> Variable.fromValue(value - value2);
-      case "*" -> Variable.fromValue(value * value2);
-      case "*w" ->
+      for (Operator operator : values())
       {
-        long l = unsignedIntToLong(value);
-        long r = unsignedIntToLong(value2);
-        yield Variable.fromValue(l * r);
+        bySymbol.put(operator.symbol, operator);
       }
-      case "/" -> Variable.fromValue(Integer.divideUnsigned(value, value2));
-      case "%" -> Variable.fromValue(Integer.remainderUnsigned(value, value2));
-      case "&" -> Variable.fromValue(value & value2);
-      case "|" -> Variable.fromValue(value | value2);
-      case "^" -> Variable.fromValue(value ^ value2);
-      case "<<" -> Variable.fromValue(value << value2);
-      case ">>" -> Variable.fromValue(value >> value2);
-      case ">>>" -> Variable.fromValue(value >>> value2);
-      case ">" -> Variable.fromValue(Integer.compareUnsigned(value, value2) > 0);
-      case ">=" -> Variable.fromValue(Integer.compareUnsigned(value, value2) >= 0);
-      case "<" -> Variable.fromValue(Integer.compareUnsigned(value, value2) < 0);
-      case "<=" -> Variable.fromValue(Integer.compareUnsigned(value, value2) <= 0);
-      case "==" -> Variable.fromValue(Integer.compareUnsigned(value, value2) == 0);
-      case "!=" -> Variable.fromValue(Integer.compareUnsigned(value, value2) != 0);
-      default ->
-              throw new IllegalArgumentException("Unknown operator: " + operator + " for type: " + DataTypeEnum.kUInt);
-    };
-  }
-  
-  private static Variable applyBinaryOperatorLong(String operator, long value, long value2)
-  {
-    return switch (operator)
-    {
-      case "+" -> Variable.fromValue(value + value2);
-      case "-" -> Variable.fromValue(value - value2);
-      case "*" -> Variable.fromValue(value * value2);
-      case "/" -> Variable.fromValue(value / value2);
-      case "%" -> Variable.fromValue(value % value2);
-      case "&" -> Variable.fromValue(value & value2);
-      case "|" -> Variable.fromValue(value | value2);
-      case "^" -> Variable.fromValue(value ^ value2);
-      case "<<" -> Variable.fromValue(value << value2);
-      case ">>" -> Variable.fromValue(value >> value2);
-      case ">>>" -> Variable.fromValue(value >>> value2);
-      case ">" -> Variable.fromValue(value > value2);
-      case ">=" -> Variable.fromValue(value >= value2);
-      case "<" -> Variable.fromValue(value < value2);
-      case "<=" -> Variable.fromValue(value <= value2);
-      case "==" -> Variable.fromValue(value == value2);
-      case "!=" -> Variable.fromValue(value != value2);
-      case "=" -> null;
-      default ->
-              throw new IllegalArgumentException("Unknown operator: " + operator + " for type: " + DataTypeEnum.kLong);
-    };
-  }
-  
-  private static Variable applyBinaryOperatorUnsignedLong(String operator, long value, long value2)
-  {
-    return switch (operator)
-    {
-      case "+" -> Variable.fromValue(value + value2);
-      case "-" -> Variable.fromValue(value - value2);
-      case "*" -> Variable.fromValue(value * value2);
-      case "/" -> Variable.fromValue(Long.divideUnsigned(value, value2));
-      case "%" -> Variable.fromValue(Long.remainderUnsigned(value, value2));
-      case "&" -> Variable.fromValue(value & value2);
-      case "|" -> Variable.fromValue(value | value2);
-      case "^" -> Variable.fromValue(value ^ value2);
-      case "<<" -> Variable.fromValue(value << value2);
-      case ">>" -> Variable.fromValue(value >> value2);
-      case ">>>" -> Variable.fromValue(value >>> value2);
-      case ">" -> Variable.fromValue(Long.compareUnsigned(value, value2) > 0);
-      case ">=" -> Variable.fromValue(Long.compareUnsigned(value, value2) >= 0);
-      case "<" -> Variable.fromValue(Long.compareUnsigned(value, value2) < 0);
-      case "<=" -> Variable.fromValue(Long.compareUnsigned(value, value2) <= 0);
-      case "==" -> Variable.fromValue(Long.compareUnsigned(value, value2) == 0);
-      case "!=" -> Variable.fromValue(Long.compareUnsigned(value, value2) != 0);
-      default ->
-              throw new IllegalArgumentException("Unknown operator: " + operator + " for type: " + DataTypeEnum.kULong);
-    };
-  }
-  
-  private static Variable applyBinaryOperatorFloat(String operator, float value, float value2)
-  {
-    return switch (operator)
+    }
+    
+    /**
+     * Symbol of the operator in the expression (example: "+")
+     */
+    public final String symbol;
+    
+    /**
+     * Number of operands taken from the stack
+     */
+    public final int arity;
+    
+    Operator(String symbol, int arity)
     {
-      case "+" -> Variable.fromValue(value + value2);
-      case "-" -> Variable.fromValue(value - value2);
-      case "*" -> Variable.fromValue(value * value2);
-      case "/" -> Variable.fromValue(value / value2);
-      case "%" -> Variable.fromValue(value % value2);
-      case ">" -> Variable.fromValue(value > value2);
-      case ">=" -> Variable.fromValue(value >= value2);
-      case "<" -> Variable.fromValue(value < value2);
-      case "<=" -> Variable.fromValue(value <= value2);
-      case "==" -> Variable.fromValue(value == value2);
-      case "!=" -> Variable.fromValue(value != value2);
-      case "=" -> null;
-      default ->
-              throw new IllegalArgumentException("Unknown operator: " + operator + " for type: " + DataTypeEnum.kFloat);
-    };
-  }
-  
-  private static Variable applyBinaryOperatorDouble(String operator, double value, double value2)
-  {
-    return switch (operator)
+      this.symbol = symbol;
+      this.arity  = arity;
+    }
+    
+    /**
+     * @param symbol Token from the expression
+     *
+     * @return The operator or null if the token is not an operator
+     */
+    public static Operator fromSymbol(String symbol)
     {
-      case "+" -> Variable.fromValue(value + value2);
-      case "-" -> Variable.fromValue(value - value2);
-      case "*" -> Variable.fromValue(value * value2);
-      case "/" -> Variable.fromValue(value / value2);
-      case "%" -> Variable.fromValue(value % value2);
-      case ">" -> Variable.fromValue(value > value2);
-      case ">=" -> Variable.fromValue(value >= value2);
-      case "<" -> Variable.fromValue(value < value2);
-      case "<=" -> Variable.fromValue(value <= value2);
-      case "==" -> Variable.fromValue(value == value2);
-      case "!=" -> Variable.fromValue(value != value2);
-      case "=" -> null;
-      default -> throw new IllegalArgumentException(
-              "Unknown operator: " + operator + " for type: " + DataTypeEnum.kDouble);
-    };
-  }
-  
-  private static Variable applyBinaryOperatorBool(String operator, boolean value, boolean value2)
-  {
-    return switch (operator)
+      return bySymbol.get(symbol);
+    }
+    
+    @Override
+    public String toString()
     {
-      case "==" -> Variable.fromValue(value == value2);
-      case "!=" -> Variable.fromValue(value != value2);
-      case "=" -> null;
-      default ->
-              throw new IllegalArgumentException("Unknown operator: " + operator + " for type: " + DataTypeEnum.kBool);
-    };
-  }
-  
-  /**
-   * @param expression expression to parse
-   *
-   * @return list of variable names in the expression without duplicates and without the leading '\' character
-   */
-  public static List<String> getVariableNames(String expression)
-  {
-    String[] expressionArray = expression.split(" ");
-    return Arrays.stream(expressionArray).filter(Expression::isVariable).distinct().map(s -> s.substring(1)).toList();
+      return symbol;
+    }
   }
   
   /**
@@ -807,8 +341,11 @@ public class Expression
    *
    * @brief a key-value pair for storing variables. Example: rs1 = 5
    */
-  public static class Variable
+  public static class Variable implements Serializable
   {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    
     public String tag;
     public DataTypeEnum type;
     public RegisterDataContainer value;
@@ -38,6 +38,9 @@ import com.gradle.superscalarsim.blocks.loadstore.SimulatedMemory;
 import com.gradle.superscalarsim.cpu.SimulationStatistics;
 import com.gradle.superscalarsim.models.memory.MemoryTransaction;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * @class MemoryModel
  * @brief Class implementing common functions for accessing cache or memory, holds the cache or memory.
@@ -45,8 +48,11 @@ import com.gradle.superscalarsim.models.memory.MemoryTransaction;
  * TODO move elsewhere
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class MemoryModel
+public class MemoryModel implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Cache implementation
    */
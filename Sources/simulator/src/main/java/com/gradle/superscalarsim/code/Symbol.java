@@ -29,15 +29,20 @@
 package com.gradle.superscalarsim.code;
 
 import com.gradle.superscalarsim.cpu.MemoryLocation;
-import com.gradle.superscalarsim.enums.DataTypeEnum;
 import com.gradle.superscalarsim.models.register.RegisterDataContainer;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * @brief Represents a symbol in the code.
  * Used for jumps, data pointers.
  */
-public class Symbol
+public class Symbol implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Name of the symbol
    */
@@ -89,7 +94,7 @@ public class Symbol
   
   public long getAddress()
   {
-    return (long) value.getValue(DataTypeEnum.kLong);
+    return value.getLong();
   }
   
   public MemoryLocation getMemoryLocation()
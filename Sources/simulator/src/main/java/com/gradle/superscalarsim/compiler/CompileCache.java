@@ -0,0 +1,340 @@
+/**
+ * @file CompileCache.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Cache of compiled programs keyed by the hash of the source and the compiler command
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.compiler;
+
+import com.gradle.superscalarsim.app.MyLogger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @class CompileCache
+ * @brief LRU cache of compilation results, optionally backed by a directory
+ * @details The key is a hash of the whole compiler command (compiler path and flags) and the source, so a different
+ * compiler or different flags never share an entry. Successful compilations and compilations rejected with
+ * diagnostics are cached - both are deterministic. Failures of the compiler itself (it cannot be started, it timed
+ * out) are not. Requests for a key that is being compiled wait for that compilation instead of starting another one.
+ * The cached results are shared by all callers and must not be modified.
+ */
+public class CompileCache
+{
+  /**
+   * Default maximum number of results kept in memory
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 256;
+  
+  static Logger logger = MyLogger.initializeLogger("CompileCache", Level.INFO);
+  
+  /**
+   * Maximum number of results kept in memory
+   */
+  private final int maxEntries;
+  
+  /**
+   * Directory with the successfully compiled programs, one file per key. Null to keep the results in memory only.
+   */
+  private final Path directory;
+  
+  /**
+   * Results in access order (the eldest is the least recently used)
+   */
+  private final LinkedHashMap<String, GccCaller.CompileResult> entries;
+  
+  /**
+   * Compilations that are running, by key
+   */
+  private final Map<String, CompletableFuture<GccCaller.CompileResult>> inFlight;
+  
+  /**
+   * Number of requests answered from the memory or the directory
+   */
+  private long hits;
+  
+  /**
+   * Number of requests that waited for a compilation started by another request
+   */
+  private long coalesced;
+  
+  /**
+   * Number of compilations
+   */
+  private long misses;
+  
+  /**
+   * @param maxEntries Maximum number of results kept in memory. Zero keeps nothing in memory.
+   * @param directory  Directory for the compiled programs, created if missing. Null to keep the results in memory only.
+   *
+   * @brief Constructor
+   */
+  public CompileCache(int maxEntries, Path directory)
+  {
+    this.maxEntries = maxEntries;
+    this.directory  = directory;
+    this.entries    = new LinkedHashMap<>(16, 0.75f, true);
+    this.inFlight   = new ConcurrentHashMap<>();
+    if (directory != null)
+    {
+      try
+      {
+        Files.createDirectories(directory);
+      }
+      catch (IOException e)
+      {
+        throw new IllegalArgumentException("Cannot create the compile cache directory " + directory, e);
+      }
+    }
+  }
+  
+  /**
+   * @param command Compiler command with all flags
+   * @param code    Source code
+   *
+   * @return Hex encoded SHA-256 of the command and the code
+   */
+  public static String key(List<String> command, String code)
+  {
+    try
+    {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (String part : command)
+      {
+        digest.update(part.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+      }
+      digest.update((byte) 0);
+      digest.update(code.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest.digest());
+    }
+    catch (NoSuchAlgorithmException e)
+    {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+  
+  /**
+   * @param key     Key of the compilation, see {@link #key(List, String)}
+   * @param compile Runs the compilation on a miss
+   *
+   * @return The cached result, the result of the same compilation running in another thread, or a new result
+   */
+  public GccCaller.CompileResult get(String key, Supplier<GccCaller.CompileResult> compile)
+  {
+    GccCaller.CompileResult cached = lookup(key);
+    if (cached != null)
+    {
+      return cached;
+    }
+    
+    CompletableFuture<GccCaller.CompileResult> own     = new CompletableFuture<>();
+    CompletableFuture<GccCaller.CompileResult> running = inFlight.putIfAbsent(key, own);
+    if (running != null)
+    {
+      synchronized (this)
+      {
+        coalesced++;
+      }
+      return running.join();
+    }
+    try
+    {
+      // The previous owner of the key may have finished between the lookup and the registration
+      GccCaller.CompileResult result = lookup(key);
+      if (result == null)
+      {
+        synchronized (this)
+        {
+          misses++;
+        }
+        result = compile.get();
+        if (isCacheable(result))
+        {
+          store(key, result);
+        }
+      }
+      own.complete(result);
+      return result;
+    }
+    catch (RuntimeException e)
+    {
+      own.completeExceptionally(e);
+      throw e;
+    }
+    finally
+    {
+      inFlight.remove(key, own);
+    }
+  }
+  
+  /**
+   * @param result Result of a compilation
+   *
+   * @return True if the compilation gives the same result when repeated
+   */
+  private static boolean isCacheable(GccCaller.CompileResult result)
+  {
+    return result.success || !result.compilerErrors.isEmpty();
+  }
+  
+  /**
+   * @param key Key of the compilation
+   *
+   * @return The result from the memory or the directory, null if there is none
+   */
+  private GccCaller.CompileResult lookup(String key)
+  {
+    synchronized (this)
+    {
+      GccCaller.CompileResult result = entries.get(key);
+      if (result != null)
+      {
+        hits++;
+        return result;
+      }
+    }
+    if (directory == null)
+    {
+      return null;
+    }
+    Path file = directory.resolve(key + ".s");
+    if (!Files.isRegularFile(file))
+    {
+      return null;
+    }
+    try
+    {
+      GccCaller.CompileResult result = GccCaller.CompileResult.success(Files.readString(file));
+      synchronized (this)
+      {
+        hits++;
+        remember(key, result);
+      }
+      return result;
+    }
+    catch (IOException e)
+    {
+      logger.warning("Cannot read cached compilation " + file + ": " + e.getMessage());
+      return null;
+    }
+  }
+  
+  /**
+   * Successful compilations are also written to the directory. The file is written under a temporary name and then
+   * renamed, so a concurrent reader never sees a partial file.
+   *
+   * @param key    Key of the compilation
+   * @param result Result to keep
+   */
+  private void store(String key, GccCaller.CompileResult result)
+  {
+    synchronized (this)
+    {
+      remember(key, result);
+    }
+    if (directory == null || !result.success)
+    {
+      return;
+    }
+    try
+    {
+      Path temporary = Files.createTempFile(directory, key, ".tmp");
+      Files.writeString(temporary, result.code);
+      Files.move(temporary, directory.resolve(key + ".s"), StandardCopyOption.REPLACE_EXISTING,
+                 StandardCopyOption.ATOMIC_MOVE);
+    }
+    catch (IOException e)
+    {
+      logger.warning("Cannot write cached compilation " + key + ": " + e.getMessage());
+    }
+  }
+  
+  /**
+   * @brief Puts the result to the memory, evicting the least recently used results over the limit
+   */
+  private void remember(String key, GccCaller.CompileResult result)
+  {
+    if (maxEntries <= 0)
+    {
+      return;
+    }
+    entries.put(key, result);
+    Iterator<String> it = entries.keySet().iterator();
+    while (entries.size() > maxEntries && it.hasNext())
+    {
+      it.next();
+      it.remove();
+    }
+  }
+  
+  /**
+   * @return Number of results in memory
+   */
+  public synchronized int size()
+  {
+    return entries.size();
+  }
+  
+  /**
+   * @return Number of requests answered from the memory or the directory
+   */
+  public synchronized long getHits()
+  {
+    return hits;
+  }
+  
+  /**
+   * @return Number of requests that waited for a compilation started by another request
+   */
+  public synchronized long getCoalesced()
+  {
+    return coalesced;
+  }
+  
+  /**
+   * @return Number of compilations
+   */
+  public synchronized long getMisses()
+  {
+    return misses;
+  }
+}
@@ -33,9 +33,13 @@ import com.gradle.superscalarsim.app.MyLogger;
 import com.gradle.superscalarsim.loader.ConfigLoader;
 import com.gradle.superscalarsim.serialization.Serialization;
 
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -84,8 +88,42 @@ public class GccCaller
                                                 "-ffunction-sections", "-fdata-sections", "-fno-dwarf2-cfi-asm",
                                                 "-finhibit-size-directive", "-mstrict-align", "-nostdlib",
                                                 "-fdiagnostics-format=json", "-fPIE", "-fno-plt", "-");
+  /**
+   * Default number of GCC processes running at the same time
+   */
+  public static final int DEFAULT_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+  /**
+   * Default time after which GCC is killed
+   */
+  public static final long DEFAULT_TIMEOUT_MS = 10_000;
+  /**
+   * Compilations waiting for a worker. Further requests are rejected as busy.
+   */
+  public static final int MAX_QUEUED_COMPILATIONS = 256;
   static Logger logger = MyLogger.initializeLogger("GCC", Level.INFO);
   private static String compilerPath = ConfigLoader.gccPath;
+  /**
+   * Runs the GCC processes
+   */
+  private static final ThreadPoolExecutor workers = new ThreadPoolExecutor(
+          DEFAULT_WORKERS, DEFAULT_WORKERS, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_COMPILATIONS),
+          daemonThreads("gcc-worker"));
+  /**
+   * Writes stdin and reads stderr of the GCC processes
+   */
+  private static final ExecutorService pumps = Executors.newCachedThreadPool(daemonThreads("gcc-pump"));
+  /**
+   * Kills GCC processes after the timeout
+   */
+  private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+          daemonThreads("gcc-timer"));
+  private static volatile long timeoutMs = DEFAULT_TIMEOUT_MS;
+  private static volatile CompileCache cache = new CompileCache(CompileCache.DEFAULT_MAX_ENTRIES, null);
+  
+  static
+  {
+    workers.allowCoreThreadTimeOut(true);
+  }
   
   public static String getCompilerPath()
   {
@@ -98,82 +136,229 @@ public class GccCaller
     compilerPath = path;
   }
   
-  public static CompileResult compile(String code, List<String> optimizeFlags)
+  /**
+   * @param count Maximum number of GCC processes running at the same time
+   */
+  public static synchronized void setWorkerCount(int count)
   {
-    ProcessBuilder pb = new ProcessBuilder(getCommand(optimizeFlags));
-    
-    // Pipe the code into the process, and get the output from stdout
-    pb.redirectInput(ProcessBuilder.Redirect.PIPE);
-    pb.redirectOutput(ProcessBuilder.Redirect.PIPE);
-    pb.redirectError(ProcessBuilder.Redirect.PIPE);
-    // Start the process
-    Process p = null;
-    try
+    if (count < 1)
     {
-      p = pb.start();
+      throw new IllegalArgumentException("Worker count must be positive: " + count);
     }
-    catch (Exception e)
+    // The maximum must never be below the core size
+    if (count > workers.getMaximumPoolSize())
     {
-      logger.severe("Error starting GCC");
-      logger.severe(e.getMessage());
-      return CompileResult.failure("Error starting GCC", List.of());
+      workers.setMaximumPoolSize(count);
+      workers.setCorePoolSize(count);
     }
-    // Write the code to the process
+    else
+    {
+      workers.setCorePoolSize(count);
+      workers.setMaximumPoolSize(count);
+    }
+  }
+  
+  /**
+   * @param timeout Time in milliseconds after which GCC is killed
+   */
+  public static void setTimeoutMs(long timeout)
+  {
+    timeoutMs = timeout;
+  }
+  
+  public static CompileCache getCache()
+  {
+    return cache;
+  }
+  
+  /**
+   * @param compileCache Cache of the compilation results. Replaces the previous cache with all its entries.
+   */
+  public static void setCache(CompileCache compileCache)
+  {
+    cache = compileCache;
+  }
+  
+  /**
+   * @param code          C source code
+   * @param optimizeFlags Optimization flags, keys of {@link #optimizeFlags}. Unknown flags are ignored.
+   *
+   * @return Result of the compilation. Repeated compilations of the same code with the same flags are answered from
+   * the cache, concurrent ones share one GCC run.
+   */
+  public static CompileResult compile(String code, List<String> optimizeFlags)
+  {
+    List<String> command = getCommand(optimizeFlags);
+    return cache.get(CompileCache.key(command, code), () -> runOnWorker(command, code));
+  }
+  
+  /**
+   * @param command GCC command
+   * @param code    C source code
+   *
+   * @return Result of the compilation, run on one of the workers
+   */
+  private static CompileResult runOnWorker(List<String> command, String code)
+  {
+    Future<CompileResult> future;
     try
     {
-      p.getOutputStream().write(code.getBytes());
-      p.getOutputStream().close();
+      future = workers.submit(() -> invoke(command, code));
     }
-    catch (Exception e)
+    catch (RejectedExecutionException e)
     {
-      logger.severe("Error writing to GCC");
-      return CompileResult.failure("Error writing to GCC", List.of());
+      logger.warning("Too many compilations waiting");
+      return CompileResult.failure("Compiler is busy, try again later", List.of());
     }
-    // Read the output
-    String output = null;
     try
     {
-      output = new String(p.getInputStream().readAllBytes());
+      // The worker kills GCC after the timeout, so this does not wait forever
+      return future.get();
     }
-    catch (Exception e)
+    catch (InterruptedException e)
+    {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      return CompileResult.failure("Compilation interrupted", List.of());
+    }
+    catch (ExecutionException e)
     {
-      logger.severe("Error reading from GCC");
-      return CompileResult.failure("Error reading from GCC", List.of());
+      logger.severe("Error calling GCC: " + e.getCause());
+      return CompileResult.failure("Error calling GCC", List.of());
     }
-    // Wait for the process to finish
+  }
+  
+  /**
+   * The code is written to stdin and stderr is read on helper threads while this thread reads stdout, so GCC never
+   * blocks on a full pipe. GCC is killed if it runs longer than the timeout.
+   *
+   * @param command GCC command
+   * @param code    C source code
+   *
+   * @return Result of the compilation
+   */
+  private static CompileResult invoke(List<String> command, String code)
+  {
+    ProcessBuilder pb = new ProcessBuilder(command);
+    
+    // Pipe the code into the process, and get the output from stdout
+    pb.redirectInput(ProcessBuilder.Redirect.PIPE);
+    pb.redirectOutput(ProcessBuilder.Redirect.PIPE);
+    pb.redirectError(ProcessBuilder.Redirect.PIPE);
+    // Start the process
+    Process p;
     try
     {
-      p.waitFor();
+      p = pb.start();
     }
     catch (Exception e)
     {
-      logger.severe("Error waiting for GCC");
-      return CompileResult.failure("Error waiting for GCC", List.of());
+      logger.severe("Error starting GCC");
+      logger.severe(e.getMessage());
+      return CompileResult.failure("Error starting GCC", List.of());
     }
-    // Read the exit value
-    int exitValue = p.exitValue();
-    if (exitValue != 0)
+    AtomicBoolean      timedOut = new AtomicBoolean(false);
+    ScheduledFuture<?> killer   = timer.schedule(() -> {
+      timedOut.set(true);
+      kill(p);
+    }, timeoutMs, TimeUnit.MILLISECONDS);
+    try
     {
-      // Take error from stderr
-      List<Object> error = List.of();
+      // Write the code to the process
+      Future<?> input = pumps.submit(() -> {
+        try (OutputStream stdin = p.getOutputStream())
+        {
+          stdin.write(code.getBytes());
+        }
+        return null;
+      });
+      Future<byte[]> error = pumps.submit(() -> p.getErrorStream().readAllBytes());
+      // Read the output
+      String output;
       try
       {
-        String error_string = new String(p.getErrorStream().readAllBytes());
-        // error should be a JSON string. Parse it to an object
-        ObjectMapper deserializer = Serialization.getDeserializer();
-        error = deserializer.readValue(error_string, new TypeReference<>()
-        {
-        });
+        output = new String(p.getInputStream().readAllBytes());
+        p.waitFor();
+        input.get();
       }
       catch (Exception e)
       {
-        logger.severe("GCC returned non-zero exit value: " + exitValue);
-        return CompileResult.failure("GCC returned non-zero exit value: " + exitValue, List.of());
+        if (timedOut.get())
+        {
+          return timeoutFailure();
+        }
+        logger.severe("Error communicating with GCC: " + e.getMessage());
+        return CompileResult.failure("Error communicating with GCC", List.of());
+      }
+      if (timedOut.get())
+      {
+        return timeoutFailure();
+      }
+      // Read the exit value
+      int exitValue = p.exitValue();
+      if (exitValue != 0)
+      {
+        // Take error from stderr
+        List<Object> compilerErrors;
+        try
+        {
+          String error_string = new String(error.get());
+          // error should be a JSON string. Parse it to an object
+          ObjectMapper deserializer = Serialization.getDeserializer();
+          compilerErrors = deserializer.readValue(error_string, new TypeReference<>()
+          {
+          });
+        }
+        catch (Exception e)
+        {
+          logger.severe("GCC returned non-zero exit value: " + exitValue);
+          return CompileResult.failure("GCC returned non-zero exit value: " + exitValue, List.of());
+        }
+        return CompileResult.failure("GCC returned non-zero exit value: " + exitValue, compilerErrors);
       }
-      return CompileResult.failure("GCC returned non-zero exit value: " + exitValue, error);
+      logger.info("GCC successfully invoked");
+      return CompileResult.success(output);
+    }
+    finally
+    {
+      killer.cancel(false);
+      kill(p);
     }
-    logger.info("GCC successfully invoked");
-    return CompileResult.success(output);
+  }
+  
+  /**
+   * GCC runs the compiler proper (cc1) as a child process, which keeps the output pipe open, so it is killed as well.
+   *
+   * @param process GCC process
+   */
+  private static void kill(Process process)
+  {
+    process.descendants().forEach(ProcessHandle::destroyForcibly);
+    process.destroyForcibly();
+  }
+  
+  /**
+   * @return Failure of a compilation killed after the timeout
+   */
+  private static CompileResult timeoutFailure()
+  {
+    logger.warning("GCC timed out after " + timeoutMs + " ms");
+    return CompileResult.failure("Compilation timed out after " + timeoutMs + " ms", List.of());
+  }
+  
+  /**
+   * @param name Prefix of the thread names
+   *
+   * @return Factory of daemon threads, so that idle workers do not keep the application running
+   */
+  private static ThreadFactory daemonThreads(String name)
+  {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
   }
   
   // /usr/bin/riscv64-linux-gnu-gcc -xc -O0 -march=rv32imfd -mabi=ilp32d -o /dev/stdout -S -g -fverbose-asm -fcf-protection=none -fno-stack-protector -fno-asynchronous-unwind-tables -fno-dwarf2-cfi-asm -nostdlib -xc -
@@ -0,0 +1,97 @@
+/**
+ * @file CancellationToken.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Cooperative cancellation of a running simulation
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @class CancellationToken
+ * @brief Flag asking a running simulation to stop
+ * @details The token is set from another thread (request timeout, client disconnect). The simulation polls it
+ * every {@link Cpu#CANCELLATION_CHECK_INTERVAL} steps and throws {@link SimulationCancelledException},
+ * so the thread running it is freed without waiting for the cycle limit.
+ */
+public class CancellationToken
+{
+  /**
+   * Number of simulations stopped by a token, over the lifetime of the application
+   */
+  private static final AtomicLong cancelledSimulations = new AtomicLong();
+  
+  /**
+   * True once the simulation should stop
+   */
+  private volatile boolean cancelled;
+  
+  /**
+   * @brief Constructor
+   */
+  public CancellationToken()
+  {
+    this.cancelled = false;
+  }
+  
+  /**
+   * @return Number of simulations stopped by a token so far
+   */
+  public static long getCancelledSimulations()
+  {
+    return cancelledSimulations.get();
+  }
+  
+  /**
+   * @brief Asks the simulation to stop. Safe to call from any thread, any number of times.
+   */
+  public void cancel()
+  {
+    this.cancelled = true;
+  }
+  
+  /**
+   * @return True if the simulation should stop
+   */
+  public boolean isCancelled()
+  {
+    return cancelled;
+  }
+  
+  /**
+   * @param tick Tick the simulation reached
+   *
+   * @throws SimulationCancelledException If the token was cancelled
+   * @brief Called by the simulation loop
+   */
+  public void throwIfCancelled(int tick)
+  {
+    if (cancelled)
+    {
+      cancelledSimulations.incrementAndGet();
+      throw new SimulationCancelledException(tick);
+    }
+  }
+}
@@ -0,0 +1,239 @@
+/**
+ * @file CheckpointStore.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Periodic snapshots of the CPU state for fast backward simulation
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import java.io.*;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @class CheckpointStore
+ * @brief Keeps snapshots of the CPU state taken every {@code interval} cycles.
+ * @details Backward simulation restores the nearest checkpoint at or before the target tick and replays
+ * from there, so the cost of a step back is bounded by the interval instead of the current tick.
+ * The snapshots are the state encoded to bytes by {@link StateCodec}, so they are fully detached from the live state.
+ * When the total size exceeds the memory budget, the oldest checkpoints are evicted.
+ * The simulation is deterministic, so checkpoints stay valid after stepping back.
+ */
+public class CheckpointStore implements Serializable
+{
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * Default number of cycles between two checkpoints
+   */
+  public static final int DEFAULT_INTERVAL = 1000;
+  
+  /**
+   * Default memory budget for all checkpoints in bytes
+   */
+  public static final long DEFAULT_MEMORY_BUDGET = 32L * 1024 * 1024;
+  
+  /**
+   * Number of cycles between two checkpoints. Zero or negative value disables checkpointing.
+   */
+  private final int interval;
+  
+  /**
+   * Maximum total size of the stored snapshots in bytes
+   */
+  private final long memoryBudget;
+  
+  /**
+   * Serialized states, indexed by their tick
+   */
+  private final TreeMap<Integer, byte[]> checkpoints;
+  
+  /**
+   * Total size of the stored snapshots in bytes
+   */
+  private long usedMemory;
+  
+  /**
+   * @brief Constructor with default interval and memory budget
+   */
+  public CheckpointStore()
+  {
+    this(DEFAULT_INTERVAL, DEFAULT_MEMORY_BUDGET);
+  }
+  
+  /**
+   * @param interval     Number of cycles between two checkpoints. Zero disables checkpointing.
+   * @param memoryBudget Maximum total size of the snapshots in bytes
+   *
+   * @brief Constructor
+   */
+  public CheckpointStore(int interval, long memoryBudget)
+  {
+    this.interval     = interval;
+    this.memoryBudget = memoryBudget;
+    this.checkpoints  = new TreeMap<>();
+    this.usedMemory   = 0;
+  }
+  
+  /**
+   * @param state State to copy
+   *
+   * @return The state serialized to bytes
+   * @brief Creates a detached snapshot of the state
+   */
+  public static byte[] snapshot(CpuState state)
+  {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try
+    {
+      StateCodec.write(state, bytes);
+    }
+    catch (IOException e)
+    {
+      throw new IllegalStateException("Failed to snapshot the CPU state", e);
+    }
+    return bytes.toByteArray();
+  }
+  
+  /**
+   * @param snapshot Bytes created by {@link #snapshot(CpuState)}
+   *
+   * @return A new, independent state
+   * @brief Recreates the state from a snapshot
+   */
+  public static CpuState restore(byte[] snapshot)
+  {
+    try
+    {
+      return StateCodec.read(new ByteArrayInputStream(snapshot));
+    }
+    catch (IOException e)
+    {
+      throw new IllegalStateException("Failed to restore the CPU state", e);
+    }
+  }
+  
+  /**
+   * @param state State after a step
+   *
+   * @brief Takes a checkpoint if the state is on the interval boundary and there is none yet
+   */
+  public void onStep(CpuState state)
+  {
+    if (interval <= 0 || state.tick % interval != 0 || checkpoints.containsKey(state.tick))
+    {
+      return;
+    }
+    byte[] snapshot = snapshot(state);
+    checkpoints.put(state.tick, snapshot);
+    usedMemory += snapshot.length;
+    evict();
+  }
+  
+  /**
+   * @param tick Current tick
+   *
+   * @return The first tick after the given one at which a checkpoint is taken, or {@link Integer#MAX_VALUE} if disabled
+   */
+  public int nextCheckpointTick(int tick)
+  {
+    if (interval <= 0)
+    {
+      return Integer.MAX_VALUE;
+    }
+    return (tick / interval + 1) * interval;
+  }
+  
+  /**
+   * @brief Removes the oldest checkpoints until the budget is met. The newest one is always kept.
+   */
+  private void evict()
+  {
+    while (usedMemory > memoryBudget && checkpoints.size() > 1)
+    {
+      Map.Entry<Integer, byte[]> oldest = checkpoints.pollFirstEntry();
+      usedMemory -= oldest.getValue().length;
+    }
+  }
+  
+  /**
+   * @param targetTick Tick the simulation wants to reach
+   *
+   * @return Tick of the nearest checkpoint at or before the target, or -1 if there is none
+   */
+  public int nearestTick(int targetTick)
+  {
+    Integer tick = checkpoints.floorKey(targetTick);
+    return tick == null ? -1 : tick;
+  }
+  
+  /**
+   * @param targetTick Tick the simulation wants to reach
+   *
+   * @return A new state from the nearest checkpoint at or before the target, or null if there is none
+   */
+  public CpuState restoreNearest(int targetTick)
+  {
+    Map.Entry<Integer, byte[]> entry = checkpoints.floorEntry(targetTick);
+    if (entry == null)
+    {
+      return null;
+    }
+    return restore(entry.getValue());
+  }
+  
+  /**
+   * @brief Drops all checkpoints. Must be called when the simulated program or configuration changes.
+   */
+  public void clear()
+  {
+    checkpoints.clear();
+    usedMemory = 0;
+  }
+  
+  /**
+   * @return Number of stored checkpoints
+   */
+  public int getCheckpointCount()
+  {
+    return checkpoints.size();
+  }
+  
+  /**
+   * @return Total size of the stored snapshots in bytes
+   */
+  public long getUsedMemory()
+  {
+    return usedMemory;
+  }
+  
+  /**
+   * @return Number of cycles between two checkpoints
+   */
+  public int getInterval()
+  {
+    return interval;
+  }
+}
@@ -30,6 +30,10 @@ package com.gradle.superscalarsim.cpu;
 import com.gradle.superscalarsim.loader.IDataProvider;
 import com.gradle.superscalarsim.loader.StaticDataProvider;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.Objects;
 
@@ -39,6 +43,14 @@ import java.util.Objects;
  */
 public class Cpu implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * Number of steps between two checks of the cancellation token
+   */
+  public static final int CANCELLATION_CHECK_INTERVAL = 1024;
+  
   /**
    * CPU configuration
    */
@@ -59,6 +71,22 @@ public class Cpu implements Serializable
    */
   public StopReason stopReason;
   
+  /**
+   * Periodic snapshots of the state, used to speed up backward simulation.
+   * Null until the first step back, so simulations that only go forward do not take any.
+   */
+  public CheckpointStore checkpointStore;
+  
+  /**
+   * Memory budget of the checkpoint store in bytes, used when the store is created
+   */
+  public long checkpointMemoryBudget = CheckpointStore.DEFAULT_MEMORY_BUDGET;
+  
+  /**
+   * Stops the simulation when cancelled by another thread. Can be null. Not part of the state.
+   */
+  public transient CancellationToken cancellationToken;
+  
   /**
    * Assumes the cpuConfiguration is correct
    *
@@ -70,9 +98,10 @@ public class Cpu implements Serializable
   {
     this.configuration      = simConfig;
     this.staticDataProvider = Objects.requireNonNullElseGet(staticDataProvider, StaticDataProvider::new);
-    this.cpuState           = Objects.requireNonNullElseGet(cpuState, () -> new CpuState(this.configuration,
-                                                                                         this.staticDataProvider));
+    this.cpuState           = Objects.requireNonNullElseGet(cpuState, () -> createInitialState(
+            ProgramImage.of(this.configuration, this.staticDataProvider)));
     this.stopReason         = StopReason.kNotStopped;
+    this.checkpointStore    = null;
   }
   
   /**
@@ -81,11 +110,42 @@ public class Cpu implements Serializable
    * @brief Create a CPU with a given configuration at the default state (tick 0)
    */
   public Cpu(SimulationConfig simConfig)
+  {
+    this(simConfig, (CpuState) null, null);
+  }
+  
+  /**
+   * @param simConfig          CPU configuration to use, assumed valid
+   * @param staticDataProvider Registers and instruction definitions the image was built with
+   * @param image              Image of the code of the configuration, see {@link ProgramImage#of}
+   *
+   * @brief Create a CPU for an already parsed program
+   */
+  public Cpu(SimulationConfig simConfig, IDataProvider staticDataProvider, ProgramImage image)
+  {
+    this(simConfig, staticDataProvider, image, null);
+  }
+  
+  /**
+   * @param simConfig          CPU configuration to use, assumed valid
+   * @param staticDataProvider Registers and instruction definitions the image was built with
+   * @param image              Image of the code of the configuration, see {@link ProgramImage#of}
+   * @param cancellationToken  Token for the fast-forward in the constructor and the simulation. Can be null.
+   *
+   * @throws SimulationCancelledException If the token is cancelled during the fast-forward
+   * @brief Create a CPU for an already parsed program, cancellable from its construction
+   */
+  public Cpu(SimulationConfig simConfig,
+             IDataProvider staticDataProvider,
+             ProgramImage image,
+             CancellationToken cancellationToken)
   {
     this.configuration      = simConfig;
-    this.staticDataProvider = new StaticDataProvider();
-    this.cpuState           = new CpuState(this.configuration, this.staticDataProvider);
+    this.staticDataProvider = staticDataProvider;
+    this.cancellationToken  = cancellationToken;
+    this.cpuState           = createInitialState(image);
     this.stopReason         = StopReason.kNotStopped;
+    this.checkpointStore    = null;
   }
   
   /**
@@ -93,10 +153,19 @@ public class Cpu implements Serializable
    */
   public Cpu()
   {
-    this.configuration      = SimulationConfig.getDefaultConfiguration();
-    this.staticDataProvider = new StaticDataProvider();
-    this.cpuState           = new CpuState(this.configuration, this.staticDataProvider);
-    this.stopReason         = StopReason.kNotStopped;
+    this(SimulationConfig.getDefaultConfiguration());
+  }
+  
+  /**
+   * @param image Image of the code of the configuration
+   *
+   * @return State at tick 0, after the fast-forward if the configuration has one
+   */
+  private CpuState createInitialState(ProgramImage image)
+  {
+    CpuState state = new CpuState(this.configuration, this.staticDataProvider, image);
+    state.fastForward(this.configuration, this.cancellationToken);
+    return state;
   }
   
   /**
@@ -105,7 +174,28 @@ public class Cpu implements Serializable
   public void setCode(String code)
   {
     this.configuration.code = code;
-    this.cpuState           = new CpuState(this.configuration, this.staticDataProvider);
+    this.cpuState           = createInitialState(ProgramImage.of(this.configuration, this.staticDataProvider));
+    this.checkpointStore    = null;
+  }
+  
+  /**
+   * @param out Stream to write to. Not closed.
+   *
+   * @brief Writes a compressed binary snapshot of the simulation, see {@link SnapshotCodec}
+   */
+  public void saveState(OutputStream out) throws IOException
+  {
+    SnapshotCodec.write(this, out, true);
+  }
+  
+  /**
+   * @param in Stream with a snapshot written by {@link #saveState(OutputStream)}. Not closed.
+   *
+   * @return The simulation, continuing from the saved state
+   */
+  public static Cpu loadState(InputStream in) throws IOException
+  {
+    return SnapshotCodec.read(in);
   }
   
   public void stepBack()
@@ -117,28 +207,38 @@ public class Cpu implements Serializable
    * @param targetTick Tick of the desired state
    *
    * @brief Runs simulation from given state to the end
+   * @details If there is a checkpoint between the current state and the target (or before the target when going back),
+   * the simulation continues from the checkpoint. Going back without a checkpoint replays from the initial state.
+   * The checkpoint store is created on the first step back.
    */
   public void simulateState(int targetTick)
   {
     int currentTick = this.cpuState.tick;
+    if (targetTick < currentTick && this.checkpointStore == null)
+    {
+      this.checkpointStore = new CheckpointStore(CheckpointStore.DEFAULT_INTERVAL, this.checkpointMemoryBudget);
+    }
+    int checkpointTick = this.checkpointStore == null ? -1 : this.checkpointStore.nearestTick(targetTick);
     
     // Forward or backward simulation?
-    if (targetTick >= currentTick)
+    if (targetTick < currentTick || checkpointTick > currentTick)
     {
-      // Forward
-      while (!simEnded() && this.cpuState.tick < targetTick)
+      // Backward (or a jump over already simulated ticks)
+      CpuState checkpoint = this.checkpointStore.restoreNearest(targetTick);
+      if (checkpoint == null)
       {
-        step();
+        // Keep the initial state, so the next replay does not repeat the fast-forward
+        checkpoint = createInitialState(ProgramImage.of(this.configuration, this.staticDataProvider));
+        this.checkpointStore.onStep(checkpoint);
       }
+      this.cpuState = checkpoint;
     }
-    else
+    int steps = 0;
+    while (!simEnded() && this.cpuState.tick < targetTick)
     {
-      // Backward
-      this.cpuState = new CpuState(this.configuration, this.staticDataProvider);
-      while (!simEnded() && this.cpuState.tick < targetTick)
-      {
-        step();
-      }
+      checkCancelled(steps++);
+      step();
+      skipIdleCycles(targetTick);
     }
   }
   //-------------------------------------------------------------------------------------------
@@ -160,16 +260,60 @@ public class Cpu implements Serializable
   public void step()
   {
     this.cpuState.step();
+    if (this.checkpointStore != null)
+    {
+      this.checkpointStore.onStep(this.cpuState);
+    }
   }// end of step
   
+  /**
+   * @param limitTick The state does not go past this tick
+   *
+   * @brief Skips cycles in which the pipeline only waits, if enabled in the configuration.
+   * Never skips over a checkpoint or the cycle limit.
+   */
+  private void skipIdleCycles(int limitTick)
+  {
+    if (!this.configuration.cpuConfig.skipIdleCycles)
+    {
+      return;
+    }
+    int limit = Math.min(limitTick, CpuState.MAX_CYCLES + 1);
+    if (this.checkpointStore != null)
+    {
+      limit = Math.min(limit, this.checkpointStore.nextCheckpointTick(this.cpuState.tick));
+    }
+    if (this.cpuState.skipIdleCycles(limit) > 0 && this.checkpointStore != null)
+    {
+      this.checkpointStore.onStep(this.cpuState);
+    }
+  }// end of skipIdleCycles
+  
+  /**
+   * @param steps Number of steps done by the current loop
+   *
+   * @throws SimulationCancelledException If the cancellation token was cancelled
+   * @brief Polls the cancellation token every {@link #CANCELLATION_CHECK_INTERVAL} steps
+   */
+  private void checkCancelled(int steps)
+  {
+    if (this.cancellationToken != null && steps % CANCELLATION_CHECK_INTERVAL == 0)
+    {
+      this.cancellationToken.throwIfCancelled(this.cpuState.tick);
+    }
+  }// end of checkCancelled
+  
   /**
    * @brief Runs simulation from current state to the end. Flushes cache at the end!
    */
   public void execute(boolean flush)
   {
+    int steps = 0;
     while (!simEnded())
     {
+      checkCancelled(steps++);
       step();
+      skipIdleCycles(Integer.MAX_VALUE);
     }
     if (this.cpuState.cache != null && flush)
     {
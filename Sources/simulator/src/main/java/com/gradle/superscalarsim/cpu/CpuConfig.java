@@ -32,6 +32,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.gradle.superscalarsim.blocks.branch.BitPredictor;
 import com.gradle.superscalarsim.models.FunctionalUnitDescription;
 
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.List;
@@ -47,6 +48,9 @@ import static com.gradle.superscalarsim.blocks.branch.BitPredictor.WEAKLY_TAKEN;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class CpuConfig implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Provided for organizational purposes.
    * Not used in the simulation. Displayed on frontend.
@@ -227,6 +231,14 @@ public class CpuConfig implements Serializable
   @JsonProperty(required = true)
   public int cacheClockFrequency;
   
+  /**
+   * Simulation mode, not a part of the simulated CPU.
+   * If true, cycles in which the whole pipeline only waits (e.g. for a long memory access) are skipped in bulk.
+   * The resulting state and statistics are the same as when simulating cycle by cycle.
+   */
+  @JsonProperty
+  public boolean skipIdleCycles;
+  
   public static CpuConfig getDefaultConfiguration()
   {
     CpuConfig config = new CpuConfig();
@@ -283,6 +295,7 @@ public class CpuConfig implements Serializable
     config.speculativeRegisters = 620;
     config.coreClockFrequency   = 100000000;
     config.cacheClockFrequency  = 100000000;
+    config.skipIdleCycles       = false;
     return config;
   }
 }
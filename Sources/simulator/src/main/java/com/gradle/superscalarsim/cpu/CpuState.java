@@ -30,12 +30,12 @@ package com.gradle.superscalarsim.cpu;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.blocks.arithmetic.ArithmeticFunctionUnitBlock;
 import com.gradle.superscalarsim.blocks.base.*;
 import com.gradle.superscalarsim.blocks.branch.*;
 import com.gradle.superscalarsim.blocks.loadstore.*;
 import com.gradle.superscalarsim.code.*;
-import com.gradle.superscalarsim.enums.DataTypeEnum;
 import com.gradle.superscalarsim.enums.InstructionTypeEnum;
 import com.gradle.superscalarsim.enums.cache.ReplacementPoliciesEnum;
 import com.gradle.superscalarsim.factories.InputCodeModelFactory;
@@ -46,15 +46,15 @@ import com.gradle.superscalarsim.managers.ManagerRegistry;
 import com.gradle.superscalarsim.models.FunctionalUnitDescription;
 import com.gradle.superscalarsim.models.instruction.InputCodeModel;
 import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.register.RegisterFile;
 import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.StateHasher;
 import com.gradle.superscalarsim.serialization.Serialization;
 
+import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.logging.Logger;
 
 /**
@@ -68,6 +68,14 @@ import java.util.logging.Logger;
  */
 public class CpuState implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * The simulation stops after this many cycles (in case of infinite loops)
+   */
+  public static final int MAX_CYCLES = 1000000;
+  
   /**
    * The manager registry is used to keep track of all relevant models in the CPU.
    */
@@ -119,7 +127,7 @@ public class CpuState implements Serializable
    * Logger, hidden from serialization
    */
   @JsonIgnore
-  Logger logger = Logger.getLogger(CpuState.class.getName());
+  static Logger logger = Logger.getLogger(CpuState.class.getName());
   
   public CpuState()
   {
@@ -132,10 +140,41 @@ public class CpuState implements Serializable
   }
   
   /**
+   * @param config             Configuration of the simulation
+   * @param staticDataProvider Registers and instruction definitions the image was built with
+   * @param image              Image of the code of the configuration
+   *
+   * @brief Constructor for an already parsed program. The code is not parsed again.
+   */
+  public CpuState(SimulationConfig config, IDataProvider staticDataProvider, ProgramImage image)
+  {
+    this.initState(config, staticDataProvider, image);
+  }
+  
+  /**
+   * The code is parsed only if its image is not cached yet.
+   *
    * @brief Initialize the CPU state - given the configuration.
    */
   public void initState(SimulationConfig config, IDataProvider staticDataProvider)
   {
+    initState(config, staticDataProvider, ProgramImage.of(config, staticDataProvider));
+  }
+  
+  /**
+   * @param config             Configuration of the simulation
+   * @param staticDataProvider Registers and instruction definitions the image was built with
+   * @param image              Image of the code of the configuration
+   *
+   * @brief Initialize the CPU state from the image of the program
+   */
+  public void initState(SimulationConfig config, IDataProvider staticDataProvider, ProgramImage image)
+  {
+    if (image.hasErrors())
+    {
+      throw new IllegalStateException("Code parsing failed: " + image.getErrorMessages());
+    }
+    
     this.tick            = 0;
     this.managerRegistry = new ManagerRegistry();
     
@@ -157,38 +196,19 @@ public class CpuState implements Serializable
     this.simulatedMemory = new SimulatedMemory(config.cpuConfig.storeLatency, config.cpuConfig.loadLatency, statistics);
     
     //
-    // Parse code and allocate memory locations
+    // Copy the code and the memory of the program
     //
     
-    CodeParser codeParser = new CodeParser(functionModels, registerMap, inputCodeModelFactory, config.memoryLocations);
-    codeParser.parseCode(config.code, false); // false to avoid duplicate work
-    if (codeParser.hasErrors())
-    {
-      throw new IllegalStateException("Code parsing failed: " + codeParser.getErrorMessages());
-    }
-    // Parser now holds all memory locations, all labels, all errors
-    
-    // Initialize memory. This is linked to the values of labels in code, so relocating the labels changes the values in code
-    MemoryInitializer memoryInitializer = new MemoryInitializer(128, config.cpuConfig.callStackSize);
-    memoryInitializer.setSymbolTable(codeParser.getSymbolTable());
-    memoryInitializer.initializeMemory(simulatedMemory);
-    
-    codeParser.fillImmediateValues();
-    if (codeParser.hasErrors())
-    {
-      throw new IllegalStateException("Code parsing failed: " + codeParser.getErrorMessages());
-    }
+    List<InputCodeModel> code = image.instantiateCode(registerMap, inputCodeModelFactory);
+    image.writeMemory(simulatedMemory);
     
     // Count static instruction mix
-    this.statistics.allocateInstructionStats(codeParser.getInstructions().size());
-    codeParser.getInstructions()
-            .forEach(ins -> statistics.staticInstructionMix.increment(ins.getInstructionTypeEnum()));
+    this.statistics.allocateInstructionStats(code.size());
+    code.forEach(ins -> statistics.staticInstructionMix.increment(ins.getInstructionTypeEnum()));
     
     InstructionFunctionModel nopFM = functionModels.get("nop");
-    InputCodeModel nop = inputCodeModelFactory.createInstance(nopFM, new ArrayList<>(),
-                                                              codeParser.getInstructions().size(), null);
-    this.instructionMemoryBlock = new InstructionMemoryBlock(codeParser.getInstructions(), codeParser.getSymbolTable(),
-                                                             nop);
+    InputCodeModel           nop   = inputCodeModelFactory.createInstance(nopFM, new ArrayList<>(), code.size(), null);
+    this.instructionMemoryBlock = new InstructionMemoryBlock(code, image.getSymbolTable(), nop);
     
     // Create memory
     this.unifiedRegisterFileBlock = new UnifiedRegisterFileBlock(registerMap, config.cpuConfig.speculativeRegisters,
@@ -198,7 +218,7 @@ public class CpuState implements Serializable
     RegisterModel sp = this.unifiedRegisterFileBlock.getRegister("sp");
     if (sp != null)
     {
-      sp.setValue(memoryInitializer.getStackPointer());
+      sp.setValue(image.getStackPointer());
     }
     else
     {
@@ -207,9 +227,9 @@ public class CpuState implements Serializable
     
     // Set the ra to the exit address
     RegisterModel ra = this.unifiedRegisterFileBlock.getRegister("ra");
-    if (ra != null && (long) ra.getValue(DataTypeEnum.kLong) == 0)
+    if (ra != null && ra.getLong() == 0)
     {
-      ra.setValue(memoryInitializer.getExitPointer());
+      ra.setValue(image.getExitPointer());
     }
     else
     {
@@ -256,26 +276,7 @@ public class CpuState implements Serializable
     this.instructionFetchBlock = new InstructionFetchBlock(config.cpuConfig.fetchWidth,
                                                            config.cpuConfig.branchFollowLimit, simCodeModelFactory,
                                                            instructionMemoryBlock, gShareUnit, branchTargetBuffer);
-    int entryPoint;
-    if (config.entryPoint instanceof String)
-    {
-      Symbol label = instructionMemoryBlock.getLabels().get((String) config.entryPoint);
-      if (label == null)
-      {
-        throw new IllegalArgumentException("Label " + config.entryPoint + " not found");
-      }
-      entryPoint = (int) label.getAddress();
-    }
-    else if (config.entryPoint instanceof Integer)
-    {
-      // should be validated by now
-      entryPoint = (int) config.entryPoint;
-    }
-    else
-    {
-      throw new IllegalArgumentException("Unexpected value for entry point: " + config.entryPoint);
-    }
-    this.instructionFetchBlock.setPc(entryPoint);
+    this.instructionFetchBlock.setPc(resolveCodeAddress(config.entryPoint, "entry point"));
     
     this.branchInterpreter      = new CodeBranchInterpreter();
     this.decodeAndDispatchBlock = new DecodeAndDispatchBlock(instructionFetchBlock, renameMapTableBlock,
@@ -295,7 +296,7 @@ public class CpuState implements Serializable
                                                      renameMapTableBlock, decodeAndDispatchBlock, storeBufferBlock,
                                                      loadBufferBlock, gShareUnit, branchTargetBuffer,
                                                      instructionFetchBlock, statistics,
-                                                     memoryInitializer.getExitPointer(), debugLog);
+                                                     image.getExitPointer(), debugLog);
     
     this.arithmeticFunctionUnitBlocks = new ArrayList<>();
     this.fpFunctionUnitBlocks         = new ArrayList<>();
@@ -362,7 +363,94 @@ public class CpuState implements Serializable
   }
   
   /**
-   * Override equals to compare by value
+   * Must be called on a freshly initialized state, before the first step.
+   *
+   * @param config Configuration the state was initialized with
+   * @param token  Stops the fast-forward when cancelled. Can be null.
+   *
+   * @throws SimulationCancelledException If the token was cancelled
+   * @brief Executes the initialization functionally, if the configuration asks for it.
+   * The detailed simulation starts from the resulting state.
+   */
+  public void fastForward(SimulationConfig config, CancellationToken token)
+  {
+    long limit = config.getFastForwardLimit();
+    if (limit <= 0)
+    {
+      return;
+    }
+    int stopPc = -1;
+    if (config.fastForwardTo != null)
+    {
+      stopPc = resolveCodeAddress(SimulationConfig.parseCodeAddress(config.fastForwardTo), "fast-forward target");
+    }
+    new FunctionalSimulator(this, token).run(stopPc, limit);
+  }
+  
+  /**
+   * @param address Label (string) or address (int)
+   * @param name    Name of the value for the error message
+   *
+   * @return The address in the code
+   */
+  private int resolveCodeAddress(Object address, String name)
+  {
+    if (address instanceof String)
+    {
+      Symbol label = instructionMemoryBlock.getLabels().get((String) address);
+      if (label == null)
+      {
+        throw new IllegalArgumentException("Label " + address + " not found");
+      }
+      return (int) label.getAddress();
+    }
+    else if (address instanceof Integer)
+    {
+      // should be validated by now
+      return (int) address;
+    }
+    else
+    {
+      throw new IllegalArgumentException("Unexpected value for " + name + ": " + address);
+    }
+  }
+  
+  /**
+   * Computed from the values of all blocks and all tracked instructions and registers, without serializing anything.
+   * States that serialize the same have the same hash. Different hashes mean different states, the other way round
+   * a collision is possible, but unlikely (64 bits). Interpreter scratch data and the state of the random
+   * replacement policy are not included.
+   *
+   * @return 64-bit fingerprint of the state
+   */
+  public long stateHash()
+  {
+    return hashState().get();
+  }
+  
+  /**
+   * @return Hasher fed with the whole state, both of its hashes are ready
+   */
+  private StateHasher hashState()
+  {
+    StateHasher hasher = new StateHasher();
+    hasher.add(tick);
+    hasher.addUnordered(managerRegistry.inputCodeManager.getInstances());
+    hasher.addUnordered(managerRegistry.simCodeManager.getInstances());
+    hasher.addUnordered(managerRegistry.registerModelManager.getInstances());
+    hasher.add(instructionMemoryBlock).add(statistics).add(branchTargetBuffer).add(globalHistoryRegister);
+    hasher.add(patternHistoryTable).add(gShareUnit).add(unifiedRegisterFileBlock).add(renameMapTableBlock);
+    hasher.add(instructionFetchBlock).add(decodeAndDispatchBlock).add(cache).add(storeBufferBlock);
+    hasher.add(loadBufferBlock).addAll(arithmeticFunctionUnitBlocks).addAll(fpFunctionUnitBlocks);
+    hasher.add(aluIssueWindowBlock).add(fpIssueWindowBlock).addAll(branchFunctionUnitBlocks);
+    hasher.add(branchIssueWindowBlock).addAll(loadStoreFunctionUnits).add(loadStoreIssueWindowBlock);
+    hasher.addAll(memoryAccessUnits).add(simulatedMemory).add(reorderBufferBlock).add(debugLog);
+    return hasher;
+  }
+  
+  /**
+   * Override equals to compare by value. The states are compared by both hashes of {@link StateHasher},
+   * a 128-bit fingerprint, in one pass over each state and without serializing them.
    *
    * @param obj the other object
    *
@@ -379,13 +467,15 @@ public class CpuState implements Serializable
     {
       return false;
     }
-    CpuState myObject = (CpuState) obj;
-    
-    // Compare:
-    String meJson    = this.serialize();
-    String otherJson = myObject.serialize();
-    
-    return meJson.equals(otherJson);
+    StateHasher mine   = hashState();
+    StateHasher theirs = ((CpuState) obj).hashState();
+    return mine.get() == theirs.get() && mine.getSecond() == theirs.getSecond();
+  }
+  
+  @Override
+  public int hashCode()
+  {
+    return Long.hashCode(stateHash());
   }
   
   public String serialize()
@@ -442,9 +532,127 @@ public class CpuState implements Serializable
     // Stats
     statistics.incrementClockCycles();
     
+    releaseRetiredCodeModels();
     this.tick++;
   }// end of run
   
+  /**
+   * Committed and flushed instructions are dropped from the manager as soon as no block holds them,
+   * so the serialized state contains exactly the instructions in flight. The dropped instructions are handed
+   * back to the factory for reuse.
+   *
+   * @brief Removes the instructions no block references from the manager registry
+   */
+  private void releaseRetiredCodeModels()
+  {
+    Set<SimCodeModel> inFlight = Collections.newSetFromMap(new IdentityHashMap<>());
+    inFlight.addAll(instructionFetchBlock.getFetchedCode());
+    inFlight.addAll(decodeAndDispatchBlock.getCodeBuffer());
+    reorderBufferBlock.getReorderQueue().forEach(inFlight::add);
+    for (IssueWindowBlock issueWindow : List.of(aluIssueWindowBlock, fpIssueWindowBlock, branchIssueWindowBlock,
+                                                loadStoreIssueWindowBlock))
+    {
+      inFlight.addAll(issueWindow.getIssuedInstructions());
+    }
+    loadBufferBlock.getLoadQueue().forEach(inFlight::add);
+    storeBufferBlock.getStoreQueue().forEach(inFlight::add);
+    for (AbstractFunctionUnitBlock functionUnit : getFunctionUnits())
+    {
+      if (functionUnit.getSimCodeModel() != null)
+      {
+        inFlight.add(functionUnit.getSimCodeModel());
+      }
+    }
+    SimCodeModelFactory simCodeModelFactory = instructionFetchBlock.getSimCodeModelFactory();
+    managerRegistry.simCodeManager.removeIf(codeModel -> {
+      if (inFlight.contains(codeModel))
+      {
+        return false;
+      }
+      simCodeModelFactory.release(codeModel);
+      return true;
+    });
+  }// end of releaseRetiredCodeModels
+  
+  /**
+   * Recycling is on by default. Turn it off if the instructions are inspected after they left the pipeline,
+   * for example when the history of the simulation is kept for a visualization.
+   *
+   * @param recycling True to reuse the objects of retired instructions for newly fetched ones
+   *
+   * @brief Turns the recycling of retired instructions on or off
+   */
+  public void setInstructionRecycling(boolean recycling)
+  {
+    instructionFetchBlock.getSimCodeModelFactory().setRecycling(recycling);
+  }// end of setInstructionRecycling
+  
+  /**
+   * @return The first tick (at least the current one) in which any block may change its state,
+   * or {@link Integer#MAX_VALUE} if all blocks wait for nothing
+   */
+  public int nextEventTick()
+  {
+    List<AbstractBlock> blocks = new ArrayList<>(getFunctionUnits());
+    blocks.addAll(List.of(simulatedMemory, reorderBufferBlock, aluIssueWindowBlock, fpIssueWindowBlock,
+                          branchIssueWindowBlock, loadStoreIssueWindowBlock, storeBufferBlock, loadBufferBlock,
+                          issueWindowSuperBlock, decodeAndDispatchBlock, instructionFetchBlock));
+    if (cache != null)
+    {
+      blocks.add(cache);
+    }
+    
+    int next = Integer.MAX_VALUE;
+    for (AbstractBlock block : blocks)
+    {
+      next = Math.min(next, block.nextEventTick(tick));
+      if (next == tick)
+      {
+        break;
+      }
+    }
+    return next;
+  }// end of nextEventTick
+  
+  /**
+   * Cycles in which all blocks only wait (typically for a long memory access) are not simulated one by one.
+   * Counters of the busy FUs and the statistics are advanced in bulk, so the resulting state is the same
+   * as after calling {@link #step()} for each of the cycles.
+   *
+   * @param limitTick The state does not go past this tick
+   *
+   * @return Number of skipped cycles
+   * @brief Skips the cycles before the next event
+   */
+  public int skipIdleCycles(int limitTick)
+  {
+    int target = Math.min(nextEventTick(), limitTick);
+    if (target <= tick)
+    {
+      return 0;
+    }
+    int cycles = target - tick;
+    getFunctionUnits().forEach(functionUnit -> functionUnit.skipCycles(cycles));
+    statistics.reportAllocatedRegisters(renameMapTableBlock.getAllocatedSpeculativeRegistersCount());
+    statistics.incrementClockCycles(cycles);
+    this.tick = target;
+    return cycles;
+  }// end of skipIdleCycles
+  
+  /**
+   * @return All function units, in the order they are simulated
+   */
+  private List<AbstractFunctionUnitBlock> getFunctionUnits()
+  {
+    List<AbstractFunctionUnitBlock> functionUnits = new ArrayList<>();
+    functionUnits.addAll(arithmeticFunctionUnitBlocks);
+    functionUnits.addAll(fpFunctionUnitBlocks);
+    functionUnits.addAll(loadStoreFunctionUnits);
+    functionUnits.addAll(memoryAccessUnits);
+    functionUnits.addAll(branchFunctionUnitBlocks);
+    return functionUnits;
+  }
+  
   /**
    * The order of checks sets their priority.
    *
@@ -458,7 +666,7 @@ public class CpuState implements Serializable
     {
       return StopReason.kCallStackHalt;
     }
-    if (tick > 1000000)
+    if (tick > MAX_CYCLES)
     {
       return StopReason.kMaxCycles;
     }
@@ -31,9 +31,13 @@ import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.base.UnifiedRegisterFileBlock;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.instruction.DebugInfo;
 import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -43,8 +47,11 @@ import java.util.regex.Pattern;
  * Are shown in the GUI.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class DebugLog
+public class DebugLog implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   static String unknownRegister = "[UNKNOWN]";
   /**
    * The `${registerName}` pattern. It must be non-greedy, otherwise it would match wrong with multiple registers.
@@ -116,8 +123,24 @@ public class DebugLog
     return entries;
   }
   
-  public static class Entry
+  /**
+   * @brief Feeds the messages of the log
+   */
+  @Override
+  public void hashState(StateHasher hasher)
   {
+    hasher.add(entries.size());
+    for (Entry entry : entries)
+    {
+      hasher.add(entry.message).add(entry.cycle);
+    }
+  }
+  
+  public static class Entry implements Serializable
+  {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    
     /**
      * Message
      */
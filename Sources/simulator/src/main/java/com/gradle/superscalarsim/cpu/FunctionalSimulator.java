@@ -0,0 +1,278 @@
+/**
+ * @file FunctionalSimulator.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief In-order functional execution used to fast-forward the detailed simulation
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.code.CodeBranchInterpreter;
+import com.gradle.superscalarsim.code.Expression;
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.models.instruction.DebugInfo;
+import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.memory.MemoryAccess;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.Result;
+
+/**
+ * @class FunctionalSimulator
+ * @brief Executes the program one instruction at a time directly on the architectural state.
+ * @details There is no ROB, no issue windows and no function units - every instruction is interpreted
+ * and its result written to the architectural registers and memory right away. The cache, the pattern history
+ * table, the branch target buffer and the global history register are updated as if the instructions
+ * were committed, so the detailed simulation starts with warm structures.
+ * Instructions the functional model cannot finish on its own (exceptions, the final jump to the exit address)
+ * are left to the detailed simulation.
+ */
+public class FunctionalSimulator
+{
+  /**
+   * State to execute on. Only its architectural part is changed.
+   */
+  private final CpuState state;
+  
+  /**
+   * Address of the next instruction to execute
+   */
+  private int pc;
+  
+  /**
+   * Number of executed instructions
+   */
+  private long executedInstructions;
+  
+  /**
+   * Stops the execution when cancelled. Can be null.
+   */
+  private final CancellationToken cancellationToken;
+  
+  /**
+   * @param state             State to execute on. The PC is taken from its fetch block.
+   * @param cancellationToken Stops the execution when cancelled. Can be null.
+   *
+   * @brief Constructor
+   */
+  public FunctionalSimulator(CpuState state, CancellationToken cancellationToken)
+  {
+    this.state                = state;
+    this.pc                   = state.instructionFetchBlock.getPc();
+    this.executedInstructions = 0;
+    this.cancellationToken    = cancellationToken;
+  }// end of Constructor
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param stopPc           Address at which the detailed simulation takes over, -1 for none
+   * @param instructionLimit Maximum number of instructions to execute
+   *
+   * @return Number of executed instructions
+   * @throws SimulationCancelledException If the cancellation token was cancelled
+   * @brief Executes instructions until the stop address, the limit or the end of the program is reached.
+   * The fetch block then continues from the first instruction that was not executed.
+   * The cancellation token is polled every {@link Cpu#CANCELLATION_CHECK_INTERVAL} instructions.
+   */
+  public long run(int stopPc, long instructionLimit)
+  {
+    int codeSize = state.instructionMemoryBlock.getCode().size();
+    while (pc != stopPc && executedInstructions < instructionLimit)
+    {
+      if (cancellationToken != null && executedInstructions % Cpu.CANCELLATION_CHECK_INTERVAL == 0)
+      {
+        cancellationToken.throwIfCancelled(state.tick);
+      }
+      if (pc < 0 || pc / 4 >= codeSize)
+      {
+        // Past the end of the program, the detailed simulation handles it
+        break;
+      }
+      InputCodeModel inputCodeModel = state.instructionMemoryBlock.getInstructionAt(pc);
+      if (inputCodeModel.getInstructionName().equals("nop"))
+      {
+        // Decode drops these as well
+        pc += 4;
+        continue;
+      }
+      SimCodeModel codeModel = new SimCodeModel(inputCodeModel, -1, -1);
+      boolean executed = switch (inputCodeModel.getInstructionTypeEnum())
+      {
+        case kIntArithmetic, kFloatArithmetic -> executeArithmetic(codeModel);
+        case kJumpbranch -> executeBranch(codeModel);
+        case kLoadstore -> executeLoadStore(codeModel);
+      };
+      if (!executed)
+      {
+        break;
+      }
+      
+      DebugInfo debugInfo = codeModel.getDebugInfo();
+      if (debugInfo != null)
+      {
+        state.debugLog.add(debugInfo, 0);
+      }
+      executedInstructions++;
+    }
+    
+    state.instructionFetchBlock.setPc(pc);
+    state.statistics.fastForwardedInstructions += executedInstructions;
+    return executedInstructions;
+  }// end of run
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param codeModel Instruction to execute
+   *
+   * @return True if the instruction was executed, false if it raised an exception
+   */
+  private boolean executeArithmetic(SimCodeModel codeModel)
+  {
+    Result<Expression.Variable> result = state.arithmeticInterpreter.interpretInstruction(codeModel);
+    if (result.isException())
+    {
+      return false;
+    }
+    writeDestination(codeModel, result.value().value.getBits(), result.value().value.getCurrentType());
+    pc += 4;
+    return true;
+  }// end of executeArithmetic
+  //----------------------------------------------------------------------
+  
+  /**
+   * Trains the predictors the same way the commit of the branch does.
+   *
+   * @param codeModel Instruction to execute
+   *
+   * @return True if the instruction was executed, false if it is left to the detailed simulation
+   */
+  private boolean executeBranch(SimCodeModel codeModel)
+  {
+    Result<CodeBranchInterpreter.BranchResult> result = state.branchInterpreter.interpretInstruction(codeModel);
+    if (result.isException() || result.value().target() == state.reorderBufferBlock.getHaltTarget())
+    {
+      // The jump to the exit address stops the simulation, let the detailed simulation do it
+      return false;
+    }
+    boolean jumpTaken = result.value().jumpTaken();
+    int     target    = result.value().target();
+    
+    InputCodeArgument destinationArgument = codeModel.getDestinationArgument();
+    if (destinationArgument != null && !destinationArgument.getRegisterValue().isConstant())
+    {
+      destinationArgument.getRegisterValue().setValue(pc + 4);
+    }
+    
+    state.gShareUnit.sendFeedback(pc, jumpTaken);
+    state.branchTargetBuffer.setEntry(pc, codeModel, target);
+    if (codeModel.isConditionalBranch())
+    {
+      state.globalHistoryRegister.shiftArchitecturalValue(jumpTaken);
+    }
+    pc = jumpTaken ? target : pc + 4;
+    return true;
+  }// end of executeBranch
+  //----------------------------------------------------------------------
+  
+  /**
+   * Goes through the cache if there is one, so the accessed lines stay in it.
+   *
+   * @param codeModel Instruction to execute
+   *
+   * @return True if the instruction was executed, false if it raised an exception
+   */
+  private boolean executeLoadStore(SimCodeModel codeModel)
+  {
+    Result<MemoryAccess> result = state.loadStoreInterpreter.interpretInstruction(codeModel);
+    if (result.isException())
+    {
+      return false;
+    }
+    MemoryAccess access  = result.value();
+    long         address = access.getAddress();
+    int          size    = access.getSize();
+    if (access.isStore())
+    {
+      if (state.cache != null)
+      {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++)
+        {
+          data[i] = (byte) (access.getData() >>> (8 * i));
+        }
+        state.cache.storeFunctional(address, data);
+      }
+      else
+      {
+        state.simulatedMemory.writeLittleEndian(address, access.getData(), size);
+      }
+    }
+    else
+    {
+      long value = 0;
+      if (state.cache != null)
+      {
+        byte[] data = state.cache.loadFunctional(address, size);
+        for (int i = 0; i < size; i++)
+        {
+          value |= (data[i] & 0xFFL) << (8 * i);
+        }
+      }
+      else
+      {
+        value = state.simulatedMemory.readLittleEndian(address, size);
+      }
+      if (access.isSigned() && size < 8)
+      {
+        int shift = 64 - 8 * size;
+        value = (value << shift) >> shift;
+      }
+      writeDestination(codeModel, value, codeModel.instructionFunctionModel().getOutputType());
+    }
+    pc += 4;
+    return true;
+  }// end of executeLoadStore
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param codeModel Instruction with the destination
+   * @param bits      Value to write
+   * @param type      Type of the value
+   *
+   * @brief Writes the result to the architectural destination register. Writes to constant registers are dropped.
+   */
+  private void writeDestination(SimCodeModel codeModel, long bits, DataTypeEnum type)
+  {
+    InputCodeArgument destinationArgument = codeModel.getDestinationArgument();
+    if (destinationArgument == null)
+    {
+      return;
+    }
+    RegisterModel reg = destinationArgument.getRegisterValue();
+    if (!reg.isConstant())
+    {
+      reg.setValue(bits, type);
+    }
+  }// end of writeDestination
+}
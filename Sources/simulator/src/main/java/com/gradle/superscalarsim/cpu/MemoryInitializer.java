@@ -35,6 +35,7 @@ import com.gradle.superscalarsim.models.register.RegisterDataContainer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * @class MemoryInitializer
@@ -112,6 +113,18 @@ public class MemoryInitializer
    * @brief Initializes memory with the locations registered before this call
    */
   public void initializeMemory(SimulatedMemory memory)
+  {
+    initializeMemory(memory::insertIntoMemory);
+  }
+  
+  /**
+   * Can be called multiple times
+   *
+   * @param writer Called with the address and the bytes of each location
+   *
+   * @brief Assigns addresses to the locations registered before this call and reports their contents
+   */
+  public void initializeMemory(BiConsumer<Long, byte[]> writer)
   {
     // Second step - fill the memory values
     for (Symbol symbol : symbolTable.values())
@@ -140,7 +153,7 @@ public class MemoryInitializer
       long   address = label.getAddress();
       byte[] data    = memoryLocation.getBytes();
       // Insert data into memory
-      memory.insertIntoMemory(address, data);
+      writer.accept(address, data);
     }
   }
   
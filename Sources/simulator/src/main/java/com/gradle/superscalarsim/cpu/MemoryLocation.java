@@ -33,6 +33,8 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.gradle.superscalarsim.enums.DataTypeEnum;
 import com.gradle.superscalarsim.serialization.MemoryLocationDeserializer;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -57,8 +59,11 @@ import java.util.List;
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonDeserialize(using = MemoryLocationDeserializer.class)
-public class MemoryLocation
+public class MemoryLocation implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Names of the memory locations. The first name is the primary one.
    * Derived from the label in the assembly code.
@@ -120,6 +125,17 @@ public class MemoryLocation
     assert alignment >= 0;
   }
   
+  /**
+   * @param other Location to copy
+   *
+   * @brief Copy constructor. The lists are copied, so resolving labels in the data does not change the original.
+   */
+  public MemoryLocation(MemoryLocation other)
+  {
+    this(new ArrayList<>(other.names), other.alignment, new ArrayList<>(other.dataTypes),
+         new ArrayList<>(other.data));
+  }
+  
   /**
    * @brief Constructor. Used when building the memory location from the assembly code.
    */
@@ -256,7 +272,7 @@ public class MemoryLocation
    *
    * @brief Record for the start of a new data type in the list of values.
    */
-  public record SpanType(int startOffset, DataTypeEnum dataType)
+  public record SpanType(int startOffset, DataTypeEnum dataType) implements Serializable
   {
   }
 }
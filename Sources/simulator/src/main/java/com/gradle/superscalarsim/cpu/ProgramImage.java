@@ -0,0 +1,357 @@
+/**
+ * @file ProgramImage.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Parsed program with its memory layout, shared by all states of a simulation
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gradle.superscalarsim.blocks.loadstore.SimulatedMemory;
+import com.gradle.superscalarsim.code.CodeParser;
+import com.gradle.superscalarsim.code.ParseError;
+import com.gradle.superscalarsim.code.Symbol;
+import com.gradle.superscalarsim.factories.InputCodeModelFactory;
+import com.gradle.superscalarsim.loader.IDataProvider;
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.serialization.Serialization;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * @class ProgramImage
+ * @brief The code of a configuration parsed once, with the immediate values resolved and the memory laid out
+ * @details Parsing is a large part of creating a state for big programs, and a simulation creates many states:
+ * the validation, the initial state and every replay from the start when going back.
+ * The image is never changed after it is built, so it is cached by the content it was built from
+ * and shared between threads. A state gets copies of the instructions bound to its own registers.
+ * The symbol table is shared - it is only read once the memory is laid out.
+ */
+public class ProgramImage
+{
+  /**
+   * Maximum number of cached images
+   */
+  public static final int CACHE_SIZE = 64;
+  
+  /**
+   * Images by the hash of their content, in access order (the eldest is the least recently used)
+   */
+  private static final LinkedHashMap<String, ProgramImage> cache = new LinkedHashMap<>(16, 0.75f, true)
+  {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, ProgramImage> eldest)
+    {
+      return size() > CACHE_SIZE;
+    }
+  };
+  
+  /**
+   * Number of images built (not taken from the cache)
+   */
+  private static long buildCount = 0;
+  
+  /**
+   * Parsed instructions, bound to registers that belong to no state. Never handed out.
+   */
+  private final List<InputCodeModel> instructions;
+  
+  /**
+   * Labels and data locations with their addresses
+   */
+  private final Map<String, Symbol> symbolTable;
+  
+  /**
+   * Initial contents of the memory
+   */
+  private final List<MemorySegment> memory;
+  
+  /**
+   * Errors and warnings of the parsing. An image with errors has no instructions.
+   */
+  private final List<ParseError> errorMessages;
+  
+  /**
+   * Initial value of the stack pointer
+   */
+  private final long stackPointer;
+  
+  /**
+   * Address that ends the simulation when jumped to
+   */
+  private final long exitPointer;
+  
+  /**
+   * @param code            Assembly code
+   * @param memoryLocations Memory locations defined outside the code. Not changed.
+   * @param callStackSize   Size of the call stack, it decides where the data is placed
+   * @param provider        Registers and instruction definitions
+   *
+   * @brief Parses the code and lays out the memory
+   */
+  private ProgramImage(String code, List<MemoryLocation> memoryLocations, int callStackSize, IDataProvider provider)
+  {
+    // The locations are changed when their labels are resolved
+    List<MemoryLocation> locations = new ArrayList<>();
+    memoryLocations.forEach(location -> locations.add(new MemoryLocation(location)));
+    
+    CodeParser codeParser = new CodeParser(provider.getInstructionFunctionModels(),
+                                           provider.getRegisterFile().getRegisterMap(true),
+                                           new InputCodeModelFactory(), locations);
+    codeParser.parseCode(code, false);
+    
+    List<MemorySegment> segments          = new ArrayList<>();
+    MemoryInitializer   memoryInitializer = new MemoryInitializer(128, callStackSize);
+    if (!codeParser.hasErrors())
+    {
+      // Immediates are filled after the layout, they may refer to the addresses of the data
+      memoryInitializer.setSymbolTable(codeParser.getSymbolTable());
+      memoryInitializer.initializeMemory((address, data) -> segments.add(new MemorySegment(address, data)));
+      codeParser.fillImmediateValues();
+    }
+    
+    this.instructions  = List.copyOf(codeParser.getInstructions());
+    this.symbolTable   = Collections.unmodifiableMap(codeParser.getSymbolTable());
+    this.memory        = List.copyOf(segments);
+    this.errorMessages = List.copyOf(codeParser.getErrorMessages());
+    this.stackPointer  = memoryInitializer.getStackPointer();
+    this.exitPointer   = memoryInitializer.getExitPointer();
+  }// end of Constructor
+  //----------------------------------------------------------------------
+  
+  /**
+   * Images are cached only for the static data provider, other providers may define other instructions.
+   *
+   * @param config   Configuration with the code, the memory locations and the call stack size
+   * @param provider Registers and instruction definitions
+   *
+   * @return The image of the code of the configuration, from the cache if it was built before
+   */
+  public static ProgramImage of(SimulationConfig config, IDataProvider provider)
+  {
+    if (!(provider instanceof StaticDataProvider))
+    {
+      return build(config, provider);
+    }
+    
+    String key = contentHash(config);
+    synchronized (cache)
+    {
+      ProgramImage image = cache.get(key);
+      if (image != null)
+      {
+        return image;
+      }
+    }
+    // Built outside the lock, two threads may build the same image, but neither waits for the other
+    ProgramImage image = build(config, provider);
+    synchronized (cache)
+    {
+      cache.put(key, image);
+    }
+    return image;
+  }// end of of
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param config   Configuration with the code, the memory locations and the call stack size
+   * @param provider Registers and instruction definitions
+   *
+   * @return A new image of the code of the configuration, bypassing the cache
+   */
+  public static ProgramImage build(SimulationConfig config, IDataProvider provider)
+  {
+    synchronized (cache)
+    {
+      buildCount++;
+    }
+    return new ProgramImage(config.code, config.memoryLocations, config.cpuConfig.callStackSize, provider);
+  }// end of build
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param config Configuration
+   *
+   * @return Hex encoded SHA-256 of everything the image depends on
+   */
+  private static String contentHash(SimulationConfig config)
+  {
+    try
+    {
+      List<Object> content = Arrays.asList(config.code, config.memoryLocations, config.cpuConfig.callStackSize);
+      byte[] json = Serialization.getSerializer().writer().without(SerializationFeature.INDENT_OUTPUT)
+              .writeValueAsBytes(content);
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+    }
+    catch (JsonProcessingException | NoSuchAlgorithmException e)
+    {
+      throw new IllegalStateException("Cannot hash the program", e);
+    }
+  }// end of contentHash
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return Number of images built since the start, the ones taken from the cache are not counted
+   */
+  public static long getBuildCount()
+  {
+    synchronized (cache)
+    {
+      return buildCount;
+    }
+  }// end of getBuildCount
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param registerMap Registers of the state, by name
+   * @param factory     Factory tracking the instructions of the state
+   *
+   * @return Copies of the instructions, bound to the given registers
+   * @brief Creates the code of a new state
+   */
+  public List<InputCodeModel> instantiateCode(Map<String, RegisterModel> registerMap, InputCodeModelFactory factory)
+  {
+    List<InputCodeModel> code = new ArrayList<>(instructions.size());
+    for (InputCodeModel instruction : instructions)
+    {
+      List<InputCodeArgument> arguments = new ArrayList<>(instruction.arguments().size());
+      for (InputCodeArgument argument : instruction.arguments())
+      {
+        InputCodeArgument copy = new InputCodeArgument(argument);
+        if (argument.isRegister())
+        {
+          copy.setRegisterValue(registerMap.get(argument.getRegisterValue().getName()));
+        }
+        arguments.add(copy);
+      }
+      code.add(factory.createInstance(instruction.instructionFunctionModel(), arguments, instruction.codeId(),
+                                      instruction.debugInfo()));
+    }
+    return code;
+  }// end of instantiateCode
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param memory Memory of a new state
+   *
+   * @brief Writes the data of the program to the memory
+   */
+  public void writeMemory(SimulatedMemory memory)
+  {
+    for (MemorySegment segment : this.memory)
+    {
+      memory.insertIntoMemory(segment.address(), segment.data());
+    }
+  }// end of writeMemory
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return True if the code has errors or warnings
+   */
+  public boolean hasErrors()
+  {
+    return !errorMessages.isEmpty();
+  }// end of hasErrors
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return True if the code has errors. Warnings are not considered errors.
+   */
+  public boolean containsErrors()
+  {
+    return errorMessages.stream().anyMatch(error -> error.kind.equals("error"));
+  }// end of containsErrors
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return Errors and warnings of the parsing
+   */
+  public List<ParseError> getErrorMessages()
+  {
+    return errorMessages;
+  }// end of getErrorMessages
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return Number of instructions of the program
+   */
+  public int getInstructionCount()
+  {
+    return instructions.size();
+  }// end of getInstructionCount
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return Definitions of the instructions of the program, in program order
+   */
+  public List<InstructionFunctionModel> getInstructionFunctionModels()
+  {
+    return instructions.stream().map(InputCodeModel::instructionFunctionModel).toList();
+  }// end of getInstructionFunctionModels
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return Labels and data locations with their addresses. Read-only.
+   */
+  public Map<String, Symbol> getSymbolTable()
+  {
+    return symbolTable;
+  }// end of getSymbolTable
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return Initial value of the stack pointer
+   */
+  public long getStackPointer()
+  {
+    return stackPointer;
+  }// end of getStackPointer
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return Address that ends the simulation when jumped to
+   */
+  public long getExitPointer()
+  {
+    return exitPointer;
+  }// end of getExitPointer
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param address Address of the first byte
+   * @param data    Bytes to write
+   *
+   * @brief Initial contents of a part of the memory
+   */
+  private record MemorySegment(long address, byte[] data)
+  {
+  }
+}
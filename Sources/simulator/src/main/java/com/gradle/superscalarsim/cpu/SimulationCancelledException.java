@@ -0,0 +1,61 @@
+/**
+ * @file SimulationCancelledException.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Thrown when a running simulation is cancelled
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+/**
+ * @class SimulationCancelledException
+ * @brief Thrown out of the simulation loop when its {@link CancellationToken} is cancelled
+ * @details The state of the CPU is left at the reached tick. It is consistent, but nobody asked for it,
+ * so the caller should drop the simulation.
+ */
+public class SimulationCancelledException extends RuntimeException
+{
+  /**
+   * Tick the simulation reached before it stopped
+   */
+  private final int tick;
+  
+  /**
+   * @param tick Tick the simulation reached before it stopped
+   *
+   * @brief Constructor
+   */
+  public SimulationCancelledException(int tick)
+  {
+    super("Simulation cancelled at tick " + tick);
+    this.tick = tick;
+  }
+  
+  /**
+   * @return Tick the simulation reached before it stopped
+   */
+  public int getTick()
+  {
+    return tick;
+  }
+}
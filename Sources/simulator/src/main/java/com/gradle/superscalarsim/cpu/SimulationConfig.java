@@ -27,13 +27,17 @@
 
 package com.gradle.superscalarsim.cpu;
 
-import com.gradle.superscalarsim.code.CodeParser;
-import com.gradle.superscalarsim.factories.InputCodeModelFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.gradle.superscalarsim.loader.StaticDataProvider;
 import com.gradle.superscalarsim.models.FunctionalUnitDescription;
-import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
+import com.gradle.superscalarsim.serialization.Serialization;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 
 /**
@@ -66,6 +70,25 @@ public class SimulationConfig
    */
   public Object entryPoint;
   
+  /**
+   * Upper bound of the number of functionally executed instructions (in case of infinite loops)
+   */
+  public static final long MAX_FAST_FORWARD_INSTRUCTIONS = 10000000;
+  
+  /**
+   * Where to switch from the functional fast-forward to the detailed simulation.
+   * A label, or an address written as a decimal number (labels cannot start with a digit).
+   * Null (default) means no target - the fast-forward is then controlled only by {@link #fastForwardInstructions}.
+   */
+  public String fastForwardTo;
+  
+  /**
+   * Maximum number of instructions to execute functionally before the detailed simulation starts.
+   * Zero (default) means {@link #MAX_FAST_FORWARD_INSTRUCTIONS} when {@link #fastForwardTo} is set,
+   * and no fast-forward otherwise.
+   */
+  public long fastForwardInstructions;
+  
   /**
    * @brief Default constructor. Not useful, because it has no code.
    */
@@ -98,6 +121,54 @@ public class SimulationConfig
     return config;
   }
   
+  /**
+   * @return Hex encoded SHA-256 of the configuration JSON
+   * @brief Hash identifying the configuration. Equal configurations produce the same simulation and the same hash.
+   */
+  public String hash()
+  {
+    try
+    {
+      byte[] json = Serialization.getSerializer().writer().without(SerializationFeature.INDENT_OUTPUT)
+              .writeValueAsBytes(this);
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+    }
+    catch (JsonProcessingException | NoSuchAlgorithmException e)
+    {
+      throw new IllegalStateException("Cannot hash the configuration", e);
+    }
+  }
+  
+  /**
+   * @return The number of instructions the fast-forward may execute, 0 if there is no fast-forward
+   */
+  public long getFastForwardLimit()
+  {
+    if (fastForwardInstructions > 0)
+    {
+      return Math.min(fastForwardInstructions, MAX_FAST_FORWARD_INSTRUCTIONS);
+    }
+    return fastForwardTo != null ? MAX_FAST_FORWARD_INSTRUCTIONS : 0;
+  }
+  
+  /**
+   * @param value Label or address as text
+   *
+   * @return Integer if the value is a number, the label string otherwise
+   */
+  public static Object parseCodeAddress(String value)
+  {
+    try
+    {
+      return Integer.parseInt(value);
+    }
+    catch (NumberFormatException ignored)
+    {
+      // Not an integer, use as a label
+      return value;
+    }
+  }
+  
   /**
    * @brief Validate the configuration
    */
@@ -105,10 +176,6 @@ public class SimulationConfig
   {
     List<ConfigError> errorMessages = new ArrayList<>();
     
-    // Validate CPU config
-    CpuConfigValidator configValidator = new CpuConfigValidator();
-    configValidator.validate(cpuConfig);
-    
     // Add validation for memory locations and code
     
     if (code == null)
@@ -124,15 +191,35 @@ public class SimulationConfig
     }
     
     // Safe to parse code
-    StaticDataProvider provider = new StaticDataProvider();
-    CodeParser codeParser = new CodeParser(provider.getInstructionFunctionModels(),
-                                           provider.getRegisterFile().getRegisterMap(true), new InputCodeModelFactory(),
-                                           memoryLocations);
-    codeParser.parseCode(code);
+    ProgramImage image = ProgramImage.of(this, new StaticDataProvider());
+    return validate(image, errorMessages);
+  }
+  
+  /**
+   * The code is not parsed again.
+   *
+   * @param image Image of the code of this configuration, see {@link ProgramImage#of}
+   *
+   * @brief Validate the configuration against an already parsed program
+   */
+  public ValidationResult validate(ProgramImage image)
+  {
+    return validate(image, new ArrayList<>());
+  }
+  
+  /**
+   * @param image         Image of the code
+   * @param errorMessages Errors found before parsing
+   */
+  private ValidationResult validate(ProgramImage image, List<ConfigError> errorMessages)
+  {
+    // Validate CPU config
+    CpuConfigValidator configValidator = new CpuConfigValidator();
+    configValidator.validate(cpuConfig);
     
-    if (codeParser.hasErrors())
+    if (image.hasErrors())
     {
-      codeParser.getErrorMessages().forEach(e -> errorMessages.add(new ConfigError(e.message, "code")));
+      image.getErrorMessages().forEach(e -> errorMessages.add(new ConfigError(e.message, "code")));
     }
     
     for (MemoryLocation memoryLocation : memoryLocations)
@@ -144,42 +231,30 @@ public class SimulationConfig
     }
     
     // Check entry point
-    if (entryPoint instanceof String)
+    checkCodeAddress(entryPoint, "Entry point", "entryPoint", image, errorMessages);
+    
+    // Check fast-forward
+    if (fastForwardTo != null)
     {
-      // Check if label exists
-      if (!codeParser.getSymbolTable().containsKey(entryPoint))
-      {
-        errorMessages.add(new ConfigError("Entry point label does not exist", "entryPoint"));
-      }
+      checkCodeAddress(parseCodeAddress(fastForwardTo), "Fast-forward target", "fastForwardTo", image,
+                       errorMessages);
     }
-    else if (entryPoint instanceof Integer)
+    if (fastForwardInstructions < 0)
     {
-      int entry = (Integer) entryPoint;
-      // Check if address is valid
-      if (entry < 0)
-      {
-        errorMessages.add(new ConfigError("Entry point address must be greater than 0", "entryPoint"));
-      }
-      int maxAddress = 4 * codeParser.getInstructions().size();
-      if (entry > maxAddress)
-      {
-        errorMessages.add(new ConfigError("Entry point address must be pointing to a code", "entryPoint"));
-      }
-      if (entry % 4 != 0)
-      {
-        errorMessages.add(new ConfigError("Entry point address must be aligned to 4 bytes", "entryPoint"));
-      }
+      errorMessages.add(new ConfigError("Fast-forward instruction count must not be negative", "fastForwardInstructions"));
     }
-    else
+    if (fastForwardInstructions > MAX_FAST_FORWARD_INSTRUCTIONS)
     {
-      errorMessages.add(new ConfigError("Entry point must be a label string or an address integer", "entryPoint"));
+      errorMessages.add(new ConfigError(
+              "Fast-forward instruction count must not exceed " + MAX_FAST_FORWARD_INSTRUCTIONS,
+              "fastForwardInstructions"));
     }
     
     // Check if every instruction has a FU that can execute it
     outer:
-    for (InputCodeModel instruction : codeParser.getInstructions())
+    for (InstructionFunctionModel instruction : image.getInstructionFunctionModels())
     {
-      String interpretableAs = instruction.instructionFunctionModel().interpretableAs();
+      String interpretableAs = instruction.interpretableAs();
       FunctionalUnitDescription.CapabilityName capabilityName = FunctionalUnitDescription.classifyExpression(
               interpretableAs);
       
@@ -192,7 +267,7 @@ public class SimulationConfig
       }
       
       errorMessages.add(
-              new ConfigError("No eligible FU found for instruction: " + instruction.instructionFunctionModel().name(),
+              new ConfigError("No eligible FU found for instruction: " + instruction.name(),
                               "config"));
       break;
     }
@@ -230,4 +305,51 @@ public class SimulationConfig
       return String.join(", ", messages.stream().map(ConfigError::toString).toList());
     }
   }
+  
+  /**
+   * @param address     Label (string) or address (int) to check
+   * @param description Name of the value used in the error messages
+   * @param field       Field of the configuration used in the error messages
+   * @param image       Image of the parsed code
+   * @param errors      List to add errors to
+   *
+   * @brief Checks that the label exists or that the address points to the code
+   */
+  private static void checkCodeAddress(Object address,
+                                       String description,
+                                       String field,
+                                       ProgramImage image,
+                                       List<ConfigError> errors)
+  {
+    if (address instanceof String)
+    {
+      // Check if label exists
+      if (!image.getSymbolTable().containsKey(address))
+      {
+        errors.add(new ConfigError(description + " label does not exist", field));
+      }
+    }
+    else if (address instanceof Integer)
+    {
+      int entry = (Integer) address;
+      // Check if address is valid
+      if (entry < 0)
+      {
+        errors.add(new ConfigError(description + " address must be greater than 0", field));
+      }
+      int maxAddress = 4 * image.getInstructionCount();
+      if (entry > maxAddress)
+      {
+        errors.add(new ConfigError(description + " address must be pointing to a code", field));
+      }
+      if (entry % 4 != 0)
+      {
+        errors.add(new ConfigError(description + " address must be aligned to 4 bytes", field));
+      }
+    }
+    else
+    {
+      errors.add(new ConfigError(description + " must be a label string or an address integer", field));
+    }
+  }
 }
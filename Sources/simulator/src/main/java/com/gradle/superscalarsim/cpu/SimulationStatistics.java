@@ -32,8 +32,12 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.enums.InstructionTypeEnum;
 import com.gradle.superscalarsim.models.FunctionalUnitDescription;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -44,8 +48,11 @@ import java.util.Map;
  * @brief Class that contains data from blocks for displaying statistics about the run
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class SimulationStatistics
+public class SimulationStatistics implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Static instruction mix
    */
@@ -116,6 +123,10 @@ public class SimulationStatistics
    * Maximal number of allocated speculative registers
    */
   public int maxAllocatedRegisters;
+  /**
+   * Number of instructions executed by the functional fast-forward before the detailed simulation
+   */
+  public long fastForwardedInstructions;
   
   /**
    * @param instructionCount Number of instructions in the code. Use -1 if unknown.
@@ -168,13 +179,24 @@ public class SimulationStatistics
    * @brief Increment busy cycles of FU with given name
    */
   public void incrementBusyCycles(String fuName)
+  {
+    incrementBusyCycles(fuName, 1);
+  }
+  
+  /**
+   * @param fuName Name of the FU
+   * @param cycles Number of cycles the FU was busy
+   *
+   * @brief Increment busy cycles of FU with given name by a number of cycles at once
+   */
+  public void incrementBusyCycles(String fuName, int cycles)
   {
     assert fuName != null; // Null breaks serialization
     if (!fuStats.containsKey(fuName))
     {
       fuStats.put(fuName, new FUStats());
     }
-    fuStats.get(fuName).incrementBusyCycles();
+    fuStats.get(fuName).incrementBusyCycles(cycles);
   }
   
   /**
@@ -296,6 +318,17 @@ public class SimulationStatistics
   }// end of incrementClockCycles
   //----------------------------------------------------------------------
   
+  /**
+   * @param cycles Number of skipped simulate() calls
+   *
+   * @brief Increments number of simulate() calls by a number of cycles at once
+   */
+  public void incrementClockCycles(int cycles)
+  {
+    this.clockCycles += cycles;
+  }// end of incrementClockCycles
+  //----------------------------------------------------------------------
+  
   /**
    * @brief Increment number of failed instructions
    */
@@ -413,12 +446,40 @@ public class SimulationStatistics
     return (double) (mainMemoryLoadedBytes + mainMemoryStoredBytes) / clock;
   }
   
+  /**
+   * @brief Feeds all counters
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(committedInstructions).add(clockCycles).add(flushedInstructions).add(robFlushes).add(clock);
+    hasher.add(correctlyPredictedBranches).add(conditionalBranches).add(takenBranches);
+    hasher.add(mainMemoryLoadedBytes).add(mainMemoryStoredBytes).add(maxAllocatedRegisters).add(fastForwardedInstructions);
+    for (InstructionMix mix : new InstructionMix[]{staticInstructionMix, dynamicInstructionMix})
+    {
+      hasher.add(mix.intArithmetic).add(mix.floatArithmetic).add(mix.memory).add(mix.branch).add(mix.other);
+    }
+    hasher.add(cache.readAccesses).add(cache.writeAccesses).add(cache.hits).add(cache.misses);
+    hasher.add(cache.totalDelay).add(cache.bytesWritten).add(cache.bytesRead);
+    hasher.addUnordered(fuStats).add(instructionStats.size());
+    for (InstructionStats stats : instructionStats)
+    {
+      hasher.add(stats.committedCount).add(stats.decoded).add(stats.correctlyPredicted);
+      hasher.add(stats.cacheHits == null ? -1 : stats.cacheHits);
+      hasher.add(stats.memoryAccesses == null ? -1 : stats.memoryAccesses);
+    }
+  }// end of hashState
+  //----------------------------------------------------------------------
+  
   /**
    * @class CacheStatisticsCounter
    * @brief Class that contains data from blocks for displaying statistics from cache about the run
    */
-  public static class CacheStatistics
+  public static class CacheStatistics implements Serializable
   {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    
     /**
      * Counter for how many times cache has been accessed for read.
      */
@@ -529,8 +590,11 @@ public class SimulationStatistics
     }
   }
   
-  public static class InstructionMix
+  public static class InstructionMix implements Serializable
   {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    
     public int intArithmetic;
     public int floatArithmetic;
     public int memory;
@@ -549,8 +613,11 @@ public class SimulationStatistics
     }
   }
   
-  public static class FUStats
+  public static class FUStats implements Serializable, StateHashable
   {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    
     /**
      * The number of cycles that the FU was busy.
      */
@@ -571,10 +638,29 @@ public class SimulationStatistics
     {
       this.busyCycles++;
     }
+    
+    /**
+     * @param cycles Number of busy cycles to add
+     *
+     * @brief Increments number of busy cycles by a number of cycles at once
+     */
+    public void incrementBusyCycles(int cycles)
+    {
+      this.busyCycles += cycles;
+    }
+    
+    @Override
+    public void hashState(StateHasher hasher)
+    {
+      hasher.add(busyCycles);
+    }
   }
   
-  public static class InstructionStats
+  public static class InstructionStats implements Serializable
   {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    
     /**
      * The number of cycles that instruction was committed.
      */
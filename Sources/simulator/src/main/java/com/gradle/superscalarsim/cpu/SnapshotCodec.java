@@ -0,0 +1,189 @@
+/**
+ * @file SnapshotCodec.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Versioned binary snapshot of a simulation
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.register.RegisterDataContainer;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.StateHasher;
+import com.gradle.superscalarsim.serialization.Serialization;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * @class SnapshotCodec
+ * @brief Writes a simulation to a compact binary file and restores it, so it can be resumed later
+ * @details Layout of a snapshot:
+ * <ul>
+ *   <li>magic number {@link #MAGIC} (int) and format version {@link #FORMAT_VERSION} (long)</li>
+ *   <li>length and UTF-8 bytes of the simulation configuration as JSON</li>
+ *   <li>stop reason name and whether the state is compressed</li>
+ *   <li>the {@link CpuState} encoded by {@link StateCodec}, optionally deflated. The registers and instructions
+ *   are written by explicit primitive encoders, the blocks with Java object serialization.
+ *   Memory pages are written as raw bytes.</li>
+ * </ul>
+ * The restored state keeps simulating exactly like the original one. A snapshot of a simulator build with
+ * different encoders or state classes is rejected.
+ */
+public class SnapshotCodec
+{
+  /**
+   * "RVSS" - RISC-V simulator snapshot
+   */
+  public static final int MAGIC = 0x52565353;
+  
+  /**
+   * Version of the layout of the header. Increment when the header changes.
+   */
+  private static final int LAYOUT_VERSION = 2;
+  
+  /**
+   * Version of the format, derived from the layout version and the serialVersionUID of the classes
+   * with an explicit encoder. Change the serialVersionUID of a class when its encoder changes.
+   * The classes of the blocks are checked one by one by {@link StateCodec}.
+   */
+  public static final long FORMAT_VERSION = formatVersion(CpuState.class, RegisterModel.class,
+                                                          RegisterDataContainer.class, InputCodeArgument.class,
+                                                          InputCodeModel.class, SimCodeModel.class);
+  
+  /**
+   * Size of the buffers around the compressed part
+   */
+  private static final int BUFFER_SIZE = 1 << 16;
+  
+  /**
+   * @param cpu      Simulation to write
+   * @param out      Stream to write to. Not closed.
+   * @param compress True to deflate the state. About a third of the size, takes about twice as long.
+   *
+   * @brief Writes a snapshot of the simulation
+   */
+  public static void write(Cpu cpu, OutputStream out, boolean compress) throws IOException
+  {
+    DataOutputStream header = new DataOutputStream(out);
+    header.writeInt(MAGIC);
+    header.writeLong(FORMAT_VERSION);
+    byte[] config = Serialization.getSerializer().writeValueAsString(cpu.configuration)
+            .getBytes(StandardCharsets.UTF_8);
+    header.writeInt(config.length);
+    header.write(config);
+    header.writeUTF(cpu.stopReason.name());
+    header.writeBoolean(compress);
+    header.flush();
+    
+    if (!compress)
+    {
+      StateCodec.write(cpu.cpuState, out);
+      return;
+    }
+    
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try
+    {
+      DeflaterOutputStream compressed = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+      StateCodec.write(cpu.cpuState, compressed);
+      compressed.finish();
+    }
+    finally
+    {
+      deflater.end();
+    }
+  }// end of write
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param in Stream with a snapshot written by {@link #write(Cpu, OutputStream, boolean)}. Not closed.
+   *
+   * @return The simulation, ready to continue
+   * @throws IOException If the stream is not a snapshot or it was written by an incompatible version
+   */
+  public static Cpu read(InputStream in) throws IOException
+  {
+    DataInputStream header = new DataInputStream(in);
+    if (header.readInt() != MAGIC)
+    {
+      throw new IOException("Not a simulation snapshot");
+    }
+    long version = header.readLong();
+    if (version != FORMAT_VERSION)
+    {
+      throw new IOException("Unsupported snapshot version " + version + ", expected " + FORMAT_VERSION);
+    }
+    byte[] config = new byte[header.readInt()];
+    header.readFully(config);
+    SimulationConfig configuration = Serialization.getDeserializer()
+            .readValue(new String(config, StandardCharsets.UTF_8), SimulationConfig.class);
+    StopReason stopReason = StopReason.valueOf(header.readUTF());
+    boolean    compressed = header.readBoolean();
+    
+    CpuState state;
+    Inflater inflater = new Inflater();
+    try
+    {
+      // The tables are read in small pieces, the buffer saves a call of the decompressor for each of them
+      InputStream source = compressed ? new InflaterInputStream(in, inflater, BUFFER_SIZE) : in;
+      state = StateCodec.read(new BufferedInputStream(source, BUFFER_SIZE));
+    }
+    catch (InvalidClassException e)
+    {
+      throw new IOException("The snapshot was written by an incompatible version of the simulator", e);
+    }
+    finally
+    {
+      inflater.end();
+    }
+    
+    Cpu cpu = new Cpu(configuration, state, null);
+    cpu.stopReason = stopReason;
+    return cpu;
+  }// end of read
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param classes Classes with an explicit encoder
+   *
+   * @return Hash of the layout version and the serialVersionUID of the classes
+   */
+  private static long formatVersion(Class<?>... classes)
+  {
+    StateHasher hasher = new StateHasher().add(LAYOUT_VERSION);
+    for (Class<?> cls : classes)
+    {
+      hasher.add(ObjectStreamClass.lookup(cls).getSerialVersionUID());
+    }
+    return hasher.get();
+  }// end of formatVersion
+}
@@ -0,0 +1,330 @@
+/**
+ * @file StateCodec.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Binary encoding of the CPU state
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import com.gradle.superscalarsim.managers.InstanceManager;
+import com.gradle.superscalarsim.managers.ManagerRegistry;
+import com.gradle.superscalarsim.models.Identifiable;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.SnapshotReader;
+import com.gradle.superscalarsim.models.util.SnapshotWriter;
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.*;
+import java.util.function.IntFunction;
+
+/**
+ * @class StateCodec
+ * @brief Binary encoding of the CPU state, used by the checkpoints and the snapshots
+ * @details The registers, the instruction definitions, the code and the instructions in flight are written first,
+ * with the explicit encoders of {@link SnapshotWriter}. The rest of the state - the blocks, a few hundred objects
+ * whose number depends on the configuration, not on the program - is written with Java object serialization,
+ * in which the objects of the tables are replaced by their indexes. The instance managers hold all of these objects,
+ * so they get the first indexes of the tables, in the order of the managers, and a manager is written only as its size.
+ * <p>
+ * The serialization writes a descriptor with the names and types of the fields of each class, that would be a third
+ * of the stream. Both sides have the classes of the same build, so a descriptor is only the name of the class
+ * and a hash of its serialVersionUID and fields. A class whose fields changed is rejected.
+ */
+final class StateCodec
+{
+  private static final byte REGISTER = 0;
+  
+  private static final byte INSTRUCTION = 1;
+  
+  private static final byte INPUT_CODE = 2;
+  
+  private static final byte SIM_CODE = 3;
+  
+  /**
+   * Hash of the serialVersionUID and the names and types of the serialized fields of each class
+   */
+  private static final ClassValue<Long> LAYOUTS = new ClassValue<>()
+  {
+    @Override
+    protected Long computeValue(Class<?> type)
+    {
+      ObjectStreamClass desc   = ObjectStreamClass.lookupAny(type);
+      StateHasher       hasher = new StateHasher().add(desc.getSerialVersionUID());
+      for (ObjectStreamField field : desc.getFields())
+      {
+        hasher.add(field.getName()).add(field.getTypeCode());
+        if (!field.isPrimitive())
+        {
+          hasher.add(field.getTypeString());
+        }
+      }
+      return hasher.get();
+    }
+  };
+  
+  private StateCodec()
+  {
+  }
+  
+  /**
+   * @param state State to write
+   * @param out   Stream to write to. Not closed.
+   */
+  static void write(CpuState state, OutputStream out) throws IOException
+  {
+    SnapshotWriter  tables   = new SnapshotWriter(new StaticDataProvider().getInstructionFunctionModels());
+    ManagerRegistry registry = state.managerRegistry;
+    // The objects of the managers take the first indexes, see TableInputStream.managerOf
+    registry.registerModelManager.getInstances().forEach(tables::indexOf);
+    registry.inputCodeManager.getInstances().forEach(tables::indexOf);
+    registry.simCodeManager.getInstances().forEach(tables::indexOf);
+    
+    ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+    try (ObjectOutputStream objects = new TableOutputStream(blocks, tables, registry))
+    {
+      objects.writeObject(state);
+    }
+    // The tables are complete only after the blocks are written, but they are read first
+    DataOutputStream data = new DataOutputStream(out);
+    tables.writeTo(data);
+    blocks.writeTo(data);
+    data.flush();
+  }// end of write
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param in Stream written by {@link #write(CpuState, OutputStream)}. Not closed.
+   *
+   * @return The state
+   * @throws InvalidClassException If the classes of the state changed since the state was written
+   */
+  static CpuState read(InputStream in) throws IOException
+  {
+    SnapshotReader tables = new SnapshotReader(new DataInputStream(in),
+                                               new StaticDataProvider().getInstructionFunctionModels());
+    try
+    {
+      return (CpuState) new TableInputStream(in, tables).readObject();
+    }
+    catch (ClassNotFoundException e)
+    {
+      throw new InvalidClassException(e.getMessage());
+    }
+  }// end of read
+  //----------------------------------------------------------------------
+  
+  /**
+   * @brief Stands for an object written in the tables. Not a record, the reflective serialization of records is slower.
+   */
+  private static final class TableReference implements Serializable
+  {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Type of the object, see the constants of {@link StateCodec}
+     */
+    private final byte table;
+    
+    /**
+     * Index of the object in the table
+     */
+    private final int index;
+    
+    private TableReference(byte table, int index)
+    {
+      this.table = table;
+      this.index = index;
+    }
+  }
+  
+  /**
+   * @brief Stands for an instance manager of the state, whose objects are the first ones of its table
+   */
+  private static final class ManagerContent implements Serializable
+  {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Type of the objects, see the constants of {@link StateCodec}
+     */
+    private final byte table;
+    
+    /**
+     * Number of the objects
+     */
+    private final int count;
+    
+    private ManagerContent(byte table, int count)
+    {
+      this.table = table;
+      this.count = count;
+    }
+  }
+  
+  /**
+   * @brief Replaces the objects of the tables by their indexes
+   */
+  private static class TableOutputStream extends ObjectOutputStream
+  {
+    private final SnapshotWriter tables;
+    
+    private final ManagerRegistry registry;
+    
+    TableOutputStream(OutputStream out, SnapshotWriter tables, ManagerRegistry registry) throws IOException
+    {
+      super(out);
+      this.tables   = tables;
+      this.registry = registry;
+      enableReplaceObject(true);
+    }
+    
+    @Override
+    protected Object replaceObject(Object obj)
+    {
+      if (obj == registry.registerModelManager)
+      {
+        return new ManagerContent(REGISTER, registry.registerModelManager.getInstances().size());
+      }
+      if (obj == registry.inputCodeManager)
+      {
+        return new ManagerContent(INPUT_CODE, registry.inputCodeManager.getInstances().size());
+      }
+      if (obj == registry.simCodeManager)
+      {
+        return new ManagerContent(SIM_CODE, registry.simCodeManager.getInstances().size());
+      }
+      if (obj instanceof RegisterModel register)
+      {
+        return new TableReference(REGISTER, tables.indexOf(register));
+      }
+      if (obj instanceof InstructionFunctionModel instruction)
+      {
+        return new TableReference(INSTRUCTION, tables.indexOf(instruction));
+      }
+      if (obj instanceof InputCodeModel codeModel)
+      {
+        return new TableReference(INPUT_CODE, tables.indexOf(codeModel));
+      }
+      if (obj instanceof SimCodeModel codeModel)
+      {
+        return new TableReference(SIM_CODE, tables.indexOf(codeModel));
+      }
+      return obj;
+    }
+    
+    @Override
+    protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException
+    {
+      writeUTF(desc.getName());
+      writeLong(LAYOUTS.get(desc.forClass()));
+    }
+  }
+  
+  /**
+   * @brief Resolves the indexes written by {@link TableOutputStream}
+   */
+  private static class TableInputStream extends ObjectInputStream
+  {
+    private final SnapshotReader tables;
+    
+    TableInputStream(InputStream in, SnapshotReader tables) throws IOException
+    {
+      super(in);
+      this.tables = tables;
+      enableResolveObject(true);
+    }
+    
+    @Override
+    protected Object resolveObject(Object obj) throws IOException
+    {
+      if (obj instanceof ManagerContent content)
+      {
+        return switch (content.table)
+        {
+          case REGISTER -> managerOf(content.count, tables::getRegister);
+          case INPUT_CODE -> managerOf(content.count, tables::getInputCode);
+          case SIM_CODE -> managerOf(content.count, tables::getSimCode);
+          default -> throw new InvalidObjectException("Unknown table " + content.table);
+        };
+      }
+      if (!(obj instanceof TableReference reference))
+      {
+        return obj;
+      }
+      return switch (reference.table)
+      {
+        case REGISTER -> tables.getRegister(reference.index);
+        case INSTRUCTION -> tables.getInstruction(reference.index);
+        case INPUT_CODE -> tables.getInputCode(reference.index);
+        case SIM_CODE -> tables.getSimCode(reference.index);
+        default -> throw new InvalidObjectException("Unknown table " + reference.table);
+      };
+    }
+    
+    /**
+     * @param count Number of the objects
+     * @param table Objects of the table by index
+     *
+     * @return Manager of the first objects of the table
+     */
+    private static <T extends Identifiable> InstanceManager<T> managerOf(int count, IntFunction<T> table)
+    {
+      InstanceManager<T> manager = new InstanceManager<>();
+      for (int i = 0; i < count; i++)
+      {
+        manager.addInstance(table.apply(i));
+      }
+      return manager;
+    }
+    
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException
+    {
+      String   name   = readUTF();
+      long     layout = readLong();
+      Class<?> type   = Class.forName(name, false, StateCodec.class.getClassLoader());
+      if (LAYOUTS.get(type) != layout)
+      {
+        throw new InvalidClassException(name, "The fields of the class changed since the state was written");
+      }
+      return ObjectStreamClass.lookupAny(type);
+    }
+    
+    /**
+     * @brief The descriptors are the local ones, they already know their class
+     */
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc)
+    {
+      return desc.forClass();
+    }
+  }
+}
@@ -33,6 +33,8 @@ import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
 import com.gradle.superscalarsim.models.instruction.InputCodeModel;
 import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.List;
 
 /**
@@ -43,8 +45,11 @@ import java.util.List;
  * @class InputCodeModelFactory
  * @brief Factory for InputCodeModel
  */
-public class InputCodeModelFactory
+public class InputCodeModelFactory implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   InstanceManager<InputCodeModel> manager;
   
   public InputCodeModelFactory()
@@ -34,13 +34,19 @@ import com.gradle.superscalarsim.enums.RegisterTypeEnum;
 import com.gradle.superscalarsim.managers.InstanceManager;
 import com.gradle.superscalarsim.models.register.RegisterModel;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * @class InputCodeModelFactory
  * @brief Factory for InputCodeModel
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class RegisterModelFactory
+public class RegisterModelFactory implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   int id;
   InstanceManager<RegisterModel> manager;
   
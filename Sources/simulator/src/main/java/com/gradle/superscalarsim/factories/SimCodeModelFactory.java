@@ -28,21 +28,44 @@
 package com.gradle.superscalarsim.factories;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.managers.InstanceManager;
 import com.gradle.superscalarsim.models.instruction.InputCodeModel;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+
 /**
- * @class InputCodeModelFactory
- * @brief Factory for InputCodeModel
+ * @class SimCodeModelFactory
+ * @brief Factory for SimCodeModel
+ * @details Retired instances can be handed back with {@link #release(SimCodeModel)} and are then reused for
+ * newly fetched instructions, so the fetch does not allocate a new instance (and its arguments) every cycle.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
-public class SimCodeModelFactory
+public class SimCodeModelFactory implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   int id;
   InstanceManager<SimCodeModel> manager;
   
+  /**
+   * Released instances are reused only if true.
+   * Turn off if references to instructions must stay valid after they leave the pipeline,
+   * for example to keep the history of the simulation for a visualization.
+   */
+  boolean recycling = true;
+  
+  /**
+   * Released instances ready for reuse. Not part of the simulation state.
+   */
+  @JsonIgnore
+  transient ArrayDeque<SimCodeModel> pool;
+  
   public SimCodeModelFactory()
   {
     this.manager = null;
@@ -55,11 +78,63 @@ public class SimCodeModelFactory
   
   public SimCodeModel createInstance(InputCodeModel inputCodeModel, int id, int fetchId)
   {
-    SimCodeModel instance = new SimCodeModel(inputCodeModel, id, fetchId);
+    SimCodeModel instance;
+    if (pool == null || pool.isEmpty())
+    {
+      instance = new SimCodeModel(inputCodeModel, id, fetchId);
+    }
+    else
+    {
+      instance = pool.pop();
+      instance.reset(inputCodeModel, id, fetchId);
+    }
     if (manager != null)
     {
       manager.addInstance(instance);
     }
     return instance;
   }
+  
+  /**
+   * The caller guarantees that nothing references the instance anymore - it has been committed or flushed
+   * and no block holds it. Does nothing if the recycling is turned off.
+   *
+   * @param instance Retired instance
+   *
+   * @brief Hands a retired instance back for reuse
+   */
+  public void release(SimCodeModel instance)
+  {
+    if (!recycling)
+    {
+      return;
+    }
+    if (pool == null)
+    {
+      pool = new ArrayDeque<>();
+    }
+    pool.push(instance);
+  }
+  
+  /**
+   * @param recycling True to reuse released instances, false to always allocate new ones
+   *
+   * @brief Turns the reuse of the released instances on or off
+   */
+  public void setRecycling(boolean recycling)
+  {
+    this.recycling = recycling;
+    if (!recycling)
+    {
+      pool = null;
+    }
+  }
+  
+  /**
+   * @return True if the released instances are reused
+   */
+  public boolean isRecycling()
+  {
+    return recycling;
+  }
 }
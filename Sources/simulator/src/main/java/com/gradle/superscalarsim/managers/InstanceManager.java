@@ -29,25 +29,32 @@ package com.gradle.superscalarsim.managers;
 
 import com.gradle.superscalarsim.models.Identifiable;
 
-import java.util.Collections;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.function.Predicate;
 
 /**
  * @param <T> Type of the instances
  *
- * @details The references are weak, so they will be garbage collected when no other references exist.
- * The purpose of this is to serialize all instances together, in normalized form.
+ * @details The purpose of this is to serialize all instances together, in normalized form.
+ * The references are strong and kept in insertion order, so the content and the order of the serialized instances
+ * depend only on the simulation, not on the timing of the garbage collector. Instances that are no longer used
+ * must be removed explicitly with {@link #removeIf(Predicate)}.
  * The managers should be per Cpu class, so that the instances are not shared between Cpus.
  * The manager is usually filled by a factory for the given type.
- * @brief A manager holding weak references to instances of objects of type T
+ * @brief A manager holding references to instances of objects of type T
  */
-public class InstanceManager<T extends Identifiable>
+public class InstanceManager<T extends Identifiable> implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
-   * @brief Instances of the object.
+   * @brief Instances of the object, in the order they were added.
    */
-  Set<T> instances = Collections.newSetFromMap(new WeakHashMap<T, Boolean>());
+  Set<T> instances = new LinkedHashSet<>();
   
   /**
    * @brief add all instances from the collection
@@ -70,6 +77,16 @@ public class InstanceManager<T extends Identifiable>
     instances.add(instance);
   }
   
+  /**
+   * @param filter Returns true for instances that are no longer used
+   *
+   * @brief Stop tracking the instances matching the filter
+   */
+  public void removeIf(Predicate<? super T> filter)
+  {
+    instances.removeIf(filter);
+  }
+  
   /**
    * @return Set of instances
    * @brief Get the instances
@@ -31,6 +31,9 @@ import com.gradle.superscalarsim.models.instruction.InputCodeModel;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.register.RegisterModel;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * The class keeps track (through managers) of all instances of certain classes.
  * This is useful for serialization - the JSON can be normalized and the references
@@ -38,8 +41,11 @@ import com.gradle.superscalarsim.models.register.RegisterModel;
  *
  * @brief Container of all managers to be serialized
  */
-public class ManagerRegistry
+public class ManagerRegistry implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Input code model manager
    */
@@ -32,14 +32,21 @@
  */
 package com.gradle.superscalarsim.models;
 
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * @class BranchTargetEntryModel
  * @brief An entry in BTB keeps information about a branch instruction (target address, PC tag).
  * @details The BTB can be smaller, so an entry slot can be shared by multiple instructions.
  * The PC tag is used to identify the instruction (and if it belongs to the same branch).
  */
-public class BranchTargetEntryModel
+public class BranchTargetEntryModel implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
   
   /**
    * PC Tag which identifies an entry as belonging to a specific instruction
@@ -100,4 +107,14 @@ public class BranchTargetEntryModel
     return target;
   }// end of getTarget
   //----------------------------------------------------------------------
+  
+  /**
+   * @brief Feeds the tag and the target of the entry
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(pcTag).add(isConditional).add(target);
+  }// end of hashState
+  //----------------------------------------------------------------------
 }
@@ -29,6 +29,8 @@ package com.gradle.superscalarsim.models;
 
 import com.gradle.superscalarsim.code.Expression;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -36,8 +38,11 @@ import java.util.List;
 /**
  * @brief Function unit description
  */
-public class FunctionalUnitDescription
+public class FunctionalUnitDescription implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * AFAIK not used
    */
@@ -72,7 +77,7 @@ public class FunctionalUnitDescription
    */
   public FunctionalUnitDescription()
   {
-  
+    
   }
   
   /**
@@ -167,15 +172,25 @@ public class FunctionalUnitDescription
   }
   
   public boolean canExecute(CapabilityName capability)
+  {
+    return getLatency(capability) != -1;
+  }
+  
+  /**
+   * @param capability Class of the operation
+   *
+   * @return Latency of the operation on this FUnit, -1 if the FUnit cannot perform it
+   */
+  public int getLatency(CapabilityName capability)
   {
     for (Capability c : operations)
     {
       if (c.name == capability)
       {
-        return true;
+        return c.latency;
       }
     }
-    return false;
+    return -1;
   }
   
   /**
@@ -220,8 +235,11 @@ public class FunctionalUnitDescription
   /**
    * Configuration of a capability.
    */
-  public static class Capability
+  public static class Capability implements Serializable
   {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    
     public CapabilityName name;
     public int latency;
     
@@ -27,13 +27,15 @@
 
 package com.gradle.superscalarsim.models;
 
+import java.io.Serializable;
+
 /**
  * Implemented by models that have unique identifier.
  * Used for serialization.
  *
  * @brief Interface for identifiable objects
  */
-public interface Identifiable
+public interface Identifiable extends Serializable
 {
   /**
    * @return Unique identifier of the object
@@ -0,0 +1,51 @@
+/**
+ * @file StateHashable.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Interface for objects contributing to the structural hash of the CPU state
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.models;
+
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+/**
+ * Implemented by the blocks and models of the CPU state.
+ * Used for fast comparison and deduplication of states, see {@link com.gradle.superscalarsim.cpu.CpuState#stateHash()}.
+ *
+ * @brief Interface for objects contributing to the structural hash of the CPU state
+ */
+public interface StateHashable
+{
+  /**
+   * Feeds the values that are part of the serialized state. Objects owned by another block
+   * (instructions, registers) are fed as references - their id - and hashed in full only by their owner.
+   * Two objects that serialize the same must feed the same values.
+   *
+   * @param hasher Hasher to feed the values to
+   *
+   * @brief Feeds the state of the object to the hasher
+   */
+  void hashState(StateHasher hasher);
+}
@@ -26,12 +26,21 @@
  */
 package com.gradle.superscalarsim.models.cache;
 
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * @class CacheLineModel
  * @brief Container class for cache line
  */
-public class CacheLineModel
+public class CacheLineModel implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * True if this line contains valid data
    */
@@ -193,6 +202,11 @@ public class CacheLineModel
     return index;
   }
   
+  public int getLineSize()
+  {
+    return lineSize;
+  }
+  
   public long getBaseAddress()
   {
     return baseAddress;
@@ -212,4 +226,13 @@ public class CacheLineModel
   {
     this.line = line;
   }
+  
+  /**
+   * @brief Feeds the flags, address and data of the line
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(valid).add(dirty).add(tag).add(line).add(lineSize).add(index).add(baseAddress);
+  }
 }
@@ -27,6 +27,9 @@
 
 package com.gradle.superscalarsim.models.cache;
 
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -36,6 +39,9 @@ import java.util.List;
  */
 public class FifoReplacementPolicyModel extends ReplacementPolicyModel
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Associativity of cache
    */
@@ -81,4 +87,18 @@ public class FifoReplacementPolicyModel extends ReplacementPolicyModel
   public void updatePolicy(int index, int line)
   {
   }
+  
+  /**
+   * @brief Feeds the order of the lines in every set
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(associativity).add(fifo.length);
+    for (List<Integer> set : fifo)
+    {
+      hasher.add(set.size());
+      set.forEach(hasher::add);
+    }
+  }
 }
\ No newline at end of file
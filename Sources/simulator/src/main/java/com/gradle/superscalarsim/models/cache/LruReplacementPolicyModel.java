@@ -26,6 +26,9 @@
  */
 package com.gradle.superscalarsim.models.cache;
 
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,6 +38,9 @@ import java.util.List;
  */
 public class LruReplacementPolicyModel extends ReplacementPolicyModel
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Associativity of cache
    */
@@ -89,4 +95,18 @@ public class LruReplacementPolicyModel extends ReplacementPolicyModel
     }
     lru[index].add(line);
   }
+  
+  /**
+   * @brief Feeds the order of the lines in every set
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(associativity).add(lru.length);
+    for (List<Integer> set : lru)
+    {
+      hasher.add(set.size());
+      set.forEach(hasher::add);
+    }
+  }
 }
\ No newline at end of file
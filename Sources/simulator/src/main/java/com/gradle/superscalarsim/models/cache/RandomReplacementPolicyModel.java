@@ -26,6 +26,9 @@
  */
 package com.gradle.superscalarsim.models.cache;
 
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.Serial;
 import java.util.Random;
 
 /**
@@ -34,6 +37,9 @@ import java.util.Random;
  */
 public class RandomReplacementPolicyModel extends ReplacementPolicyModel
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   private final Random randomSource;
   
   private final int associativity;
@@ -54,4 +60,13 @@ public class RandomReplacementPolicyModel extends ReplacementPolicyModel
   {
     // no-op
   }
+  
+  /**
+   * @brief Feeds the associativity. The state of the random generator is not part of the serialized state.
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(associativity);
+  }
 }
\ No newline at end of file
@@ -27,13 +27,19 @@
 package com.gradle.superscalarsim.models.cache;
 
 import com.gradle.superscalarsim.enums.cache.ReplacementPoliciesEnum;
+import com.gradle.superscalarsim.models.StateHashable;
+
+import java.io.Serial;
+import java.io.Serializable;
 
 /**
  * @class ReplacementPolicyModel
  * @brief Builder class for replacement policy
  */
-public abstract class ReplacementPolicyModel
+public abstract class ReplacementPolicyModel implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
   
   /**
    * @brief Builds required replacement policy
@@ -27,9 +27,11 @@
 
 package com.gradle.superscalarsim.models.instruction;
 
+import java.io.Serializable;
+
 /**
  * Debug info attached to a {@link InputCodeModel}.
  */
-public record DebugInfo(String formatString)
+public record DebugInfo(String formatString) implements Serializable
 {
 }
@@ -50,6 +50,21 @@ public interface IInputCodeModel
    */
   InputCodeArgument getArgumentByName(String name);
   
+  /**
+   * @param argumentIndex Index of the argument in the instruction definition
+   *
+   * @return The argument, or null if the instruction does not have it
+   */
+  InputCodeArgument getArgument(int argumentIndex);
+  
+  /**
+   * @return The "rd" argument, or null if the instruction does not have it
+   */
+  default InputCodeArgument getDestinationArgument()
+  {
+    return getArgument(instructionFunctionModel().getDestinationIndex());
+  }
+  
   /**
    * @return Type of the instruction (e.g. kArithmetic)
    */
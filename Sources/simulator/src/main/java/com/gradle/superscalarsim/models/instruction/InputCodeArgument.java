@@ -36,16 +36,25 @@ import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.gradle.superscalarsim.code.CodeToken;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.register.RegisterDataContainer;
 import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.SnapshotReader;
+import com.gradle.superscalarsim.models.util.SnapshotWriter;
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.*;
 
 /**
  * @class InputCodeArgument
  * @brief Container of argument of parsed instruction.
  * Can either be a register, constant or label.
  */
-public class InputCodeArgument
+public class InputCodeArgument implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Parsed constant value of the argument. Uses type info from instruction definition.
    */
@@ -66,6 +75,12 @@ public class InputCodeArgument
    */
   @JsonIgnore
   private CodeToken stringValue;
+  /**
+   * Index of the argument in the arguments of the instruction definition ({@link InstructionFunctionModel}).
+   * Bound by the parser, so the pipeline does not have to look the arguments up by name. -1 if not bound.
+   */
+  @JsonIgnore
+  private int argumentIndex = -1;
   
   /**
    * @param name  Name of the argument
@@ -117,6 +132,7 @@ public class InputCodeArgument
     this.name          = argument.getName();
     this.stringValue   = new CodeToken(argument.getValueToken());
     this.registerValue = argument.getRegisterValue();
+    this.argumentIndex = argument.getArgumentIndex();
     if (argument.getConstantValue() != null)
     {
       this.constantValue = new RegisterDataContainer(argument.getConstantValue());
@@ -127,6 +143,33 @@ public class InputCodeArgument
     }
   }// end of Constructor
   
+  /**
+   * The value token is immutable and shared, the constant is copied into the existing container if there is one.
+   *
+   * @param argument Object to be copied
+   *
+   * @brief Overwrites this argument with a copy of another one, like the copy constructor
+   */
+  public void copyFrom(final InputCodeArgument argument)
+  {
+    this.name          = argument.getName();
+    this.stringValue   = argument.getValueToken();
+    this.registerValue = argument.getRegisterValue();
+    this.argumentIndex = argument.getArgumentIndex();
+    if (argument.getConstantValue() == null)
+    {
+      this.constantValue = null;
+    }
+    else if (this.constantValue == null)
+    {
+      this.constantValue = new RegisterDataContainer(argument.getConstantValue());
+    }
+    else
+    {
+      this.constantValue.copyFrom(argument.getConstantValue());
+    }
+  }// end of copyFrom
+  
   /**
    * @return Argument name
    * @brief Get name of the argument
@@ -136,6 +179,23 @@ public class InputCodeArgument
     return name;
   }// end of getName
   
+  /**
+   * @return Index of the argument in the arguments of the instruction definition, -1 if not bound
+   */
+  public int getArgumentIndex()
+  {
+    return argumentIndex;
+  }
+  
+  /**
+   * @param argumentIndex Index of the argument in the arguments of the instruction definition
+   */
+  public void setArgumentIndex(int argumentIndex)
+  {
+    this.argumentIndex = argumentIndex;
+  }
+  //------------------------------------------------------
+  
   /**
    * @return True if the argument is a register
    */
@@ -217,4 +277,64 @@ public class InputCodeArgument
   {
     return name + " = " + stringValue;
   }
+  
+  /**
+   * @brief Feeds the name, the constant value and the register of the argument
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(name).add(constantValue).addReference(registerValue);
+  }// end of hashState
+  //------------------------------------------------------
+  
+  /**
+   * @param out    Stream to write to
+   * @param writer Indexes of the registers
+   *
+   * @brief Writes the argument for a snapshot, see {@link SnapshotWriter}
+   */
+  public void writeTo(DataOutput out, SnapshotWriter writer) throws IOException
+  {
+    SnapshotWriter.writeString(out, name);
+    out.writeInt(argumentIndex);
+    out.writeBoolean(constantValue != null);
+    if (constantValue != null)
+    {
+      constantValue.writeTo(out);
+    }
+    out.writeInt(writer.indexOf(registerValue));
+    out.writeBoolean(stringValue != null);
+    if (stringValue != null)
+    {
+      out.writeInt(stringValue.line());
+      out.writeInt(stringValue.columnStart());
+      out.writeUTF(stringValue.text());
+      SnapshotWriter.writeEnum(out, stringValue.type());
+    }
+  }// end of writeTo
+  //------------------------------------------------------
+  
+  /**
+   * @param in     Stream written by {@link #writeTo}
+   * @param reader Registers of the snapshot
+   *
+   * @return The argument
+   */
+  public static InputCodeArgument readFrom(DataInput in, SnapshotReader reader) throws IOException
+  {
+    InputCodeArgument argument = new InputCodeArgument(SnapshotReader.readString(in), (CodeToken) null);
+    argument.argumentIndex = in.readInt();
+    argument.constantValue = in.readBoolean() ? RegisterDataContainer.readFrom(in) : null;
+    argument.registerValue = reader.getRegister(in.readInt());
+    if (in.readBoolean())
+    {
+      int line        = in.readInt();
+      int columnStart = in.readInt();
+      argument.stringValue = new CodeToken(line, columnStart, in.readUTF(),
+                                           SnapshotReader.readEnum(in, CodeToken.Type.values()));
+    }
+    return argument;
+  }// end of readFrom
+  //------------------------------------------------------
 }
@@ -38,7 +38,16 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.enums.InstructionTypeEnum;
 import com.gradle.superscalarsim.models.Identifiable;
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.util.SnapshotReader;
+import com.gradle.superscalarsim.models.util.SnapshotWriter;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serial;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -59,8 +68,29 @@ public record InputCodeModel(
         @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "name")
         // Needed here, not on the record
         @JsonIdentityReference(alwaysAsId = true) InstructionFunctionModel instructionFunctionModel,
-        List<InputCodeArgument> arguments, int codeId, DebugInfo debugInfo) implements Identifiable, IInputCodeModel
+        List<InputCodeArgument> arguments, int codeId, DebugInfo debugInfo)
+        implements Identifiable, IInputCodeModel, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * @brief Binds the arguments not bound by the parser to the arguments of the instruction definition
+   */
+  public InputCodeModel
+  {
+    if (instructionFunctionModel != null && arguments != null)
+    {
+      for (InputCodeArgument argument : arguments)
+      {
+        if (argument.getArgumentIndex() == -1)
+        {
+          argument.setArgumentIndex(instructionFunctionModel.getArgumentIndex(argument.getName()));
+        }
+      }
+    }
+  }
+  
   /**
    * @return The debug info attached to the instruction. Null if none present.
    */
@@ -112,10 +142,51 @@ public record InputCodeModel(
    */
   public InputCodeArgument getArgumentByName(String name)
   {
-    return arguments.stream().filter(argument -> argument.getName().equals(name)).findFirst().orElse(null);
+    return getArgument(arguments, instructionFunctionModel.getArgumentIndex(name));
   }// end of getArgumentByName
   //------------------------------------------------------
   
+  /**
+   * @param argumentIndex Index of the argument in the instruction definition
+   *
+   * @return The argument, or null if the instruction does not have it
+   */
+  @Override
+  public InputCodeArgument getArgument(int argumentIndex)
+  {
+    return getArgument(arguments, argumentIndex);
+  }// end of getArgument
+  //------------------------------------------------------
+  
+  /**
+   * The parser emits the arguments in the order of the definition, so the argument is usually at its index.
+   *
+   * @param arguments     Arguments to search
+   * @param argumentIndex Index of the argument in the instruction definition
+   *
+   * @return The argument bound to the index, or null if there is none
+   */
+  static InputCodeArgument getArgument(List<InputCodeArgument> arguments, int argumentIndex)
+  {
+    if (argumentIndex < 0)
+    {
+      return null;
+    }
+    if (argumentIndex < arguments.size() && arguments.get(argumentIndex).getArgumentIndex() == argumentIndex)
+    {
+      return arguments.get(argumentIndex);
+    }
+    for (InputCodeArgument argument : arguments)
+    {
+      if (argument.getArgumentIndex() == argumentIndex)
+      {
+        return argument;
+      }
+    }
+    return null;
+  }// end of getArgument
+  //------------------------------------------------------
+  
   /**
    * @return Enum value of instruction type
    * @brief Get instruction type
@@ -166,4 +237,57 @@ public record InputCodeModel(
   {
     return codeId * 4;
   }
+  
+  /**
+   * @brief Feeds the instruction name and the arguments of the line
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(codeId).add(getInstructionName()).addAll(arguments);
+  }// end of hashState
+  //------------------------------------------------------
+  
+  /**
+   * @param out    Stream to write to
+   * @param writer Indexes of the instruction definition and the registers
+   *
+   * @brief Writes the line of code for a snapshot, see {@link SnapshotWriter}
+   */
+  public void writeTo(DataOutput out, SnapshotWriter writer) throws IOException
+  {
+    out.writeInt(writer.indexOf(instructionFunctionModel));
+    out.writeInt(codeId);
+    SnapshotWriter.writeString(out, debugInfo == null ? null : debugInfo.formatString());
+    out.writeInt(arguments == null ? -1 : arguments.size());
+    if (arguments != null)
+    {
+      for (InputCodeArgument argument : arguments)
+      {
+        argument.writeTo(out, writer);
+      }
+    }
+  }// end of writeTo
+  //------------------------------------------------------
+  
+  /**
+   * @param in     Stream written by {@link #writeTo}
+   * @param reader Instruction definitions and registers of the snapshot
+   *
+   * @return The line of code
+   */
+  public static InputCodeModel readFrom(DataInput in, SnapshotReader reader) throws IOException
+  {
+    InstructionFunctionModel instruction   = reader.getInstruction(in.readInt());
+    int                      codeId        = in.readInt();
+    String                   formatString  = SnapshotReader.readString(in);
+    int                      argumentCount = in.readInt();
+    List<InputCodeArgument>  arguments     = argumentCount < 0 ? null : new ArrayList<>(argumentCount);
+    for (int i = 0; i < argumentCount; i++)
+    {
+      arguments.add(InputCodeArgument.readFrom(in, reader));
+    }
+    return new InputCodeModel(instruction, arguments, codeId, formatString == null ? null : new DebugInfo(formatString));
+  }// end of readFrom
+  //------------------------------------------------------
 }
@@ -28,6 +28,8 @@ package com.gradle.superscalarsim.models.instruction;
 
 import com.gradle.superscalarsim.enums.DataTypeEnum;
 
+import java.io.Serializable;
+
 /**
  * @param name         Name of the argument (example: "rd")
  * @param type         Data type of the argument (example: "kInt")
@@ -39,7 +41,7 @@ import com.gradle.superscalarsim.enums.DataTypeEnum;
  * @brief Name convention: "r" for register, "i" for immediate.
  */
 public record InstructionArgument(String name, DataTypeEnum type, String defaultValue, boolean writeBack,
-                                  boolean isOffset, boolean silent)
+                                  boolean isOffset, boolean silent) implements Serializable
 {
   public InstructionArgument(String name, DataTypeEnum type, String defaultValue)
   {
@@ -27,6 +27,11 @@
 
 package com.gradle.superscalarsim.models.instruction;
 
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.Serializable;
+
 /**
  * @param exceptionKind    Kind of exception
  * @param exceptionMessage Message of exception, if any. For user display.
@@ -35,6 +40,7 @@ package com.gradle.superscalarsim.models.instruction;
  * @brief Exception data. Attached to a {@link SimCodeModel}.
  */
 public record InstructionException(Kind exceptionKind, String exceptionMessage, int cycle)
+        implements Serializable, StateHashable
 {
   
   /**
@@ -44,4 +50,13 @@ public record InstructionException(Kind exceptionKind, String exceptionMessage,
   {
     kNone, kArithmetic, kMemory,
   }
+  
+  /**
+   * @brief Feeds the kind, message and cycle of the exception
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(exceptionKind).add(exceptionMessage).add(cycle);
+  }
 }
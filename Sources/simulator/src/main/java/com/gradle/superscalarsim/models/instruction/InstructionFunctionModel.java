@@ -34,10 +34,12 @@ package com.gradle.superscalarsim.models.instruction;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gradle.superscalarsim.code.CompiledInstruction;
 import com.gradle.superscalarsim.enums.DataTypeEnum;
 import com.gradle.superscalarsim.enums.InstructionTypeEnum;
 import com.gradle.superscalarsim.models.Identifiable;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -46,6 +48,7 @@ import java.util.List;
  * @param instructionType Type of the instruction (arithmetic, load/store, branch)
  * @param arguments       List of arguments of the instruction
  * @param interpretableAs Codified interpretation of instruction
+ * @param compiled        Interpretation compiled for the interpreters. Derived from the other components.
  *
  * @brief Definition of instruction from instruction set
  * @details Class contains definition of instruction, which is used to interpret and show real value in I-cache and to
@@ -55,8 +58,31 @@ import java.util.List;
  */
 public record InstructionFunctionModel(String name, InstructionTypeEnum instructionType,
                                        List<InstructionArgument> arguments,
-                                       String interpretableAs) implements Identifiable
+                                       String interpretableAs,
+                                       @JsonIgnore CompiledInstruction compiled) implements Identifiable, Serializable
 {
+  /**
+   * @brief Compiles the interpretation, if it was not provided
+   */
+  public InstructionFunctionModel
+  {
+    if (compiled == null)
+    {
+      compiled = new CompiledInstruction(interpretableAs, arguments);
+    }
+  }
+  
+  /**
+   * @brief Constructor
+   */
+  public InstructionFunctionModel(String name,
+                                  InstructionTypeEnum instructionType,
+                                  List<InstructionArgument> arguments,
+                                  String interpretableAs)
+  {
+    this(name, instructionType, arguments, interpretableAs, null);
+  }
+  
   /**
    * @return True if the instruction is a NOP
    */
@@ -82,7 +108,28 @@ public record InstructionFunctionModel(String name, InstructionTypeEnum instruct
    */
   public InstructionArgument getArgumentByName(String name)
   {
-    return arguments.stream().filter(argument -> argument.name().equals(name)).findFirst().orElse(null);
+    int index = getArgumentIndex(name);
+    return index == -1 ? null : arguments.get(index);
+  }
+  
+  /**
+   * @return Index of the argument with given name, or -1 if not found
+   */
+  public int getArgumentIndex(String name)
+  {
+    // Slot 0 is the PC, the arguments follow in order
+    int slot = compiled.getSlot(name);
+    return slot <= 0 ? -1 : slot - 1;
+  }
+  
+  /**
+   * @return Index of the "rd" argument, or -1 if the instruction has none
+   */
+  @JsonIgnore
+  public int getDestinationIndex()
+  {
+    int slot = compiled.getRdSlot();
+    return slot <= 0 ? -1 : slot - 1;
   }
   
   /**
@@ -90,7 +137,7 @@ public record InstructionFunctionModel(String name, InstructionTypeEnum instruct
    */
   public DataTypeEnum getOutputType()
   {
-    return getArgumentByName("rd").type();
+    return arguments.get(getDestinationIndex()).type();
   }
   
   /**
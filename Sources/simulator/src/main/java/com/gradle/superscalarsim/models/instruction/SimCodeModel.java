@@ -36,15 +36,21 @@ import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.gradle.superscalarsim.code.CompiledInstruction;
 import com.gradle.superscalarsim.code.Expression;
 import com.gradle.superscalarsim.enums.DataTypeEnum;
 import com.gradle.superscalarsim.enums.InstructionTypeEnum;
 import com.gradle.superscalarsim.enums.RegisterReadinessEnum;
 import com.gradle.superscalarsim.models.Identifiable;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.register.RegisterDataContainer;
 import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.SnapshotReader;
+import com.gradle.superscalarsim.models.util.SnapshotWriter;
+import com.gradle.superscalarsim.models.util.StateHasher;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -54,18 +60,21 @@ import java.util.List;
  * Timestamps are zero if not valid.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
-public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>, Identifiable
+public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>, Identifiable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Reference to original code model
    */
   @JsonIdentityReference(alwaysAsId = true)
-  private final InputCodeModel inputCodeModel;
+  private InputCodeModel inputCodeModel;
   
   /**
    * ID of order of instructions processed by the fetch
    */
-  private final int id;
+  private int id;
   
   /**
    * A copy of arguments, which are used for renaming.
@@ -126,6 +135,12 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
    * If committed, the exception takes effect and halts the simulation.
    */
   private InstructionException exception;
+  /**
+   * Variables for the interpreters, see {@link #getVariableSlots()}. Refilled on every interpretation.
+   * Kept when the model is recycled by reset(), unless the new instruction has a different number of slots.
+   */
+  @JsonIgnore
+  private transient Expression.Variable[] variableSlots;
   
   /**
    * @param inputCodeModel Original code model
@@ -135,6 +150,22 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
    * This constructor can be used only through the SimCodeModelAllocator
    */
   public SimCodeModel(InputCodeModel inputCodeModel, int id, int fetchId)
+  {
+    this.renamedArguments = new ArrayList<>();
+    reset(inputCodeModel, id, fetchId);
+  }// end of Constructor
+  //------------------------------------------------------
+  
+  /**
+   * @param inputCodeModel Original code model
+   * @param id             Number marking when was code accepted
+   * @param fetchId        ID when the instruction was fetched
+   *
+   * @brief Turns the instance into a freshly fetched instruction, as if it was just constructed.
+   * The argument objects of the previous instruction are reused.
+   * Used by the SimCodeModelFactory to recycle retired instructions.
+   */
+  public void reset(InputCodeModel inputCodeModel, int id, int fetchId)
   {
     this.inputCodeModel = inputCodeModel;
     this.id             = id;
@@ -155,12 +186,23 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
     exception = null;
     
     // Copy arguments
-    this.renamedArguments = new ArrayList<>();
-    for (InputCodeArgument argument : inputCodeModel.arguments())
+    List<InputCodeArgument> arguments = inputCodeModel.arguments();
+    while (renamedArguments.size() > arguments.size())
     {
-      this.renamedArguments.add(new InputCodeArgument(argument));
+      renamedArguments.remove(renamedArguments.size() - 1);
     }
-  }// end of Constructor
+    for (int i = 0; i < arguments.size(); i++)
+    {
+      if (i < renamedArguments.size())
+      {
+        renamedArguments.get(i).copyFrom(arguments.get(i));
+      }
+      else
+      {
+        renamedArguments.add(new InputCodeArgument(arguments.get(i)));
+      }
+    }
+  }// end of reset
   
   /**
    * @return Target of the branch prediction. Can differ from the actual branch target, for example
@@ -177,6 +219,14 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
     return exception;
   }
   
+  /**
+   * @return Branch prediction data, null if the instruction is not a branch
+   */
+  public BranchInfo getBranchInfo()
+  {
+    return branchInfo;
+  }
+  
   public void setException(InstructionException exception)
   {
     this.exception = exception;
@@ -302,6 +352,38 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
     this.commitId = commitId;
   }// end of setCommitId
   
+  /**
+   * @return ID of when was instruction committed, -1 if not committed
+   */
+  public int getCommitId()
+  {
+    return commitId;
+  }// end of getCommitId
+  
+  /**
+   * @return ID of the function block, which processed this instruction
+   */
+  public int getFunctionUnitId()
+  {
+    return functionUnitId;
+  }// end of getFunctionUnitId
+  
+  /**
+   * @return Cycle in which the instruction was fetched
+   */
+  public int getFetchId()
+  {
+    return fetchId;
+  }// end of getFetchId
+  
+  /**
+   * @return ID of when was instruction's result ready, -1 if not ready
+   */
+  public int getReadyId()
+  {
+    return readyId;
+  }// end of getReadyId
+  
   /**
    * @param codeModel Model to be compared to
    *
@@ -469,9 +551,20 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
   @Override
   public InputCodeArgument getArgumentByName(String name)
   {
-    return renamedArguments.stream().filter(argument -> argument.getName().equals(name)).findFirst().orElse(null);
+    return InputCodeModel.getArgument(renamedArguments, instructionFunctionModel().getArgumentIndex(name));
   }// end of getArgumentByName
   
+  /**
+   * @param argumentIndex Index of the argument in the instruction definition
+   *
+   * @return The renamed argument, or null if the instruction does not have it
+   */
+  @Override
+  public InputCodeArgument getArgument(int argumentIndex)
+  {
+    return InputCodeModel.getArgument(renamedArguments, argumentIndex);
+  }// end of getArgument
+  
   @Override
   public InstructionTypeEnum getInstructionTypeEnum()
   {
@@ -501,6 +594,15 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
     isFinished = finished;
   }
   
+  /**
+   * @return True if simcodemodel has left the system (committed, flushed)
+   */
+  @JsonIgnore
+  public boolean isFinished()
+  {
+    return isFinished;
+  }
+  
   /**
    * @return All arguments of the instruction as variables for the interpreter
    * @brief reads current register values (including speculative values), the PC, constants
@@ -510,28 +612,104 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
     List<Expression.Variable> variables                = new ArrayList<>();
     InstructionFunctionModel  instructionFunctionModel = instructionFunctionModel();
     
-    variables.add(
-            new Expression.Variable("pc", DataTypeEnum.kInt, RegisterDataContainer.fromValue(getSavedPc()), true));
+    variables.add(createPcVariable());
     
     for (InputCodeArgument var : arguments())
     {
-      InstructionArgument   argument   = instructionFunctionModel.getArgumentByName(var.getName());
-      RegisterDataContainer val        = var.getConstantValue();
-      boolean               isConstant = false;
-      if (val == null)
+      int                 index    = var.getArgumentIndex();
+      InstructionArgument argument = index == -1 ? null : instructionFunctionModel.arguments().get(index);
+      variables.add(createVariable(var, argument));
+    }
+    return variables;
+  }
+  
+  /**
+   * @return Variables of the instruction, indexed by the slots of {@link CompiledInstruction}
+   * @brief Same values as {@link #getVariables()}, laid out for the compiled expressions of the instruction
+   */
+  public Expression.Variable[] getVariableSlots()
+  {
+    InstructionFunctionModel instructionFunctionModel = instructionFunctionModel();
+    CompiledInstruction      compiled                 = instructionFunctionModel.compiled();
+    if (variableSlots == null || variableSlots.length != compiled.getSlotCount())
+    {
+      variableSlots    = new Expression.Variable[compiled.getSlotCount()];
+      variableSlots[0] = createPcVariable();
+    }
+    
+    // The interpreters can replace the container of a variable, so the PC always gets its value back
+    variableSlots[0].value.setValue(getSavedPc());
+    
+    for (InputCodeArgument var : arguments())
+    {
+      // Slot 0 is the PC
+      int slot = var.getArgumentIndex() + 1;
+      if (slot <= 0)
       {
-        // Try register
-        RegisterModel reg = var.getRegisterValue();
-        if (reg == null)
-        {
-          throw new IllegalStateException("Could not parse " + var.getValue() + " as constant or label");
-        }
-        val        = reg.getValueContainer();
-        isConstant = reg.isConstant();
+        throw new IllegalStateException("Unknown argument " + var.getName() + " of " + instructionFunctionModel.name());
+      }
+      InstructionArgument argument = instructionFunctionModel.arguments().get(slot - 1);
+      if (variableSlots[slot] == null)
+      {
+        variableSlots[slot] = createVariable(var, argument);
+      }
+      else
+      {
+        fillVariable(variableSlots[slot], var, argument);
       }
-      variables.add(new Expression.Variable(var.getName(), argument.type(), val, isConstant));
     }
-    return variables;
+    return variableSlots;
+  }
+  
+  /**
+   * @return The PC of the instruction as a variable
+   */
+  private Expression.Variable createPcVariable()
+  {
+    RegisterDataContainer pc = new RegisterDataContainer();
+    pc.setValue(getSavedPc());
+    return new Expression.Variable(CompiledInstruction.PC_SLOT_NAME, DataTypeEnum.kInt, pc, true);
+  }
+  
+  /**
+   * @param var      Argument of the instruction
+   * @param argument Definition of the argument
+   *
+   * @return The argument as a variable, backed by the constant or the current register value
+   */
+  private Expression.Variable createVariable(InputCodeArgument var, InstructionArgument argument)
+  {
+    Expression.Variable variable = new Expression.Variable(var.getName(), argument.type(), null, false);
+    fillVariable(variable, var, argument);
+    return variable;
+  }
+  
+  /**
+   * @param variable Variable to point to the argument
+   * @param var      Argument of the instruction
+   * @param argument Definition of the argument
+   *
+   * @brief Backs the variable by the constant or the current register value of the argument
+   */
+  private void fillVariable(Expression.Variable variable, InputCodeArgument var, InstructionArgument argument)
+  {
+    RegisterDataContainer val        = var.getConstantValue();
+    boolean               isConstant = false;
+    if (val == null)
+    {
+      // Try register
+      RegisterModel reg = var.getRegisterValue();
+      if (reg == null)
+      {
+        throw new IllegalStateException("Could not parse " + var.getValue() + " as constant or label");
+      }
+      val        = reg.getValueContainer();
+      isConstant = reg.isConstant();
+    }
+    variable.tag        = var.getName();
+    variable.type       = argument.type();
+    variable.value      = val;
+    variable.isConstant = isConstant;
   }
   
   /**
@@ -554,7 +732,7 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
       return false;
     }
     InstructionFunctionModel instruction = instructionFunctionModel();
-    return instruction != null && instruction.interpretableAs().startsWith("load");
+    return instruction != null && instruction.compiled().isLoad();
   }// end of isInstructionLoad
   
   /**
@@ -568,7 +746,7 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
       return false;
     }
     InstructionFunctionModel instruction = instructionFunctionModel();
-    return instruction != null && instruction.interpretableAs().startsWith("store");
+    return instruction != null && instruction.compiled().isStore();
   }// end of isInstructionStore
   
   /**
@@ -576,9 +754,18 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
    */
   public boolean isReadyToExecute()
   {
-    for (InputCodeArgument argument : arguments())
+    return getFirstUnreadyOperand() == null;
+  }
+  
+  /**
+   * @return The first source register whose value is not available yet, null if all the operands are ready
+   */
+  public RegisterModel getFirstUnreadyOperand()
+  {
+    for (int index : instructionFunctionModel().compiled().getSourceIndices())
     {
-      if (!argument.getName().startsWith("rs"))
+      InputCodeArgument argument = getArgument(index);
+      if (argument == null)
       {
         continue;
       }
@@ -587,10 +774,10 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
       boolean               validity  = readiness == RegisterReadinessEnum.kExecuted || readiness == RegisterReadinessEnum.kAssigned;
       if (!validity)
       {
-        return false;
+        return reg;
       }
     }
-    return true;
+    return null;
   }
   
   /**
@@ -609,11 +796,120 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
     return inputCodeModel.debugInfo();
   }
   
+  /**
+   * @brief Feeds the flags and timestamps of the instruction and its renamed arguments
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(id).addReference(inputCodeModel).addAll(renamedArguments);
+    hasher.add(issueWindowId).add(fetchId).add(functionUnitId).add(readyId).add(commitId);
+    hasher.add(isFinished).add(hasFailed).add(isValid).add(isBusy).add(isSpeculative);
+    hasher.add(branchInfo).add(exception);
+  }// end of hashState
+  //------------------------------------------------------
+  
+  /**
+   * @param out    Stream to write to
+   * @param writer Indexes of the line of code and the registers
+   *
+   * @brief Writes the instruction for a snapshot, see {@link SnapshotWriter}
+   */
+  public void writeTo(DataOutput out, SnapshotWriter writer) throws IOException
+  {
+    out.writeInt(writer.indexOf(inputCodeModel));
+    out.writeInt(id);
+    out.writeInt(fetchId);
+    out.writeInt(issueWindowId);
+    out.writeInt(functionUnitId);
+    out.writeInt(readyId);
+    out.writeInt(commitId);
+    out.writeBoolean(isFinished);
+    out.writeBoolean(hasFailed);
+    out.writeBoolean(isValid);
+    out.writeBoolean(isBusy);
+    out.writeBoolean(isSpeculative);
+    out.writeBoolean(branchInfo != null);
+    if (branchInfo != null)
+    {
+      out.writeBoolean(branchInfo.predictorVerdict);
+      out.writeInt(branchInfo.predictedTarget);
+      out.writeBoolean(branchInfo.branchCondition);
+      out.writeInt(branchInfo.branchTarget);
+      out.writeBoolean(branchInfo.branchComputedInDecode);
+      out.writeInt(branchInfo.predictorIndex);
+      out.writeInt(branchInfo.predictorStateBeforePrediction);
+    }
+    out.writeBoolean(exception != null);
+    if (exception != null)
+    {
+      SnapshotWriter.writeEnum(out, exception.exceptionKind());
+      SnapshotWriter.writeString(out, exception.exceptionMessage());
+      out.writeInt(exception.cycle());
+    }
+    out.writeInt(renamedArguments.size());
+    for (InputCodeArgument argument : renamedArguments)
+    {
+      argument.writeTo(out, writer);
+    }
+  }// end of writeTo
+  //------------------------------------------------------
+  
+  /**
+   * @param in     Stream written by {@link #writeTo}
+   * @param reader Lines of code and registers of the snapshot
+   *
+   * @return The instruction
+   */
+  public static SimCodeModel readFrom(DataInput in, SnapshotReader reader) throws IOException
+  {
+    InputCodeModel inputCodeModel = reader.getInputCode(in.readInt());
+    int            id             = in.readInt();
+    SimCodeModel   model          = new SimCodeModel(inputCodeModel, id, in.readInt());
+    model.issueWindowId  = in.readInt();
+    model.functionUnitId = in.readInt();
+    model.readyId        = in.readInt();
+    model.commitId       = in.readInt();
+    model.isFinished     = in.readBoolean();
+    model.hasFailed      = in.readBoolean();
+    model.isValid        = in.readBoolean();
+    model.isBusy         = in.readBoolean();
+    model.isSpeculative  = in.readBoolean();
+    if (in.readBoolean())
+    {
+      model.branchInfo                                = new BranchInfo();
+      model.branchInfo.predictorVerdict               = in.readBoolean();
+      model.branchInfo.predictedTarget                = in.readInt();
+      model.branchInfo.branchCondition                = in.readBoolean();
+      model.branchInfo.branchTarget                   = in.readInt();
+      model.branchInfo.branchComputedInDecode         = in.readBoolean();
+      model.branchInfo.predictorIndex                 = in.readInt();
+      model.branchInfo.predictorStateBeforePrediction = in.readInt();
+    }
+    if (in.readBoolean())
+    {
+      InstructionException.Kind kind    = SnapshotReader.readEnum(in, InstructionException.Kind.values());
+      String                    message = SnapshotReader.readString(in);
+      model.exception = new InstructionException(kind, message, in.readInt());
+    }
+    int argumentCount = in.readInt();
+    model.renamedArguments.clear();
+    for (int i = 0; i < argumentCount; i++)
+    {
+      model.renamedArguments.add(InputCodeArgument.readFrom(in, reader));
+    }
+    return model;
+  }// end of readFrom
+  //------------------------------------------------------
+  
   /**
    * Additional information specific for branch instructions.
    */
-  public static class BranchInfo
+  public static class BranchInfo implements Serializable, StateHashable
   {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    
     /**
      * Prediction made by branch predictor at the time of fetch.
      * True means the branch was predicted as taken and its target is predictedTarget.
@@ -663,5 +959,15 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
       this.predictedTarget = -1;
       this.branchTarget    = -1;
     }
+    
+    /**
+     * @brief Feeds the prediction and the result of the branch
+     */
+    @Override
+    public void hashState(StateHasher hasher)
+    {
+      hasher.add(predictorVerdict).add(predictedTarget).add(branchCondition).add(branchTarget);
+      hasher.add(branchComputedInDecode).add(predictorIndex).add(predictorStateBeforePrediction);
+    }
   }
 }
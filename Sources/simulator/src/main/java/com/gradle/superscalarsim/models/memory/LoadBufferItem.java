@@ -29,15 +29,23 @@ package com.gradle.superscalarsim.models.memory;
 
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.Serial;
+import java.io.Serializable;
 
 /**
  * @class LoadBufferItem
  * @brief Container for all the additional info required for instructions inside of load buffer
  */
-public class LoadBufferItem
+public class LoadBufferItem implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * The instruction itself
    */
@@ -71,6 +79,11 @@ public class LoadBufferItem
    */
   private boolean hasBypassed;
   
+  /**
+   * ID of the store the value was forwarded from, -1 if the load has not bypassed MA
+   */
+  private int bypassStoreId;
+  
   /**
    * ID when the instruction failed
    */
@@ -89,6 +102,7 @@ public class LoadBufferItem
     this.isAccessingMemory = false;
     this.memoryAccessId    = -1;
     this.hasBypassed       = false;
+    this.bypassStoreId     = -1;
     this.memoryFailedId    = -1;
     this.accessingMemoryId = -1;
   }// end of Constructor
@@ -106,7 +120,7 @@ public class LoadBufferItem
     {
       return null;
     }
-    return simCodeModel.getArgumentByName("rd").getRegisterValue();
+    return simCodeModel.getDestinationArgument().getRegisterValue();
   }// end of getDestinationRegister
   //-------------------------------------------------------------------------------------------
   
@@ -152,6 +166,16 @@ public class LoadBufferItem
   }// end of setAddress
   //-------------------------------------------------------------------------------------------
   
+  /**
+   * @return Number of bytes accessed by the load, starting at its address
+   * @brief Get the size of the access, given by the instruction
+   */
+  public int getAccessSize()
+  {
+    return simCodeModel.instructionFunctionModel().compiled().getSizeBits() / 8;
+  }// end of getAccessSize
+  //-------------------------------------------------------------------------------------------
+  
   /**
    * @return True if yes, false if no
    * @brief Is instruction in the MA block
@@ -215,6 +239,26 @@ public class LoadBufferItem
   }// end of setHasBypassed
   //-------------------------------------------------------------------------------------------
   
+  /**
+   * @return ID of the store the value was forwarded from, -1 if the load has not bypassed MA
+   */
+  public int getBypassStoreId()
+  {
+    return bypassStoreId;
+  }// end of getBypassStoreId
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param bypassStoreId ID of the store the value was forwarded from
+   *
+   * @brief Set the store the value was forwarded from
+   */
+  public void setBypassStoreId(int bypassStoreId)
+  {
+    this.bypassStoreId = bypassStoreId;
+  }// end of setBypassStoreId
+  //-------------------------------------------------------------------------------------------
+  
   /**
    * @return ID when instruction has failed
    * @brief Get id when instruction has failed
@@ -265,4 +309,16 @@ public class LoadBufferItem
     return simCodeModel;
   }
   //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @brief Feeds the progress of the load
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.addReference(simCodeModel).add(destinationReady).add(address).add(isAccessingMemory);
+    hasher.add(accessingMemoryId).add(memoryAccessId).add(hasBypassed).add(bypassStoreId).add(memoryFailedId);
+    hasher.addReference(getDestinationRegister());
+  }// end of hashState
+  //-------------------------------------------------------------------------------------------
 }
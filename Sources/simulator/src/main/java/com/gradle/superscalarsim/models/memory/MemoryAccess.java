@@ -27,14 +27,20 @@
 
 package com.gradle.superscalarsim.models.memory;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * Generated at each memory access (load/store).
  *
  * @class MemoryAccess
  * @brief Class describing a memory access
  */
-public class MemoryAccess
+public class MemoryAccess implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * True if store, false if load
    */
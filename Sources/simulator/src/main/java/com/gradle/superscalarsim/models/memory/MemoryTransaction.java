@@ -27,6 +27,11 @@
 
 package com.gradle.superscalarsim.models.memory;
 
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.Serial;
+import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Objects;
@@ -37,8 +42,11 @@ import static java.util.Arrays.copyOf;
  * @class MemoryTransaction
  * @brief Data class describing a memory transaction
  */
-public final class MemoryTransaction
+public final class MemoryTransaction implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   public static final String MAIN_MEMORY = "main_memory";
   public static final String CACHE = "cache";
   public static final String CACHE_WITH_MISS = "cache_with_miss";
@@ -202,6 +210,11 @@ public final class MemoryTransaction
     return instructionId;
   }
   
+  public int mmuId()
+  {
+    return mmuId;
+  }
+  
   public int latency()
   {
     return latency;
@@ -344,4 +357,14 @@ public final class MemoryTransaction
   {
     this.cancelled = true;
   }
+  
+  /**
+   * @brief Feeds the request and the progress of the transaction
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(mmuId).add(instructionId).add(timestamp).add(address).add(size).add(isStore).add(isSigned).add(id);
+    hasher.add(data).add(isFinished).add(latency).add(handledBy).add(cancelled).add(isHit);
+  }
 }
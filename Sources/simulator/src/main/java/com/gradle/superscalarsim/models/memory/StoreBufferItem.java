@@ -34,15 +34,23 @@ package com.gradle.superscalarsim.models.memory;
 
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gradle.superscalarsim.models.StateHashable;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.Serial;
+import java.io.Serializable;
 
 /**
  * @class StoreBufferItem
  * @brief Container for all the additional info required for instructions inside of store buffer
  */
-public class StoreBufferItem
+public class StoreBufferItem implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * ID used when getting correct store for bypassing
    */
@@ -238,6 +246,16 @@ public class StoreBufferItem
   }// end of setAddress
   //-------------------------------------------------------------------------------------------
   
+  /**
+   * @return Number of bytes accessed by the store, starting at its address
+   * @brief Get the size of the access, given by the instruction
+   */
+  public int getAccessSize()
+  {
+    return simCodeModel.instructionFunctionModel().compiled().getSizeBits() / 8;
+  }// end of getAccessSize
+  //-------------------------------------------------------------------------------------------
+  
   /**
    * @return ID used when getting correct store for bypassing
    * @brief Get id used when getting correct store for bypassing
@@ -256,4 +274,16 @@ public class StoreBufferItem
   }
   //-------------------------------------------------------------------------------------------
   
+  
+  /**
+   * @brief Feeds the progress of the store
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(sourceResultId).addReference(simCodeModel).add(sourceReady).add(address).add(isAccessingMemory);
+    hasher.add(accessingMemoryId).add(memoryAccessId).add(memoryFailedId);
+    hasher.addReference(getSourceRegister());
+  }// end of hashState
+  //-------------------------------------------------------------------------------------------
 }
@@ -28,12 +28,14 @@ package com.gradle.superscalarsim.models.register;
 
 import com.gradle.superscalarsim.enums.RegisterTypeEnum;
 
+import java.io.Serializable;
+
 /**
  * Interaction with a register file.
  *
  * @brief Interface for register file
  */
-public interface IRegisterFile
+public interface IRegisterFile extends Serializable
 {
   /**
    * @return Type of register file
@@ -28,6 +28,12 @@ package com.gradle.superscalarsim.models.register;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.util.SnapshotReader;
+import com.gradle.superscalarsim.models.util.SnapshotWriter;
+import com.gradle.superscalarsim.models.util.StateHasher;
+
+import java.io.*;
 
 /**
  * Holds the bit representation of the register value. This value may be
@@ -38,8 +44,11 @@ import com.gradle.superscalarsim.enums.DataTypeEnum;
  * @class RegisterDataContainer
  * @brief Class for register data container
  */
-public class RegisterDataContainer
+public class RegisterDataContainer implements Serializable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * A bit representation of the register value.
    * Did not use java.nio.ByteBuffer because there is a problem with serialization.
@@ -213,6 +222,46 @@ public class RegisterDataContainer
     };
   }
   
+  /**
+   * @return The value interpreted as a 32-bit integer
+   */
+  public int getInt()
+  {
+    return (int) bits;
+  }
+  
+  /**
+   * @return The value interpreted as a 64-bit integer
+   */
+  public long getLong()
+  {
+    return bits;
+  }
+  
+  /**
+   * @return The value interpreted as a 32-bit float
+   */
+  public float getFloat()
+  {
+    return Float.intBitsToFloat((int) bits);
+  }
+  
+  /**
+   * @return The value interpreted as a 64-bit float
+   */
+  public double getDouble()
+  {
+    return Double.longBitsToDouble(bits);
+  }
+  
+  /**
+   * @return The value interpreted as a boolean
+   */
+  public boolean getBoolean()
+  {
+    return bits != 0;
+  }
+  
   /**
    * @return The bit representation of the register value
    */
@@ -245,4 +294,33 @@ public class RegisterDataContainer
   {
     return getStringRepresentation();
   }
+  
+  /**
+   * @brief Feeds the bits and the type of the value
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(bits).add(currentType);
+  }
+  
+  /**
+   * @brief Writes the bits and the type, see {@link SnapshotWriter}
+   */
+  public void writeTo(DataOutput out) throws IOException
+  {
+    out.writeLong(bits);
+    SnapshotWriter.writeEnum(out, currentType);
+  }
+  
+  /**
+   * @return New container with the value written by {@link #writeTo(DataOutput)}
+   */
+  public static RegisterDataContainer readFrom(DataInput in) throws IOException
+  {
+    RegisterDataContainer container = new RegisterDataContainer();
+    container.bits        = in.readLong();
+    container.currentType = SnapshotReader.readEnum(in, DataTypeEnum.values());
+    return container;
+  }
 }
@@ -36,6 +36,7 @@ package com.gradle.superscalarsim.models.register;
 import com.gradle.superscalarsim.enums.RegisterTypeEnum;
 import com.gradle.superscalarsim.loader.RegisterMapping;
 
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +47,8 @@ import java.util.Map;
  */
 public class RegisterFile implements IRegisterFile
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
   
   /**
    * Holds loaded register files
@@ -37,6 +37,7 @@ import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.enums.RegisterTypeEnum;
 
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,6 +49,9 @@ import java.util.List;
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
 public class RegisterFileModel implements IRegisterFile
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Name of register file. Used for logs/debug
    */
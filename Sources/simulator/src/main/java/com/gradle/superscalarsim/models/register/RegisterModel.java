@@ -40,7 +40,15 @@ import com.gradle.superscalarsim.enums.DataTypeEnum;
 import com.gradle.superscalarsim.enums.RegisterReadinessEnum;
 import com.gradle.superscalarsim.enums.RegisterTypeEnum;
 import com.gradle.superscalarsim.models.Identifiable;
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.util.SnapshotReader;
+import com.gradle.superscalarsim.models.util.SnapshotWriter;
+import com.gradle.superscalarsim.models.util.StateHasher;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -49,8 +57,11 @@ import java.util.List;
  * @brief Definition of single register in register file. It also holds data needed for renaming (references to speculative registers).
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "name")
-public class RegisterModel implements Identifiable
+public class RegisterModel implements Identifiable, StateHashable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Name of register. Assumed to be unique by the serialization.
    */
@@ -93,6 +104,19 @@ public class RegisterModel implements Identifiable
   @JsonIdentityReference(alwaysAsId = true)
   private RegisterModel architecturalRegister;
   
+  /**
+   * Number of the speculative register (12 for tg12), -1 for architectural registers.
+   * Lets the rename map table work with the free registers as plain integers. Derived from the name.
+   */
+  @JsonIgnore
+  private int speculativeTag = -1;
+  
+  /**
+   * Callbacks run once the value of the register becomes available (executed or assigned).
+   * The issue windows use them to wake up the instructions waiting for this register. Not part of the state.
+   */
+  private transient List<Runnable> readyListeners;
+  
   /**
    * @brief Default constructor for deserialization
    */
@@ -197,6 +221,7 @@ public class RegisterModel implements Identifiable
     this.referenceCount   = register.referenceCount;
     this.renames          = new ArrayList<>(register.renames);
     architecturalRegister = register.architecturalRegister;
+    speculativeTag        = register.speculativeTag;
   }// end of Copy constructor
   //------------------------------------------------------
   
@@ -205,6 +230,14 @@ public class RegisterModel implements Identifiable
     return referenceCount;
   }
   
+  /**
+   * @return Renames to speculative registers, oldest first. Relevant only for architectural registers.
+   */
+  public List<RegisterModel> getRenames()
+  {
+    return renames;
+  }
+  
   /**
    * @return String representation of the object
    * @brief Overrides toString method with custom formating
@@ -298,6 +331,38 @@ public class RegisterModel implements Identifiable
     return value.getValue(type);
   }
   
+  /**
+   * @return Value of the register as a 32-bit integer
+   */
+  public int getInt()
+  {
+    return value.getInt();
+  }
+  
+  /**
+   * @return Value of the register as a 64-bit integer
+   */
+  public long getLong()
+  {
+    return value.getLong();
+  }
+  
+  /**
+   * @return Value of the register as a 32-bit float
+   */
+  public float getFloat()
+  {
+    return value.getFloat();
+  }
+  
+  /**
+   * @return Value of the register as a 64-bit float
+   */
+  public double getDouble()
+  {
+    return value.getDouble();
+  }
+  
   /**
    * @return Register readiness
    */
@@ -312,6 +377,35 @@ public class RegisterModel implements Identifiable
   public void setReadiness(RegisterReadinessEnum readiness)
   {
     this.readiness = readiness;
+    if (readyListeners == null)
+    {
+      return;
+    }
+    if (readiness == RegisterReadinessEnum.kExecuted || readiness == RegisterReadinessEnum.kAssigned)
+    {
+      List<Runnable> listeners = readyListeners;
+      readyListeners = null;
+      listeners.forEach(Runnable::run);
+    }
+    else if (readiness == RegisterReadinessEnum.kFree)
+    {
+      // The waiting instructions were flushed together with the producer
+      readyListeners = null;
+    }
+  }
+  
+  /**
+   * @param listener Callback to run once
+   *
+   * @brief Registers a callback for the moment the value of the register becomes available
+   */
+  public void addReadyListener(Runnable listener)
+  {
+    if (readyListeners == null)
+    {
+      readyListeners = new ArrayList<>();
+    }
+    readyListeners.add(listener);
   }
   
   /**
@@ -355,6 +449,22 @@ public class RegisterModel implements Identifiable
     return type;
   }
   
+  /**
+   * @return Number of the speculative register, -1 for architectural registers
+   */
+  public int getSpeculativeTag()
+  {
+    return speculativeTag;
+  }
+  
+  /**
+   * @param speculativeTag Number of the speculative register
+   */
+  public void setSpeculativeTag(int speculativeTag)
+  {
+    this.speculativeTag = speculativeTag;
+  }
+  
   /**
    * @return true if the register is speculative
    */
@@ -395,6 +505,14 @@ public class RegisterModel implements Identifiable
     referenceCount++;
   }
   
+  /**
+   * @brief Drop all references, the register was allocated by squashed instructions
+   */
+  public void clearReferences()
+  {
+    referenceCount = 0;
+  }
+  
   /**
    * Add a rename to an architectural register. Invalid to call on speculative registers.
    * Link the rename back, both ways.
@@ -421,7 +539,15 @@ public class RegisterModel implements Identifiable
   public void removeRename(RegisterModel speculativeRegister)
   {
     // called on the architectural register
-    renames.removeIf(rename -> rename == speculativeRegister);
+    // Search from the newest rename, flushes and commits free the newest and the oldest ones
+    for (int i = renames.size() - 1; i >= 0; i--)
+    {
+      if (renames.get(i) == speculativeRegister)
+      {
+        renames.remove(i);
+        break;
+      }
+    }
     speculativeRegister.architecturalRegister = null;
   }
   
@@ -445,4 +571,66 @@ public class RegisterModel implements Identifiable
   {
     getArchitecturalMapping().copyFrom(this);
   }
+  
+  /**
+   * @brief Feeds the value, readiness and mapping of the register
+   */
+  @Override
+  public void hashState(StateHasher hasher)
+  {
+    hasher.add(name).add(isConstant).add(type).add(value).add(readiness).add(referenceCount);
+    hasher.add(renames.size());
+    renames.forEach(hasher::addReference);
+    hasher.addReference(architecturalRegister);
+  }// end of hashState
+  //------------------------------------------------------
+  
+  /**
+   * @param out    Stream to write to
+   * @param writer Indexes of the referenced registers
+   *
+   * @brief Writes the register for a snapshot, see {@link SnapshotWriter}
+   */
+  public void writeTo(DataOutput out, SnapshotWriter writer) throws IOException
+  {
+    out.writeUTF(name);
+    out.writeBoolean(isConstant);
+    SnapshotWriter.writeEnum(out, type);
+    value.writeTo(out);
+    SnapshotWriter.writeEnum(out, readiness);
+    out.writeInt(referenceCount);
+    out.writeInt(speculativeTag);
+    out.writeInt(renames.size());
+    for (RegisterModel rename : renames)
+    {
+      out.writeInt(writer.indexOf(rename));
+    }
+    out.writeInt(writer.indexOf(architecturalRegister));
+  }// end of writeTo
+  //------------------------------------------------------
+  
+  /**
+   * @param in     Stream written by {@link #writeTo}
+   * @param reader Registers of the snapshot, already created
+   *
+   * @brief Fills an empty register from a snapshot
+   */
+  public void readFrom(DataInput in, SnapshotReader reader) throws IOException
+  {
+    this.name           = in.readUTF();
+    this.isConstant     = in.readBoolean();
+    this.type           = SnapshotReader.readEnum(in, RegisterTypeEnum.values());
+    this.value          = RegisterDataContainer.readFrom(in);
+    this.readiness      = SnapshotReader.readEnum(in, RegisterReadinessEnum.values());
+    this.referenceCount = in.readInt();
+    this.speculativeTag = in.readInt();
+    int renameCount = in.readInt();
+    this.renames = new ArrayList<>(renameCount);
+    for (int i = 0; i < renameCount; i++)
+    {
+      renames.add(reader.getRegister(in.readInt()));
+    }
+    this.architecturalRegister = reader.getRegister(in.readInt());
+  }// end of readFrom
+  //------------------------------------------------------
 }
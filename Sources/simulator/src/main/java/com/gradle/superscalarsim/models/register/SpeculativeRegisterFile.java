@@ -29,17 +29,26 @@ package com.gradle.superscalarsim.models.register;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.enums.RegisterReadinessEnum;
 import com.gradle.superscalarsim.enums.RegisterTypeEnum;
 import com.gradle.superscalarsim.factories.RegisterModelFactory;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
 import java.util.Map;
 import java.util.TreeMap;
 
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
+@JsonPropertyOrder({"name", "numberOfRegisters", "registers"})
 public class SpeculativeRegisterFile implements IRegisterFile
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
   /**
    * Name of register file. Used for logs/debug
    */
@@ -53,9 +62,17 @@ public class SpeculativeRegisterFile implements IRegisterFile
   /**
    * Collection of registers.
    * TODO: serializes as ["tg0":"tg0", "tg1":"tg1", ...], which is weird
+   * Not written by Java serialization, it is rebuilt from {@link #registersByTag}.
    */
+  @JsonProperty("registers")
   @JsonIdentityReference(alwaysAsId = true)
-  private final Map<String, RegisterModel> registers;
+  private transient Map<String, RegisterModel> registers;
+  
+  /**
+   * The same registers indexed by their tag number, so the renaming does not have to go through the names.
+   */
+  @JsonIgnore
+  private final RegisterModel[] registersByTag;
   
   /**
    * Factory for creating speculative registers.
@@ -72,6 +89,7 @@ public class SpeculativeRegisterFile implements IRegisterFile
     this.numberOfRegisters    = numberOfRegisters;
     this.registerModelFactory = registerModelFactory;
     this.registers            = new TreeMap<>();
+    this.registersByTag       = new RegisterModel[numberOfRegisters];
   }
   
   /**
@@ -80,7 +98,9 @@ public class SpeculativeRegisterFile implements IRegisterFile
    */
   private RegisterModel createRegister(int id)
   {
-    return registerModelFactory.createInstance("tg" + id, false, null, 0, RegisterReadinessEnum.kFree);
+    RegisterModel register = registerModelFactory.createInstance("tg" + id, false, null, 0, RegisterReadinessEnum.kFree);
+    register.setSpeculativeTag(id);
+    return register;
   }
   
   
@@ -107,24 +127,33 @@ public class SpeculativeRegisterFile implements IRegisterFile
       return null;
     }
     // Remove tg from register name
-    int extractedId = Integer.parseInt(registerName.substring(2));
-    
+    int extractedId = Integer.parseInt(registerName, 2, registerName.length(), 10);
+    return getRegister(extractedId);
+  }
+  
+  /**
+   * @param tag Number of the register, e.g. 12 for tg12
+   *
+   * @return Register with given tag or null if there is no such register
+   */
+  public RegisterModel getRegister(int tag)
+  {
     // Check if register exists
-    if (extractedId >= numberOfRegisters)
+    if (tag < 0 || tag >= numberOfRegisters)
     {
       // Not found
       return null;
     }
     
-    // Check if register is already created
-    if (!registers.containsKey(registerName))
+    RegisterModel register = registersByTag[tag];
+    if (register == null)
     {
       // Create register
-      registers.put(registerName, createRegister(extractedId));
+      register            = createRegister(tag);
+      registersByTag[tag] = register;
+      registers.put(register.getName(), register);
     }
-    
-    // Return register
-    return registers.get(registerName);
+    return register;
   }
   
   /**
@@ -136,4 +165,22 @@ public class SpeculativeRegisterFile implements IRegisterFile
     // Virtually, they are here.
     return numberOfRegisters;
   }
+  
+  /**
+   * @param in Stream with the fields of the register file
+   *
+   * @brief Rebuilds the map of the created registers
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+  {
+    in.defaultReadObject();
+    this.registers = new TreeMap<>();
+    for (RegisterModel register : registersByTag)
+    {
+      if (register != null)
+      {
+        registers.put(register.getName(), register);
+      }
+    }
+  }
 }
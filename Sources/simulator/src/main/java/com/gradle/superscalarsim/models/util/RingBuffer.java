@@ -0,0 +1,256 @@
+/**
+ * @file RingBuffer.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Fixed-capacity FIFO with indexed access
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.models.util;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * @class RingBuffer
+ * @brief Fixed-capacity FIFO queue stored in a circular array
+ * @details Elements are addressed by their position from the head (0 is the oldest element), so ranges
+ * of the queue can be processed by index. Adding to a full buffer is an error - the owner is expected to check
+ * the free space first, like a hardware structure would. Serialized (JSON) as a plain array, oldest first.
+ */
+public class RingBuffer<T> extends AbstractCollection<T> implements Serializable
+{
+  @Serial
+  private static final long serialVersionUID = 1L;
+  
+  /**
+   * Storage of the elements. Slots outside the queue are null.
+   */
+  private final Object[] slots;
+  
+  /**
+   * Slot of the oldest element
+   */
+  private int head;
+  
+  /**
+   * Number of elements in the queue
+   */
+  private int count;
+  
+  /**
+   * @param capacity Maximal number of elements
+   *
+   * @brief Constructor
+   */
+  public RingBuffer(int capacity)
+  {
+    this.slots = new Object[Math.max(capacity, 0)];
+    this.head  = 0;
+    this.count = 0;
+  }// end of Constructor
+  //------------------------------------------------------
+  
+  /**
+   * @return Maximal number of elements
+   */
+  public int capacity()
+  {
+    return slots.length;
+  }// end of capacity
+  //------------------------------------------------------
+  
+  /**
+   * @return Number of elements
+   */
+  @Override
+  public int size()
+  {
+    return count;
+  }// end of size
+  //------------------------------------------------------
+  
+  /**
+   * @return True if no more elements can be added
+   */
+  public boolean isFull()
+  {
+    return count == slots.length;
+  }// end of isFull
+  //------------------------------------------------------
+  
+  /**
+   * @param element Element to append as the youngest one
+   *
+   * @return Always true
+   * @throws IllegalStateException if the buffer is full
+   */
+  @Override
+  public boolean add(T element)
+  {
+    if (isFull())
+    {
+      throw new IllegalStateException("Ring buffer is full (capacity " + slots.length + ")");
+    }
+    slots[slot(count)] = element;
+    count++;
+    return true;
+  }// end of add
+  //------------------------------------------------------
+  
+  /**
+   * @param index Position from the head, 0 is the oldest element
+   *
+   * @return Element at the position
+   */
+  @SuppressWarnings("unchecked")
+  public T get(int index)
+  {
+    if (index < 0 || index >= count)
+    {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + count);
+    }
+    return (T) slots[slot(index)];
+  }// end of get
+  //------------------------------------------------------
+  
+  /**
+   * @return The oldest element, null if empty
+   */
+  public T peek()
+  {
+    return count == 0 ? null : get(0);
+  }// end of peek
+  //------------------------------------------------------
+  
+  /**
+   * @return The youngest element, null if empty
+   */
+  public T peekLast()
+  {
+    return count == 0 ? null : get(count - 1);
+  }// end of peekLast
+  //------------------------------------------------------
+  
+  /**
+   * @return The oldest element
+   * @throws NoSuchElementException if empty
+   */
+  public T getFirst()
+  {
+    if (count == 0)
+    {
+      throw new NoSuchElementException();
+    }
+    return get(0);
+  }// end of getFirst
+  //------------------------------------------------------
+  
+  /**
+   * @return The removed oldest element
+   * @throws NoSuchElementException if empty
+   */
+  public T removeFirst()
+  {
+    T first = getFirst();
+    slots[head] = null;
+    head        = slot(1);
+    count--;
+    return first;
+  }// end of removeFirst
+  //------------------------------------------------------
+  
+  /**
+   * @return The removed youngest element
+   * @throws NoSuchElementException if empty
+   */
+  public T removeLast()
+  {
+    if (count == 0)
+    {
+      throw new NoSuchElementException();
+    }
+    T last = get(count - 1);
+    slots[slot(count - 1)] = null;
+    count--;
+    return last;
+  }// end of removeLast
+  //------------------------------------------------------
+  
+  /**
+   * @brief Removes all elements
+   */
+  @Override
+  public void clear()
+  {
+    while (count > 0)
+    {
+      removeLast();
+    }
+    head = 0;
+  }// end of clear
+  //------------------------------------------------------
+  
+  /**
+   * @return Iterator from the oldest to the youngest element. Does not support removal.
+   */
+  @Override
+  public Iterator<T> iterator()
+  {
+    return new Iterator<>()
+    {
+      private int index = 0;
+      
+      @Override
+      public boolean hasNext()
+      {
+        return index < count;
+      }
+      
+      @Override
+      public T next()
+      {
+        if (!hasNext())
+        {
+          throw new NoSuchElementException();
+        }
+        return get(index++);
+      }
+    };
+  }// end of iterator
+  //------------------------------------------------------
+  
+  /**
+   * @param index Position from the head
+   *
+   * @return Slot in the storage array
+   */
+  private int slot(int index)
+  {
+    int slot = head + index;
+    return slot >= slots.length ? slot - slots.length : slot;
+  }// end of slot
+  //------------------------------------------------------
+}
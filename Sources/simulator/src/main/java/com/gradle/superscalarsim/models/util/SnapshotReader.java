@@ -0,0 +1,216 @@
+/**
+ * @file SnapshotReader.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Reads the instructions and registers written by SnapshotWriter
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.models.util;
+
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+
+import java.io.*;
+import java.util.Map;
+
+/**
+ * The registers reference each other, so they are all created first and then filled.
+ * The other tables only reference the tables before them and their objects are created as they are read.
+ *
+ * @class SnapshotReader
+ * @brief Reads the instructions and registers written by {@link SnapshotWriter}
+ */
+public final class SnapshotReader
+{
+  private final RegisterModel[] registers;
+  
+  private final InstructionFunctionModel[] instructions;
+  
+  private final InputCodeModel[] inputCode;
+  
+  private final SimCodeModel[] simCode;
+  
+  /**
+   * @param in                 Stream with the tables
+   * @param loadedInstructions Instruction definitions loaded by the data provider, by name
+   *
+   * @brief Reads all tables
+   */
+  public SnapshotReader(DataInput input, Map<String, InstructionFunctionModel> loadedInstructions) throws IOException
+  {
+    byte[] tables = new byte[input.readInt()];
+    input.readFully(tables);
+    DataInputStream in = new DataInputStream(new Buffer(tables));
+    
+    this.registers = new RegisterModel[in.readInt()];
+    for (int i = 0; i < registers.length; i++)
+    {
+      registers[i] = new RegisterModel();
+    }
+    for (RegisterModel register : registers)
+    {
+      register.readFrom(in, this);
+    }
+    
+    this.instructions = new InstructionFunctionModel[in.readInt()];
+    for (int i = 0; i < instructions.length; i++)
+    {
+      instructions[i] = readInstruction(in, loadedInstructions);
+    }
+    
+    this.inputCode = new InputCodeModel[in.readInt()];
+    for (int i = 0; i < inputCode.length; i++)
+    {
+      inputCode[i] = InputCodeModel.readFrom(in, this);
+    }
+    
+    this.simCode = new SimCodeModel[in.readInt()];
+    for (int i = 0; i < simCode.length; i++)
+    {
+      simCode[i] = SimCodeModel.readFrom(in, this);
+    }
+  }// end of Constructor
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return The register with the index, null for -1
+   */
+  public RegisterModel getRegister(int index)
+  {
+    return index < 0 ? null : registers[index];
+  }
+  
+  /**
+   * @return The instruction definition with the index, null for -1
+   */
+  public InstructionFunctionModel getInstruction(int index)
+  {
+    return index < 0 ? null : instructions[index];
+  }
+  
+  /**
+   * @return The line of code with the index, null for -1
+   */
+  public InputCodeModel getInputCode(int index)
+  {
+    return index < 0 ? null : inputCode[index];
+  }
+  
+  /**
+   * @return The instruction with the index, null for -1
+   */
+  public SimCodeModel getSimCode(int index)
+  {
+    return index < 0 ? null : simCode[index];
+  }
+  
+  /**
+   * @throws InvalidObjectException If the definition is not loaded or cannot be deserialized
+   */
+  private static InstructionFunctionModel readInstruction(DataInput in,
+                                                          Map<String, InstructionFunctionModel> loadedInstructions)
+          throws IOException
+  {
+    if (in.readBoolean())
+    {
+      String                   name        = in.readUTF();
+      InstructionFunctionModel instruction = loadedInstructions.get(name);
+      if (instruction == null)
+      {
+        throw new InvalidObjectException("Unknown instruction " + name);
+      }
+      return instruction;
+    }
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes)))
+    {
+      return (InstructionFunctionModel) objectIn.readObject();
+    }
+    catch (ClassNotFoundException e)
+    {
+      throw new InvalidClassException(e.getMessage());
+    }
+  }// end of readInstruction
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param in     Stream to read from
+   * @param values Constants of the enum, see {@code values()}
+   *
+   * @return The constant written by {@link SnapshotWriter#writeEnum}, or null
+   */
+  public static <E extends Enum<E>> E readEnum(DataInput in, E[] values) throws IOException
+  {
+    int ordinal = in.readByte();
+    return ordinal < 0 ? null : values[ordinal];
+  }// end of readEnum
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @return The string written by {@link SnapshotWriter#writeString}, or null
+   */
+  public static String readString(DataInput in) throws IOException
+  {
+    return in.readBoolean() ? in.readUTF() : null;
+  }// end of readString
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @brief Stream over a byte array. Unlike {@link ByteArrayInputStream} not synchronized, the data input reads
+   * the primitives byte by byte.
+   */
+  private static final class Buffer extends InputStream
+  {
+    private final byte[] data;
+    
+    private int position = 0;
+    
+    private Buffer(byte[] data)
+    {
+      this.data = data;
+    }
+    
+    @Override
+    public int read()
+    {
+      return position < data.length ? data[position++] & 0xFF : -1;
+    }
+    
+    @Override
+    public int read(byte[] b, int off, int len)
+    {
+      if (position >= data.length)
+      {
+        return -1;
+      }
+      int count = Math.min(len, data.length - position);
+      System.arraycopy(data, position, b, off, count);
+      position += count;
+      return count;
+    }
+  }
+}
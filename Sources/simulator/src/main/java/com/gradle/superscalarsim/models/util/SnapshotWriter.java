@@ -0,0 +1,300 @@
+/**
+ * @file SnapshotWriter.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Explicit binary encoding of the instructions and registers of a state
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.models.util;
+
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The registers, the instruction definitions, the code and the instructions in flight are most of the objects
+ * of a state and they reference each other. Instead of the reflective Java serialization, each of them writes
+ * its fields as primitives and the references as indexes into a table per type.
+ * An object gets its index when it is first referenced and it is encoded after that, so the tables grow
+ * until all referenced objects are written. {@link SnapshotReader} reads the tables in the same order.
+ * <p>
+ * Layout: the length of the tables in bytes, then for each type (registers, instruction definitions, code,
+ * instructions in flight) the number of objects and their encodings in the order of their indexes.
+ * A null reference is index -1.
+ *
+ * @class SnapshotWriter
+ * @brief Explicit binary encoding of the instructions and registers of a state
+ */
+public final class SnapshotWriter
+{
+  /**
+   * Instruction definitions loaded by the data provider, by name. Only their names are written.
+   */
+  private final Map<String, InstructionFunctionModel> loadedInstructions;
+  
+  private final Table<RegisterModel> registers = new Table<>(RegisterModel::writeTo);
+  
+  private final Table<InstructionFunctionModel> instructions = new Table<>(this::writeInstruction);
+  
+  private final Table<InputCodeModel> inputCode = new Table<>(InputCodeModel::writeTo);
+  
+  private final Table<SimCodeModel> simCode = new Table<>(SimCodeModel::writeTo);
+  
+  /**
+   * @param loadedInstructions Instruction definitions that the reader also has loaded, by name
+   */
+  public SnapshotWriter(Map<String, InstructionFunctionModel> loadedInstructions)
+  {
+    this.loadedInstructions = loadedInstructions;
+  }
+  
+  /**
+   * @return Index of the register in the snapshot, -1 for null
+   */
+  public int indexOf(RegisterModel register)
+  {
+    return registers.indexOf(register);
+  }
+  
+  /**
+   * @return Index of the instruction definition in the snapshot, -1 for null
+   */
+  public int indexOf(InstructionFunctionModel instruction)
+  {
+    return instructions.indexOf(instruction);
+  }
+  
+  /**
+   * @return Index of the line of code in the snapshot, -1 for null
+   */
+  public int indexOf(InputCodeModel codeModel)
+  {
+    return inputCode.indexOf(codeModel);
+  }
+  
+  /**
+   * @return Index of the instruction in the snapshot, -1 for null
+   */
+  public int indexOf(SimCodeModel codeModel)
+  {
+    return simCode.indexOf(codeModel);
+  }
+  
+  /**
+   * @param out Stream to write the tables to
+   *
+   * @brief Encodes all referenced objects and writes the tables
+   */
+  public void writeTo(DataOutputStream out) throws IOException
+  {
+    boolean encoded = true;
+    while (encoded)
+    {
+      // Encoding an object can reference new objects of any type
+      encoded = registers.encodePending(this) | instructions.encodePending(this) | inputCode.encodePending(this) |
+              simCode.encodePending(this);
+    }
+    out.writeInt(registers.length() + instructions.length() + inputCode.length() + simCode.length());
+    registers.writeTo(out);
+    instructions.writeTo(out);
+    inputCode.writeTo(out);
+    simCode.writeTo(out);
+  }// end of writeTo
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @brief Writes the name of a loaded definition, other definitions (created by tests) are serialized whole
+   */
+  private void writeInstruction(InstructionFunctionModel instruction, DataOutput out, SnapshotWriter writer)
+          throws IOException
+  {
+    boolean isLoaded = loadedInstructions.get(instruction.name()) == instruction;
+    out.writeBoolean(isLoaded);
+    if (isLoaded)
+    {
+      out.writeUTF(instruction.name());
+      return;
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes))
+    {
+      objectOut.writeObject(instruction);
+    }
+    out.writeInt(bytes.size());
+    out.write(bytes.toByteArray());
+  }// end of writeInstruction
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param out   Stream to write to
+   * @param value Enum constant, can be null. The enum must have less than 128 constants.
+   */
+  public static void writeEnum(DataOutput out, Enum<?> value) throws IOException
+  {
+    out.writeByte(value == null ? -1 : value.ordinal());
+  }// end of writeEnum
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param out   Stream to write to
+   * @param value String, can be null
+   */
+  public static void writeString(DataOutput out, String value) throws IOException
+  {
+    out.writeBoolean(value != null);
+    if (value != null)
+    {
+      out.writeUTF(value);
+    }
+  }// end of writeString
+  //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param <T> Type of the encoded objects
+   *
+   * @brief Writes the fields of an object, references through the writer
+   */
+  @FunctionalInterface
+  public interface Encoder<T>
+  {
+    void write(T object, DataOutput out, SnapshotWriter writer) throws IOException;
+  }
+  
+  /**
+   * @param <T> Type of the objects
+   *
+   * @brief Objects of one type, indexed in the order they were first referenced, and their encodings
+   */
+  private static final class Table<T>
+  {
+    private final Encoder<T> encoder;
+    
+    private final Map<T, Integer> indexes = new IdentityHashMap<>();
+    
+    private final List<T> objects = new ArrayList<>();
+    
+    private final Buffer bytes = new Buffer();
+    
+    private final DataOutputStream encoded = new DataOutputStream(bytes);
+    
+    /**
+     * Number of objects already encoded
+     */
+    private int encodedCount = 0;
+    
+    private Table(Encoder<T> encoder)
+    {
+      this.encoder = encoder;
+    }
+    
+    private int indexOf(T object)
+    {
+      if (object == null)
+      {
+        return -1;
+      }
+      Integer index = indexes.get(object);
+      if (index == null)
+      {
+        index = objects.size();
+        indexes.put(object, index);
+        objects.add(object);
+      }
+      return index;
+    }
+    
+    /**
+     * @return True if any object was encoded
+     */
+    private boolean encodePending(SnapshotWriter writer) throws IOException
+    {
+      boolean encodedAny = false;
+      while (encodedCount < objects.size())
+      {
+        encoder.write(objects.get(encodedCount++), encoded, writer);
+        encodedAny = true;
+      }
+      return encodedAny;
+    }
+    
+    /**
+     * @return Number of bytes written by {@link #writeTo}
+     */
+    private int length()
+    {
+      return Integer.BYTES + bytes.size();
+    }
+    
+    private void writeTo(DataOutputStream out) throws IOException
+    {
+      out.writeInt(objects.size());
+      out.write(bytes.data, 0, bytes.size);
+    }
+  }
+  
+  /**
+   * @brief Growing byte array. Unlike {@link ByteArrayOutputStream} not synchronized, the data output writes
+   * the primitives byte by byte.
+   */
+  private static final class Buffer extends OutputStream
+  {
+    private byte[] data = new byte[1024];
+    
+    private int size = 0;
+    
+    @Override
+    public void write(int b)
+    {
+      if (size == data.length)
+      {
+        data = Arrays.copyOf(data, 2 * data.length);
+      }
+      data[size++] = (byte) b;
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len)
+    {
+      if (size + len > data.length)
+      {
+        data = Arrays.copyOf(data, Math.max(2 * data.length, size + len));
+      }
+      System.arraycopy(b, off, data, size, len);
+      size += len;
+    }
+    
+    private int size()
+    {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,291 @@
+/**
+ * @file StateHasher.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief 64-bit structural hash of the CPU state
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.models.util;
+
+import com.gradle.superscalarsim.models.StateHashable;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Values are mixed in the order they are added. Unordered collections (sets, maps) are combined
+ * with {@link #addUnordered(Collection)}, so the iteration order does not change the hash.
+ * Not cryptographic - two different states collide with a probability of about 2^-64.
+ * A second hash with its own seed and mixing is computed in the same pass, together they form a 128-bit
+ * fingerprint that is used to tell equal states without comparing them field by field.
+ *
+ * @class StateHasher
+ * @brief 64-bit structural hash of the CPU state
+ */
+public final class StateHasher
+{
+  /**
+   * Value of a hash with nothing added
+   */
+  private static final long SEED = 0x2545F4914F6CDD1DL;
+  
+  /**
+   * Value of the second hash with nothing added
+   */
+  private static final long SECOND_SEED = 0x3C6EF372FE94F82BL;
+  
+  /**
+   * Marks a null reference, so that null and an empty object differ
+   */
+  private static final long NULL = 0x6A09E667F3BCC909L;
+  
+  /**
+   * Current value of the hash
+   */
+  private long hash;
+  
+  /**
+   * Current value of the second hash
+   */
+  private long secondHash;
+  
+  /**
+   * @brief Constructor
+   */
+  public StateHasher()
+  {
+    this.hash       = SEED;
+    this.secondHash = SECOND_SEED;
+  }// end of Constructor
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param value Value to spread
+   *
+   * @return The value with all bits mixed (finalizer of MurmurHash3)
+   */
+  private static long mix(long value)
+  {
+    value ^= value >>> 33;
+    value *= 0xFF51AFD7ED558CCDL;
+    value ^= value >>> 33;
+    value *= 0xC4CEB9FE1A85EC53L;
+    value ^= value >>> 33;
+    return value;
+  }// end of mix
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param value Value to spread
+   *
+   * @return The value with all bits mixed (splitmix64 finalizer), independent of {@link #mix(long)}
+   */
+  private static long secondMix(long value)
+  {
+    value ^= value >>> 30;
+    value *= 0xBF58476D1CE4E5B9L;
+    value ^= value >>> 27;
+    value *= 0x94D049BB133111EBL;
+    value ^= value >>> 31;
+    return value;
+  }// end of secondMix
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return The hash of the added values
+   */
+  public long get()
+  {
+    return mix(hash);
+  }// end of get
+  //----------------------------------------------------------------------
+  
+  /**
+   * @return The second hash of the added values, independent of {@link #get()}
+   */
+  public long getSecond()
+  {
+    return secondMix(secondHash);
+  }// end of getSecond
+  //----------------------------------------------------------------------
+  
+  public StateHasher add(long value)
+  {
+    hash       = Long.rotateLeft(hash ^ mix(value), 27) * 0x9E3779B97F4A7C15L;
+    secondHash = Long.rotateLeft(secondHash ^ secondMix(value), 31) * 0xD6E8FEB86659FD93L;
+    return this;
+  }
+  
+  public StateHasher add(boolean value)
+  {
+    return add(value ? 1L : 0L);
+  }
+  
+  public StateHasher add(String value)
+  {
+    if (value == null)
+    {
+      return add(NULL);
+    }
+    add(value.length());
+    for (int i = 0; i < value.length(); i++)
+    {
+      add(value.charAt(i));
+    }
+    return this;
+  }
+  
+  public StateHasher add(Enum<?> value)
+  {
+    return add(value == null ? NULL : value.ordinal());
+  }
+  
+  /**
+   * @brief Adds the array 8 bytes at a time
+   */
+  public StateHasher add(byte[] value)
+  {
+    if (value == null)
+    {
+      return add(NULL);
+    }
+    add(value.length);
+    int i = 0;
+    for (; i + 8 <= value.length; i += 8)
+    {
+      long word = 0;
+      for (int j = 0; j < 8; j++)
+      {
+        word |= (value[i + j] & 0xFFL) << (8 * j);
+      }
+      add(word);
+    }
+    for (; i < value.length; i++)
+    {
+      add(value[i]);
+    }
+    return this;
+  }
+  
+  /**
+   * @brief Adds the state of the object, see {@link StateHashable#hashState(StateHasher)}
+   */
+  public StateHasher add(StateHashable value)
+  {
+    if (value == null)
+    {
+      return add(NULL);
+    }
+    value.hashState(this);
+    return this;
+  }
+  
+  /**
+   * @brief Adds the size and the states of all objects, in order
+   */
+  public StateHasher addAll(Collection<? extends StateHashable> values)
+  {
+    add(values.size());
+    for (StateHashable value : values)
+    {
+      add(value);
+    }
+    return this;
+  }
+  
+  /**
+   * @brief Adds the size and the states of all objects. The order does not matter.
+   */
+  public StateHasher addUnordered(Collection<? extends StateHashable> values)
+  {
+    long sum       = 0;
+    long secondSum = 0;
+    for (StateHashable value : values)
+    {
+      StateHasher valueHasher = new StateHasher().add(value);
+      sum += valueHasher.get();
+      secondSum += valueHasher.getSecond();
+    }
+    return add(values.size()).add(sum).add(secondSum);
+  }
+  
+  /**
+   * Keys are added by their {@link Object#hashCode()}, so they must have a value-based one (strings, numbers).
+   *
+   * @brief Adds the size and all key-value pairs of the map. The order does not matter.
+   */
+  public StateHasher addUnordered(Map<?, ? extends StateHashable> values)
+  {
+    long sum       = 0;
+    long secondSum = 0;
+    for (Map.Entry<?, ? extends StateHashable> entry : values.entrySet())
+    {
+      StateHasher entryHasher = new StateHasher().add(Objects.hashCode(entry.getKey())).add(entry.getValue());
+      sum += entryHasher.get();
+      secondSum += entryHasher.getSecond();
+    }
+    return add(values.size()).add(sum).add(secondSum);
+  }
+  
+  /**
+   * @brief Adds a reference to an instruction. The instruction itself is hashed by the manager.
+   */
+  public StateHasher addReference(SimCodeModel value)
+  {
+    return add(value == null ? NULL : value.getIntegerId());
+  }
+  
+  /**
+   * @brief Adds the size and references to all instructions, in order
+   */
+  public StateHasher addReferences(Collection<SimCodeModel> values)
+  {
+    add(values.size());
+    for (SimCodeModel value : values)
+    {
+      addReference(value);
+    }
+    return this;
+  }
+  
+  /**
+   * @brief Adds a reference to a register. The register itself is hashed by the manager.
+   */
+  public StateHasher addReference(RegisterModel value)
+  {
+    return add(value == null ? null : value.getName());
+  }
+  
+  /**
+   * @brief Adds a reference to an instruction of the program
+   */
+  public StateHasher addReference(InputCodeModel value)
+  {
+    return add(value == null ? NULL : value.codeId());
+  }
+}
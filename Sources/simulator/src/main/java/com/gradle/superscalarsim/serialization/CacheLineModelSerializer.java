@@ -0,0 +1,80 @@
+/**
+ * @file CacheLineModelSerializer.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Streaming serializer of CacheLineModel
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.gradle.superscalarsim.models.cache.CacheLineModel;
+
+import java.io.IOException;
+
+/**
+ * @brief Writes a {@link CacheLineModel}. The data of the line is Base64 encoded.
+ */
+public class CacheLineModelSerializer extends StdSerializer<CacheLineModel>
+{
+  public CacheLineModelSerializer()
+  {
+    super(CacheLineModel.class);
+  }
+  
+  @Override
+  public void serialize(CacheLineModel value, JsonGenerator gen, SerializerProvider provider) throws IOException
+  {
+    gen.writeStartObject(value);
+    gen.writeBooleanField("valid", value.isValid());
+    gen.writeBooleanField("dirty", value.isDirty());
+    gen.writeNumberField("tag", value.getTag());
+    writeBinaryField(gen, "line", value.getLineData());
+    gen.writeNumberField("lineSize", value.getLineSize());
+    gen.writeNumberField("index", value.getIndex());
+    gen.writeNumberField("baseAddress", value.getBaseAddress());
+    gen.writeEndObject();
+  }
+  
+  /**
+   * @param gen  Generator to write to
+   * @param name Name of the field
+   * @param data Bytes to write, can be null
+   *
+   * @brief Writes a byte array field in the default Base64 variant, like the default byte array serializer
+   */
+  static void writeBinaryField(JsonGenerator gen, String name, byte[] data) throws IOException
+  {
+    if (data == null)
+    {
+      gen.writeNullField(name);
+    }
+    else
+    {
+      gen.writeBinaryField(name, data);
+    }
+  }
+}
@@ -32,8 +32,27 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 public class CustomSerializerModule extends SimpleModule
 {
   public CustomSerializerModule()
+  {
+    this(true);
+  }
+  
+  /**
+   * @param streaming True to add the hand-written serializers of the types that make up most of the CPU state.
+   *                  Without them the types are serialized by reflection, producing the same JSON.
+   */
+  public CustomSerializerModule(boolean streaming)
   {
     // Add custom serializer for every manager
     addSerializer(new ManagerSerializer());
+    if (streaming)
+    {
+      addSerializer(new SimCodeModelSerializer());
+      addSerializer(new RegisterModelSerializer());
+      addSerializer(new RegisterDataContainerSerializer());
+      addSerializer(new CacheLineModelSerializer());
+      addSerializer(new MemoryTransactionSerializer());
+      addSerializer(new LoadBufferItemSerializer());
+      addSerializer(new StoreBufferItemSerializer());
+    }
   }
 }
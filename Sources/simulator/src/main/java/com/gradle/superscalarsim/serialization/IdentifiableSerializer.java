@@ -0,0 +1,79 @@
+/**
+ * @file IdentifiableSerializer.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Base of the serializers of the types kept in the manager registry
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.gradle.superscalarsim.models.Identifiable;
+
+import java.io.IOException;
+
+/**
+ * @param <T> Type of the serialized instances
+ *
+ * @brief Serializer of a type whose instances are all tracked by an {@link com.gradle.superscalarsim.managers.InstanceManager}
+ * @details The manager is serialized before anything that references the instances. The full object is written only
+ * there (by {@link ManagerSerializer}), every other occurrence is written as the id of the instance. This is the same
+ * JSON the generic identity handling ({@code @JsonIdentityInfo}) produces, without keeping track of the already
+ * written objects.
+ */
+public abstract class IdentifiableSerializer<T extends Identifiable> extends StdSerializer<T>
+{
+  protected IdentifiableSerializer(Class<T> type)
+  {
+    super(type);
+  }
+  
+  /**
+   * @brief Writes a reference to the instance
+   */
+  @Override
+  public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException
+  {
+    writeReference(value, gen);
+  }
+  
+  /**
+   * @param value Referenced instance
+   * @param gen   Generator to write to
+   *
+   * @brief Writes the id of the instance
+   */
+  protected abstract void writeReference(T value, JsonGenerator gen) throws IOException;
+  
+  /**
+   * @param value    Instance to write
+   * @param gen      Generator to write to
+   * @param provider Provider for the serializers of nested values
+   *
+   * @brief Writes the instance with all its fields
+   */
+  public abstract void serializeFull(T value, JsonGenerator gen, SerializerProvider provider) throws IOException;
+}
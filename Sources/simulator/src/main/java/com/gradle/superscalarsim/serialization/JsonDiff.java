@@ -0,0 +1,180 @@
+/**
+ * @file JsonDiff.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Difference of two JSON trees as a JSON Patch
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * @class JsonDiff
+ * @brief Computes and applies the difference of two JSON trees in the JSON Patch format (RFC 6902)
+ * @details Objects are compared field by field, arrays of the same length element by element. An array that changed
+ * its length is replaced as a whole. Only the operations "add", "remove" and "replace" are produced.
+ * Unchanged subtrees are not part of the patch, so the size of the patch follows the amount of change,
+ * not the size of the trees.
+ */
+public class JsonDiff
+{
+  /**
+   * @param base   The tree the receiver already has
+   * @param target The new tree
+   *
+   * @return Operations that turn the base into the target, empty if the trees are equal
+   */
+  public static ArrayNode diff(JsonNode base, JsonNode target)
+  {
+    ArrayNode patch = JsonNodeFactory.instance.arrayNode();
+    diff(base, target, "", patch);
+    return patch;
+  }
+  
+  /**
+   * @param base   Subtree of the base
+   * @param target Subtree of the target at the same position
+   * @param path   JSON Pointer of the subtree
+   * @param patch  Array to add the operations to
+   */
+  private static void diff(JsonNode base, JsonNode target, String path, ArrayNode patch)
+  {
+    if (base.equals(target))
+    {
+      return;
+    }
+    if (base.isObject() && target.isObject())
+    {
+      Iterator<Map.Entry<String, JsonNode>> fields = base.fields();
+      while (fields.hasNext())
+      {
+        Map.Entry<String, JsonNode> field = fields.next();
+        if (!target.has(field.getKey()))
+        {
+          patch.addObject().put("op", "remove").put("path", path + "/" + escape(field.getKey()));
+        }
+      }
+      fields = target.fields();
+      while (fields.hasNext())
+      {
+        Map.Entry<String, JsonNode> field     = fields.next();
+        String                      fieldPath = path + "/" + escape(field.getKey());
+        JsonNode                    baseValue = base.get(field.getKey());
+        if (baseValue == null)
+        {
+          patch.addObject().put("op", "add").put("path", fieldPath).set("value", field.getValue());
+        }
+        else
+        {
+          diff(baseValue, field.getValue(), fieldPath, patch);
+        }
+      }
+      return;
+    }
+    if (base.isArray() && target.isArray() && base.size() == target.size())
+    {
+      for (int i = 0; i < base.size(); i++)
+      {
+        diff(base.get(i), target.get(i), path + "/" + i, patch);
+      }
+      return;
+    }
+    patch.addObject().put("op", "replace").put("path", path).set("value", target);
+  }
+  
+  /**
+   * @param base  Tree to patch. Not modified.
+   * @param patch Operations created by {@link #diff(JsonNode, JsonNode)}
+   *
+   * @return A new tree with the operations applied
+   * @throws IllegalArgumentException If the patch does not fit the tree
+   */
+  public static JsonNode apply(JsonNode base, ArrayNode patch)
+  {
+    JsonNode root = base.deepCopy();
+    for (JsonNode operation : patch)
+    {
+      String   op    = operation.path("op").asText();
+      String   path  = operation.path("path").asText();
+      JsonNode value = operation.get("value");
+      if (path.isEmpty())
+      {
+        if (!op.equals("replace"))
+        {
+          throw new IllegalArgumentException("Cannot " + op + " the root");
+        }
+        root = value.deepCopy();
+        continue;
+      }
+      int      split  = path.lastIndexOf('/');
+      JsonNode parent = root.at(path.substring(0, split));
+      String   key    = unescape(path.substring(split + 1));
+      if (parent instanceof ObjectNode object)
+      {
+        switch (op)
+        {
+          case "add", "replace" -> object.set(key, value.deepCopy());
+          case "remove" -> object.remove(key);
+          default -> throw new IllegalArgumentException("Unknown operation: " + op);
+        }
+      }
+      else if (parent instanceof ArrayNode array && op.equals("replace"))
+      {
+        array.set(Integer.parseInt(key), value.deepCopy());
+      }
+      else
+      {
+        throw new IllegalArgumentException("Cannot " + op + " " + path);
+      }
+    }
+    return root;
+  }
+  
+  /**
+   * @param key Object key
+   *
+   * @return The key escaped for a JSON Pointer
+   */
+  private static String escape(String key)
+  {
+    return key.replace("~", "~0").replace("/", "~1");
+  }
+  
+  /**
+   * @param token Escaped token of a JSON Pointer
+   *
+   * @return The original key
+   */
+  private static String unescape(String token)
+  {
+    return token.replace("~1", "/").replace("~0", "~");
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * @file LoadBufferItemSerializer.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Streaming serializer of LoadBufferItem
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.gradle.superscalarsim.models.memory.LoadBufferItem;
+
+import java.io.IOException;
+
+/**
+ * @brief Writes a {@link LoadBufferItem}. The instruction and the destination register are references.
+ */
+public class LoadBufferItemSerializer extends StdSerializer<LoadBufferItem>
+{
+  public LoadBufferItemSerializer()
+  {
+    super(LoadBufferItem.class);
+  }
+  
+  @Override
+  public void serialize(LoadBufferItem value, JsonGenerator gen, SerializerProvider provider) throws IOException
+  {
+    gen.writeStartObject(value);
+    gen.writeFieldName("simCodeModel");
+    SimCodeModelSerializer.writeNullableReference(value.getSimCodeModel(), gen);
+    gen.writeBooleanField("destinationReady", value.isDestinationReady());
+    gen.writeNumberField("address", value.getAddress());
+    gen.writeBooleanField("isAccessingMemory", value.isAccessingMemory());
+    gen.writeNumberField("accessingMemoryId", value.getAccessingMemoryId());
+    gen.writeNumberField("memoryAccessId", value.getMemoryAccessId());
+    gen.writeBooleanField("hasBypassed", value.hasBypassed());
+    gen.writeNumberField("bypassStoreId", value.getBypassStoreId());
+    gen.writeNumberField("memoryFailedId", value.getMemoryFailedId());
+    gen.writeBooleanField("accessingMemory", value.isAccessingMemory());
+    gen.writeFieldName("destinationRegister");
+    RegisterModelSerializer.writeNullableReference(value.getDestinationRegister(), gen);
+    gen.writeEndObject();
+  }
+}
@@ -28,6 +28,7 @@
 package com.gradle.superscalarsim.serialization;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.gradle.superscalarsim.managers.InstanceManager;
@@ -46,17 +47,34 @@ public class ManagerSerializer extends StdSerializer<InstanceManager<?>>
     super(InstanceManager.class, false);
   }
   
+  @SuppressWarnings("unchecked")
   @Override
-  public void serialize(InstanceManager value, JsonGenerator jgen, SerializerProvider provider) throws IOException
+  public void serialize(InstanceManager<?> value, JsonGenerator jgen, SerializerProvider provider) throws IOException
   {
     jgen.writeStartObject();
     
-    // Loop over all instances and serialize them
+    // Loop over all instances and serialize them. The instances of one manager are almost always of one class.
+    Class<?>               serializedClass = null;
+    JsonSerializer<Object> serializer      = null;
     for (Object instance : value.getInstances())
     {
       Identifiable entry = (Identifiable) instance;
-      String       key   = entry.getId();
-      jgen.writeObjectField(key, entry);
+      if (entry.getClass() != serializedClass)
+      {
+        serializedClass = entry.getClass();
+        serializer      = provider.findValueSerializer(serializedClass);
+      }
+      jgen.writeFieldName(entry.getId());
+      if (serializer instanceof IdentifiableSerializer<?> identifiableSerializer)
+      {
+        // The manager holds the only full copy, everything else is a reference.
+        // The serializer was found for the class of the entry, so it accepts it.
+        ((IdentifiableSerializer<Identifiable>) identifiableSerializer).serializeFull(entry, jgen, provider);
+      }
+      else
+      {
+        serializer.serialize(entry, jgen, provider);
+      }
     }
     
     jgen.writeEndObject();
@@ -0,0 +1,73 @@
+/**
+ * @file MemoryTransactionSerializer.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Streaming serializer of MemoryTransaction
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.gradle.superscalarsim.models.memory.MemoryTransaction;
+
+import java.io.IOException;
+
+/**
+ * @brief Writes a {@link MemoryTransaction}.
+ * The flags appear twice (isStore and store, ...), as the frontend reads both forms.
+ */
+public class MemoryTransactionSerializer extends StdSerializer<MemoryTransaction>
+{
+  public MemoryTransactionSerializer()
+  {
+    super(MemoryTransaction.class);
+  }
+  
+  @Override
+  public void serialize(MemoryTransaction value, JsonGenerator gen, SerializerProvider provider) throws IOException
+  {
+    gen.writeStartObject(value);
+    gen.writeNumberField("mmuId", value.mmuId());
+    gen.writeNumberField("instructionId", value.getInstructionId());
+    gen.writeNumberField("timestamp", value.timestamp());
+    gen.writeNumberField("address", value.address());
+    gen.writeNumberField("size", value.size());
+    gen.writeBooleanField("isStore", value.isStore());
+    gen.writeBooleanField("isSigned", value.isSigned());
+    gen.writeNumberField("id", value.id());
+    CacheLineModelSerializer.writeBinaryField(gen, "data", value.data());
+    gen.writeBooleanField("isFinished", value.isFinished());
+    gen.writeNumberField("latency", value.latency());
+    gen.writeStringField("handledBy", value.handledBy());
+    gen.writeBooleanField("cancelled", value.isCancelled());
+    gen.writeBooleanField("isHit", value.isHit());
+    gen.writeBooleanField("signed", value.isSigned());
+    gen.writeBooleanField("store", value.isStore());
+    gen.writeBooleanField("finished", value.isFinished());
+    gen.writeBooleanField("hit", value.isHit());
+    gen.writeEndObject();
+  }
+}
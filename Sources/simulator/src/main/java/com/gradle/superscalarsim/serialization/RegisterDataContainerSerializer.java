@@ -0,0 +1,92 @@
+/**
+ * @file RegisterDataContainerSerializer.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Streaming serializer of RegisterDataContainer
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.gradle.superscalarsim.models.register.RegisterDataContainer;
+
+import java.io.IOException;
+
+/**
+ * @brief Writes a {@link RegisterDataContainer} as {@code {bits, currentType, stringRepresentation}}
+ */
+public class RegisterDataContainerSerializer extends StdSerializer<RegisterDataContainer>
+{
+  public RegisterDataContainerSerializer()
+  {
+    super(RegisterDataContainer.class);
+  }
+  
+  @Override
+  public void serialize(RegisterDataContainer value, JsonGenerator gen, SerializerProvider provider) throws IOException
+  {
+    write(value, gen);
+  }
+  
+  /**
+   * @param value Value to write, can be null
+   * @param gen   Generator to write to
+   *
+   * @brief Writes the value without going through the provider. Used by the serializers of the types holding values.
+   */
+  static void write(RegisterDataContainer value, JsonGenerator gen) throws IOException
+  {
+    if (value == null)
+    {
+      gen.writeNull();
+      return;
+    }
+    gen.writeStartObject(value);
+    gen.writeNumberField("bits", value.getBits());
+    writeEnumField(gen, "currentType", value.getCurrentType());
+    gen.writeStringField("stringRepresentation", value.getStringRepresentation());
+    gen.writeEndObject();
+  }
+  
+  /**
+   * @param gen   Generator to write to
+   * @param name  Name of the field
+   * @param value Enum constant, can be null
+   *
+   * @brief Writes an enum field by its name, the same way the default enum serializer does
+   */
+  static void writeEnumField(JsonGenerator gen, String name, Enum<?> value) throws IOException
+  {
+    if (value == null)
+    {
+      gen.writeNullField(name);
+    }
+    else
+    {
+      gen.writeStringField(name, value.name());
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/**
+ * @file RegisterModelSerializer.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Streaming serializer of RegisterModel
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * @brief Writes a {@link RegisterModel}. References are the name of the register.
+ */
+public class RegisterModelSerializer extends IdentifiableSerializer<RegisterModel>
+{
+  public RegisterModelSerializer()
+  {
+    super(RegisterModel.class);
+  }
+  
+  @Override
+  protected void writeReference(RegisterModel value, JsonGenerator gen) throws IOException
+  {
+    gen.writeString(value.getName());
+  }
+  
+  @Override
+  public void serializeFull(RegisterModel value, JsonGenerator gen, SerializerProvider provider) throws IOException
+  {
+    gen.writeStartObject(value);
+    gen.writeStringField("name", value.getName());
+    gen.writeBooleanField("isConstant", value.isConstant());
+    RegisterDataContainerSerializer.writeEnumField(gen, "type", value.getType());
+    gen.writeFieldName("value");
+    RegisterDataContainerSerializer.write(value.getValueContainer(), gen);
+    RegisterDataContainerSerializer.writeEnumField(gen, "readiness", value.getReadiness());
+    gen.writeNumberField("referenceCount", value.getReferenceCount());
+    gen.writeFieldName("renames");
+    writeReferences(value.getRenames(), gen);
+    gen.writeFieldName("architecturalRegister");
+    writeNullableReference(value.getArchitecturalMapping(), gen);
+    gen.writeBooleanField("speculative", value.isSpeculative());
+    gen.writeEndObject();
+  }
+  
+  /**
+   * @param register Referenced register, can be null
+   * @param gen      Generator to write to
+   *
+   * @brief Writes the name of the register, or null
+   */
+  static void writeNullableReference(RegisterModel register, JsonGenerator gen) throws IOException
+  {
+    if (register == null)
+    {
+      gen.writeNull();
+    }
+    else
+    {
+      gen.writeString(register.getName());
+    }
+  }
+  
+  /**
+   * @param registers Referenced registers, can be null
+   * @param gen       Generator to write to
+   *
+   * @brief Writes an array of register names, or null
+   */
+  static void writeReferences(List<RegisterModel> registers, JsonGenerator gen) throws IOException
+  {
+    if (registers == null)
+    {
+      gen.writeNull();
+      return;
+    }
+    gen.writeStartArray();
+    for (RegisterModel register : registers)
+    {
+      writeNullableReference(register, gen);
+    }
+    gen.writeEndArray();
+  }
+}
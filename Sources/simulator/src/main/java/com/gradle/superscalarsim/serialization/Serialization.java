@@ -92,10 +92,29 @@ public class Serialization
     return schemaGen.generateJsonSchema(cls);
   }
   
+  /**
+   * The hand-written serializers of {@link CustomSerializerModule} produce the same JSON. This mapper is the reference
+   * they are checked and measured against.
+   *
+   * @return New ObjectMapper that serializes all model types by reflection
+   */
+  public static ObjectMapper createReflectiveMapper()
+  {
+    return createObjectMapper(false);
+  }
+  
   /**
    * Internal method for creating the ObjectMapper
    */
   private static ObjectMapper createObjectMapper()
+  {
+    return createObjectMapper(true);
+  }
+  
+  /**
+   * @param streaming True to use the hand-written serializers of the CPU state types
+   */
+  private static ObjectMapper createObjectMapper(boolean streaming)
   {
     // Builder, had issues
     //    ObjectMapper objectMapper = JsonMapper.builder().addModule(new Jdk8Module()).addModule(new AfterburnerModule())
@@ -112,7 +131,7 @@ public class Serialization
                                        .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
                                        .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
                                        .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
-    objectMapper.registerModule(new CustomSerializerModule());
+    objectMapper.registerModule(new CustomSerializerModule(streaming));
     return objectMapper;
   }
 }
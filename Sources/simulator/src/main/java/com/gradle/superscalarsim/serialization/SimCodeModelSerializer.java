@@ -0,0 +1,121 @@
+/**
+ * @file SimCodeModelSerializer.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Streaming serializer of SimCodeModel
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+
+import java.io.IOException;
+
+/**
+ * @brief Writes a {@link SimCodeModel}. References are the id of the instruction.
+ * The renamed arguments are written inline, the rarely present branch info and exception go through the provider.
+ */
+public class SimCodeModelSerializer extends IdentifiableSerializer<SimCodeModel>
+{
+  public SimCodeModelSerializer()
+  {
+    super(SimCodeModel.class);
+  }
+  
+  @Override
+  protected void writeReference(SimCodeModel value, JsonGenerator gen) throws IOException
+  {
+    gen.writeNumber(value.getIntegerId());
+  }
+  
+  /**
+   * @param codeModel Referenced instruction, can be null
+   * @param gen       Generator to write to
+   *
+   * @brief Writes the id of the instruction, or null
+   */
+  static void writeNullableReference(SimCodeModel codeModel, JsonGenerator gen) throws IOException
+  {
+    if (codeModel == null)
+    {
+      gen.writeNull();
+    }
+    else
+    {
+      gen.writeNumber(codeModel.getIntegerId());
+    }
+  }
+  
+  @Override
+  public void serializeFull(SimCodeModel value, JsonGenerator gen, SerializerProvider provider) throws IOException
+  {
+    gen.writeStartObject(value);
+    gen.writeNumberField("id", value.getIntegerId());
+    gen.writeNumberField("inputCodeModel", value.codeId());
+    gen.writeArrayFieldStart("renamedArguments");
+    for (InputCodeArgument argument : value.arguments())
+    {
+      writeArgument(argument, gen);
+    }
+    gen.writeEndArray();
+    gen.writeNumberField("issueWindowId", value.issueWindowId);
+    gen.writeNumberField("fetchId", value.getFetchId());
+    gen.writeNumberField("functionUnitId", value.getFunctionUnitId());
+    gen.writeNumberField("readyId", value.getReadyId());
+    gen.writeNumberField("commitId", value.getCommitId());
+    gen.writeBooleanField("isFinished", value.isFinished());
+    gen.writeBooleanField("hasFailed", value.hasFailed());
+    provider.defaultSerializeField("branchInfo", value.getBranchInfo(), gen);
+    gen.writeBooleanField("isValid", value.isValid());
+    gen.writeBooleanField("isBusy", value.isBusy());
+    gen.writeBooleanField("isSpeculative", value.isSpeculative());
+    provider.defaultSerializeField("exception", value.getException(), gen);
+    gen.writeBooleanField("store", value.isStore());
+    gen.writeBooleanField("conditionalBranch", value.isConditionalBranch());
+    gen.writeBooleanField("load", value.isLoad());
+    gen.writeBooleanField("readyToBeCommitted", value.isReadyToBeCommitted());
+    gen.writeBooleanField("readyToExecute", value.isReadyToExecute());
+    gen.writeEndObject();
+  }
+  
+  /**
+   * @param argument Renamed argument of the instruction
+   * @param gen      Generator to write to
+   */
+  private static void writeArgument(InputCodeArgument argument, JsonGenerator gen) throws IOException
+  {
+    gen.writeStartObject(argument);
+    gen.writeFieldName("constantValue");
+    RegisterDataContainerSerializer.write(argument.getConstantValue(), gen);
+    gen.writeStringField("name", argument.getName());
+    gen.writeFieldName("registerValue");
+    RegisterModelSerializer.writeNullableReference(argument.getRegisterValue(), gen);
+    gen.writeBooleanField("register", argument.isRegister());
+    gen.writeStringField("stringValue", argument.getValue());
+    gen.writeEndObject();
+  }
+}
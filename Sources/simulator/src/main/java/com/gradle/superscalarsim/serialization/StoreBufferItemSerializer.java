@@ -0,0 +1,66 @@
+/**
+ * @file StoreBufferItemSerializer.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Streaming serializer of StoreBufferItem
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.gradle.superscalarsim.models.memory.StoreBufferItem;
+
+import java.io.IOException;
+
+/**
+ * @brief Writes a {@link StoreBufferItem}. The instruction and the source register are references.
+ */
+public class StoreBufferItemSerializer extends StdSerializer<StoreBufferItem>
+{
+  public StoreBufferItemSerializer()
+  {
+    super(StoreBufferItem.class);
+  }
+  
+  @Override
+  public void serialize(StoreBufferItem value, JsonGenerator gen, SerializerProvider provider) throws IOException
+  {
+    gen.writeStartObject(value);
+    gen.writeNumberField("sourceResultId", value.getSourceResultId());
+    gen.writeFieldName("simCodeModel");
+    SimCodeModelSerializer.writeNullableReference(value.getSimCodeModel(), gen);
+    gen.writeBooleanField("sourceReady", value.isSourceReady());
+    gen.writeNumberField("address", value.getAddress());
+    gen.writeBooleanField("isAccessingMemory", value.isAccessingMemory());
+    gen.writeNumberField("accessingMemoryId", value.getAccessingMemoryId());
+    gen.writeNumberField("memoryAccessId", value.getMemoryAccessId());
+    gen.writeNumberField("memoryFailedId", value.getMemoryFailedId());
+    gen.writeBooleanField("accessingMemory", value.isAccessingMemory());
+    gen.writeFieldName("sourceRegister");
+    RegisterModelSerializer.writeNullableReference(value.getSourceRegister(), gen);
+    gen.writeEndObject();
+  }
+}
@@ -38,8 +38,10 @@ public enum EndpointName
   parseAsm("parseAsm"), //
   checkConfig("checkConfig"), //
   simulate("simulate"), //
+  compileAndSimulate("compileAndSimulate"), //
   schema("schema"), //
-  instructionDescription("instructionDescription");
+  instructionDescription("instructionDescription"), //
+  serverStatistics("serverStatistics");
   
   private final String pathName;
   
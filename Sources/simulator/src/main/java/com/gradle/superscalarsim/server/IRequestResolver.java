@@ -27,6 +27,8 @@
 
 package com.gradle.superscalarsim.server;
 
+import com.gradle.superscalarsim.cpu.CancellationToken;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -50,6 +52,22 @@ public interface IRequestResolver<T, U>
    */
   U resolve(T request) throws ServerException;
   
+  /**
+   * Long-running resolvers should poll the token and stop when it is cancelled.
+   * The default implementation ignores the token.
+   *
+   * @param request The request to resolve
+   * @param token   Cancelled when the request times out or the client disconnects
+   *
+   * @return The response
+   * @throws ServerException If the request contains invalid data
+   * @brief Resolve a request that can be cancelled
+   */
+  default U resolve(T request, CancellationToken token) throws ServerException
+  {
+    return resolve(request);
+  }
+  
   /**
    * @param json The input stream containing the JSON
    *
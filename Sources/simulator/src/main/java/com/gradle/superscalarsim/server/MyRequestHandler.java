@@ -29,13 +29,19 @@ package com.gradle.superscalarsim.server;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.cpu.CancellationToken;
+import com.gradle.superscalarsim.cpu.SimulationCancelledException;
 import com.gradle.superscalarsim.serialization.Serialization;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
+import io.undertow.server.ServerConnection;
+import io.undertow.util.AttachmentKey;
 import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
 
 import java.io.*;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,6 +53,13 @@ public class MyRequestHandler<T, U> implements HttpHandler
 {
   static Logger logger = MyLogger.initializeLogger("MyRequestHandler", Level.INFO);
   
+  /**
+   * Tokens of the requests running on a connection. Cancelled when the client disconnects.
+   */
+  @SuppressWarnings("unchecked")
+  static final AttachmentKey<Set<CancellationToken>> CONNECTION_TOKENS
+          = (AttachmentKey<Set<CancellationToken>>) (AttachmentKey<?>) AttachmentKey.create(Set.class);
+  
   IRequestResolver<T, U> resolver;
   
   public <R extends IRequestResolver<T, U>> MyRequestHandler(R resolver)
@@ -81,8 +94,53 @@ public class MyRequestHandler<T, U> implements HttpHandler
     
     // At this point, the request is in the worker thread
     
-    // TODO: If the request times out, it continues to run in the background.
-    // this means it will eat resources, until it finishes (which may be never).
+    // The work stops when the request times out or the client disconnects
+    CancellationToken token = exchange.getAttachment(TimeoutHandler.CANCELLATION_TOKEN);
+    if (token == null)
+    {
+      token = new CancellationToken();
+    }
+    Set<CancellationToken> connectionTokens = getConnectionTokens(exchange.getConnection());
+    connectionTokens.add(token);
+    try
+    {
+      handleBlocking(exchange, token);
+    }
+    finally
+    {
+      connectionTokens.remove(token);
+    }
+  }
+  
+  /**
+   * @param connection Connection of the request
+   *
+   * @return Tokens of the requests running on the connection. Registers the disconnect listener on first use.
+   */
+  private static Set<CancellationToken> getConnectionTokens(ServerConnection connection)
+  {
+    synchronized (connection)
+    {
+      Set<CancellationToken> tokens = connection.getAttachment(CONNECTION_TOKENS);
+      if (tokens == null)
+      {
+        Set<CancellationToken> newTokens = ConcurrentHashMap.newKeySet();
+        connection.putAttachment(CONNECTION_TOKENS, newTokens);
+        connection.addCloseListener(closed -> newTokens.forEach(CancellationToken::cancel));
+        tokens = newTokens;
+      }
+      return tokens;
+    }
+  }
+  
+  /**
+   * @param exchange The request, already dispatched to a worker thread
+   * @param token    Cancelled when the request times out or the client disconnects
+   *
+   * @brief Deserializes, resolves and serializes the request
+   */
+  private void handleBlocking(HttpServerExchange exchange, CancellationToken token) throws IOException
+  {
     exchange.startBlocking();
     
     // Deserialize
@@ -112,13 +170,21 @@ public class MyRequestHandler<T, U> implements HttpHandler
     // Serialize
     try
     {
-      U response = resolver.resolve(request);
-      System.gc();
+      U response = resolver.resolve(request, token);
       resolver.serialize(response, outputStream);
       //
       logger.info("Request handled successfully: " + response.getClass().getSimpleName());
       exchange.endExchange();
     }
+    catch (SimulationCancelledException e)
+    {
+      // The client is gone or already got the timeout response
+      logger.info(e.getMessage() + ", cancelled simulations: " + CancellationToken.getCancelledSimulations());
+      if (!exchange.isResponseStarted())
+      {
+        sendError(exchange, new ServerError("root", "Simulation cancelled"));
+      }
+    }
     catch (ServerException e)
     {
       // Send the error as a JSON, log it
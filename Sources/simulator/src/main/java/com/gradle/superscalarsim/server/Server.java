@@ -31,9 +31,11 @@ import com.gradle.superscalarsim.app.MyLogger;
 import com.gradle.superscalarsim.compiler.GccCaller;
 import com.gradle.superscalarsim.server.checkConfig.CheckConfigHandler;
 import com.gradle.superscalarsim.server.compile.CompileHandler;
+import com.gradle.superscalarsim.server.compileAndSimulate.CompileAndSimulateHandler;
 import com.gradle.superscalarsim.server.instructionDescriptions.InstructionDescriptionHandler;
 import com.gradle.superscalarsim.server.parseAsm.ParseAsmHandler;
 import com.gradle.superscalarsim.server.schema.SchemaHandler;
+import com.gradle.superscalarsim.server.serverStatistics.ServerStatisticsHandler;
 import com.gradle.superscalarsim.server.simulate.SimulateHandler;
 import io.undertow.Handlers;
 import io.undertow.Undertow;
@@ -76,8 +78,10 @@ public class Server
           EndpointName.parseAsm, new ParseAsmHandler(),
           EndpointName.checkConfig, new CheckConfigHandler(),
           EndpointName.simulate, new SimulateHandler(),
+          EndpointName.compileAndSimulate, new CompileAndSimulateHandler(),
           EndpointName.schema, new SchemaHandler(),
-          EndpointName.instructionDescription, new InstructionDescriptionHandler());
+          EndpointName.instructionDescription, new InstructionDescriptionHandler(),
+          EndpointName.serverStatistics, new ServerStatisticsHandler());
   /**
    * @brief Host to listen on. Can be configured via command line argument
    */
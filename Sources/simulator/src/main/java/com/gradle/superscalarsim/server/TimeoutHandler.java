@@ -27,9 +27,11 @@
 
 package com.gradle.superscalarsim.server;
 
+import com.gradle.superscalarsim.cpu.CancellationToken;
 import io.undertow.io.Sender;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
 import io.undertow.util.Headers;
 
 import java.util.concurrent.Executors;
@@ -40,9 +42,15 @@ import java.util.concurrent.TimeUnit;
  * Handler wrapper with timeout for requests.
  * If the request takes longer than the specified timeout, the handler will return a 500.
  * It is not exact, but good enough for timeouts.
+ * The request gets a {@link CancellationToken} that is cancelled at the timeout, so the work is stopped as well.
  */
 class TimeoutHandler implements HttpHandler
 {
+  /**
+   * Key of the cancellation token of the request
+   */
+  static final AttachmentKey<CancellationToken> CANCELLATION_TOKEN = AttachmentKey.create(CancellationToken.class);
+  
   private final HttpHandler next;
   private final int timeout_ms;
   
@@ -61,9 +69,14 @@ class TimeoutHandler implements HttpHandler
   @Override
   public void handleRequest(HttpServerExchange exchange) throws Exception
   {
+    CancellationToken token = new CancellationToken();
+    exchange.putAttachment(CANCELLATION_TOKEN, token);
+    
     // Schedule a timeout task
     scheduler.schedule(() ->
                        {
+                         // Stop the work, nobody will read the result
+                         token.cancel();
                          if (!exchange.isComplete())
                          {
                            // Timeout handling logic
@@ -0,0 +1,202 @@
+/**
+ * @file CompileAndSimulateHandler.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Handler for /compileAndSimulate requests
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.compileAndSimulate;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gradle.superscalarsim.compiler.AsmParser;
+import com.gradle.superscalarsim.compiler.CompiledProgram;
+import com.gradle.superscalarsim.compiler.GccCaller;
+import com.gradle.superscalarsim.cpu.*;
+import com.gradle.superscalarsim.loader.IDataProvider;
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.server.IRequestResolver;
+import com.gradle.superscalarsim.server.ServerException;
+import com.gradle.superscalarsim.server.simulate.SimulateHandler;
+import com.gradle.superscalarsim.server.simulate.SimulateResponse;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Objects;
+
+/**
+ * @class CompileAndSimulateHandler
+ * @brief Handler for /compileAndSimulate requests
+ * @details Gets C code and a CPU configuration, compiles the code and simulates it in one request.
+ * The assembly is parsed once, the same image is used to validate the configuration and to create the initial state.
+ * The response reports the time of each stage.
+ */
+public class CompileAndSimulateHandler
+        implements IRequestResolver<CompileAndSimulateRequest, CompileAndSimulateResponse>
+{
+  ObjectReader reqReader = Serialization.getDeserializer().readerFor(CompileAndSimulateRequest.class);
+  ObjectWriter respWriter = Serialization.getSerializer().writerFor(CompileAndSimulateResponse.class);
+  
+  /**
+   * Registers and instruction definitions. Read-only, shared by the requests.
+   */
+  IDataProvider provider = new StaticDataProvider();
+  
+  @Override
+  public CompileAndSimulateResponse resolve(CompileAndSimulateRequest request) throws ServerException
+  {
+    return resolve(request, null);
+  }
+  
+  /**
+   * A cancelled simulation throws {@link com.gradle.superscalarsim.cpu.SimulationCancelledException}.
+   */
+  @Override
+  public CompileAndSimulateResponse resolve(CompileAndSimulateRequest request,
+                                            CancellationToken token) throws ServerException
+  {
+    if (request == null)
+    {
+      throw new ServerException("root", "Missing request body");
+    }
+    
+    if (request.code == null)
+    {
+      throw new ServerException("code", "Missing code");
+    }
+    
+    if (request.optimizeFlags == null)
+    {
+      throw new ServerException("optimizeFlags", "Missing optimizeFlags");
+    }
+    
+    if (request.cpuConfig == null)
+    {
+      throw new ServerException("cpuConfig", "Missing cpuConfig field");
+    }
+    
+    if (request.tick.isPresent() && request.tick.get() < 0)
+    {
+      throw new ServerException("tick", "Tick must be a non-negative number");
+    }
+    
+    CompileAndSimulateResponse.StageTimes timings = new CompileAndSimulateResponse.StageTimes();
+    
+    // Compile
+    long                    start = System.nanoTime();
+    GccCaller.CompileResult res   = GccCaller.compile(request.code, request.optimizeFlags);
+    timings.compileMs = millisSince(start);
+    if (!res.success)
+    {
+      CompileAndSimulateResponse response = new CompileAndSimulateResponse("c", res.error, timings);
+      response.compilerError = res.compilerErrors;
+      return response;
+    }
+    
+    start = System.nanoTime();
+    CompiledProgram program             = AsmParser.parse(res.code);
+    String          concatenatedProgram = StringUtils.join(program.program, "\n");
+    timings.asmParseMs = millisSince(start);
+    
+    // Parse once, for both the validation and the initial state
+    SimulationConfig config = new SimulationConfig(concatenatedProgram,
+                                                   new ArrayList<>(Objects.requireNonNullElseGet(
+                                                           request.memoryLocations, ArrayList::new)),
+                                                   request.cpuConfig,
+                                                   Objects.requireNonNullElse(request.entryPoint, 0));
+    start = System.nanoTime();
+    ProgramImage image = ProgramImage.of(config, provider);
+    timings.parseMs = millisSince(start);
+    if (image.containsErrors())
+    {
+      CompileAndSimulateResponse response = new CompileAndSimulateResponse("asm", "ASM contains errors", timings);
+      response.program   = concatenatedProgram;
+      response.asmToC    = program.asmToC;
+      response.asmErrors = image.getErrorMessages();
+      return response;
+    }
+    
+    start = System.nanoTime();
+    SimulationConfig.ValidationResult validation = config.validate(image);
+    if (!validation.valid)
+    {
+      timings.loadMs = millisSince(start);
+      CompileAndSimulateResponse response = new CompileAndSimulateResponse("config", validation.toString(), timings);
+      response.program = concatenatedProgram;
+      response.asmToC  = program.asmToC;
+      return response;
+    }
+    Cpu cpu = new Cpu(config, provider, image, token);
+    timings.loadMs = millisSince(start);
+    
+    // Run simulation
+    start = System.nanoTime();
+    SimulateResponse simulation = SimulateHandler.runSimulation(cpu, request.tick);
+    timings.simulateMs    = millisSince(start);
+    cpu.cancellationToken = null;
+    
+    CompileAndSimulateResponse response;
+    if (!image.hasErrors())
+    {
+      response = new CompileAndSimulateResponse("success", "Simulation successful", timings);
+    }
+    else
+    {
+      response           = new CompileAndSimulateResponse("warning", "ASM contains warnings", timings);
+      response.asmErrors = image.getErrorMessages();
+    }
+    response.program       = concatenatedProgram;
+    response.asmToC        = program.asmToC;
+    response.executedSteps = simulation.executedSteps;
+    response.state         = simulation.state;
+    response.stopReason    = simulation.stopReason;
+    response.cpu           = cpu;
+    return response;
+  }
+  
+  /**
+   * @param start Value of {@link System#nanoTime()} at the start of the stage
+   *
+   * @return Milliseconds since the start
+   */
+  private static double millisSince(long start)
+  {
+    return (System.nanoTime() - start) / 1_000_000.0;
+  }
+  
+  @Override
+  public CompileAndSimulateRequest deserialize(InputStream json) throws IOException
+  {
+    return reqReader.readValue(json);
+  }
+  
+  @Override
+  public void serialize(CompileAndSimulateResponse response, OutputStream stream) throws IOException
+  {
+    respWriter.writeValue(stream, response);
+  }
+}
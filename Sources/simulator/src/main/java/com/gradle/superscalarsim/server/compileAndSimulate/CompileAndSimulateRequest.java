@@ -0,0 +1,101 @@
+/**
+ * @file CompileAndSimulateRequest.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Request for the /compileAndSimulate endpoint
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.compileAndSimulate;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.cpu.MemoryLocation;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Parameters for the /compileAndSimulate endpoint request
+ */
+public class CompileAndSimulateRequest
+{
+  /**
+   * @brief The C code to compile and simulate
+   */
+  @JsonProperty(required = true)
+  String code;
+  
+  /**
+   * @brief List of optimization flags
+   */
+  @JsonProperty(required = true)
+  List<String> optimizeFlags;
+  
+  /**
+   * @brief Configuration of the CPU to simulate the program on
+   */
+  @JsonProperty(required = true)
+  CpuConfig cpuConfig;
+  
+  /**
+   * @brief Memory locations defined outside the code. Empty if not present.
+   */
+  @JsonProperty(required = false)
+  List<MemoryLocation> memoryLocations;
+  
+  /**
+   * @brief Entry point of the program, a label (string) or an address (int). Address 0 if not present.
+   */
+  @JsonProperty(required = false)
+  Object entryPoint;
+  
+  /**
+   * The requested tick to get the state of.
+   * If not specified, the state of the last tick is returned (the end of the simulation).
+   */
+  @JsonProperty(required = false)
+  Optional<Integer> tick = Optional.empty();
+  
+  /**
+   * @brief Default constructor for deserialization
+   */
+  public CompileAndSimulateRequest()
+  {
+    
+  }
+  
+  public CompileAndSimulateRequest(String code,
+                                   List<String> optimizeFlags,
+                                   CpuConfig cpuConfig,
+                                   List<MemoryLocation> memoryLocations,
+                                   Object entryPoint,
+                                   Optional<Integer> tick)
+  {
+    this.code            = code;
+    this.optimizeFlags   = optimizeFlags;
+    this.cpuConfig       = cpuConfig;
+    this.memoryLocations = memoryLocations;
+    this.entryPoint      = entryPoint;
+    this.tick            = tick;
+  }
+}
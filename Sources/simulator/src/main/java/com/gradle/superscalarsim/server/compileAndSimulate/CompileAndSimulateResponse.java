@@ -0,0 +1,162 @@
+/**
+ * @file CompileAndSimulateResponse.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Response for the /compileAndSimulate endpoint
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.compileAndSimulate;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gradle.superscalarsim.code.ParseError;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.CpuState;
+import com.gradle.superscalarsim.cpu.StopReason;
+import com.gradle.superscalarsim.server.simulate.SimulateShortResponse;
+
+import java.util.List;
+
+/**
+ * Response for the /compileAndSimulate endpoint.
+ * The fields of the stages that did not run are null.
+ */
+public class CompileAndSimulateResponse
+{
+  /**
+   * @brief Stage the request got to.
+   * <ul>
+   *   <li> "success" - The program was simulated</li>
+   *   <li> "warning" - The program was simulated, but the assembly has warnings</li>
+   *   <li> "c" - C compilation failed</li>
+   *   <li> "asm" - Assembly contains errors (errors are listed)</li>
+   *   <li> "config" - The CPU configuration is not valid for the program</li>
+   * </ul>
+   */
+  @JsonProperty(required = true)
+  public String status;
+  /**
+   * @brief A general, short message to the user.
+   */
+  @JsonProperty(required = true)
+  public String message;
+  /**
+   * The RISC-V assembly code the C code compiled to
+   */
+  public String program;
+  /**
+   * Mapping from ASM lines to C lines, one-based
+   */
+  public List<Integer> asmToC;
+  /**
+   * @brief Errors and warnings from the C compilation
+   */
+  public List<Object> compilerError;
+  /**
+   * @brief Errors and warnings from the parsing of the assembly code
+   */
+  public List<ParseError> asmErrors;
+  /**
+   * Number of simulated steps
+   */
+  public int executedSteps;
+  /**
+   * State of the CPU at the requested tick, or at the end of the simulation, whichever comes first
+   */
+  public CpuState state;
+  /**
+   * Reason for stopping the simulation. Either not stopped yet, or the simulation ended.
+   */
+  public StopReason stopReason;
+  /**
+   * @brief Time spent in each stage
+   */
+  @JsonProperty(required = true)
+  public StageTimes timings;
+  
+  /**
+   * The simulation. Not part of the response.
+   */
+  @JsonIgnore
+  Cpu cpu;
+  
+  CompileAndSimulateResponse(String status, String message, StageTimes timings)
+  {
+    this.status  = status;
+    this.message = message;
+    this.timings = timings;
+  }
+  
+  /**
+   * @return The simulation, null if the program was not simulated
+   */
+  public Cpu getCpu()
+  {
+    return cpu;
+  }
+  
+  /**
+   * @brief Whether the program was simulated
+   */
+  @JsonProperty
+  public boolean success()
+  {
+    return status.equals("success") || status.equals("warning");
+  }
+  
+  /**
+   * Convert the simulation part of the response to a short response. Only for a successful response.
+   */
+  public SimulateShortResponse toShortResponse()
+  {
+    return new SimulateShortResponse(state.debugLog, state.statistics, stopReason,
+                                     state.unifiedRegisterFileBlock.getArchitecturalRegisterValues());
+  }
+  
+  /**
+   * @brief Wall time of the stages of the pipeline in milliseconds. Zero for the stages that did not run.
+   */
+  public static class StageTimes
+  {
+    /**
+     * Compilation of the C code, a hit in the compile cache is close to zero
+     */
+    public double compileMs;
+    /**
+     * Filtering of the compiler output
+     */
+    public double asmParseMs;
+    /**
+     * Parsing of the assembly into instructions
+     */
+    public double parseMs;
+    /**
+     * Validation of the configuration and creation of the initial state
+     */
+    public double loadMs;
+    /**
+     * The simulation itself
+     */
+    public double simulateMs;
+  }
+}
@@ -37,10 +37,14 @@ import com.gradle.superscalarsim.server.checkConfig.CheckConfigRequest;
 import com.gradle.superscalarsim.server.checkConfig.CheckConfigResponse;
 import com.gradle.superscalarsim.server.compile.CompileRequest;
 import com.gradle.superscalarsim.server.compile.CompileResponse;
+import com.gradle.superscalarsim.server.compileAndSimulate.CompileAndSimulateRequest;
+import com.gradle.superscalarsim.server.compileAndSimulate.CompileAndSimulateResponse;
 import com.gradle.superscalarsim.server.instructionDescriptions.InstructionDescriptionRequest;
 import com.gradle.superscalarsim.server.instructionDescriptions.InstructionDescriptionResponse;
 import com.gradle.superscalarsim.server.parseAsm.ParseAsmRequest;
 import com.gradle.superscalarsim.server.parseAsm.ParseAsmResponse;
+import com.gradle.superscalarsim.server.serverStatistics.ServerStatisticsRequest;
+import com.gradle.superscalarsim.server.serverStatistics.ServerStatisticsResponse;
 import com.gradle.superscalarsim.server.simulate.SimulateRequest;
 import com.gradle.superscalarsim.server.simulate.SimulateResponse;
 
@@ -98,9 +102,11 @@ public class SchemaHandler implements IRequestResolver<SchemaRequest, JsonNode>
       case simulate -> isRequest ? SimulateRequest.class : SimulateResponse.class;
       case parseAsm -> isRequest ? ParseAsmRequest.class : ParseAsmResponse.class;
       case compile -> isRequest ? CompileRequest.class : CompileResponse.class;
+      case compileAndSimulate -> isRequest ? CompileAndSimulateRequest.class : CompileAndSimulateResponse.class;
       case schema -> isRequest ? SchemaRequest.class : JsonNode.class;
       case checkConfig -> isRequest ? CheckConfigRequest.class : CheckConfigResponse.class;
       case instructionDescription -> isRequest ? InstructionDescriptionRequest.class : InstructionDescriptionResponse.class;
+      case serverStatistics -> isRequest ? ServerStatisticsRequest.class : ServerStatisticsResponse.class;
     };
     
     // Get the schema for the handler
@@ -0,0 +1,65 @@
+/**
+ * @file ServerStatisticsHandler.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Handler for the /serverStatistics endpoint
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.serverStatistics;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gradle.superscalarsim.cpu.CancellationToken;
+import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.server.IRequestResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Reports counters of the running server, for monitoring
+ */
+public class ServerStatisticsHandler implements IRequestResolver<ServerStatisticsRequest, ServerStatisticsResponse>
+{
+  ObjectReader statisticsReqReader = Serialization.getDeserializer().readerFor(ServerStatisticsRequest.class);
+  ObjectWriter statisticsRespWriter = Serialization.getSerializer().writerFor(ServerStatisticsResponse.class);
+  
+  @Override
+  public ServerStatisticsResponse resolve(ServerStatisticsRequest request)
+  {
+    return new ServerStatisticsResponse(CancellationToken.getCancelledSimulations());
+  }
+  
+  @Override
+  public ServerStatisticsRequest deserialize(InputStream json) throws IOException
+  {
+    return statisticsReqReader.readValue(json);
+  }
+  
+  @Override
+  public void serialize(ServerStatisticsResponse response, OutputStream stream) throws IOException
+  {
+    statisticsRespWriter.writeValue(stream, response);
+  }
+}
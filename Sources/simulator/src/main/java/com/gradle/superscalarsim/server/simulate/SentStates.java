@@ -0,0 +1,145 @@
+/**
+ * @file SentStates.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief States sent to delta clients of the /simulate endpoint
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.server.simulate;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * @class SentStates
+ * @brief LRU store of serialized states a client may name as the base of a delta response
+ * @details A client asking for delta responses holds the state of the last response. The next request names it by
+ * the configuration hash and the tick, and gets only the changes against it. The store keeps the JSON of
+ * recently sent states as bytes, which are several times smaller than the parsed trees. The total size is bounded,
+ * the least recently used states are evicted first. A state that was evicted is simply sent whole again.
+ */
+public class SentStates
+{
+  /**
+   * Default maximum total size of the kept states in bytes
+   */
+  public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+  
+  /**
+   * Maximum total size of the kept states in bytes
+   */
+  private final long maxBytes;
+  
+  /**
+   * States in access order (the eldest is the least recently used). Key is the configuration hash and the tick.
+   */
+  private final LinkedHashMap<String, byte[]> states;
+  
+  /**
+   * Total size of the kept states in bytes
+   */
+  private long usedBytes;
+  
+  /**
+   * @brief Constructor with the default limit
+   */
+  public SentStates()
+  {
+    this(DEFAULT_MAX_BYTES);
+  }
+  
+  /**
+   * @param maxBytes Maximum total size of the kept states in bytes. Zero disables the store.
+   *
+   * @brief Constructor
+   */
+  public SentStates(long maxBytes)
+  {
+    this.maxBytes  = maxBytes;
+    this.states    = new LinkedHashMap<>(16, 0.75f, true);
+    this.usedBytes = 0;
+  }
+  
+  /**
+   * @param configHash Hash of the configuration
+   * @param tick       Tick of the state
+   *
+   * @return The state serialized to JSON, or null if it is not kept. The array must not be modified.
+   */
+  public synchronized byte[] get(String configHash, int tick)
+  {
+    return states.get(key(configHash, tick));
+  }
+  
+  /**
+   * @param configHash Hash of the configuration
+   * @param tick       Tick of the state
+   * @param state      The state serialized to JSON. Must not be modified afterwards.
+   *
+   * @brief Keeps the state, evicting the least recently used ones over the limit. The newest state is always kept.
+   */
+  public synchronized void put(String configHash, int tick, byte[] state)
+  {
+    if (maxBytes <= 0)
+    {
+      return;
+    }
+    byte[] older = states.put(key(configHash, tick), state);
+    if (older != null)
+    {
+      usedBytes -= older.length;
+    }
+    usedBytes += state.length;
+    Iterator<byte[]> it = states.values().iterator();
+    while (usedBytes > maxBytes && states.size() > 1)
+    {
+      usedBytes -= it.next().length;
+      it.remove();
+    }
+  }
+  
+  /**
+   * @return Number of kept states
+   */
+  public synchronized int size()
+  {
+    return states.size();
+  }
+  
+  /**
+   * @return Total size of the kept states in bytes
+   */
+  public synchronized long getUsedBytes()
+  {
+    return usedBytes;
+  }
+  
+  /**
+   * @return Key of the state in the store
+   */
+  private static String key(String configHash, int tick)
+  {
+    return configHash + "@" + tick;
+  }
+}
@@ -27,10 +27,19 @@
 
 package com.gradle.superscalarsim.server.simulate;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.gradle.superscalarsim.cpu.CancellationToken;
 import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.CpuState;
+import com.gradle.superscalarsim.cpu.ProgramImage;
 import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.loader.IDataProvider;
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import com.gradle.superscalarsim.serialization.JsonDiff;
 import com.gradle.superscalarsim.serialization.Serialization;
 import com.gradle.superscalarsim.server.IRequestResolver;
 import com.gradle.superscalarsim.server.ServerException;
@@ -38,6 +47,8 @@ import com.gradle.superscalarsim.server.ServerException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 
 /**
  * @brief Handler for /simulate requests
@@ -51,8 +62,28 @@ public class SimulateHandler implements IRequestResolver<SimulateRequest, Simula
   ObjectReader simReqReader = Serialization.getDeserializer().readerFor(SimulateRequest.class);
   ObjectWriter simRespWriter = Serialization.getSerializer().writerFor(SimulateResponse.class);
   
+  /**
+   * Live simulations, so that successive requests continue from the last state
+   */
+  SimulationSessions sessions = new SimulationSessions();
+  
+  /**
+   * States sent in delta responses, the base for the next delta
+   */
+  SentStates sentStates = new SentStates();
+  
   @Override
   public SimulateResponse resolve(SimulateRequest request) throws ServerException
+  {
+    return resolve(request, null);
+  }
+  
+  /**
+   * A cancelled simulation throws {@link com.gradle.superscalarsim.cpu.SimulationCancelledException}.
+   * It is not returned to the sessions, so the next request starts from a fresh state.
+   */
+  @Override
+  public SimulateResponse resolve(SimulateRequest request, CancellationToken token) throws ServerException
   {
     if (request == null)
     {
@@ -69,32 +100,46 @@ public class SimulateHandler implements IRequestResolver<SimulateRequest, Simula
       throw new ServerException("tick", "Tick must be a non-negative number");
     }
     
-    // Check configuration, it may be used
-    // TODO code is parsed twice, once here and once in the Cpu constructor
-    SimulationConfig.ValidationResult errors = request.config.validate();
-    if (!errors.valid)
+    // A live simulation with the same configuration was already validated
+    String sessionKey = request.config.hash();
+    Cpu    cpu        = sessions.acquire(sessionKey);
+    if (cpu == null)
     {
-      throw new ServerException("config", errors.toString());
+      // Check configuration, it may be used. The parsed program is cached, the Cpu constructor reuses it.
+      SimulationConfig.ValidationResult errors = request.config.validate();
+      if (!errors.valid)
+      {
+        throw new ServerException("config", errors.toString());
+      }
+      IDataProvider provider = new StaticDataProvider();
+      cpu = new Cpu(request.config, provider, ProgramImage.of(request.config, provider), token);
+      sessions.limitCheckpoints(cpu);
     }
     
     // Run simulation
-    return runSimulation(request);
+    cpu.cancellationToken = token;
+    SimulateResponse response = runSimulation(cpu, request.tick);
+    cpu.cancellationToken = null;
+    response.sessionKey        = sessionKey;
+    response.cpu               = cpu;
+    response.delta             = request.delta;
+    response.requestedBaseTick = request.baseTick.orElse(null);
+    return response;
   }
   
   /**
-   * @param request Request with the configuration and tick, optionally with the state
+   * @param cpu  Simulation to continue, either new, resumed from a session or loaded from a snapshot
+   * @param tick Tick to simulate to, empty to finish the simulation
    *
    * @return Response with the state and the number of steps simulated
    * @brief Run the simulation
    */
-  private SimulateResponse runSimulation(SimulateRequest request)
+  public static SimulateResponse runSimulation(Cpu cpu, Optional<Integer> tick)
   {
-    // If state is not provided, simulate from the beginning
-    Cpu cpu        = new Cpu(request.config);
     int tickBefore = cpu.cpuState.tick;
-    if (request.tick.isPresent())
+    if (tick.isPresent())
     {
-      int goalTick = request.tick.get();
+      int goalTick = tick.get();
       cpu.simulateState(goalTick);
     }
     else
@@ -115,7 +160,64 @@ public class SimulateHandler implements IRequestResolver<SimulateRequest, Simula
   @Override
   public void serialize(SimulateResponse response, OutputStream stream) throws IOException
   {
-    simRespWriter.writeValue(stream, response);
+    try
+    {
+      if (response.delta)
+      {
+        writeDelta(response, stream);
+      }
+      else
+      {
+        simRespWriter.writeValue(stream, response);
+      }
+    }
+    finally
+    {
+      // The state is serialized, the simulation can be continued by the next request
+      if (response.cpu != null)
+      {
+        sessions.release(response.sessionKey, response.cpu);
+      }
+    }
+  }
+  
+  /**
+   * The state is kept as JSON bytes, the base for the next request. If the base state named by the request is known,
+   * both states are parsed and only the changes against the base are sent. Otherwise the bytes are sent as the
+   * full state, without building a tree.
+   *
+   * @param response Response of a request for a delta
+   * @param stream   Stream to write the JSON to
+   *
+   * @brief Writes a delta response
+   */
+  private void writeDelta(SimulateResponse response, OutputStream stream) throws IOException
+  {
+    response.configHash = response.sessionKey;
+    ObjectMapper mapper = Serialization.getSerializer();
+    byte[]       state  = mapper.writeValueAsBytes(response.state);
+    byte[]       base   = null;
+    if (response.requestedBaseTick != null)
+    {
+      base = sentStates.get(response.sessionKey, response.requestedBaseTick);
+    }
+    sentStates.put(response.sessionKey, response.state.tick, state);
     
+    // The rest of the response is small, the state is added to it as a tree only for the diff
+    CpuState cpuState = response.state;
+    response.state = null;
+    if (base != null)
+    {
+      // Both trees are parsed, so equal numbers have equal node types
+      response.baseTick   = response.requestedBaseTick;
+      response.stateDelta = JsonDiff.diff(mapper.readTree(base), mapper.readTree(state));
+    }
+    ObjectNode json = mapper.valueToTree(response);
+    response.state = cpuState;
+    if (base == null)
+    {
+      json.putRawValue("state", new RawValue(new String(state, StandardCharsets.UTF_8)));
+    }
+    mapper.writeValue(stream, json);
   }
 }
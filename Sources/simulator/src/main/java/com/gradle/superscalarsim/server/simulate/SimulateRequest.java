@@ -50,6 +50,15 @@ public class SimulateRequest
    */
   @JsonProperty(required = true)
   SimulationConfig config;
+  /**
+   * The client can apply delta responses. The sent state is kept, so the next request can name it in baseTick.
+   */
+  boolean delta;
+  /**
+   * Tick of the state the client already holds for the same configuration. Used only with delta.
+   * If the server still has that state, the response contains only the changes against it.
+   */
+  Optional<Integer> baseTick = Optional.empty();
   
   public SimulateRequest()
   {
@@ -60,4 +69,18 @@ public class SimulateRequest
     this.config = config;
     this.tick   = tick;
   }
+  
+  /**
+   * @param config   The configuration to use for the simulation
+   * @param tick     The requested tick
+   * @param baseTick Tick of the state the client holds, empty if none
+   *
+   * @brief Constructor of a request for a delta response
+   */
+  public SimulateRequest(SimulationConfig config, Optional<Integer> tick, Optional<Integer> baseTick)
+  {
+    this(config, tick);
+    this.delta    = true;
+    this.baseTick = baseTick;
+  }
 }
@@ -27,6 +27,10 @@
 
 package com.gradle.superscalarsim.server.simulate;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.gradle.superscalarsim.cpu.Cpu;
 import com.gradle.superscalarsim.cpu.CpuState;
 import com.gradle.superscalarsim.cpu.StopReason;
 
@@ -49,6 +53,49 @@ public class SimulateResponse
    */
   public StopReason stopReason;
   
+  /**
+   * Hash of the configuration. Together with the tick of the state it identifies the state for delta requests.
+   * Only in delta responses.
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public String configHash;
+  
+  /**
+   * Tick of the state the delta is computed against. Null if the response carries the full state.
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public Integer baseTick;
+  
+  /**
+   * Changes of the state against the base state, as a JSON Patch. The state field is null in that case.
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public ArrayNode stateDelta;
+  
+  /**
+   * The request asked for a delta response. Not part of the response.
+   */
+  @JsonIgnore
+  boolean delta;
+  
+  /**
+   * Tick of the state the client holds. Not part of the response.
+   */
+  @JsonIgnore
+  Integer requestedBaseTick;
+  
+  /**
+   * Session the simulation belongs to. Not part of the response.
+   */
+  @JsonIgnore
+  String sessionKey;
+  
+  /**
+   * The simulation, returned to the session store once the response is serialized. Not part of the response.
+   */
+  @JsonIgnore
+  Cpu cpu;
+  
   SimulateResponse(CpuState state, int executed_steps, StopReason stopReason)
   {
     this.executedSteps = executed_steps;
@@ -56,6 +103,14 @@ public class SimulateResponse
     this.stopReason    = stopReason;
   }
   
+  /**
+   * @return The simulation the response was produced by, null for responses not created by the handler
+   */
+  public Cpu getCpu()
+  {
+    return cpu;
+  }
+  
   /**
    * Convert the response to a short response
    */
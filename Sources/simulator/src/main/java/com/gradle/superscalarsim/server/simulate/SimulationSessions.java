@@ -0,0 +1,297 @@
+/**
+ * @file SimulationSessions.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Cache of live simulations for the /simulate endpoint
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.simulate;
+
+import com.gradle.superscalarsim.cpu.Cpu;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @class SimulationSessions
+ * @brief LRU store of live simulations, keyed by the hash of their configuration
+ * @details The frontend asks for tick N, then N+1, N+2 ... with the same configuration.
+ * Keeping the simulated Cpu between requests turns each of these requests into a single step.
+ * A Cpu is checked out for the duration of a request, so two concurrent requests never share one.
+ * Sessions are evicted (least recently used first) when the store is full or the checkpoints of all sessions
+ * together exceed the memory budget. A timer drops the sessions that were idle for too long.
+ */
+public class SimulationSessions
+{
+  /**
+   * Default maximum number of live simulations
+   */
+  public static final int DEFAULT_MAX_SESSIONS = 16;
+  
+  /**
+   * Default time after which an unused simulation is dropped
+   */
+  public static final long DEFAULT_IDLE_TIMEOUT_MS = 10 * 60 * 1000;
+  
+  /**
+   * Default memory budget for the checkpoints of all live simulations together, in bytes
+   */
+  public static final long DEFAULT_MEMORY_BUDGET = 32L * 1024 * 1024;
+  
+  /**
+   * Default memory budget for the checkpoints of one live simulation, in bytes
+   */
+  public static final long DEFAULT_SESSION_CHECKPOINT_BUDGET = 4L * 1024 * 1024;
+  
+  /**
+   * Drops idle simulations of all stores
+   */
+  private static final ScheduledExecutorService evictionTimer = Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "session-eviction");
+            thread.setDaemon(true);
+            return thread;
+          });
+  
+  /**
+   * Maximum number of live simulations
+   */
+  private final int maxSessions;
+  
+  /**
+   * Time in milliseconds after which an unused simulation is dropped
+   */
+  private final long idleTimeoutMs;
+  
+  /**
+   * Maximum total size of the checkpoints of the idle simulations in bytes
+   */
+  private final long memoryBudget;
+  
+  /**
+   * Idle simulations in access order (the eldest is the least recently used)
+   */
+  private final LinkedHashMap<String, Session> sessions;
+  
+  /**
+   * Total size of the checkpoints of the idle simulations in bytes
+   */
+  private long usedMemory;
+  
+  /**
+   * Number of requests that resumed a live simulation
+   */
+  private long hits;
+  
+  /**
+   * Number of requests that had to start a new simulation
+   */
+  private long misses;
+  
+  /**
+   * @brief Constructor with default limits
+   */
+  public SimulationSessions()
+  {
+    this(DEFAULT_MAX_SESSIONS, DEFAULT_IDLE_TIMEOUT_MS, DEFAULT_MEMORY_BUDGET);
+  }
+  
+  /**
+   * @param maxSessions   Maximum number of live simulations. Zero disables the store.
+   * @param idleTimeoutMs Time in milliseconds after which an unused simulation is dropped
+   * @param memoryBudget  Maximum total size of the checkpoints of the live simulations in bytes
+   *
+   * @brief Constructor. Schedules the eviction of idle simulations, twice per timeout.
+   */
+  public SimulationSessions(int maxSessions, long idleTimeoutMs, long memoryBudget)
+  {
+    this.maxSessions   = maxSessions;
+    this.idleTimeoutMs = idleTimeoutMs;
+    this.memoryBudget  = memoryBudget;
+    this.sessions      = new LinkedHashMap<>(16, 0.75f, true);
+    this.usedMemory    = 0;
+    if (maxSessions > 0 && idleTimeoutMs > 0)
+    {
+      IdleEviction eviction = new IdleEviction(this);
+      long         period   = Math.max(1, idleTimeoutMs / 2);
+      eviction.future = evictionTimer.scheduleWithFixedDelay(eviction, period, period, TimeUnit.MILLISECONDS);
+    }
+  }
+  
+  /**
+   * @param key Hash of the configuration
+   *
+   * @return The live simulation, removed from the store until it is released, or null if there is none
+   */
+  public synchronized Cpu acquire(String key)
+  {
+    evictIdle();
+    Session session = sessions.remove(key);
+    if (session == null)
+    {
+      misses++;
+      return null;
+    }
+    usedMemory -= session.memory;
+    hits++;
+    return session.cpu;
+  }
+  
+  /**
+   * @param cpu Simulation that is going to be kept in the store
+   *
+   * @brief Limits the checkpoints the simulation takes, so one session cannot use the budget of all of them
+   */
+  public void limitCheckpoints(Cpu cpu)
+  {
+    long budget = Math.min(DEFAULT_SESSION_CHECKPOINT_BUDGET, memoryBudget);
+    cpu.checkpointMemoryBudget = Math.min(cpu.checkpointMemoryBudget, budget);
+  }
+  
+  /**
+   * @param key Hash of the configuration
+   * @param cpu Simulation to keep for the next request
+   *
+   * @brief Returns the simulation to the store. A newer simulation with the same key replaces the older one.
+   * The least recently used simulations are evicted over the limits, the released one is always kept.
+   */
+  public synchronized void release(String key, Cpu cpu)
+  {
+    if (maxSessions <= 0)
+    {
+      return;
+    }
+    Session session = new Session(cpu, System.currentTimeMillis(), checkpointMemory(cpu));
+    Session older   = sessions.put(key, session);
+    if (older != null)
+    {
+      usedMemory -= older.memory;
+    }
+    usedMemory += session.memory;
+    Iterator<Session> it = sessions.values().iterator();
+    while ((sessions.size() > maxSessions || usedMemory > memoryBudget) && sessions.size() > 1)
+    {
+      usedMemory -= it.next().memory;
+      it.remove();
+    }
+  }
+  
+  /**
+   * @brief Drops the simulations that were not used for longer than the idle timeout
+   */
+  synchronized void evictIdle()
+  {
+    long              now = System.currentTimeMillis();
+    Iterator<Session> it  = sessions.values().iterator();
+    while (it.hasNext())
+    {
+      Session session = it.next();
+      if (now - session.lastUsed >= idleTimeoutMs)
+      {
+        usedMemory -= session.memory;
+        it.remove();
+      }
+    }
+  }
+  
+  /**
+   * @return Size of the checkpoints of the simulation in bytes
+   */
+  private static long checkpointMemory(Cpu cpu)
+  {
+    return cpu.checkpointStore == null ? 0 : cpu.checkpointStore.getUsedMemory();
+  }
+  
+  /**
+   * @return Number of idle simulations in the store
+   */
+  public synchronized int size()
+  {
+    return sessions.size();
+  }
+  
+  /**
+   * @return Total size of the checkpoints of the idle simulations in bytes
+   */
+  public synchronized long getUsedMemory()
+  {
+    return usedMemory;
+  }
+  
+  /**
+   * @return Number of requests that resumed a live simulation
+   */
+  public synchronized long getHits()
+  {
+    return hits;
+  }
+  
+  /**
+   * @return Number of requests that had to start a new simulation
+   */
+  public synchronized long getMisses()
+  {
+    return misses;
+  }
+  
+  /**
+   * @param cpu      The simulation
+   * @param lastUsed Time of the last release in milliseconds
+   * @param memory   Size of the checkpoints of the simulation at the release, in bytes
+   */
+  private record Session(Cpu cpu, long lastUsed, long memory)
+  {
+  }
+  
+  /**
+   * @brief Periodic eviction of idle simulations. Holds the store weakly and stops when it is collected.
+   */
+  private static final class IdleEviction implements Runnable
+  {
+    private final WeakReference<SimulationSessions> sessions;
+    private volatile ScheduledFuture<?> future;
+    
+    IdleEviction(SimulationSessions sessions)
+    {
+      this.sessions = new WeakReference<>(sessions);
+    }
+    
+    @Override
+    public void run()
+    {
+      SimulationSessions store = sessions.get();
+      if (store == null)
+      {
+        future.cancel(false);
+        return;
+      }
+      store.evictIdle();
+    }
+  }
+}
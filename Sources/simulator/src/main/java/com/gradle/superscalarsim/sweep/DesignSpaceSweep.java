@@ -0,0 +1,244 @@
+/**
+ * @file DesignSpaceSweep.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Runs one program against many CPU configurations in parallel
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.sweep;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gradle.superscalarsim.cpu.CancellationToken;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.ProgramImage;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import com.gradle.superscalarsim.serialization.Serialization;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * @class DesignSpaceSweep
+ * @brief Runs one program against many variants of a CPU configuration
+ * @details A variant is a map of {@link com.gradle.superscalarsim.cpu.CpuConfig} field names to values that replace
+ * the values of the base configuration. The variants run concurrently on a bounded pool, by default one thread per
+ * core. Every run gets its own deep copy of the configuration and its own CPU state, so runs share nothing mutable.
+ * Results are handed to the caller as the runs finish, not in the order of the variants.
+ */
+public class DesignSpaceSweep
+{
+  /**
+   * Configuration the variants are applied to. Never modified.
+   */
+  private final SimulationConfig baseConfig;
+  
+  /**
+   * Base configuration as a JSON tree, copied for each variant
+   */
+  private final ObjectNode baseTree;
+  
+  /**
+   * Overrides of the CPU configuration, one map per run
+   */
+  private final List<Map<String, Object>> variants;
+  
+  /**
+   * Maximum number of runs executing at the same time
+   */
+  private final int parallelism;
+  
+  /**
+   * @param baseConfig  Configuration the variants are applied to
+   * @param variants    Overrides of the CPU configuration, one map per run
+   * @param parallelism Maximum number of concurrent runs, 0 for the number of cores
+   *
+   * @brief Constructor. Checks that all overridden fields exist in the CPU configuration.
+   */
+  public DesignSpaceSweep(SimulationConfig baseConfig, List<Map<String, Object>> variants, int parallelism)
+  {
+    this.baseConfig  = baseConfig;
+    this.baseTree    = Serialization.getSerializer().valueToTree(baseConfig);
+    this.variants    = List.copyOf(variants);
+    this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    
+    JsonNode cpuTree = baseTree.get("cpuConfig");
+    for (Map<String, Object> variant : this.variants)
+    {
+      for (String field : variant.keySet())
+      {
+        if (!cpuTree.has(field))
+        {
+          throw new IllegalArgumentException("Unknown CPU configuration field: " + field);
+        }
+      }
+    }
+  }
+  
+  /**
+   * @param grid Values to try for each CPU configuration field
+   *
+   * @return All combinations of the values (cartesian product), the last field changing fastest
+   */
+  public static List<Map<String, Object>> expandGrid(Map<String, List<Object>> grid)
+  {
+    List<Map<String, Object>> variants = new ArrayList<>();
+    variants.add(new LinkedHashMap<>());
+    for (Map.Entry<String, List<Object>> axis : grid.entrySet())
+    {
+      List<Map<String, Object>> expanded = new ArrayList<>();
+      for (Map<String, Object> variant : variants)
+      {
+        for (Object value : axis.getValue())
+        {
+          Map<String, Object> copy = new LinkedHashMap<>(variant);
+          copy.put(axis.getKey(), value);
+          expanded.add(copy);
+        }
+      }
+      variants = expanded;
+    }
+    return variants;
+  }
+  
+  /**
+   * @return Number of runs of the sweep
+   */
+  public int getVariantCount()
+  {
+    return variants.size();
+  }
+  
+  /**
+   * @return Maximum number of concurrent runs
+   */
+  public int getParallelism()
+  {
+    return parallelism;
+  }
+  
+  /**
+   * @param index Position of the variant
+   *
+   * @return A new configuration with the overrides of the variant applied
+   */
+  public SimulationConfig createConfig(int index)
+  {
+    ObjectMapper mapper  = Serialization.getSerializer();
+    ObjectNode   tree    = baseTree.deepCopy();
+    ObjectNode   cpuTree = (ObjectNode) tree.get("cpuConfig");
+    variants.get(index).forEach((field, value) -> cpuTree.set(field, mapper.valueToTree(value)));
+    try
+    {
+      return mapper.treeToValue(tree, SimulationConfig.class);
+    }
+    catch (JsonProcessingException e)
+    {
+      throw new IllegalArgumentException("Invalid value in variant " + index + ": " + e.getOriginalMessage(), e);
+    }
+  }
+  
+  /**
+   * The program is checked once up front. A program that does not parse fails the sweep before any run starts.
+   * A variant with an invalid CPU configuration produces a failed result, the other variants still run.
+   *
+   * @param onResult Called for each finished run, always from the calling thread
+   *
+   * @throws InterruptedException If the calling thread is interrupted while waiting for the runs
+   * @brief Runs all variants and reports the results as they finish
+   */
+  public void run(Consumer<SweepResult> onResult) throws InterruptedException
+  {
+    SimulationConfig.ValidationResult programCheck = baseConfig.validate();
+    if (!programCheck.valid && programCheck.messages.stream().anyMatch(e -> e.field().equals("code")))
+    {
+      throw new IllegalArgumentException("Invalid program: " + programCheck);
+    }
+    
+    ForkJoinPool                   pool       = new ForkJoinPool(parallelism);
+    CompletionService<SweepResult> completion = new ExecutorCompletionService<>(pool);
+    StaticDataProvider             provider   = new StaticDataProvider();
+    CancellationToken              token      = new CancellationToken();
+    try
+    {
+      for (int i = 0; i < variants.size(); i++)
+      {
+        int index = i;
+        completion.submit(() -> runVariant(index, provider, token));
+      }
+      for (int i = 0; i < variants.size(); i++)
+      {
+        try
+        {
+          onResult.accept(completion.take().get());
+        }
+        catch (ExecutionException e)
+        {
+          throw new IllegalStateException("Sweep run failed", e.getCause());
+        }
+      }
+    }
+    finally
+    {
+      // Stop the runs that are still going when the sweep is interrupted
+      token.cancel();
+      pool.shutdownNow();
+    }
+  }
+  
+  /**
+   * @param index    Position of the variant
+   * @param provider Instruction set and register definitions. Read-only, shared by the runs.
+   * @param token    Cancelled when the sweep ends early
+   *
+   * @return Result of the run
+   */
+  private SweepResult runVariant(int index, StaticDataProvider provider, CancellationToken token)
+  {
+    Map<String, Object> parameters = variants.get(index);
+    SimulationConfig    config;
+    try
+    {
+      config = createConfig(index);
+    }
+    catch (IllegalArgumentException e)
+    {
+      return SweepResult.failed(index, parameters, e.getMessage());
+    }
+    SimulationConfig.ValidationResult validation = config.validate();
+    if (!validation.valid)
+    {
+      return SweepResult.failed(index, parameters, validation.toString());
+    }
+    
+    long start = System.nanoTime();
+    Cpu  cpu   = new Cpu(config, provider, ProgramImage.of(config, provider), token);
+    cpu.execute(false);
+    long wallTimeMs = (System.nanoTime() - start) / 1_000_000;
+    return SweepResult.of(index, parameters, cpu.stopReason, cpu.cpuState.statistics, wallTimeMs);
+  }
+}
@@ -0,0 +1,103 @@
+/**
+ * @file SweepResult.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Summary of one run of a design-space sweep
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.sweep;
+
+import com.gradle.superscalarsim.cpu.SimulationStatistics;
+import com.gradle.superscalarsim.cpu.StopReason;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param index                 Position of the variant in the sweep
+ * @param parameters            Overridden CPU configuration fields of the variant
+ * @param stopReason            Why the simulation ended, {@link StopReason#kBadConfig} if it did not run
+ * @param clockCycles           Number of simulated cycles
+ * @param committedInstructions Number of committed instructions
+ * @param ipc                   Committed instructions per cycle
+ * @param cacheHitRate          Hit rate of the cache, 0 without a cache
+ * @param predictionAccuracy    Branch prediction accuracy
+ * @param robFlushes            Number of ROB flushes
+ * @param wallTimeMs            Time the run took in milliseconds
+ * @param error                 Reason the variant could not be simulated, null on success
+ *
+ * @brief Summary of one run of a design-space sweep
+ */
+public record SweepResult(int index, Map<String, Object> parameters, StopReason stopReason, long clockCycles,
+                          long committedInstructions, double ipc, double cacheHitRate, double predictionAccuracy,
+                          long robFlushes, long wallTimeMs, String error)
+{
+  /**
+   * Names of the metric columns, in the order of {@link #metrics()}
+   */
+  public static final List<String> METRIC_NAMES = List.of("stopReason", "clockCycles", "committedInstructions", "ipc",
+                                                          "cacheHitRate", "predictionAccuracy", "robFlushes",
+                                                          "wallTimeMs", "error");
+  
+  /**
+   * @param index      Position of the variant in the sweep
+   * @param parameters Overridden CPU configuration fields of the variant
+   * @param stopReason Why the simulation ended
+   * @param statistics Statistics at the end of the simulation
+   * @param wallTimeMs Time the run took in milliseconds
+   *
+   * @return Result of a finished run
+   */
+  public static SweepResult of(int index,
+                               Map<String, Object> parameters,
+                               StopReason stopReason,
+                               SimulationStatistics statistics,
+                               long wallTimeMs)
+  {
+    return new SweepResult(index, parameters, stopReason, statistics.clockCycles, statistics.committedInstructions,
+                           statistics.getIpc(), statistics.cache.getHitRate(), statistics.getPredictionAccuracy(),
+                           statistics.robFlushes, wallTimeMs, null);
+  }
+  
+  /**
+   * @param index      Position of the variant in the sweep
+   * @param parameters Overridden CPU configuration fields of the variant
+   * @param error      Reason the variant could not be simulated
+   *
+   * @return Result of a variant that did not run
+   */
+  public static SweepResult failed(int index, Map<String, Object> parameters, String error)
+  {
+    return new SweepResult(index, parameters, StopReason.kBadConfig, 0, 0, 0, 0, 0, 0, 0, error);
+  }
+  
+  /**
+   * @return Values of the metrics, in the order of {@link #METRIC_NAMES}
+   */
+  public List<Object> metrics()
+  {
+    return Arrays.asList(stopReason, clockCycles, committedInstructions, ipc, cacheHitRate, predictionAccuracy,
+                         robFlushes, wallTimeMs, error);
+  }
+}
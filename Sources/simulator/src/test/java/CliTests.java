@@ -1,4 +1,7 @@
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gradle.superscalarsim.compiler.GccCaller;
+import com.gradle.superscalarsim.cpu.CpuState;
 import com.gradle.superscalarsim.cpu.DebugLog;
 import com.gradle.superscalarsim.serialization.Serialization;
 import org.junit.Assert;
@@ -6,8 +9,12 @@ import org.junit.Before;
 import org.junit.Test;
 import picocli.CommandLine;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
 
 /**
  * TODO: move along with the Cli code
@@ -222,4 +229,86 @@ public class CliTests
     Assert.assertTrue(output.contains("\n"));
     Assert.assertTrue(output.contains("statistics"));
   }
+  
+  /**
+   * A simulation stopped and saved in the middle must end the same as one run at once.
+   * The test is designed to work with CWD set to the root of the simulator
+   */
+  @Test
+  public void testSaveAndLoadState() throws IOException
+  {
+    Path snapshot = Files.createTempFile("state", ".bin");
+    try
+    {
+      int exitCode = cmd.execute("--cpu", "examples/cpuConfigurations/default.json", "--program",
+                                 "examples/asmPrograms/basicLoop.r5", "--tick", "20", "--save-state",
+                                 snapshot.toString());
+      Assert.assertEquals(0, exitCode);
+      Assert.assertEquals(20, cliApp.response.state.tick);
+      
+      setUp();
+      exitCode = cmd.execute("--cpu", "examples/cpuConfigurations/default.json", "--program",
+                             "examples/asmPrograms/basicLoop.r5", "--load-state", snapshot.toString());
+      Assert.assertEquals(0, exitCode);
+      CpuState resumed = cliApp.response.state;
+      
+      setUp();
+      exitCode = cmd.execute("--cpu", "examples/cpuConfigurations/default.json", "--program",
+                             "examples/asmPrograms/basicLoop.r5");
+      Assert.assertEquals(0, exitCode);
+      Assert.assertEquals(cliApp.response.state, resumed);
+      
+      // Loading with another program is refused
+      setUp();
+      exitCode = cmd.execute("--cpu", "examples/cpuConfigurations/default.json", "--program",
+                             "examples/asmPrograms/basicFloatArithmetic.r5", "--load-state", snapshot.toString());
+      Assert.assertEquals(2, exitCode);
+      Assert.assertTrue(sw.toString().contains("different configuration or program"));
+    }
+    finally
+    {
+      Files.deleteIfExists(snapshot);
+    }
+  }
+  
+  /**
+   * GCC is replaced with a script that echoes its input, so the C program is already assembly.
+   * The test is designed to work with CWD set to the root of the simulator
+   */
+  @Test
+  public void testCProgram() throws IOException
+  {
+    String originalCompilerPath = GccCaller.getCompilerPath();
+    Path   compiler             = Files.createTempFile("gcc", ".sh");
+    Path   program              = Files.createTempFile("program", ".c");
+    try
+    {
+      Files.writeString(compiler, "#!/bin/sh\ncat\n");
+      Files.setPosixFilePermissions(compiler, PosixFilePermissions.fromString("rwx------"));
+      Files.writeString(program, "  .section .text.main,\"ax\",@progbits\n  addi x5, x0, 7\n  ret\n");
+      GccCaller.setCompilerPath(compiler.toString());
+      
+      int exitCode = cmd.execute("--cpu", "examples/cpuConfigurations/default.json", "--program", program.toString(),
+                                 "--c", "--optimize", "O2");
+      Assert.assertEquals(0, exitCode);
+      Assert.assertEquals("success", cliApp.compileResponse.status);
+      Assert.assertEquals(7, cliApp.compileResponse.state.unifiedRegisterFileBlock.getRegister("x5").getLong());
+      
+      JsonNode output = Serialization.getDeserializer().readTree(sw.toString());
+      Assert.assertTrue(output.has("statistics"));
+      Assert.assertTrue(output.get("timings").has("compileMs"));
+      
+      // Optimization flags need a C program
+      setUp();
+      exitCode = cmd.execute("--cpu", "examples/cpuConfigurations/default.json", "--program", program.toString(),
+                             "--optimize", "O2");
+      Assert.assertEquals(2, exitCode);
+    }
+    finally
+    {
+      GccCaller.setCompilerPath(originalCompilerPath);
+      Files.deleteIfExists(compiler);
+      Files.deleteIfExists(program);
+    }
+  }
 }
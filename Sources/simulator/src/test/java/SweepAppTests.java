@@ -0,0 +1,72 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import picocli.CommandLine;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class SweepAppTests
+{
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  
+  CommandLine cmd;
+  
+  StringWriter sw;
+  
+  @Before
+  public void setUp()
+  {
+    cmd = new CommandLine(new SweepApp());
+    sw  = new StringWriter();
+    cmd.setErr(new PrintWriter(sw));
+    cmd.setOut(new PrintWriter(sw));
+  }
+  
+  @Test
+  public void testGridRequired()
+  {
+    int exitCode = cmd.execute("--cpu", "cpu.json", "--program", "program.json");
+    Assert.assertEquals(2, exitCode);
+    Assert.assertTrue(sw.toString().startsWith("Missing required option: '--grid=FILE'"));
+  }
+  
+  /**
+   * The test is designed to work with CWD set to the root of the simulator
+   */
+  @Test
+  public void testCsvOneLinePerVariant() throws Exception
+  {
+    Path grid = folder.newFile("grid.json").toPath();
+    Files.writeString(grid, "{\"robSize\": [16, 64], \"useCache\": [false, true]}");
+    
+    int exitCode = cmd.execute("--cpu", "examples/cpuConfigurations/default.json", "--program",
+                               "examples/asmPrograms/basicLoop.r5", "--grid", grid.toString(), "--format", "csv",
+                               "--threads", "2");
+    Assert.assertEquals(0, exitCode);
+    
+    String[] lines = sw.toString().strip().split("\n");
+    Assert.assertEquals(5, lines.length);
+    Assert.assertTrue(lines[0].startsWith("index,robSize,useCache,stopReason,clockCycles"));
+  }
+  
+  /**
+   * The test is designed to work with CWD set to the root of the simulator
+   */
+  @Test
+  public void testUnknownFieldRejected() throws Exception
+  {
+    Path grid = folder.newFile("grid.json").toPath();
+    Files.writeString(grid, "[{\"noSuchField\": 1}]");
+    
+    int exitCode = cmd.execute("--cpu", "examples/cpuConfigurations/default.json", "--program",
+                               "examples/asmPrograms/basicLoop.r5", "--grid", grid.toString());
+    Assert.assertEquals(2, exitCode);
+    Assert.assertTrue(sw.toString().startsWith("Unknown CPU configuration field: noSuchField"));
+  }
+}
@@ -0,0 +1,166 @@
+/**
+ * @file CompileAndSimulateTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for the fused compile, parse and simulate endpoint
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim;
+
+import com.gradle.superscalarsim.compiler.CompileCache;
+import com.gradle.superscalarsim.compiler.GccCaller;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.cpu.StopReason;
+import com.gradle.superscalarsim.server.ServerException;
+import com.gradle.superscalarsim.server.compileAndSimulate.CompileAndSimulateHandler;
+import com.gradle.superscalarsim.server.compileAndSimulate.CompileAndSimulateRequest;
+import com.gradle.superscalarsim.server.compileAndSimulate.CompileAndSimulateResponse;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * GCC is replaced with a script that echoes its input, so the "C code" of the requests is assembly
+ */
+public class CompileAndSimulateTests
+{
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  
+  private String originalCompilerPath;
+  
+  private CompileCache originalCache;
+  
+  private CompileAndSimulateHandler handler;
+  
+  @Before
+  public void setUp() throws IOException
+  {
+    originalCompilerPath = GccCaller.getCompilerPath();
+    originalCache        = GccCaller.getCache();
+    GccCaller.setCache(new CompileCache(CompileCache.DEFAULT_MAX_ENTRIES, null));
+    
+    Path script = folder.newFile().toPath();
+    Files.writeString(script, "#!/bin/sh\ncat\n");
+    Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwx------"));
+    GccCaller.setCompilerPath(script.toString());
+    
+    handler = new CompileAndSimulateHandler();
+  }
+  
+  @After
+  public void tearDown()
+  {
+    GccCaller.setCompilerPath(originalCompilerPath);
+    GccCaller.setCache(originalCache);
+  }
+  
+  /**
+   * @param body Instructions of the main function
+   *
+   * @return Assembly in the shape of the GCC output, so the filtering keeps it
+   */
+  private static String gccOutput(String body)
+  {
+    return "  .section .text.main,\"ax\",@progbits\n  .globl main\nmain:\n" + body;
+  }
+  
+  private static CompileAndSimulateRequest request(String body, Optional<Integer> tick)
+  {
+    return new CompileAndSimulateRequest(gccOutput(body), List.of("O2"), CpuConfig.getDefaultConfiguration(), null,
+                                         null, tick);
+  }
+  
+  @Test
+  public void test_program_simulatedToEnd() throws ServerException
+  {
+    CompileAndSimulateResponse response = handler.resolve(request("""
+                                                                            addi x5, x0, 5
+                                                                            addi x6, x5, 3
+                                                                            ret
+                                                                          """, Optional.empty()));
+    
+    Assert.assertEquals("success", response.status);
+    Assert.assertEquals(StopReason.kCallStackHalt, response.stopReason);
+    Assert.assertEquals(8, response.state.unifiedRegisterFileBlock.getRegister("x6").getLong());
+    Assert.assertEquals(response.program.split("\n").length, response.asmToC.size());
+    Assert.assertTrue(response.timings.compileMs > 0);
+    Assert.assertTrue(response.timings.simulateMs > 0);
+  }
+  
+  @Test
+  public void test_tick_stopsSimulation() throws ServerException
+  {
+    CompileAndSimulateResponse response = handler.resolve(request("""
+                                                                            addi x5, x0, 5
+                                                                            addi x6, x5, 3
+                                                                            ret
+                                                                          """, Optional.of(2)));
+    
+    Assert.assertEquals("success", response.status);
+    Assert.assertEquals(2, response.state.tick);
+    Assert.assertEquals(StopReason.kNotStopped, response.stopReason);
+  }
+  
+  @Test
+  public void test_asmErrors_notSimulated() throws ServerException
+  {
+    CompileAndSimulateResponse response = handler.resolve(request("""
+                                                                            addi x1, x0
+                                                                          """, Optional.empty()));
+    
+    Assert.assertEquals("asm", response.status);
+    Assert.assertFalse(response.success());
+    Assert.assertFalse(response.asmErrors.isEmpty());
+    Assert.assertNull(response.state);
+    Assert.assertEquals(0, response.timings.simulateMs, 0);
+  }
+  
+  @Test
+  public void test_badEntryPoint_configError() throws ServerException
+  {
+    CompileAndSimulateRequest request = new CompileAndSimulateRequest(gccOutput("  ret\n"), List.of(),
+                                                                      CpuConfig.getDefaultConfiguration(), null,
+                                                                      "nonExisting", Optional.empty());
+    CompileAndSimulateResponse response = handler.resolve(request);
+    
+    Assert.assertEquals("config", response.status);
+    Assert.assertNull(response.state);
+  }
+  
+  @Test(expected = ServerException.class)
+  public void test_missingCpuConfig_throws() throws ServerException
+  {
+    handler.resolve(new CompileAndSimulateRequest(gccOutput("  ret\n"), List.of(), null, null, null, Optional.empty()));
+  }
+}
@@ -1,8 +1,15 @@
 package com.gradle.superscalarsim;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.gradle.superscalarsim.cpu.CancellationToken;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.ExecuteUtil;
 import com.gradle.superscalarsim.cpu.MemoryLocation;
+import com.gradle.superscalarsim.cpu.SimulationCancelledException;
 import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.serialization.JsonDiff;
+import com.gradle.superscalarsim.serialization.Serialization;
 import com.gradle.superscalarsim.server.EndpointName;
 import com.gradle.superscalarsim.server.ServerError;
 import com.gradle.superscalarsim.server.ServerException;
@@ -20,12 +27,18 @@ import com.gradle.superscalarsim.server.parseAsm.ParseAsmRequest;
 import com.gradle.superscalarsim.server.parseAsm.ParseAsmResponse;
 import com.gradle.superscalarsim.server.schema.SchemaHandler;
 import com.gradle.superscalarsim.server.schema.SchemaRequest;
+import com.gradle.superscalarsim.server.serverStatistics.ServerStatisticsHandler;
+import com.gradle.superscalarsim.server.serverStatistics.ServerStatisticsRequest;
+import com.gradle.superscalarsim.server.serverStatistics.ServerStatisticsResponse;
+import com.gradle.superscalarsim.server.simulate.SentStates;
 import com.gradle.superscalarsim.server.simulate.SimulateHandler;
 import com.gradle.superscalarsim.server.simulate.SimulateRequest;
 import com.gradle.superscalarsim.server.simulate.SimulateResponse;
+import com.gradle.superscalarsim.server.simulate.SimulationSessions;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -55,6 +68,161 @@ public class EndpointHandlersTests
     Assert.assertEquals(1, response.executedSteps);
   }
   
+  /**
+   * Successive /simulate requests with the same configuration continue the simulation from the last state
+   */
+  @Test
+  public void testSimulateEndpointResumesSession() throws Exception
+  {
+    SimulateHandler  handler = new SimulateHandler();
+    SimulationConfig config  = new SimulationConfig();
+    config.code = """
+            addi x1, x0, 1
+            addi x2, x1, 2
+            addi x3, x2, 3""";
+    
+    SimulateResponse first = handler.resolve(new SimulateRequest(config, Optional.of(5)));
+    handler.serialize(first, new ByteArrayOutputStream());
+    Assert.assertEquals(5, first.executedSteps);
+    
+    // Same configuration, but a different object
+    SimulationConfig sameConfig = new SimulationConfig();
+    sameConfig.code = config.code;
+    SimulateResponse second = handler.resolve(new SimulateRequest(sameConfig, Optional.of(6)));
+    handler.serialize(second, new ByteArrayOutputStream());
+    Assert.assertEquals(1, second.executedSteps);
+    Assert.assertEquals(6, second.state.tick);
+    
+    // Different configuration starts from the beginning
+    SimulationConfig otherConfig = new SimulationConfig();
+    otherConfig.code = config.code + "\naddi x4, x3, 4";
+    SimulateResponse third = handler.resolve(new SimulateRequest(otherConfig, Optional.of(6)));
+    Assert.assertEquals(6, third.executedSteps);
+  }
+  
+  /**
+   * The checkpoints of all live simulations share one budget, idle simulations are dropped without a request
+   */
+  @Test
+  public void testSimulationSessionsMemoryBudget() throws Exception
+  {
+    List<Cpu> cpus = new ArrayList<>();
+    for (int i = 0; i < 3; i++)
+    {
+      Cpu cpu = new Cpu(ExecuteUtil.getConfig(ExecuteUtil.getLoopProgram(10 + i)));
+      cpu.simulateState(20);
+      // Going back creates the checkpoint store with the initial state
+      cpu.stepBack();
+      cpus.add(cpu);
+    }
+    long memory = cpus.get(0).checkpointStore.getUsedMemory();
+    Assert.assertTrue(memory > 0);
+    
+    SimulationSessions sessions = new SimulationSessions(16, 1000, memory * 5 / 2);
+    Cpu                limited  = new Cpu();
+    sessions.limitCheckpoints(limited);
+    Assert.assertEquals(memory * 5 / 2, limited.checkpointMemoryBudget);
+    
+    for (int i = 0; i < 3; i++)
+    {
+      sessions.release("cpu" + i, cpus.get(i));
+    }
+    // The least recently used simulation is evicted over the budget
+    Assert.assertEquals(2, sessions.size());
+    Assert.assertTrue(sessions.getUsedMemory() <= memory * 5 / 2);
+    Assert.assertNull(sessions.acquire("cpu0"));
+    
+    // The timer drops the idle simulations
+    long deadline = System.currentTimeMillis() + 5000;
+    while (sessions.size() > 0 && System.currentTimeMillis() < deadline)
+    {
+      Thread.sleep(50);
+    }
+    Assert.assertEquals(0, sessions.size());
+    Assert.assertEquals(0, sessions.getUsedMemory());
+    Assert.assertEquals(0, sessions.getHits());
+  }
+  
+  /**
+   * A delta request with a known base state gets only the changes, which applied to the base give the full state
+   */
+  @Test
+  public void testSimulateEndpointDelta() throws Exception
+  {
+    SimulateHandler  handler = new SimulateHandler();
+    SimulationConfig config  = new SimulationConfig();
+    config.code = """
+            addi x1, x0, 1
+            addi x2, x1, 2
+            sw x2, 0(sp)
+            lw x3, 0(sp)""";
+    
+    // No base yet, the full state is sent
+    ByteArrayOutputStream firstStream = new ByteArrayOutputStream();
+    handler.serialize(handler.resolve(new SimulateRequest(config, Optional.of(4), Optional.empty())), firstStream);
+    JsonNode first = Serialization.getDeserializer().readTree(firstStream.toByteArray());
+    Assert.assertEquals(config.hash(), first.get("configHash").asText());
+    Assert.assertFalse(first.has("stateDelta"));
+    
+    ByteArrayOutputStream secondStream = new ByteArrayOutputStream();
+    handler.serialize(handler.resolve(new SimulateRequest(config, Optional.of(5), Optional.of(4))), secondStream);
+    JsonNode second = Serialization.getDeserializer().readTree(secondStream.toByteArray());
+    Assert.assertEquals(4, second.get("baseTick").asInt());
+    Assert.assertTrue(second.get("state").isNull());
+    
+    // Compare with a full response from a fresh handler
+    SimulateHandler       fullHandler = new SimulateHandler();
+    ByteArrayOutputStream fullStream  = new ByteArrayOutputStream();
+    fullHandler.serialize(fullHandler.resolve(new SimulateRequest(config, Optional.of(5))), fullStream);
+    JsonNode full = Serialization.getDeserializer().readTree(fullStream.toByteArray());
+    Assert.assertFalse(full.has("configHash"));
+    Assert.assertEquals(full.get("state"),
+                        JsonDiff.apply(first.get("state"), (ArrayNode) second.get("stateDelta")));
+    Assert.assertTrue(secondStream.size() < fullStream.size() / 4);
+  }
+  
+  /**
+   * A base state the server does not know (other tick, other configuration) falls back to the full state
+   */
+  @Test
+  public void testSimulateEndpointDeltaUnknownBase() throws Exception
+  {
+    SimulateHandler  handler = new SimulateHandler();
+    SimulationConfig config  = new SimulationConfig();
+    config.code = "addi x1, x0, 1";
+    
+    SimulateResponse      response = handler.resolve(new SimulateRequest(config, Optional.of(2), Optional.of(1)));
+    ByteArrayOutputStream stream   = new ByteArrayOutputStream();
+    handler.serialize(response, stream);
+    JsonNode json = Serialization.getDeserializer().readTree(stream.toByteArray());
+    
+    Assert.assertNull(response.stateDelta);
+    Assert.assertEquals(2, json.get("state").get("tick").asInt());
+    Assert.assertFalse(json.has("baseTick"));
+  }
+  
+  /**
+   * The sent states are bounded by their size, the least recently used ones are evicted first
+   */
+  @Test
+  public void testSentStatesByteBudget()
+  {
+    SentStates states = new SentStates(100);
+    states.put("config", 1, new byte[40]);
+    states.put("config", 2, new byte[40]);
+    Assert.assertNotNull(states.get("config", 1));
+    states.put("config", 3, new byte[40]);
+    // Tick 2 was used least recently
+    Assert.assertNull(states.get("config", 2));
+    Assert.assertEquals(2, states.size());
+    Assert.assertEquals(80, states.getUsedBytes());
+    
+    // A state over the budget is still kept as the newest one
+    states.put("config", 4, new byte[200]);
+    Assert.assertEquals(1, states.size());
+    Assert.assertEquals(200, states.getUsedBytes());
+  }
+  
   /**
    * The /checkConfig endpoint generates a positive response
    */
@@ -209,6 +377,20 @@ public class EndpointHandlersTests
     Assert.assertTrue(response.models.get("addi").name().contains("addi"));
   }
   
+  @Test
+  public void testServerStatistics()
+  {
+    ServerStatisticsHandler handler = new ServerStatisticsHandler();
+    long                    before  = handler.resolve(new ServerStatisticsRequest()).cancelledSimulations;
+    
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    Assert.assertThrows(SimulationCancelledException.class, () -> token.throwIfCancelled(0));
+    
+    ServerStatisticsResponse response = handler.resolve(new ServerStatisticsRequest());
+    Assert.assertTrue(response.cancelledSimulations > before);
+  }
+  
   @Test
   public void testParseAsm() throws ServerException
   {
@@ -78,4 +78,21 @@ public class RegisterTests
     int x = (int) registerDataContainer.getValue(DataTypeEnum.kInt);
     Assert.assertEquals(0b00000000_00000000_00000000_00000000, x);
   }
+  
+  @Test
+  public void testTypedGetters()
+  {
+    RegisterDataContainer registerDataContainer = new RegisterDataContainer();
+    
+    registerDataContainer.setValue(-2.5f);
+    Assert.assertEquals(-2.5f, registerDataContainer.getFloat(), 0);
+    Assert.assertEquals(Float.floatToIntBits(-2.5f), registerDataContainer.getInt());
+    
+    registerDataContainer.setValue(-7L);
+    Assert.assertEquals(-7L, registerDataContainer.getLong());
+    Assert.assertEquals(-7, registerDataContainer.getInt());
+    
+    registerDataContainer.setValue(0.125);
+    Assert.assertEquals(0.125, registerDataContainer.getDouble(), 0);
+  }
 }
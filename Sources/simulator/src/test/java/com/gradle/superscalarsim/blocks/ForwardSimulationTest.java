@@ -1510,6 +1510,7 @@ public class ForwardSimulationTest
     Assert.assertEquals(0, this.storeBufferBlock.getQueueSize());
     
     this.cpu.step();
+    // The lowest free tag is taken, the committed mul has released tg0
     Assert.assertEquals("lw tg0,0(x2)", this.decodeAndDispatchBlock.getCodeBuffer().get(0).getRenamedCodeLine());
     Assert.assertEquals(0, this.loadBufferBlock.getQueueSize());
     Assert.assertEquals(0, this.storeBufferBlock.getQueueSize());
@@ -1740,7 +1741,8 @@ public class ForwardSimulationTest
     Assert.assertEquals("lw", this.instructionFetchBlock.getFetchedCode().get(0).getInstructionName());
     
     this.cpu.step();
-    Assert.assertEquals("lw tg1,0(x2)", this.decodeAndDispatchBlock.getCodeBuffer().get(0).getRenamedCodeLine());
+    // The lowest free tag is taken, the committed mul has released tg0
+    Assert.assertEquals("lw tg0,0(x2)", this.decodeAndDispatchBlock.getCodeBuffer().get(0).getRenamedCodeLine());
     
     this.cpu.step();
     Assert.assertEquals(1, this.reorderBufferBlock.getReorderQueueSize());
@@ -1748,13 +1750,13 @@ public class ForwardSimulationTest
     Assert.assertEquals(0, this.storeBufferBlock.getQueueSize());
     
     this.cpu.step();
-    Assert.assertEquals("lw tg1,0(x2)", this.loadStoreFunctionUnit.getSimCodeModel().getRenamedCodeLine());
+    Assert.assertEquals("lw tg0,0(x2)", this.loadStoreFunctionUnit.getSimCodeModel().getRenamedCodeLine());
     
     this.cpu.step();
     // Now to mem access. should be in cache.
     Assert.assertNull(this.loadStoreFunctionUnit.getSimCodeModel());
     // in cache
-    Assert.assertEquals("lw tg1,0(x2)", this.memoryAccessUnit.getSimCodeModel().getRenamedCodeLine());
+    Assert.assertEquals("lw tg0,0(x2)", this.memoryAccessUnit.getSimCodeModel().getRenamedCodeLine());
     
     this.cpu.step();
     Assert.assertNull(this.memoryAccessUnit.getSimCodeModel());
@@ -1,7 +1,9 @@
 package com.gradle.superscalarsim.blocks;
 
+import com.gradle.superscalarsim.blocks.base.RenameMapTableBlock;
 import com.gradle.superscalarsim.blocks.base.UnifiedRegisterFileBlock;
 import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.enums.RegisterReadinessEnum;
 import com.gradle.superscalarsim.factories.RegisterModelFactory;
 import com.gradle.superscalarsim.loader.StaticDataProvider;
 import com.gradle.superscalarsim.models.register.RegisterModel;
@@ -9,6 +11,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class RegisterTests
@@ -76,4 +80,96 @@ public class RegisterTests
     RegisterModel x2 = unifiedRegisterFileBlock.getRegister("x2");
     Assert.assertEquals(10, (int) x2.getValue(DataTypeEnum.kInt), 0.01);
   }
+  
+  /**
+   * Tests that the ready listeners run once, when the value becomes available, and are dropped when the register is freed
+   */
+  @Test
+  public void testReadyListeners()
+  {
+    RegisterModel speculativeRegister = unifiedRegisterFileBlock.getRegister("tg7");
+    List<String>  calls               = new ArrayList<>();
+    speculativeRegister.setReadiness(RegisterReadinessEnum.kAllocated);
+    speculativeRegister.addReadyListener(() -> calls.add("first"));
+    speculativeRegister.addReadyListener(() -> calls.add("second"));
+    
+    speculativeRegister.setReadiness(RegisterReadinessEnum.kAllocated);
+    Assert.assertTrue(calls.isEmpty());
+    speculativeRegister.setReadiness(RegisterReadinessEnum.kExecuted);
+    Assert.assertEquals(List.of("first", "second"), calls);
+    speculativeRegister.setReadiness(RegisterReadinessEnum.kAssigned);
+    Assert.assertEquals(2, calls.size());
+    
+    // Listeners of a freed register are dropped
+    speculativeRegister.addReadyListener(() -> calls.add("stale"));
+    speculativeRegister.setReadiness(RegisterReadinessEnum.kFree);
+    speculativeRegister.setReadiness(RegisterReadinessEnum.kExecuted);
+    Assert.assertEquals(2, calls.size());
+  }
+  
+  /**
+   * Tests that the rename map table hands out the speculative registers by their tag, lowest free tag first
+   */
+  @Test
+  public void testRenameFreeList()
+  {
+    RenameMapTableBlock renameMapTableBlock = new RenameMapTableBlock(unifiedRegisterFileBlock);
+    RegisterModel       x5                  = unifiedRegisterFileBlock.getRegister("x5");
+    
+    RegisterModel first  = renameMapTableBlock.mapRegister(x5);
+    RegisterModel second = renameMapTableBlock.mapRegister(x5);
+    RegisterModel third  = renameMapTableBlock.mapRegister(x5);
+    Assert.assertSame(unifiedRegisterFileBlock.getRegister("tg0"), first);
+    Assert.assertSame(unifiedRegisterFileBlock.getSpeculativeRegisterFile().getRegister(1), second);
+    Assert.assertEquals(1, second.getSpeculativeTag());
+    Assert.assertSame(third, x5.getNewestMapping());
+    Assert.assertEquals(317, renameMapTableBlock.getFreeRegistersCount());
+    
+    // Freed register is the lowest free tag again
+    renameMapTableBlock.reduceReference(second);
+    Assert.assertSame(third, x5.getNewestMapping());
+    Assert.assertEquals("tg1", renameMapTableBlock.getFreeTags().get(0));
+    Assert.assertEquals("tg3", renameMapTableBlock.getFreeTags().get(1));
+    Assert.assertSame(second, renameMapTableBlock.mapRegister(x5));
+  }
+  
+  /**
+   * Tests that a restore frees the registers renamed after the checkpoint and releases the references they took
+   */
+  @Test
+  public void testRenameCheckpointRestore()
+  {
+    RenameMapTableBlock renameMapTableBlock = new RenameMapTableBlock(unifiedRegisterFileBlock);
+    RegisterModel       x5                  = unifiedRegisterFileBlock.getRegister("x5");
+    RegisterModel       x6                  = unifiedRegisterFileBlock.getRegister("x6");
+    
+    RegisterModel older = renameMapTableBlock.mapRegister(x5);
+    renameMapTableBlock.checkpoint(10);
+    // Squashed instructions read the older register and rename both registers
+    renameMapTableBlock.increaseReference(older);
+    RegisterModel squashed = renameMapTableBlock.mapRegister(x5);
+    renameMapTableBlock.increaseReference(squashed);
+    renameMapTableBlock.mapRegister(x6);
+    renameMapTableBlock.checkpoint(12);
+    renameMapTableBlock.increaseReference(older);
+    renameMapTableBlock.mapRegister(x6);
+    Assert.assertEquals(3, older.getReferenceCount());
+    Assert.assertEquals(316, renameMapTableBlock.getFreeRegistersCount());
+    
+    renameMapTableBlock.restore(11);
+    Assert.assertEquals(1, renameMapTableBlock.getCheckpointCount());
+    Assert.assertEquals(319, renameMapTableBlock.getFreeRegistersCount());
+    Assert.assertSame(older, x5.getNewestMapping());
+    Assert.assertSame(x6, x6.getNewestMapping());
+    Assert.assertEquals(1, older.getReferenceCount());
+    Assert.assertEquals(0, squashed.getReferenceCount());
+    Assert.assertEquals(RegisterReadinessEnum.kFree, squashed.getReadiness());
+    
+    // Committing past the checkpoint drops it, the writer of the older register releases it
+    renameMapTableBlock.commit(10);
+    Assert.assertEquals(0, renameMapTableBlock.getCheckpointCount());
+    renameMapTableBlock.reduceReference(older);
+    Assert.assertSame(x5, x5.getNewestMapping());
+    Assert.assertEquals(320, renameMapTableBlock.getFreeRegistersCount());
+  }
 }
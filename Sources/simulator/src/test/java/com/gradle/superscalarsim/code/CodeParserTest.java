@@ -6,6 +6,9 @@ import com.gradle.superscalarsim.cpu.MemoryLocation;
 import com.gradle.superscalarsim.cpu.SimulationStatistics;
 import com.gradle.superscalarsim.enums.DataTypeEnum;
 import com.gradle.superscalarsim.loader.StaticDataProvider;
+import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -948,4 +951,33 @@ public class CodeParserTest
     Assert.assertEquals(-12, (int) codeParser.getInstructions().get(6).getArgumentByName("imm").getConstantValue()
             .getValue(DataTypeEnum.kUInt));
   }
+  
+  /**
+   * Arguments are bound to their position in the instruction definition, including the default ones
+   */
+  @Test
+  public void parseCode_argumentsBoundToDefinition()
+  {
+    String code = """
+            sw x3, 0(x2)
+            jal 0
+            """;
+    codeParser.parseCode(code);
+    
+    Assert.assertTrue(codeParser.success());
+    for (InputCodeModel instruction : codeParser.getInstructions())
+    {
+      InstructionFunctionModel functionModel = instruction.instructionFunctionModel();
+      Assert.assertEquals(functionModel.arguments().size(), instruction.arguments().size());
+      for (InputCodeArgument argument : instruction.arguments())
+      {
+        Assert.assertEquals(argument.getName(), functionModel.arguments().get(argument.getArgumentIndex()).name());
+        Assert.assertSame(argument, instruction.getArgument(argument.getArgumentIndex()));
+      }
+    }
+    Assert.assertEquals("x3", codeParser.getInstructions().get(0).getArgument(0).getValue());
+    Assert.assertNull(codeParser.getInstructions().get(0).getDestinationArgument());
+    // 'jal' writes the return address to the default x1
+    Assert.assertEquals("x1", codeParser.getInstructions().get(1).getDestinationArgument().getValue());
+  }
 }
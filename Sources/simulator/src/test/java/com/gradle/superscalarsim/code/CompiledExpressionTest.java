@@ -0,0 +1,134 @@
+package com.gradle.superscalarsim.code;
+
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import com.gradle.superscalarsim.models.FunctionalUnitDescription;
+import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
+import com.gradle.superscalarsim.models.register.RegisterDataContainer;
+import com.gradle.superscalarsim.models.util.Result;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class CompiledExpressionTest
+{
+  @Test
+  public void testEvaluateReusesCompiledForm()
+  {
+    CompiledExpression expression = CompiledExpression.compile("\\x 5 + \\y =", new String[]{"x", "y"});
+    
+    for (int i = 0; i < 3; i++)
+    {
+      Expression.Variable   x     = new Expression.Variable("x", DataTypeEnum.kInt, RegisterDataContainer.fromValue(i),
+                                                            false);
+      Expression.Variable   y     = new Expression.Variable("y", DataTypeEnum.kInt, RegisterDataContainer.fromValue(0),
+                                                            false);
+      Expression.Variable[] slots = new Expression.Variable[]{x, y};
+      expression.evaluate(slots);
+      
+      // Assert
+      Assert.assertEquals(i + 5, (int) y.value.getValue(DataTypeEnum.kInt));
+    }
+  }
+  
+  @Test
+  public void testSameResultAsInterpreter()
+  {
+    String             source     = "\\x 3 * 0x10 - 2 >>";
+    CompiledExpression expression = CompiledExpression.compile(source, new String[]{"x"});
+    Expression.Variable x          = new Expression.Variable("x", DataTypeEnum.kInt,
+                                                           RegisterDataContainer.fromValue(-7), false);
+    
+    Result<Expression.Variable> compiled    = expression.evaluate(new Expression.Variable[]{x});
+    Result<Expression.Variable> interpreted = Expression.interpret(source, List.of(x));
+    
+    Assert.assertEquals(interpreted.value().value.getValue(DataTypeEnum.kInt),
+                        compiled.value().value.getValue(DataTypeEnum.kInt));
+  }
+  
+  @Test
+  public void testInvalidTokenFailsOnEvaluation()
+  {
+    CompiledExpression expression = CompiledExpression.compile("1 \\z +", new String[]{"x"});
+    Assert.assertThrows(IllegalArgumentException.class, () -> expression.evaluate(new Expression.Variable[1]));
+  }
+  
+  @Test
+  public void testDivisionByZeroReturnsException()
+  {
+    Result<Expression.Variable> result = CompiledExpression.compile("1 0 /", new String[]{})
+            .evaluate(new Expression.Variable[]{});
+    Assert.assertTrue(result.isException());
+  }
+  
+  @Test
+  public void testEvaluateOnReusedStack()
+  {
+    EvaluationStack    stack      = new EvaluationStack();
+    CompiledExpression expression = CompiledExpression.compile("\\f 1.5f * 0.5f +", new String[]{"f"});
+    
+    for (int i = 0; i < 3; i++)
+    {
+      Expression.Variable   f     = new Expression.Variable("f", DataTypeEnum.kFloat,
+                                                            RegisterDataContainer.fromValue((float) i), false);
+      Expression.Variable[] slots = new Expression.Variable[]{f};
+      Assert.assertNull(expression.evaluate(stack, slots));
+      Assert.assertEquals(DataTypeEnum.kFloat, stack.getType());
+      Assert.assertEquals(i * 1.5f + 0.5f, stack.getFloat(), 0);
+    }
+  }
+  
+  @Test
+  public void testLongDivisionByZeroReturnsException()
+  {
+    Result<Expression.Variable> result = CompiledExpression.compile("1l 0l %", new String[]{})
+            .evaluate(new Expression.Variable[]{});
+    Assert.assertTrue(result.isException());
+  }
+  
+  @Test
+  public void testInstructionSetIsCompiledOnLoad()
+  {
+    StaticDataProvider       dataProvider = new StaticDataProvider();
+    InstructionFunctionModel beq          = dataProvider.getInstructionFunctionModel("beq");
+    InstructionFunctionModel sw           = dataProvider.getInstructionFunctionModel("sw");
+    InstructionFunctionModel add          = dataProvider.getInstructionFunctionModel("add");
+    
+    Assert.assertNotNull(beq.compiled().getBranchTarget());
+    Assert.assertNotNull(beq.compiled().getBranchCondition());
+    Assert.assertNotNull(sw.compiled().getAddress());
+    Assert.assertTrue(sw.compiled().isStore());
+    Assert.assertEquals(32, sw.compiled().getSizeBits());
+    Assert.assertEquals(add.compiled().getSlot("rd"), add.compiled().getRdSlot());
+    Assert.assertEquals(0, add.compiled().getSlot("pc"));
+  }
+  
+  @Test
+  public void testInstructionFactsArePredecoded()
+  {
+    StaticDataProvider       dataProvider = new StaticDataProvider();
+    InstructionFunctionModel mul          = dataProvider.getInstructionFunctionModel("mul");
+    InstructionFunctionModel div          = dataProvider.getInstructionFunctionModel("div");
+    InstructionFunctionModel sw           = dataProvider.getInstructionFunctionModel("sw");
+    
+    Assert.assertEquals(FunctionalUnitDescription.CapabilityName.multiplication, mul.compiled().getCapabilityName());
+    Assert.assertEquals(FunctionalUnitDescription.CapabilityName.division, div.compiled().getCapabilityName());
+    Assert.assertArrayEquals(new int[]{0}, mul.compiled().getWriteBackIndices());
+    Assert.assertEquals(0, mul.getDestinationIndex());
+    Assert.assertArrayEquals(new int[]{}, sw.compiled().getWriteBackIndices());
+    Assert.assertEquals(1, sw.compiled().getStoreRegisterSlot());
+    Assert.assertTrue(sw.compiled().isStore());
+    Assert.assertFalse(sw.compiled().isLoad());
+    Assert.assertTrue(dataProvider.getInstructionFunctionModel("lw").compiled().isLoad());
+    Assert.assertFalse(mul.compiled().isLoad());
+    // Argument 0 of mul is rd, the immediate of sw is in the middle
+    Assert.assertArrayEquals(new int[]{1, 2}, mul.compiled().getSourceIndices());
+    Assert.assertArrayEquals(new int[]{0, 2}, sw.compiled().getSourceIndices());
+    
+    FunctionalUnitDescription multiplier = new FunctionalUnitDescription(0, FunctionalUnitDescription.Type.FX, List.of(
+            new FunctionalUnitDescription.Capability(FunctionalUnitDescription.CapabilityName.multiplication, 4)));
+    Assert.assertEquals(4, multiplier.getLatency(mul.compiled().getCapabilityName()));
+    Assert.assertEquals(-1, multiplier.getLatency(div.compiled().getCapabilityName()));
+  }
+}
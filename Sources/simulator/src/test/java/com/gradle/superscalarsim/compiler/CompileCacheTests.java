@@ -0,0 +1,179 @@
+/**
+ * @file CompileCacheTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for the compile cache and the GCC workers, with a script in place of GCC
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.compiler;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class CompileCacheTests
+{
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  
+  private String originalCompilerPath;
+  
+  private CompileCache originalCache;
+  
+  /**
+   * Counts its runs in a file
+   */
+  private Path counter;
+  
+  @Before
+  public void setUp()
+  {
+    originalCompilerPath = GccCaller.getCompilerPath();
+    originalCache        = GccCaller.getCache();
+    GccCaller.setCache(new CompileCache(CompileCache.DEFAULT_MAX_ENTRIES, null));
+    counter = folder.getRoot().toPath().resolve("runs");
+  }
+  
+  @After
+  public void tearDown()
+  {
+    GccCaller.setCompilerPath(originalCompilerPath);
+    GccCaller.setCache(originalCache);
+    GccCaller.setTimeoutMs(GccCaller.DEFAULT_TIMEOUT_MS);
+  }
+  
+  /**
+   * @param body Shell commands run after the run is counted
+   *
+   * @brief Replaces GCC with a shell script
+   */
+  private void useCompiler(String body) throws IOException
+  {
+    Path script = folder.newFile().toPath();
+    Files.writeString(script, "#!/bin/sh\necho run >> " + counter + "\n" + body + "\n");
+    Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwx------"));
+    GccCaller.setCompilerPath(script.toString());
+  }
+  
+  private long runs() throws IOException
+  {
+    return Files.exists(counter) ? Files.readAllLines(counter).size() : 0;
+  }
+  
+  @Test
+  public void test_sameCode_compiledOnce() throws IOException
+  {
+    useCompiler("cat");
+    GccCaller.CompileResult first  = GccCaller.compile("int main() {}", List.of("O2"));
+    GccCaller.CompileResult second = GccCaller.compile("int main() {}", List.of("O2"));
+    Assert.assertTrue(first.success);
+    Assert.assertEquals("int main() {}", second.code);
+    Assert.assertEquals(1, runs());
+    
+    // Different flags or code are different entries
+    GccCaller.compile("int main() {}", List.of("O0"));
+    GccCaller.compile("int main() { return 1; }", List.of("O2"));
+    Assert.assertEquals(3, runs());
+    Assert.assertEquals(1, GccCaller.getCache().getHits());
+  }
+  
+  @Test
+  public void test_concurrentCompiles_coalesced() throws Exception
+  {
+    useCompiler("sleep 0.5; cat");
+    ExecutorService                       pool    = Executors.newFixedThreadPool(8);
+    List<Future<GccCaller.CompileResult>> results = new ArrayList<>();
+    for (int i = 0; i < 8; i++)
+    {
+      results.add(pool.submit((Callable<GccCaller.CompileResult>) () -> GccCaller.compile("int x;", List.of())));
+    }
+    for (Future<GccCaller.CompileResult> result : results)
+    {
+      Assert.assertEquals("int x;", result.get().code);
+    }
+    pool.shutdown();
+    Assert.assertEquals(1, runs());
+  }
+  
+  @Test
+  public void test_diskCache_survivesNewCache() throws IOException
+  {
+    useCompiler("cat");
+    Path directory = folder.newFolder("cache").toPath();
+    GccCaller.setCache(new CompileCache(1, directory));
+    GccCaller.compile("int a;", List.of());
+    GccCaller.compile("int b;", List.of());
+    // Evicted from the memory, still on the disk
+    Assert.assertEquals(1, GccCaller.getCache().size());
+    Assert.assertEquals("int a;", GccCaller.compile("int a;", List.of()).code);
+    
+    GccCaller.setCache(new CompileCache(4, directory));
+    Assert.assertEquals("int b;", GccCaller.compile("int b;", List.of()).code);
+    Assert.assertEquals(2, runs());
+  }
+  
+  /**
+   * Diagnostics larger than the pipe buffer must not block GCC
+   */
+  @Test
+  public void test_largeErrorOutput_noDeadlock() throws IOException
+  {
+    useCompiler("cat > /dev/null; printf '[' >&2; for i in $(seq 5000); do printf '{\"kind\": \"error\", \"message\": \"a long message\"},' >&2; done; printf '{}]' >&2; exit 1");
+    GccCaller.CompileResult result = GccCaller.compile("broken", List.of());
+    Assert.assertFalse(result.success);
+    Assert.assertEquals(5001, result.compilerErrors.size());
+    // Rejected code is cached as well
+    GccCaller.compile("broken", List.of());
+    Assert.assertEquals(1, runs());
+  }
+  
+  @Test
+  public void test_slowCompiler_killedAfterTimeout() throws IOException
+  {
+    useCompiler("sleep 10");
+    GccCaller.setTimeoutMs(200);
+    long                    start  = System.currentTimeMillis();
+    GccCaller.CompileResult result = GccCaller.compile("int main() {}", List.of());
+    Assert.assertFalse(result.success);
+    Assert.assertTrue(result.error.contains("timed out"));
+    Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+    // A timeout is not cached
+    GccCaller.compile("int main() {}", List.of());
+    Assert.assertEquals(2, runs());
+  }
+}
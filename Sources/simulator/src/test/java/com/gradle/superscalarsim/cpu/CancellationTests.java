@@ -0,0 +1,106 @@
+/**
+ * @file CancellationTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for the cooperative cancellation of simulations
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.server.simulate.SimulateHandler;
+import com.gradle.superscalarsim.server.simulate.SimulateRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+
+public class CancellationTests
+{
+  private static SimulationConfig createConfig()
+  {
+    return ExecuteUtil.getConfig(ExecuteUtil.infiniteLoopProgram);
+  }
+  
+  @Test
+  public void test_cancelledToken_stopsExecute()
+  {
+    Cpu               cpu   = new Cpu(createConfig());
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    cpu.cancellationToken = token;
+    
+    long cancelledBefore = CancellationToken.getCancelledSimulations();
+    Assert.assertThrows(SimulationCancelledException.class, () -> cpu.execute(false));
+    Assert.assertEquals(0, cpu.cpuState.tick);
+    Assert.assertTrue(CancellationToken.getCancelledSimulations() > cancelledBefore);
+  }
+  
+  @Test
+  public void test_noToken_runsToTick()
+  {
+    Cpu cpu = new Cpu(createConfig());
+    cpu.simulateState(3 * Cpu.CANCELLATION_CHECK_INTERVAL);
+    Assert.assertEquals(3 * Cpu.CANCELLATION_CHECK_INTERVAL, cpu.cpuState.tick);
+  }
+  
+  /**
+   * A token cancelled from another thread stops the loop within a few checks
+   */
+  @Test(timeout = 10000)
+  public void test_cancelFromOtherThread_stopsRunningSimulation() throws InterruptedException
+  {
+    Cpu               cpu   = new Cpu(createConfig());
+    CancellationToken token = new CancellationToken();
+    cpu.cancellationToken = token;
+    
+    Thread canceller = new Thread(() -> {
+      while (cpu.cpuState.tick < Cpu.CANCELLATION_CHECK_INTERVAL)
+      {
+        Thread.onSpinWait();
+      }
+      token.cancel();
+    });
+    canceller.start();
+    SimulationCancelledException e = Assert.assertThrows(SimulationCancelledException.class,
+                                                         () -> cpu.execute(false));
+    canceller.join();
+    Assert.assertEquals(cpu.cpuState.tick, e.getTick());
+    Assert.assertEquals(StopReason.kNotStopped, cpu.cpuState.simStatus());
+  }
+  
+  /**
+   * A cancelled request must not leave its simulation in the sessions
+   */
+  @Test
+  public void test_simulateHandler_cancelledRequestStartsFresh() throws Exception
+  {
+    SimulateHandler   handler = new SimulateHandler();
+    CancellationToken token   = new CancellationToken();
+    token.cancel();
+    Assert.assertThrows(SimulationCancelledException.class,
+                        () -> handler.resolve(new SimulateRequest(createConfig(), Optional.of(10)), token));
+    
+    Assert.assertEquals(5, handler.resolve(new SimulateRequest(createConfig(), Optional.of(5))).executedSteps);
+  }
+}
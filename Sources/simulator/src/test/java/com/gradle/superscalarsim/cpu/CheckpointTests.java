@@ -0,0 +1,140 @@
+/**
+ * @file CheckpointTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for the checkpoint store used in backward simulation
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.serialization.Serialization;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class CheckpointTests
+{
+  private static final String loopCode = ExecuteUtil.getMemoryLoopProgram(50);
+  
+  private static void assertStatesMatch(CpuState expected, CpuState actual) throws Exception
+  {
+    Assert.assertEquals(expected.tick, actual.tick);
+    Assert.assertEquals(expected.instructionFetchBlock.getPc(), actual.instructionFetchBlock.getPc());
+    Assert.assertEquals(expected.reorderBufferBlock.reorderQueue.size(), actual.reorderBufferBlock.reorderQueue.size());
+    Assert.assertEquals(Serialization.getSerializer().writeValueAsString(expected.statistics),
+                        Serialization.getSerializer().writeValueAsString(actual.statistics));
+    for (String reg : new String[]{"x3", "x4", "sp"})
+    {
+      Assert.assertEquals(expected.unifiedRegisterFileBlock.getRegister(reg).getValue(DataTypeEnum.kInt),
+                          actual.unifiedRegisterFileBlock.getRegister(reg).getValue(DataTypeEnum.kInt));
+    }
+  }
+  
+  /**
+   * A restored snapshot must continue exactly as the original
+   */
+  @Test
+  public void test_snapshot_restoredStateContinuesIdentically() throws Exception
+  {
+    SimulationConfig cfg = ExecuteUtil.getConfig(loopCode);
+    Cpu cpu = new Cpu(cfg);
+    cpu.simulateState(37);
+    
+    CpuState copy = CheckpointStore.restore(CheckpointStore.snapshot(cpu.cpuState));
+    assertStatesMatch(cpu.cpuState, copy);
+    Assert.assertNotSame(cpu.cpuState.reorderBufferBlock, copy.reorderBufferBlock);
+    
+    for (int i = 0; i < 60; i++)
+    {
+      cpu.step();
+      copy.step();
+    }
+    assertStatesMatch(cpu.cpuState, copy);
+  }
+  
+  /**
+   * Going back replays only from the nearest checkpoint
+   */
+  @Test
+  public void test_stepBack_replaysFromCheckpoint() throws Exception
+  {
+    SimulationConfig cfg = ExecuteUtil.getConfig(loopCode);
+    Cpu cpu = Mockito.spy(new Cpu(cfg));
+    cpu.checkpointStore = new CheckpointStore(20, Long.MAX_VALUE);
+    cpu.simulateState(150);
+    Assert.assertEquals(7, cpu.checkpointStore.getCheckpointCount());
+    
+    Mockito.clearInvocations(cpu);
+    cpu.stepBack();
+    Mockito.verify(cpu, Mockito.times(9)).step();
+    
+    Cpu reference = new Cpu(cfg);
+    reference.simulateState(149);
+    assertStatesMatch(reference.cpuState, cpu.cpuState);
+    
+    // Jump back and forward again over the simulated ticks
+    cpu.simulateState(45);
+    reference = new Cpu(cfg);
+    reference.simulateState(45);
+    assertStatesMatch(reference.cpuState, cpu.cpuState);
+    
+    Mockito.clearInvocations(cpu);
+    cpu.simulateState(141);
+    Mockito.verify(cpu, Mockito.times(1)).step();
+  }
+  
+  /**
+   * Oldest checkpoints are dropped once the budget is exceeded
+   */
+  @Test
+  public void test_memoryBudget_evictsOldest()
+  {
+    SimulationConfig cfg = ExecuteUtil.getConfig(loopCode);
+    Cpu cpu = new Cpu(cfg);
+    cpu.checkpointStore = new CheckpointStore(10, 1);
+    cpu.simulateState(100);
+    
+    Assert.assertEquals(1, cpu.checkpointStore.getCheckpointCount());
+    Assert.assertEquals(100, cpu.checkpointStore.nearestTick(1000));
+    Assert.assertEquals(-1, cpu.checkpointStore.nearestTick(99));
+  }
+  
+  /**
+   * Checkpoints are taken only once the simulation goes back
+   */
+  @Test
+  public void test_forwardOnly_takesNoCheckpoints()
+  {
+    SimulationConfig cfg = ExecuteUtil.getConfig(loopCode);
+    Cpu cpu = new Cpu(cfg);
+    cpu.simulateState(150);
+    Assert.assertNull(cpu.checkpointStore);
+    
+    cpu.stepBack();
+    Assert.assertEquals(149, cpu.cpuState.tick);
+    Assert.assertNotNull(cpu.checkpointStore);
+    // The replay keeps the initial state
+    Assert.assertEquals(0, cpu.checkpointStore.nearestTick(149));
+  }
+}
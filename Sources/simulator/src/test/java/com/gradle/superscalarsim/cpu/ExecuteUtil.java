@@ -35,14 +35,65 @@ public class ExecuteUtil
           add x2, x3, x4
           add x1, x2, x3""";
   
+  /**
+   * Never ends on its own
+   */
+  public static String infiniteLoopProgram = """
+          loop:
+          addi x1, x1, 1
+          jal x0, loop""";
+  
   /**
    * @param loopCount How many times to loop
    *
    * @return The program
    * @brief Get a simple program that loops a given number of times
    */
-  static String getLoopProgram(int loopCount)
+  public static String getLoopProgram(int loopCount)
   {
     return "addi x3, x0, " + loopCount + "\n" + "loop:\n" + "beq x3, x0, loopEnd\n" + "subi x3, x3, 1\n" + "jal x0, loop\n" + "loopEnd:";
   }
+  
+  /**
+   * The counter is stored to an array of 64 words below the stack pointer, loaded back and added as a float.
+   * The exit of the loop is mispredicted. At the end, x6 holds the last stored value (0),
+   * x7 the second one (1) and x10 their sum.
+   *
+   * @param loopCount How many times to loop, at most 64
+   *
+   * @return The program
+   * @brief Get a loop with stores, loads, float arithmetic and branches
+   */
+  public static String getMemoryLoopProgram(int loopCount)
+  {
+    return """
+            addi x8, sp, -256
+            addi x3, x0, %d
+            loop:
+            beq x3, x0, loopEnd
+            subi x3, x3, 1
+            slli x4, x3, 2
+            add x5, x8, x4
+            sw x3, 0(x5)
+            lw x6, 0(x5)
+            fcvt.s.w f2, x6
+            fadd.s f1, f1, f2
+            jal x0, loop
+            loopEnd:
+            lw x7, 4(x8)
+            add x10, x6, x7""".formatted(loopCount);
+  }
+  
+  /**
+   * @param code The program
+   *
+   * @return The default configuration with the given program
+   * @brief Get a configuration for the tests, the caller adjusts the CPU parameters
+   */
+  public static SimulationConfig getConfig(String code)
+  {
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    cfg.code = code;
+    return cfg;
+  }
 }
@@ -0,0 +1,195 @@
+/**
+ * @file FastForwardTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for the functional fast-forward before the detailed simulation
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FastForwardTests
+{
+  private static SimulationConfig createConfig(boolean useCache)
+  {
+    SimulationConfig cfg = ExecuteUtil.getConfig(ExecuteUtil.getMemoryLoopProgram(16));
+    cfg.cpuConfig.useCache = useCache;
+    return cfg;
+  }
+  
+  private static void assertSameArchitecturalState(CpuState expected, CpuState actual)
+  {
+    for (String register : new String[]{"x3", "x4", "x5", "x6", "x7", "x8", "x10"})
+    {
+      Assert.assertEquals(register, expected.unifiedRegisterFileBlock.getRegister(register).getLong(),
+                          actual.unifiedRegisterFileBlock.getRegister(register).getLong());
+    }
+    long base = expected.unifiedRegisterFileBlock.getRegister("x8").getLong();
+    for (int i = 0; i < 16; i++)
+    {
+      Assert.assertEquals(expected.simulatedMemory.readLittleEndian(base + 4L * i, 4),
+                          actual.simulatedMemory.readLittleEndian(base + 4L * i, 4));
+    }
+  }
+  
+  /**
+   * The program must end in the same state, in fewer detailed cycles
+   */
+  @Test
+  public void test_fastForwardToLabel_sameResultFewerCycles()
+  {
+    for (boolean useCache : new boolean[]{false, true})
+    {
+      Cpu reference = new Cpu(createConfig(useCache));
+      reference.execute(false);
+      
+      SimulationConfig cfg = createConfig(useCache);
+      cfg.fastForwardTo = "loopEnd";
+      Cpu cpu = new Cpu(cfg);
+      // 2 setup instructions, 16 iterations of 9 instructions and the last beq
+      Assert.assertEquals(147, cpu.cpuState.statistics.fastForwardedInstructions);
+      Assert.assertEquals(44, cpu.cpuState.instructionFetchBlock.getPc());
+      cpu.execute(false);
+      
+      Assert.assertEquals(reference.stopReason, cpu.stopReason);
+      Assert.assertEquals(2, cpu.cpuState.statistics.committedInstructions);
+      Assert.assertTrue(cpu.cpuState.tick < reference.cpuState.tick);
+      assertSameArchitecturalState(reference.cpuState, cpu.cpuState);
+      Assert.assertEquals(1, cpu.cpuState.unifiedRegisterFileBlock.getRegister("x10").getLong());
+    }
+  }
+  
+  /**
+   * The fast-forward must leave the cache and the branch predictors warm
+   */
+  @Test
+  public void test_fastForward_warmsCacheAndPredictors()
+  {
+    SimulationConfig cfg = createConfig(true);
+    cfg.fastForwardTo = "loopEnd";
+    Cpu cpu = new Cpu(cfg);
+    
+    long base = cpu.cpuState.unifiedRegisterFileBlock.getRegister("x8").getLong();
+    Assert.assertNotNull(cpu.cpuState.cache.findLane(base, false));
+    // The jal at 40 jumps back to the loop
+    Assert.assertEquals(8, cpu.cpuState.branchTargetBuffer.getEntryTarget(40));
+    Assert.assertEquals(44, cpu.cpuState.branchTargetBuffer.getEntryTarget(8));
+    Assert.assertNotEquals(0, cpu.cpuState.globalHistoryRegister.getArchitecturalState());
+  }
+  
+  /**
+   * Limiting the number of instructions switches to the detailed simulation in the middle of the loop
+   */
+  @Test
+  public void test_fastForwardInstructions_stopsAfterLimit()
+  {
+    Cpu reference = new Cpu(createConfig(false));
+    reference.execute(false);
+    
+    SimulationConfig cfg = createConfig(false);
+    cfg.fastForwardInstructions = 10;
+    Cpu cpu = new Cpu(cfg);
+    Assert.assertEquals(10, cpu.cpuState.statistics.fastForwardedInstructions);
+    cpu.execute(false);
+    
+    Assert.assertEquals(reference.stopReason, cpu.stopReason);
+    Assert.assertEquals(reference.cpuState.statistics.committedInstructions - 10,
+                        cpu.cpuState.statistics.committedInstructions);
+    assertSameArchitecturalState(reference.cpuState, cpu.cpuState);
+  }
+  
+  @Test
+  public void test_validate_fastForwardTarget()
+  {
+    SimulationConfig cfg = createConfig(false);
+    cfg.fastForwardTo = "nonExisting";
+    Assert.assertFalse(cfg.validate().valid);
+    
+    cfg.fastForwardTo = "6";
+    Assert.assertFalse(cfg.validate().valid);
+    
+    cfg.fastForwardTo           = "32";
+    cfg.fastForwardInstructions = -1;
+    Assert.assertFalse(cfg.validate().valid);
+    
+    cfg.fastForwardInstructions = SimulationConfig.MAX_FAST_FORWARD_INSTRUCTIONS + 1;
+    Assert.assertFalse(cfg.validate().valid);
+    
+    cfg.fastForwardInstructions = 0;
+    Assert.assertTrue(cfg.validate().valid);
+  }
+  
+  /**
+   * A target without an instruction count is still bounded
+   */
+  @Test
+  public void test_fastForwardLimit()
+  {
+    SimulationConfig cfg = createConfig(false);
+    Assert.assertEquals(0, cfg.getFastForwardLimit());
+    
+    cfg.fastForwardTo = "loopEnd";
+    Assert.assertEquals(SimulationConfig.MAX_FAST_FORWARD_INSTRUCTIONS, cfg.getFastForwardLimit());
+    
+    cfg.fastForwardInstructions = 10;
+    Assert.assertEquals(10, cfg.getFastForwardLimit());
+  }
+  
+  /**
+   * A target behind an infinite loop must not hang the constructor when the request is cancelled
+   */
+  @Test(timeout = 10000)
+  public void test_cancelledToken_stopsFastForward()
+  {
+    SimulationConfig cfg = ExecuteUtil.getConfig(ExecuteUtil.infiniteLoopProgram + "\nend:\nnop");
+    cfg.fastForwardTo = "end";
+    
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    StaticDataProvider provider = new StaticDataProvider();
+    ProgramImage       image    = ProgramImage.of(cfg, provider);
+    Assert.assertThrows(SimulationCancelledException.class, () -> new Cpu(cfg, provider, image, token));
+  }
+  
+  /**
+   * Stepping back replays from the kept initial state, the fast-forward is not repeated
+   */
+  @Test
+  public void test_stepBack_keepsFastForwardedState()
+  {
+    SimulationConfig cfg = createConfig(false);
+    cfg.fastForwardTo = "loopEnd";
+    Cpu reference = new Cpu(cfg);
+    reference.simulateState(5);
+    
+    Cpu cpu = new Cpu(cfg);
+    cpu.simulateState(10);
+    cpu.simulateState(5);
+    Assert.assertEquals(reference.cpuState.stateHash(), cpu.cpuState.stateHash());
+    Assert.assertEquals(0, cpu.checkpointStore.nearestTick(5));
+    Assert.assertEquals(147, cpu.cpuState.statistics.fastForwardedInstructions);
+  }
+}
@@ -0,0 +1,99 @@
+/**
+ * @file IdleCycleSkippingTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for skipping the cycles in which the pipeline only waits
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gradle.superscalarsim.serialization.Serialization;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class IdleCycleSkippingTests
+{
+  private static SimulationConfig createConfig(boolean useCache, boolean skipIdleCycles)
+  {
+    SimulationConfig cfg = ExecuteUtil.getConfig(ExecuteUtil.getMemoryLoopProgram(8));
+    cfg.cpuConfig.useCache       = useCache;
+    cfg.cpuConfig.loadLatency    = 200;
+    cfg.cpuConfig.storeLatency   = 150;
+    cfg.cpuConfig.skipIdleCycles = skipIdleCycles;
+    return cfg;
+  }
+  
+  private static JsonNode stateTree(CpuState state) throws Exception
+  {
+    return Serialization.getSerializer().readTree(state.serialize());
+  }
+  
+  /**
+   * Skipping must produce the same state and statistics as simulating cycle by cycle
+   */
+  @Test
+  public void test_execute_sameStateAsCycleByCycle() throws Exception
+  {
+    for (boolean useCache : new boolean[]{false, true})
+    {
+      Cpu reference = new Cpu(createConfig(useCache, false));
+      reference.execute(false);
+      
+      Cpu cpu = Mockito.spy(new Cpu(createConfig(useCache, true)));
+      cpu.execute(false);
+      
+      Assert.assertEquals(reference.stopReason, cpu.stopReason);
+      Assert.assertEquals(reference.cpuState.tick, cpu.cpuState.tick);
+      Assert.assertEquals(stateTree(reference.cpuState), stateTree(cpu.cpuState));
+      if (!useCache)
+      {
+        // Without a cache, most of the cycles wait for the memory
+        Mockito.verify(cpu, Mockito.atMost(reference.cpuState.tick / 2)).step();
+      }
+    }
+  }
+  
+  /**
+   * Skipping must not go past the requested tick or a checkpoint
+   */
+  @Test
+  public void test_simulateState_stopsAtTargetAndCheckpoints() throws Exception
+  {
+    Cpu reference = new Cpu(createConfig(false, false));
+    reference.simulateState(333);
+    
+    Cpu cpu = new Cpu(createConfig(false, true));
+    cpu.checkpointStore = new CheckpointStore(100, Long.MAX_VALUE);
+    cpu.simulateState(333);
+    Assert.assertEquals(333, cpu.cpuState.tick);
+    Assert.assertEquals(stateTree(reference.cpuState), stateTree(cpu.cpuState));
+    Assert.assertEquals(3, cpu.checkpointStore.getCheckpointCount());
+    
+    cpu.stepBack();
+    reference = new Cpu(createConfig(false, false));
+    reference.simulateState(332);
+    Assert.assertEquals(stateTree(reference.cpuState), stateTree(cpu.cpuState));
+  }
+}
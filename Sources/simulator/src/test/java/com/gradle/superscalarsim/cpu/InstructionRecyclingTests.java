@@ -0,0 +1,129 @@
+/**
+ * @file InstructionRecyclingTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for the reuse of retired instructions
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.code.Expression;
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+public class InstructionRecyclingTests
+{
+  private static Cpu createCpu(boolean recycling)
+  {
+    Cpu cpu = new Cpu(ExecuteUtil.getConfig(ExecuteUtil.getMemoryLoopProgram(6)));
+    cpu.cpuState.setInstructionRecycling(recycling);
+    return cpu;
+  }
+  
+  /**
+   * @return Number of distinct instruction objects seen in the manager until the end of the simulation
+   */
+  private static int countInstances(Cpu cpu)
+  {
+    Set<SimCodeModel> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    while (!cpu.simEnded())
+    {
+      cpu.step();
+      seen.addAll(cpu.cpuState.managerRegistry.simCodeManager.getInstances());
+    }
+    return seen.size();
+  }
+  
+  @Test
+  public void test_recycling_sameStates()
+  {
+    Cpu recycled = createCpu(true);
+    Cpu fresh    = createCpu(false);
+    while (!fresh.simEnded())
+    {
+      Assert.assertFalse(recycled.simEnded());
+      recycled.step();
+      fresh.step();
+      Assert.assertEquals(fresh.cpuState.stateHash(), recycled.cpuState.stateHash());
+    }
+    Assert.assertTrue(recycled.simEnded());
+    Assert.assertEquals(1, recycled.cpuState.unifiedRegisterFileBlock.getRegister("x10").getLong());
+  }
+  
+  @Test
+  public void test_recycling_reusesInstances()
+  {
+    int recycled = countInstances(createCpu(true));
+    int fresh    = countInstances(createCpu(false));
+    Assert.assertTrue(recycled < fresh);
+    
+    Cpu cpu = createCpu(true);
+    cpu.execute(false);
+    // Fewer objects than instructions that went through the ROB
+    long retired = cpu.cpuState.statistics.getCommittedInstructions() + cpu.cpuState.statistics.flushedInstructions;
+    Assert.assertTrue(recycled < retired);
+  }
+  
+  @Test
+  public void test_stepBack_afterRecycling()
+  {
+    Cpu cpu = createCpu(true);
+    cpu.simulateState(40);
+    cpu.stepBack();
+    
+    Cpu reference = createCpu(true);
+    reference.simulateState(39);
+    Assert.assertEquals(reference.cpuState.stateHash(), cpu.cpuState.stateHash());
+    
+    cpu.execute(false);
+    reference.execute(false);
+    Assert.assertEquals(reference.cpuState.stateHash(), cpu.cpuState.stateHash());
+  }
+  
+  /**
+   * The variables for the interpreters are allocated once and follow the instruction after a reset
+   */
+  @Test
+  public void test_variableSlots_reusedAcrossReset()
+  {
+    Cpu          cpu       = createCpu(true);
+    SimCodeModel codeModel = new SimCodeModel(cpu.cpuState.instructionMemoryBlock.getInstructionAt(4), -1, -1);
+    
+    Expression.Variable[] slots = codeModel.getVariableSlots();
+    Assert.assertSame(slots, codeModel.getVariableSlots());
+    Assert.assertEquals(DataTypeEnum.kInt, slots[0].value.getCurrentType());
+    Assert.assertEquals(4, slots[0].value.getBits());
+    
+    // slli has the same layout as addi
+    codeModel.reset(cpu.cpuState.instructionMemoryBlock.getInstructionAt(16), -1, -1);
+    Assert.assertSame(slots, codeModel.getVariableSlots());
+    Assert.assertEquals(16, slots[0].value.getBits());
+    Assert.assertSame(codeModel.getArgument(0).getRegisterValue().getValueContainer(), slots[1].value);
+  }
+}
@@ -0,0 +1,98 @@
+/**
+ * @file ManagerRegistryTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for the deterministic tracking of model instances
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+
+public class ManagerRegistryTests
+{
+  private static SimulationConfig createConfig()
+  {
+    return ExecuteUtil.getConfig(ExecuteUtil.getMemoryLoopProgram(16));
+  }
+  
+  /**
+   * Two simulations of the same program must serialize to the same JSON in every tick, including the registry
+   */
+  @Test
+  public void test_serializedState_deterministic()
+  {
+    Cpu first  = new Cpu(createConfig());
+    Cpu second = new Cpu(createConfig());
+    while (!first.simEnded())
+    {
+      first.step();
+      second.step();
+      Assert.assertEquals("Tick " + first.cpuState.tick, first.cpuState.serialize(), second.cpuState.serialize());
+    }
+    Assert.assertTrue(second.simEnded());
+  }
+  
+  /**
+   * Committed and flushed instructions must not stay in the registry
+   */
+  @Test
+  public void test_simCodeManager_holdsOnlyInstructionsInFlight()
+  {
+    Cpu cpu = new Cpu(createConfig());
+    while (!cpu.simEnded())
+    {
+      cpu.step();
+      CpuState          state   = cpu.cpuState;
+      Set<SimCodeModel> tracked = state.managerRegistry.simCodeManager.getInstances();
+      // Everything in the issue windows, FUs and LSQ is also in the ROB, except flushed instructions
+      int inFrontend = state.decodeAndDispatchBlock.getCodeBuffer().size() + state.instructionFetchBlock.getFetchedCode()
+              .size();
+      Assert.assertTrue(tracked.size() <= state.reorderBufferBlock.getReorderQueueSize() + inFrontend + 16);
+      state.reorderBufferBlock.getReorderQueue()
+              .forEach(codeModel -> Assert.assertTrue(tracked.contains(codeModel)));
+    }
+    Assert.assertTrue(cpu.cpuState.statistics.committedInstructions > 100);
+  }
+  
+  /**
+   * Instances are serialized in the order they were created
+   */
+  @Test
+  public void test_simCodeManager_insertionOrder()
+  {
+    Cpu cpu = new Cpu(createConfig());
+    cpu.simulateState(20);
+    int lastId = -1;
+    for (SimCodeModel codeModel : cpu.cpuState.managerRegistry.simCodeManager.getInstances())
+    {
+      Assert.assertTrue(codeModel.getIntegerId() > lastId);
+      lastId = codeModel.getIntegerId();
+    }
+  }
+}
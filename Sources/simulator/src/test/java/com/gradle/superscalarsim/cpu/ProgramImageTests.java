@@ -0,0 +1,131 @@
+/**
+ * @file ProgramImageTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for the parse-once program image
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProgramImageTests
+{
+  /**
+   * Sums the array, the address of the array is taken through a pointer stored in memory
+   */
+  private static final String sumCode = """
+          la x8, ptr
+          lw x8, 0(x8)
+          addi x3, x0, 4
+          loop:
+          beq x3, x0, end
+          lw x4, 0(x8)
+          add x10, x10, x4
+          addi x8, x8, 4
+          subi x3, x3, 1
+          jal x0, loop
+          end:""";
+  
+  private static SimulationConfig createConfig()
+  {
+    SimulationConfig cfg = ExecuteUtil.getConfig(sumCode);
+    cfg.memoryLocations = new ArrayList<>();
+    cfg.memoryLocations.add(new MemoryLocation("arr", 4, DataTypeEnum.kInt, List.of("1", "2", "3", "4")));
+    cfg.memoryLocations.add(new MemoryLocation("ptr", 4, DataTypeEnum.kInt, new ArrayList<>(List.of("arr"))));
+    return cfg;
+  }
+  
+  @Test
+  public void test_sameProgram_builtOnce()
+  {
+    SimulationConfig   cfg      = createConfig();
+    StaticDataProvider provider = new StaticDataProvider();
+    ProgramImage       first    = ProgramImage.of(cfg, provider);
+    long               builds   = ProgramImage.getBuildCount();
+    
+    Assert.assertSame(first, ProgramImage.of(createConfig(), provider));
+    Assert.assertTrue(cfg.validate().valid);
+    new Cpu(cfg);
+    Assert.assertEquals(builds, ProgramImage.getBuildCount());
+    
+    // The call stack size moves the data, so it is a different image
+    cfg.cpuConfig.callStackSize += 64;
+    Assert.assertNotSame(first, ProgramImage.of(cfg, provider));
+  }
+  
+  @Test
+  public void test_configurationNotChanged()
+  {
+    SimulationConfig cfg = createConfig();
+    new Cpu(cfg);
+    // The label in the data of the pointer is resolved in a copy
+    Assert.assertEquals(List.of("arr"), cfg.memoryLocations.get(1).data);
+  }
+  
+  @Test
+  public void test_statesFromImage_independent()
+  {
+    SimulationConfig cfg = createConfig();
+    Cpu              a   = new Cpu(cfg);
+    Cpu              b   = new Cpu(cfg);
+    Assert.assertEquals(a.cpuState.stateHash(), b.cpuState.stateHash());
+    
+    a.execute(false);
+    Assert.assertEquals(10, a.cpuState.unifiedRegisterFileBlock.getRegister("x10").getLong());
+    Assert.assertEquals(0, b.cpuState.unifiedRegisterFileBlock.getRegister("x10").getLong());
+    Assert.assertNotSame(a.cpuState.instructionMemoryBlock.getCode().get(0),
+                         b.cpuState.instructionMemoryBlock.getCode().get(0));
+    
+    b.execute(false);
+    Assert.assertEquals(a.cpuState.stateHash(), b.cpuState.stateHash());
+  }
+  
+  @Test
+  public void test_stepBack_doesNotParse()
+  {
+    Cpu cpu = new Cpu(createConfig());
+    cpu.simulateState(20);
+    long builds = ProgramImage.getBuildCount();
+    cpu.stepBack();
+    Assert.assertEquals(19, cpu.cpuState.tick);
+    Assert.assertEquals(builds, ProgramImage.getBuildCount());
+  }
+  
+  @Test
+  public void test_invalidCode_hasErrors()
+  {
+    SimulationConfig cfg = createConfig();
+    cfg.code = "addi x1, x0";
+    ProgramImage image = ProgramImage.of(cfg, new StaticDataProvider());
+    Assert.assertTrue(image.containsErrors());
+    Assert.assertEquals(0, image.getInstructionCount());
+    Assert.assertFalse(cfg.validate(image).valid);
+  }
+}
@@ -0,0 +1,97 @@
+/**
+ * @file ReorderBufferTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests of the circular reorder buffer
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.models.util.RingBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ReorderBufferTests
+{
+  private static Cpu createCpu(int robSize)
+  {
+    SimulationConfig cfg = ExecuteUtil.getConfig(ExecuteUtil.getMemoryLoopProgram(40));
+    cfg.cpuConfig.robSize = robSize;
+    return new Cpu(cfg);
+  }
+  
+  @Test
+  public void test_ringBuffer_wrapsAround()
+  {
+    RingBuffer<Integer> buffer = new RingBuffer<>(4);
+    for (int i = 0; i < 10; i++)
+    {
+      buffer.add(i);
+      if (buffer.size() > 3)
+      {
+        Assert.assertEquals(Integer.valueOf(i - 3), buffer.removeFirst());
+      }
+    }
+    // 7, 8, 9 are left, the head is in the middle of the array
+    buffer.add(10);
+    Assert.assertTrue(buffer.isFull());
+    Assert.assertThrows(IllegalStateException.class, () -> buffer.add(0));
+    Assert.assertEquals(List.of(7, 8, 9, 10), List.copyOf(buffer));
+    Assert.assertEquals(Integer.valueOf(8), buffer.get(1));
+    Assert.assertEquals(Integer.valueOf(10), buffer.removeLast());
+    Assert.assertEquals(Integer.valueOf(9), buffer.peekLast());
+    Assert.assertEquals(3, buffer.size());
+    buffer.clear();
+    Assert.assertTrue(buffer.isEmpty());
+    Assert.assertNull(buffer.peek());
+  }
+  
+  @Test
+  public void test_largeRob_sameResult()
+  {
+    Cpu small = createCpu(16);
+    Cpu large = createCpu(1024);
+    small.execute(false);
+    large.execute(false);
+    
+    Assert.assertEquals(1, large.cpuState.unifiedRegisterFileBlock.getRegister("x10").getLong());
+    Assert.assertEquals(small.cpuState.statistics.getCommittedInstructions(),
+                        large.cpuState.statistics.getCommittedInstructions());
+    Assert.assertTrue(large.cpuState.statistics.robFlushes > 0);
+    Assert.assertTrue(large.cpuState.reorderBufferBlock.reorderQueue.isEmpty());
+  }
+  
+  @Test
+  public void test_largeRob_stepBack()
+  {
+    Cpu cpu = createCpu(512);
+    cpu.simulateState(60);
+    cpu.stepBack();
+    
+    Cpu reference = createCpu(512);
+    reference.simulateState(59);
+    Assert.assertEquals(reference.cpuState.stateHash(), cpu.cpuState.stateHash());
+  }
+}
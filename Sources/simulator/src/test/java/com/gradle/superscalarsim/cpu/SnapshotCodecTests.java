@@ -0,0 +1,128 @@
+/**
+ * @file SnapshotCodecTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for saving the simulation to a binary snapshot and resuming it
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.cpu;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class SnapshotCodecTests
+{
+  private static SimulationConfig createConfig(boolean useCache)
+  {
+    SimulationConfig cfg = ExecuteUtil.getConfig(ExecuteUtil.getMemoryLoopProgram(48));
+    cfg.cpuConfig.useCache         = useCache;
+    cfg.cpuConfig.cacheReplacement = "Random";
+    return cfg;
+  }
+  
+  private static byte[] save(Cpu cpu) throws IOException
+  {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    cpu.saveState(out);
+    return out.toByteArray();
+  }
+  
+  /**
+   * The resumed simulation must go through the same states as the original one.
+   * Without the cache the stores go to the memory pages.
+   */
+  @Test
+  public void test_resume_simulatesIdentically() throws IOException
+  {
+    for (boolean useCache : new boolean[]{false, true})
+    {
+      Cpu original = new Cpu(createConfig(useCache));
+      original.simulateState(37);
+      // Both variants of the format
+      ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+      SnapshotCodec.write(original, snapshot, useCache);
+      Cpu resumed = Cpu.loadState(new ByteArrayInputStream(snapshot.toByteArray()));
+      
+      Assert.assertEquals(37, resumed.cpuState.tick);
+      Assert.assertEquals(original.cpuState, resumed.cpuState);
+      Assert.assertEquals(original.configuration.hash(), resumed.configuration.hash());
+      for (int i = 0; i < 20; i++)
+      {
+        original.step();
+        resumed.step();
+        Assert.assertEquals(original.cpuState, resumed.cpuState);
+      }
+      original.execute(false);
+      resumed.execute(false);
+      Assert.assertEquals(original.stopReason, resumed.stopReason);
+      Assert.assertEquals(original.cpuState, resumed.cpuState);
+      // x6 holds the last stored value (0), x7 the second one (1)
+      Assert.assertEquals(1, resumed.cpuState.unifiedRegisterFileBlock.getRegister("x10").getLong());
+    }
+  }
+  
+  /**
+   * The snapshot is a fraction of the JSON state
+   */
+  @Test
+  public void test_snapshot_smallerThanJson() throws IOException
+  {
+    Cpu cpu = new Cpu(createConfig(true));
+    cpu.simulateState(100);
+    int snapshotSize = save(cpu).length;
+    int jsonSize     = cpu.cpuState.serialize().getBytes(StandardCharsets.UTF_8).length;
+    Assert.assertTrue(snapshotSize + " vs " + jsonSize, snapshotSize * 4 < jsonSize);
+  }
+  
+  @Test
+  public void test_finishedSimulation_keepsStopReason() throws IOException
+  {
+    Cpu cpu = new Cpu(createConfig(false));
+    cpu.execute(false);
+    Cpu resumed = Cpu.loadState(new ByteArrayInputStream(save(cpu)));
+    Assert.assertEquals(cpu.stopReason, resumed.stopReason);
+    Assert.assertTrue(resumed.simEnded());
+  }
+  
+  @Test
+  public void test_invalidSnapshot_rejected() throws IOException
+  {
+    Assert.assertThrows(IOException.class,
+                        () -> Cpu.loadState(new ByteArrayInputStream("{\"state\": 1}".getBytes())));
+    
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream      out   = new DataOutputStream(bytes);
+    out.writeInt(SnapshotCodec.MAGIC);
+    out.writeLong(SnapshotCodec.FORMAT_VERSION + 1);
+    IOException e = Assert.assertThrows(IOException.class,
+                                        () -> Cpu.loadState(new ByteArrayInputStream(bytes.toByteArray())));
+    Assert.assertTrue(e.getMessage().contains("version"));
+  }
+}
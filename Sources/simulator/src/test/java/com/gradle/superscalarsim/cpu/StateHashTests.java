@@ -0,0 +1,149 @@
+/**
+ * @file StateHashTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for the structural hash of the CPU state
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class StateHashTests
+{
+  private static Cpu createCpu()
+  {
+    SimulationConfig cfg = ExecuteUtil.getConfig(ExecuteUtil.getMemoryLoopProgram(12));
+    cfg.cpuConfig.useCache = true;
+    return new Cpu(cfg);
+  }
+  
+  /**
+   * Two runs of the same program must agree on the hash in every cycle, the hash must change from cycle to cycle
+   */
+  @Test
+  public void test_identicalRuns_sameHash()
+  {
+    Cpu  first    = createCpu();
+    Cpu  second   = createCpu();
+    long lastHash = first.cpuState.stateHash();
+    Assert.assertEquals(lastHash, second.cpuState.stateHash());
+    while (!first.simEnded())
+    {
+      first.step();
+      second.step();
+      long hash = first.cpuState.stateHash();
+      Assert.assertEquals(hash, second.cpuState.stateHash());
+      Assert.assertEquals(first.cpuState.hashCode(), second.cpuState.hashCode());
+      Assert.assertEquals(first.cpuState, second.cpuState);
+      Assert.assertNotEquals(lastHash, hash);
+      lastHash = hash;
+    }
+    // Computing the hash does not change the state
+    Assert.assertEquals(lastHash, first.cpuState.stateHash());
+  }
+  
+  /**
+   * A state loaded from a snapshot or reached by stepping back must have the same hash
+   */
+  @Test
+  public void test_restoredState_sameHash() throws IOException
+  {
+    Cpu cpu = createCpu();
+    cpu.simulateState(40);
+    ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+    cpu.saveState(snapshot);
+    Cpu loaded = Cpu.loadState(new ByteArrayInputStream(snapshot.toByteArray()));
+    Assert.assertEquals(cpu.cpuState.stateHash(), loaded.cpuState.stateHash());
+    
+    Cpu reference = createCpu();
+    reference.simulateState(39);
+    cpu.stepBack();
+    Assert.assertEquals(39, cpu.cpuState.tick);
+    Assert.assertEquals(reference.cpuState.stateHash(), cpu.cpuState.stateHash());
+  }
+  
+  /**
+   * A change of a register, a memory byte or a predictor must change the hash
+   */
+  @Test
+  public void test_modifiedState_differentHash()
+  {
+    Cpu cpu = createCpu();
+    cpu.simulateState(30);
+    Cpu other = createCpu();
+    other.simulateState(30);
+    long hash = cpu.cpuState.stateHash();
+    
+    RegisterModel register = other.cpuState.unifiedRegisterFileBlock.getRegister("x9");
+    DataTypeEnum  type     = register.getValueContainer().getCurrentType();
+    register.setValue(1, type);
+    Assert.assertNotEquals(hash, other.cpuState.stateHash());
+    Assert.assertNotEquals(cpu.cpuState, other.cpuState);
+    register.setValue(0, type);
+    Assert.assertEquals(hash, other.cpuState.stateHash());
+    
+    long address = other.cpuState.unifiedRegisterFileBlock.getRegister("sp").getLong() + 1024;
+    other.cpuState.simulatedMemory.writeLittleEndian(address, 0x55, 1);
+    long memoryHash = other.cpuState.stateHash();
+    Assert.assertNotEquals(hash, memoryHash);
+    
+    other.cpuState.gShareUnit.sendFeedback(8, true);
+    Assert.assertNotEquals(memoryHash, other.cpuState.stateHash());
+  }
+  
+  /**
+   * Equal states are told apart by their fingerprints, not by serializing them. The best of a few runs is
+   * compared, the comparison of two states must take less time than serializing them.
+   */
+  @Test
+  public void test_equalStates_comparedWithoutSerializing()
+  {
+    Cpu first  = createCpu();
+    Cpu second = createCpu();
+    first.simulateState(60);
+    second.simulateState(60);
+    
+    long compareTime   = Long.MAX_VALUE;
+    long serializeTime = Long.MAX_VALUE;
+    for (int i = 0; i < 5; i++)
+    {
+      long start = System.nanoTime();
+      Assert.assertEquals(first.cpuState, second.cpuState);
+      long compared = System.nanoTime();
+      Assert.assertEquals(first.cpuState.serialize(), second.cpuState.serialize());
+      long serialized = System.nanoTime();
+      compareTime   = Math.min(compareTime, compared - start);
+      serializeTime = Math.min(serializeTime, serialized - compared);
+    }
+    Assert.assertTrue(compareTime + " vs " + serializeTime, compareTime < serializeTime);
+  }
+}
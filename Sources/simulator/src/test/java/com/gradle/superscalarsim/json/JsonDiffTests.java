@@ -0,0 +1,99 @@
+/**
+ * @file JsonDiffTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for the JSON Patch difference of two trees
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.ExecuteUtil;
+import com.gradle.superscalarsim.serialization.JsonDiff;
+import com.gradle.superscalarsim.serialization.Serialization;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JsonDiffTests
+{
+  private final ObjectMapper mapper = new ObjectMapper();
+  
+  @Test
+  public void test_equalTrees_emptyPatch() throws Exception
+  {
+    JsonNode tree = mapper.readTree("{\"a\": [1, 2, {\"b\": null}], \"c\": \"x\"}");
+    Assert.assertEquals(0, JsonDiff.diff(tree, tree.deepCopy()).size());
+  }
+  
+  @Test
+  public void test_diff_onlyChangedFields() throws Exception
+  {
+    JsonNode base   = mapper.readTree("{\"a\": 1, \"b\": {\"c\": 2, \"d\": 3}, \"gone\": true, \"list\": [1, 2, 3]}");
+    JsonNode target = mapper.readTree("{\"a\": 1, \"b\": {\"c\": 2, \"d\": 4}, \"new\": null, \"list\": [1, 5, 3]}");
+    ArrayNode patch = JsonDiff.diff(base, target);
+    
+    Assert.assertEquals(mapper.readTree("""
+                                                [{"op": "remove", "path": "/gone"},
+                                                 {"op": "replace", "path": "/b/d", "value": 4},
+                                                 {"op": "add", "path": "/new", "value": null},
+                                                 {"op": "replace", "path": "/list/1", "value": 5}]"""), patch);
+    Assert.assertEquals(target, JsonDiff.apply(base, patch));
+  }
+  
+  @Test
+  public void test_diff_resizedArrayAndEscapedKeys() throws Exception
+  {
+    JsonNode base   = mapper.readTree("{\"a/b\": {\"~\": [1, 2]}, \"arr\": [1]}");
+    JsonNode target = mapper.readTree("{\"a/b\": {\"~\": [1, 2, 3]}, \"arr\": []}");
+    ArrayNode patch = JsonDiff.diff(base, target);
+    
+    Assert.assertEquals("/a~1b/~0", patch.get(0).get("path").asText());
+    Assert.assertEquals(target, JsonDiff.apply(base, patch));
+    // The base is not modified
+    Assert.assertEquals(1, base.get("arr").size());
+  }
+  
+  /**
+   * Applying the patch between two ticks to the first state gives the second state
+   */
+  @Test
+  public void test_cpuStates_roundTrip()
+  {
+    Cpu          cpu        = new Cpu(ExecuteUtil.getConfig(ExecuteUtil.getMemoryLoopProgram(8)));
+    ObjectMapper serializer = Serialization.getSerializer();
+    JsonNode     previous   = serializer.valueToTree(cpu.cpuState);
+    while (!cpu.simEnded())
+    {
+      cpu.step();
+      JsonNode  current = serializer.valueToTree(cpu.cpuState);
+      ArrayNode patch   = JsonDiff.diff(previous, current);
+      Assert.assertEquals(current, JsonDiff.apply(previous, patch));
+      Assert.assertTrue(patch.toString().length() < current.toString().length());
+      previous = current;
+    }
+  }
+}
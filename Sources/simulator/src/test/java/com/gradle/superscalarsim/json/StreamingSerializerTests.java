@@ -0,0 +1,93 @@
+/**
+ * @file StreamingSerializerTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests that the hand-written serializers produce the same JSON as the reflective ones
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.gradle.superscalarsim.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.ExecuteUtil;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.serialization.Serialization;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StreamingSerializerTests
+{
+  /**
+   * Loads, stores, taken and not taken branches, float arithmetic, byte and half-word accesses
+   */
+  private static final String loopCode = ExecuteUtil.getMemoryLoopProgram(4) + "\nlb x7, 1(x8)\nsh x7, 2(x8)";
+  
+  /**
+   * Load from an unaligned address raises an exception
+   */
+  private static final String exceptionCode = """
+          addi x8, x0, 3
+          lw x6, 0(x8)
+          addi x9, x0, 1""";
+  
+  private final ObjectMapper streaming  = Serialization.getSerializer();
+  private final ObjectMapper reflective = Serialization.createReflectiveMapper();
+  
+  /**
+   * @brief Compares the serialized state after every cycle of the program
+   */
+  private void assertSameJsonEveryCycle(String code, boolean useCache)
+  {
+    SimulationConfig cfg = ExecuteUtil.getConfig(code);
+    cfg.cpuConfig.useCache = useCache;
+    Cpu cpu = new Cpu(cfg);
+    do
+    {
+      JsonNode expected = reflective.valueToTree(cpu.cpuState);
+      JsonNode actual   = streaming.valueToTree(cpu.cpuState);
+      Assert.assertEquals("Tick " + cpu.cpuState.tick, expected, actual);
+      cpu.step();
+    } while (!cpu.simEnded() && cpu.cpuState.tick < 500);
+    Assert.assertEquals(reflective.valueToTree(cpu.cpuState), streaming.valueToTree(cpu.cpuState));
+  }
+  
+  @Test
+  public void test_loop_sameJsonAsReflection()
+  {
+    assertSameJsonEveryCycle(loopCode, false);
+  }
+  
+  @Test
+  public void test_loopWithCache_sameJsonAsReflection()
+  {
+    assertSameJsonEveryCycle(loopCode, true);
+  }
+  
+  @Test
+  public void test_exception_sameJsonAsReflection()
+  {
+    assertSameJsonEveryCycle(exceptionCode, true);
+  }
+}
@@ -0,0 +1,130 @@
+package com.gradle.superscalarsim.memory;
+
+import com.gradle.superscalarsim.cpu.CheckpointStore;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.CpuState;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LoadStoreQueueTests
+{
+  @Test
+  public void test_forwarding_youngestOlderStore()
+  {
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    cfg.code = """
+            addi x5, x0, 11
+            addi x6, x0, 22
+            sw x5, -16(sp)
+            sw x6, -16(sp)
+            sw x5, -12(sp)
+            lw x7, -16(sp)
+            lw x8, -12(sp)
+            sw x8, -16(sp)
+            lw x9, -16(sp)""";
+    Cpu cpu = new Cpu(cfg);
+    cpu.execute(false);
+    
+    Assert.assertEquals(22, cpu.cpuState.unifiedRegisterFileBlock.getRegister("x7").getLong());
+    Assert.assertEquals(11, cpu.cpuState.unifiedRegisterFileBlock.getRegister("x8").getLong());
+    Assert.assertEquals(11, cpu.cpuState.unifiedRegisterFileBlock.getRegister("x9").getLong());
+  }
+  
+  @Test
+  public void test_conflictingLoad_reexecuted()
+  {
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    // The address of the store is known late, the load runs ahead of it and has to be flushed
+    cfg.code = """
+            addi x5, x0, 4
+            addi x6, x0, 77
+            mul x7, x5, x5
+            mul x7, x7, x0
+            add x8, sp, x7
+            sw x6, -8(x8)
+            lw x9, -8(sp)""";
+    Cpu cpu = new Cpu(cfg);
+    cpu.execute(false);
+    
+    Assert.assertEquals(1, cpu.cpuState.statistics.robFlushes);
+    Assert.assertEquals(77, cpu.cpuState.unifiedRegisterFileBlock.getRegister("x9").getLong());
+  }
+  
+  @Test
+  public void test_doubleWordStore_secondWordLoadReexecuted()
+  {
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    // The data of sd is known late. The load of its second word is forwarded from the older sw,
+    // which sd overwrites with the upper (zero) half.
+    cfg.code = """
+            addi x8, x0, 99
+            sw x8, -12(sp)
+            addi x9, x0, 3
+            mul x9, x9, x9
+            mul x9, x9, x0
+            addi x5, x9, 7
+            sd x5, -16(sp)
+            lw x6, -12(sp)
+            lw x7, -16(sp)""";
+    Cpu cpu = new Cpu(cfg);
+    cpu.execute(false);
+    
+    Assert.assertEquals(0, cpu.cpuState.unifiedRegisterFileBlock.getRegister("x6").getLong());
+    Assert.assertEquals(7, cpu.cpuState.unifiedRegisterFileBlock.getRegister("x7").getLong());
+  }
+  
+  @Test
+  public void test_unalignedStore_crossingWordReexecuted()
+  {
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    // The store writes the bytes 2-5 of the double word, the loads read the upper word and the lower half-word
+    cfg.code = """
+            addi x5, x0, 258
+            slli x5, x5, 8
+            addi x9, x0, 3
+            mul x9, x9, x9
+            mul x9, x9, x0
+            add x5, x5, x9
+            sw x5, -14(sp)
+            lw x6, -12(sp)
+            lh x7, -14(sp)
+            lh x8, -16(sp)""";
+    Cpu cpu = new Cpu(cfg);
+    cpu.execute(false);
+    
+    Assert.assertEquals(1, cpu.cpuState.unifiedRegisterFileBlock.getRegister("x6").getLong());
+    Assert.assertEquals(512, cpu.cpuState.unifiedRegisterFileBlock.getRegister("x7").getLong());
+    Assert.assertEquals(0, cpu.cpuState.unifiedRegisterFileBlock.getRegister("x8").getLong());
+    Assert.assertTrue(cpu.cpuState.statistics.robFlushes > 0);
+  }
+  
+  @Test
+  public void test_restoredQueues_continueIdentically()
+  {
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    cfg.code = """
+            addi x3, x0, 20
+            loop:
+            beq x3, x0, end
+            andi x5, x3, 3
+            slli x5, x5, 2
+            add x6, sp, x5
+            sw x3, -32(x6)
+            lw x7, -32(x6)
+            add x10, x10, x7
+            subi x3, x3, 1
+            jal x0, loop
+            end:""";
+    Cpu cpu = new Cpu(cfg);
+    cpu.simulateState(40);
+    Cpu restored = new Cpu(cfg);
+    restored.cpuState = CheckpointStore.restore(CheckpointStore.snapshot(cpu.cpuState));
+    
+    cpu.execute(false);
+    restored.execute(false);
+    CpuState expected = cpu.cpuState;
+    Assert.assertEquals(210, expected.unifiedRegisterFileBlock.getRegister("x10").getLong());
+    Assert.assertEquals(expected.stateHash(), restored.cpuState.stateHash());
+  }
+}
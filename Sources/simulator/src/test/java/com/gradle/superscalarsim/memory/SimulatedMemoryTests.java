@@ -0,0 +1,47 @@
+package com.gradle.superscalarsim.memory;
+
+import com.gradle.superscalarsim.blocks.loadstore.SimulatedMemory;
+import com.gradle.superscalarsim.cpu.SimulationStatistics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SimulatedMemoryTests
+{
+  private SimulatedMemory memory;
+  
+  @Before
+  public void setup()
+  {
+    memory = new SimulatedMemory(1, 1, new SimulationStatistics(-1, 1));
+  }
+  
+  @Test
+  public void testDistantAccessesAllocateOnlyTouchedPages()
+  {
+    memory.insertIntoMemory(0x10, new byte[]{1, 2});
+    memory.insertIntoMemory(0x7FFF_0000L, new byte[]{3});
+    
+    Assert.assertEquals(2, memory.getPageCount());
+    Assert.assertEquals(0x7FFF_0001, memory.getSize());
+    Assert.assertEquals(3, memory.getFromMemory(0x7FFF_0000L));
+    Assert.assertEquals(0, memory.getFromMemory(0x1000_0000L));
+    
+    // Reading does not allocate
+    Assert.assertEquals(2, memory.getPageCount());
+  }
+  
+  @Test
+  public void testAccessAcrossPageBoundary()
+  {
+    long address = SimulatedMemory.PAGE_SIZE - 2;
+    memory.insertIntoMemory(address, new byte[]{1, 2, 3, 4});
+    
+    Assert.assertArrayEquals(new byte[]{0, 1, 2, 3, 4, 0}, memory.getFromMemory(address - 1, 6));
+    Assert.assertEquals(0x04030201L, memory.readLittleEndian(address, 4));
+    
+    memory.writeLittleEndian(address, 0x1122334455667788L, 8);
+    Assert.assertEquals(0x1122334455667788L, memory.readLittleEndian(address, 8));
+    Assert.assertEquals((byte) 0x88, memory.getFromMemory(address));
+  }
+}
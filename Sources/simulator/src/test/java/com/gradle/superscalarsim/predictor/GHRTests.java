@@ -73,6 +73,31 @@ public class GHRTests
     Assert.assertEquals(0b10101010, ghr.getArchitecturalState());
   }
   
+  @Test
+  public void testGHRFlushAndFix()
+  {
+    GlobalHistoryRegister ghr = new GlobalHistoryRegister(8);
+    // More branches in flight than the initial capacity of the history
+    for (int i = 0; i < 40; i++)
+    {
+      ghr.shiftValue(i % 3 == 0, i);
+    }
+    Assert.assertEquals(0b01001001, ghr.getRegisterValue());
+    
+    // Branch 5 was mispredicted, younger branches are flushed
+    ghr.flush(5);
+    Assert.assertEquals(0b100100, ghr.getRegisterValue());
+    ghr.fixPrediction(true, 5);
+    Assert.assertEquals(0b100101, ghr.getRegisterValue());
+    
+    ghr.commit(5);
+    Assert.assertEquals(0b100101, ghr.getArchitecturalState());
+    ghr.shiftValue(true, 6);
+    Assert.assertEquals(0b1001011, ghr.getRegisterValue());
+    ghr.flush(-1);
+    Assert.assertEquals(0b100101, ghr.getRegisterValue());
+  }
+  
   @Test
   public void testGhrMarksBranch()
   {
@@ -135,7 +160,7 @@ public class GHRTests
     int branchPc = 8;
     
     cpu.step();
-    BitPredictor predictor = cpu.cpuState.gShareUnit.getPredictor(branchPc);
+    int predictorIndex = cpu.cpuState.gShareUnit.getPredictorIndex(branchPc);
     
     while (cpu.cpuState.statistics.committedInstructions < 3)
     {
@@ -143,8 +168,8 @@ public class GHRTests
     }
     
     // BNE committed, new history, new predictor
-    BitPredictor predictor2 = cpu.cpuState.gShareUnit.getPredictor(branchPc);
-    Assert.assertNotEquals(predictor, predictor2);
+    int predictorIndex2 = cpu.cpuState.gShareUnit.getPredictorIndex(branchPc);
+    Assert.assertNotEquals(predictorIndex, predictorIndex2);
   }
   
   // TODO: more tests, once the details of GHR are consulted
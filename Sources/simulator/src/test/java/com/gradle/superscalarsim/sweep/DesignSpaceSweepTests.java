@@ -0,0 +1,128 @@
+/**
+ * @file DesignSpaceSweepTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for the parallel design-space sweep
+ * @date 17 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.sweep;
+
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.ExecuteUtil;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.cpu.StopReason;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class DesignSpaceSweepTests
+{
+  private static SimulationConfig createBaseConfig()
+  {
+    return ExecuteUtil.getConfig(ExecuteUtil.getMemoryLoopProgram(20));
+  }
+  
+  @Test
+  public void test_expandGrid_allCombinations()
+  {
+    Map<String, List<Object>> grid = new LinkedHashMap<>();
+    grid.put("robSize", List.of(16, 64));
+    grid.put("fetchWidth", List.of(1, 2, 4));
+    
+    List<Map<String, Object>> variants = DesignSpaceSweep.expandGrid(grid);
+    
+    Assert.assertEquals(6, variants.size());
+    Assert.assertEquals(Map.of("robSize", 16, "fetchWidth", 1), variants.get(0));
+    Assert.assertEquals(Map.of("robSize", 16, "fetchWidth", 2), variants.get(1));
+    Assert.assertEquals(Map.of("robSize", 64, "fetchWidth", 4), variants.get(5));
+  }
+  
+  /**
+   * Every variant must produce the same result as a standalone run of the same configuration
+   */
+  @Test
+  public void test_run_sameAsSequentialRuns() throws Exception
+  {
+    Map<String, List<Object>> grid = new LinkedHashMap<>();
+    grid.put("robSize", List.of(4, 256));
+    grid.put("fetchWidth", List.of(1, 3));
+    grid.put("useCache", List.of(false, true));
+    DesignSpaceSweep sweep = new DesignSpaceSweep(createBaseConfig(), DesignSpaceSweep.expandGrid(grid), 4);
+    
+    List<SweepResult> results = Collections.synchronizedList(new ArrayList<>());
+    sweep.run(results::add);
+    
+    Assert.assertEquals(8, results.size());
+    Set<Integer> indexes = new HashSet<>();
+    for (SweepResult result : results)
+    {
+      Assert.assertNull(result.error());
+      Assert.assertTrue(indexes.add(result.index()));
+      
+      Cpu cpu = new Cpu(sweep.createConfig(result.index()));
+      cpu.execute(false);
+      Assert.assertEquals(cpu.stopReason, result.stopReason());
+      Assert.assertEquals(cpu.cpuState.statistics.clockCycles, result.clockCycles());
+      Assert.assertEquals(cpu.cpuState.statistics.committedInstructions, result.committedInstructions());
+      Assert.assertEquals(cpu.cpuState.statistics.cache.getHitRate(), result.cacheHitRate(), 0);
+    }
+  }
+  
+  @Test
+  public void test_createConfig_doesNotModifyBase()
+  {
+    SimulationConfig base  = createBaseConfig();
+    DesignSpaceSweep sweep = new DesignSpaceSweep(base, List.of(Map.of("robSize", 8)), 1);
+    
+    SimulationConfig variant = sweep.createConfig(0);
+    
+    Assert.assertEquals(8, variant.cpuConfig.robSize);
+    Assert.assertNotEquals(8, base.cpuConfig.robSize);
+    Assert.assertNotSame(base.cpuConfig.fUnits, variant.cpuConfig.fUnits);
+    Assert.assertEquals(base.code, variant.code);
+  }
+  
+  @Test
+  public void test_unknownField_throws()
+  {
+    Assert.assertThrows(IllegalArgumentException.class,
+                        () -> new DesignSpaceSweep(createBaseConfig(), List.of(Map.of("robSizee", 8)), 1));
+  }
+  
+  @Test
+  public void test_invalidVariant_reportedAsBadConfig() throws Exception
+  {
+    DesignSpaceSweep sweep = new DesignSpaceSweep(createBaseConfig(),
+                                                  List.of(Map.of("robSize", 0), Map.of("robSize", 32)), 2);
+    
+    List<SweepResult> results = new ArrayList<>();
+    sweep.run(results::add);
+    results.sort(Comparator.comparingInt(SweepResult::index));
+    
+    Assert.assertEquals(StopReason.kBadConfig, results.get(0).stopReason());
+    Assert.assertNotNull(results.get(0).error());
+    Assert.assertNull(results.get(1).error());
+    Assert.assertEquals(StopReason.kEndOfCode, results.get(1).stopReason());
+  }
+}